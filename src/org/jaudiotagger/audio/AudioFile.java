@@ -7,14 +7,20 @@ import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
 import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.generic.AudioDataDigest;
 import org.jaudiotagger.audio.generic.Permissions;
+import org.jaudiotagger.audio.ogg.util.OggInfoReader;
 import org.jaudiotagger.audio.real.RealTag;
 import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.*;
 import org.jaudiotagger.tag.reference.ID3V2Version;
 import org.jaudiotagger.tag.wav.WavTag;
+import org.jaudiotagger.logging.AbstractTagDisplayFormatter;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagTextField;
 import org.jaudiotagger.tag.aiff.AiffTag;
 import org.jaudiotagger.tag.asf.AsfTag;
 import org.jaudiotagger.tag.flac.FlacTag;
@@ -23,10 +29,18 @@ import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 /**
@@ -46,6 +60,17 @@ public class AudioFile
     //Logger
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio");
 
+    /* Read the audio header, otherwise getAudioHeader() returns null */
+    public static final int READ_AUDIO_HEADER = 1;
+
+    /* Read the tag, otherwise getTag() returns null */
+    public static final int READ_TAG = 2;
+
+    /* Keep artwork fields when reading the tag */
+    public static final int READ_ARTWORK = 4;
+
+    public static final int READ_ALL = READ_AUDIO_HEADER | READ_TAG | READ_ARTWORK;
+
     /**
      *
      * The physical file that this instance represents.
@@ -67,6 +92,16 @@ public class AudioFile
      */
     protected String extension;
 
+    /**
+     * Options the file was read with, if not the default options
+     */
+    protected TagOptions tagOptions;
+
+    /**
+     * True if not everything was read, see {@link TagOptionSingleton#setReadOptions(int)}
+     */
+    protected boolean partiallyRead;
+
     public AudioFile()
     {
 
@@ -83,6 +118,7 @@ public class AudioFile
     public AudioFile(File f, AudioHeader audioHeader, Tag tag)
     {
         this.file = f;
+        this.partiallyRead = TagOptionSingleton.getInstance().isPartialRead();
         this.audioHeader = audioHeader;
         this.tag = tag;
     }
@@ -99,6 +135,7 @@ public class AudioFile
     public AudioFile(String s, AudioHeader audioHeader, Tag tag)
     {
         this.file = new File(s);
+        this.partiallyRead = TagOptionSingleton.getInstance().isPartialRead();
         this.audioHeader = audioHeader;
         this.tag = tag;
     }
@@ -115,6 +152,32 @@ public class AudioFile
         AudioFileIO.write(this);
     }
 
+    /**
+     * @return the options this file is read and written with, or null if using the default options
+     */
+    public TagOptions getTagOptions()
+    {
+        return tagOptions;
+    }
+
+    /**
+     * Set the options to use when writing this file
+     *
+     * @param tagOptions options, or null to use the default options
+     */
+    public void setTagOptions(TagOptions tagOptions)
+    {
+        this.tagOptions = tagOptions;
+    }
+
+    /**
+     * @return true if the file was read without the audio header, tag, artwork or all of its fields so cannot be written
+     */
+    public boolean isPartiallyRead()
+    {
+        return partiallyRead;
+    }
+
     /**
      * <p>Delete any tags that exist in the fie , this is the same as calling the <code>AudioFileIO.delete(this)</code> method.
      *
@@ -198,6 +261,100 @@ public class AudioFile
         return tag;
     }
 
+    /**
+     * Calculate hash of the audio data only, so it is not changed by modifying the metadata and can be used to
+     * find duplicates of the same audio.
+     *
+     * <p>Uses {@link AudioHeader#getAudioDataStartPosition()} and {@link AudioHeader#getAudioDataEndPosition()}
+     * so the file should not have been modified since it was read. For Ogg only the data of each page is hashed and
+     * not the page headers, because the pages are renumbered if a tag is written that needs a different number of
+     * header pages.
+     *
+     * @param algorithm such as MD5 or SHA-256
+     * @return hash
+     * @throws CannotReadException if the position of the audio data is not known for this file
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    public byte[] getAudioHash(String algorithm) throws CannotReadException, IOException, NoSuchAlgorithmException
+    {
+        checkAudioDataPosition();
+        return AudioDataDigest.digest(file, getAudioDataRegions(), algorithm);
+    }
+
+    /**
+     * Calculate hash of the audio data only as a two level tree, the audio data is split into chunks that are
+     * hashed in parallel by the executor and these hashes are then hashed together. This allows large files to be
+     * hashed at the speed of the disk rather than of a single core, but gives a different value to
+     * {@link #getAudioHash(String)}.
+     *
+     * @param algorithm such as MD5 or SHA-256
+     * @param chunkSize hashes can only be compared if calculated with the same chunk size
+     * @param executor
+     * @return hash
+     * @throws CannotReadException if the position of the audio data is not known for this file
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    public byte[] getAudioTreeHash(String algorithm, int chunkSize, ExecutorService executor) throws CannotReadException, IOException, NoSuchAlgorithmException
+    {
+        checkAudioDataPosition();
+        return AudioDataDigest.treeDigest(file, getAudioDataRegions(), algorithm, chunkSize, executor);
+    }
+
+    /**
+     * @return start and end of each region of the file to hash in turn
+     * @throws IOException
+     */
+    private long[] getAudioDataRegions() throws IOException
+    {
+        long start = audioHeader.getAudioDataStartPosition();
+        long end = audioHeader.getAudioDataEndPosition();
+        if (SupportedFileFormat.OGG.getDisplayName().equals(audioHeader.getFormat()))
+        {
+            try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+            {
+                return OggInfoReader.readPageDataRegions(fc, start, end);
+            }
+        }
+        return new long[]{start, end};
+    }
+
+    /**
+     * Calculate hash of the audio data only as a two level tree using {@link AudioDataDigest#DEFAULT_CHUNK_SIZE},
+     * with a thread for each processor.
+     *
+     * @param algorithm such as MD5 or SHA-256
+     * @return hash
+     * @throws CannotReadException if the position of the audio data is not known for this file
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    public byte[] getAudioTreeHash(String algorithm) throws CannotReadException, IOException, NoSuchAlgorithmException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try
+        {
+            return getAudioTreeHash(algorithm, AudioDataDigest.DEFAULT_CHUNK_SIZE, executor);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void checkAudioDataPosition() throws CannotReadException
+    {
+        if (audioHeader == null || audioHeader.getAudioDataStartPosition() == null || audioHeader.getAudioDataEndPosition() == null)
+        {
+            throw new CannotReadException(ErrorMessage.AUDIO_DATA_POSITION_UNKNOWN.getMsg(file));
+        }
+        if (audioHeader.getAudioDataEndPosition() > file.length())
+        {
+            throw new CannotReadException(ErrorMessage.AUDIO_DATA_POSITION_BEYOND_END_OF_FILE.getMsg(file, audioHeader.getAudioDataEndPosition(), file.length()));
+        }
+    }
+
     /**
      * <p>Returns a multi-line string with the file path, the encoding audioHeader, and the tag contents.
      *
@@ -286,6 +443,69 @@ public class AudioFile
         return "";
     }
 
+    /**
+     * Write the structure of the file to writer as it is built rather than building it all in memory first,
+     * the writer is flushed but not closed
+     *
+     * @param writer
+     * @param format
+     * @throws IOException if unable to write to writer
+     */
+    public void displayStructure(Writer writer, AbstractTagDisplayFormatter.Format format) throws IOException
+    {
+        AbstractTagDisplayFormatter formatter = format.createFormatter(writer);
+        createStructure(formatter);
+        if (formatter.getError() != null)
+        {
+            throw formatter.getError();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Write the structure of the file using the formatter, by default the audio header and the fields of the tag,
+     * formats with a more detailed structure can override.
+     *
+     * @param formatter
+     */
+    protected void createStructure(AbstractTagDisplayFormatter formatter)
+    {
+        formatter.openHeadingElement("file", file.getAbsolutePath());
+        if (audioHeader != null)
+        {
+            formatter.openHeadingElement("header", "");
+            formatter.addElement("format", audioHeader.getFormat());
+            formatter.addElement("encodingType", audioHeader.getEncodingType());
+            formatter.addElement("bitRate", audioHeader.getBitRate());
+            formatter.addElement("sampleRate", audioHeader.getSampleRate());
+            formatter.addElement("channels", audioHeader.getChannels());
+            formatter.addElement("trackLength", audioHeader.getTrackLength());
+            formatter.addElement("variableBitRate", audioHeader.isVariableBitRate());
+            formatter.closeHeadingElement("header");
+        }
+        if (tag != null)
+        {
+            formatter.openHeadingElement("tag", tag.getClass().getSimpleName());
+            Iterator<TagField> fields = tag.getFields();
+            while (fields.hasNext())
+            {
+                TagField field = fields.next();
+                formatter.openHeadingElement("field", field.getId());
+                if (field instanceof TagTextField)
+                {
+                    formatter.addElement("value", ((TagTextField) field).getContent());
+                }
+                else
+                {
+                    formatter.addElement("value", field.toString());
+                }
+                formatter.closeHeadingElement("field");
+            }
+            formatter.closeHeadingElement("tag");
+        }
+        formatter.closeHeadingElement("file");
+    }
+
 
     /** Create Default Tag
      *
@@ -43,10 +43,12 @@ import org.jaudiotagger.audio.wav.WavFileReader;
 import org.jaudiotagger.audio.wav.WavFileWriter;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -105,7 +107,7 @@ public class AudioFileIO
     /**
      * This field contains the default instance for static use.
      */
-    private static AudioFileIO defaultInstance;
+    private static volatile AudioFileIO defaultInstance;
 
     /**
      *
@@ -131,7 +133,13 @@ public class AudioFileIO
     {
         if (defaultInstance == null)
         {
-            defaultInstance = new AudioFileIO();
+            synchronized (AudioFileIO.class)
+            {
+                if (defaultInstance == null)
+                {
+                    defaultInstance = new AudioFileIO();
+                }
+            }
         }
         return defaultInstance;
     }
@@ -197,6 +205,55 @@ public class AudioFileIO
       return getDefaultAudioFileIO().readFile(f);
   }
 
+    /**
+     *
+     * Read the tag contained in the given file using the given options rather than the default
+     * TagOptionSingleton, the options are kept with the AudioFile and used when it is written.
+     *
+     *
+     * @param f The file to read.
+     * @param tagOptions The options to read with.
+     * @return The AudioFile with the file tag and the file encoding info.
+     * @throws org.jaudiotagger.audio.exceptions.CannotReadException If the file could not be read, the extension wasn't
+     *                             recognized, or an IO error occurred during the read.
+     * @throws org.jaudiotagger.tag.TagException
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws java.io.IOException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public static AudioFile read(File f, TagOptions tagOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        TagOptions.Scope scope = tagOptions.apply();
+        try
+        {
+            AudioFile audioFile = getDefaultAudioFileIO().readFile(f);
+            audioFile.setTagOptions(tagOptions);
+            return audioFile;
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
+    /**
+     *
+     * Read every audio file below root in parallel, passing the result for each file to the callback. Files that
+     * cannot be read are passed to the callback with the exception rather than stopping the scan.
+     *
+     *
+     * @param root The directory to scan.
+     * @param options Which files are read and how.
+     * @param callback Receives each result, it is called from the threads reading the files.
+     * @return The number of results passed to the callback.
+     * @throws java.io.IOException If the root cannot be walked or the scan is interrupted.
+     */
+    public static long scan(Path root, ScanOptions options, ScanCallback callback) throws IOException
+    {
+        return new AudioFileScanner(options, callback).scan(root);
+    }
+
     /**
      *
      * Write the tag contained in the audioFile in the actual file on the disk.
@@ -209,9 +266,39 @@ public class AudioFileIO
      */
     public static void write(AudioFile f) throws CannotWriteException
     {
+        if (f.getTagOptions() != null)
+        {
+            write(f, f.getTagOptions());
+            return;
+        }
         getDefaultAudioFileIO().writeFile(f,null);
     }
 
+    /**
+     *
+     * Write the tag contained in the audioFile in the actual file on the disk using the given options rather than
+     * the default TagOptionSingleton.
+     *
+     *
+     * @param f The AudioFile to be written
+     * @param tagOptions The options to write with.
+     * @throws NoWritePermissionsException if the file could not be written to due to file permissions
+     * @throws CannotWriteException If the file could not be written/accessed, the extension
+     *                              wasn't recognized, or other IO error occurred.
+     */
+    public static void write(AudioFile f, TagOptions tagOptions) throws CannotWriteException
+    {
+        TagOptions.Scope scope = tagOptions.apply();
+        try
+        {
+            getDefaultAudioFileIO().writeFile(f,null);
+        }
+        finally
+        {
+            scope.close();
+        }
+    }
+
     /**
     *
     * Write the tag contained in the audioFile in the actual file on the disk.
@@ -468,6 +555,11 @@ public class AudioFileIO
     {
     	String ext = f.getExt();
 
+        if (f.isPartiallyRead())
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTIALLY_READ.getMsg(f.getFile()));
+        }
+
         if (targetPath != null && !targetPath.isEmpty())
         {
             final File destination = new File(targetPath + "." + ext);
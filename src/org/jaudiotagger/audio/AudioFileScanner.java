@@ -0,0 +1,205 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.tag.TagOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Walks a directory tree reading each audio file on an executor, used by
+ * {@link AudioFileIO#scan(Path, ScanOptions, ScanCallback)}
+ *
+ * The walk is throttled by a semaphore so that no more than {@link ScanOptions#getMaxInFlight()} files are waiting to
+ * be read or being read, this keeps memory use constant however large the tree is.
+ */
+class AudioFileScanner
+{
+    private final ScanOptions options;
+    private final ScanCallback callback;
+    private final TagOptions tagOptions;
+    private final Semaphore inFlight;
+    private final AtomicLong count = new AtomicLong();
+
+    AudioFileScanner(ScanOptions options, ScanCallback callback)
+    {
+        this.options = options;
+        this.callback = callback;
+        this.tagOptions = options.getTagOptions() != null ? options.getTagOptions() : TagOptions.current();
+        this.inFlight = new Semaphore(options.getMaxInFlight());
+    }
+
+    /**
+     * @param root
+     * @return number of files passed to the callback
+     * @throws IOException if the root cannot be walked, or the scan is interrupted
+     */
+    long scan(Path root) throws IOException
+    {
+        //Create readers before any thread needs them
+        AudioFileIO.getDefaultAudioFileIO();
+
+        boolean ownExecutor = options.getExecutor() == null;
+        ExecutorService executor = ownExecutor ? Executors.newFixedThreadPool(options.getThreads()) : options.getExecutor();
+        boolean interrupted = false;
+        try
+        {
+            Set<FileVisitOption> visitOptions = options.isFollowLinks() ? EnumSet.of(FileVisitOption.FOLLOW_LINKS) : Collections.<FileVisitOption>emptySet();
+            Files.walkFileTree(root, visitOptions, Integer.MAX_VALUE, new Visitor(executor));
+        }
+        catch (InterruptedIOException iioe)
+        {
+            interrupted = true;
+            throw iioe;
+        }
+        finally
+        {
+            //Wait for files already submitted unless interrupted
+            if (interrupted)
+            {
+                if (ownExecutor)
+                {
+                    executor.shutdownNow();
+                }
+            }
+            else
+            {
+                try
+                {
+                    inFlight.acquire(options.getMaxInFlight());
+                    inFlight.release(options.getMaxInFlight());
+                }
+                catch (InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                    if (ownExecutor)
+                    {
+                        executor.shutdownNow();
+                    }
+                    throw new InterruptedIOException(root + ":Interrupted waiting for scan to complete");
+                }
+                if (ownExecutor)
+                {
+                    executor.shutdown();
+                }
+            }
+        }
+        return count.get();
+    }
+
+    private void submit(ExecutorService executor, final File file) throws InterruptedIOException
+    {
+        try
+        {
+            inFlight.acquire();
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(file + ":Interrupted waiting to read file");
+        }
+
+        try
+        {
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        read(file);
+                    }
+                    finally
+                    {
+                        inFlight.release();
+                    }
+                }
+            });
+        }
+        catch (RuntimeException re)
+        {
+            //Rejected by executor
+            inFlight.release();
+            report(new ScanResult(file, null, re));
+        }
+    }
+
+    private void read(File file)
+    {
+        ScanResult result;
+        try
+        {
+            result = new ScanResult(file, AudioFileIO.read(file, tagOptions), null);
+        }
+        catch (Exception e)
+        {
+            result = new ScanResult(file, null, e);
+        }
+        report(result);
+    }
+
+    private void report(ScanResult result)
+    {
+        count.incrementAndGet();
+        try
+        {
+            callback.scanned(result);
+        }
+        catch (RuntimeException re)
+        {
+            AudioFileIO.logger.log(Level.WARNING, result.getFile() + ":Scan callback failed:" + re.getMessage(), re);
+        }
+    }
+
+    private class Visitor extends SimpleFileVisitor<Path>
+    {
+        private final ExecutorService executor;
+
+        Visitor(ExecutorService executor)
+        {
+            this.executor = executor;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException
+        {
+            File file = path.toFile();
+            if (attrs.isRegularFile() && options.getFileFilter().accept(file))
+            {
+                submit(executor, file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path path, IOException ioe)
+        {
+            report(new ScanResult(path.toFile(), null, ioe));
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException ioe)
+        {
+            if (ioe != null)
+            {
+                report(new ScanResult(dir.toFile(), null, ioe));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.jaudiotagger.audio;
+
+/**
+ * Receives the result for each file read by {@link AudioFileIO#scan(java.nio.file.Path, ScanOptions, ScanCallback)}
+ *
+ * <p>It is called from the threads reading the files so must be thread safe, results are not in any particular order.
+ */
+public interface ScanCallback
+{
+    /**
+     * @param result
+     */
+    void scanned(ScanResult result);
+}
@@ -0,0 +1,107 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.tag.TagOptions;
+
+import java.io.FileFilter;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Options for {@link AudioFileIO#scan(java.nio.file.Path, ScanOptions, ScanCallback)}
+ *
+ * <p>By default all files accepted by {@link AudioFileFilter} are read using a fixed pool with one thread per
+ * processor, and up to four files per thread are queued at any one time.
+ */
+public class ScanOptions
+{
+    //Files that are read, directories are always walked
+    private FileFilter fileFilter = new AudioFileFilter(false);
+
+    //Executor that reads the files, if null a fixed thread pool is created for the scan and shut down afterwards
+    private ExecutorService executor;
+
+    //Number of threads used if no executor is set
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    //Maximum number of files submitted but not yet read, the walk waits when this is reached
+    private int maxInFlight = Runtime.getRuntime().availableProcessors() * 4;
+
+    //Options used to read the files, if null the options in force for the calling thread when the scan starts
+    private TagOptions tagOptions;
+
+    //Whether symbolic links to directories are followed
+    private boolean followLinks = false;
+
+    public FileFilter getFileFilter()
+    {
+        return fileFilter;
+    }
+
+    public void setFileFilter(FileFilter fileFilter)
+    {
+        this.fileFilter = fileFilter;
+    }
+
+    public ExecutorService getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Set executor used to read the files, it is not shut down by the scan. On a JDK that supports them an executor
+     * with a virtual thread per task can be used.
+     *
+     * @param executor
+     */
+    public void setExecutor(ExecutorService executor)
+    {
+        this.executor = executor;
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    public void setThreads(int threads)
+    {
+        if (threads <= 0)
+        {
+            throw new IllegalArgumentException("Invalid number of threads:" + threads);
+        }
+        this.threads = threads;
+    }
+
+    public int getMaxInFlight()
+    {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight)
+    {
+        if (maxInFlight <= 0)
+        {
+            throw new IllegalArgumentException("Invalid maximum files in flight:" + maxInFlight);
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    public TagOptions getTagOptions()
+    {
+        return tagOptions;
+    }
+
+    public void setTagOptions(TagOptions tagOptions)
+    {
+        this.tagOptions = tagOptions;
+    }
+
+    public boolean isFollowLinks()
+    {
+        return followLinks;
+    }
+
+    public void setFollowLinks(boolean followLinks)
+    {
+        this.followLinks = followLinks;
+    }
+}
@@ -0,0 +1,51 @@
+package org.jaudiotagger.audio;
+
+import java.io.File;
+
+/**
+ * Result of reading one file during a scan, either the AudioFile or the exception that prevented it being read
+ */
+public class ScanResult
+{
+    private final File file;
+    private final AudioFile audioFile;
+    private final Exception exception;
+
+    ScanResult(File file, AudioFile audioFile, Exception exception)
+    {
+        this.file = file;
+        this.audioFile = audioFile;
+        this.exception = exception;
+    }
+
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return the file read, or null if it could not be read
+     */
+    public AudioFile getAudioFile()
+    {
+        return audioFile;
+    }
+
+    /**
+     * @return why the file could not be read, or null if it was read
+     */
+    public Exception getException()
+    {
+        return exception;
+    }
+
+    public boolean isSuccess()
+    {
+        return exception == null;
+    }
+
+    public String toString()
+    {
+        return file + (exception == null ? ":read" : ":" + exception.getMessage());
+    }
+}
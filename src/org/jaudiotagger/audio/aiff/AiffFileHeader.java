@@ -5,6 +5,7 @@ import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
 import org.jaudiotagger.logging.Hex;
+import org.jaudiotagger.utils.DirectByteBufferPool;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -49,30 +50,37 @@ public class AiffFileHeader
      */
     public long readHeader(FileChannel fc, final AiffAudioHeader aiffAudioHeader) throws IOException, CannotReadException
     {
-        final ByteBuffer headerData = ByteBuffer.allocateDirect(FORM_HEADER_LENGTH);
-        headerData.order(BIG_ENDIAN);
-        final int bytesRead = fc.read(headerData);
-        headerData.position(0);
-
-        if (bytesRead < FORM_HEADER_LENGTH)
+        final ByteBuffer headerData = DirectByteBufferPool.acquire(FORM_HEADER_LENGTH);
+        try
         {
-            throw new IOException(loggingName + ":AIFF:Unable to read required number of databytes read:" + bytesRead + ":required:" + FORM_HEADER_LENGTH);
-        }
+            headerData.order(BIG_ENDIAN);
+            final int bytesRead = fc.read(headerData);
+            headerData.position(0);
 
-        final String signature = Utils.readFourBytesAsChars(headerData);
-        if(FORM.equals(signature))
-        {
-            // read chunk size
-            final long chunkSize  = headerData.getInt();
-            logger.config(loggingName + ":Reading AIFF header size:" + Hex.asDecAndHex(chunkSize)
-                    +":File Size Should End At:"+ Hex.asDecAndHex(chunkSize + ChunkHeader.CHUNK_HEADER_SIZE));
+            if (bytesRead < FORM_HEADER_LENGTH)
+            {
+                throw new IOException(loggingName + ":AIFF:Unable to read required number of databytes read:" + bytesRead + ":required:" + FORM_HEADER_LENGTH);
+            }
 
-            readFileType(headerData, aiffAudioHeader);
-            return chunkSize;
+            final String signature = Utils.readFourBytesAsChars(headerData);
+            if(FORM.equals(signature))
+            {
+                // read chunk size
+                final long chunkSize  = headerData.getInt();
+                logger.config(loggingName + ":Reading AIFF header size:" + Hex.asDecAndHex(chunkSize)
+                        +":File Size Should End At:"+ Hex.asDecAndHex(chunkSize + ChunkHeader.CHUNK_HEADER_SIZE));
+
+                readFileType(headerData, aiffAudioHeader);
+                return chunkSize;
+            }
+            else
+            {
+                throw new CannotReadException(loggingName + ":Not an AIFF file: incorrect signature " + signature);
+            }
         }
-        else
+        finally
         {
-            throw new CannotReadException(loggingName + ":Not an AIFF file: incorrect signature " + signature);
+            DirectByteBufferPool.release(headerData);
         }
     }
 
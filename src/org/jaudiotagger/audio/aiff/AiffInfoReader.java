@@ -5,6 +5,7 @@ import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.aiff.chunk.*;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
@@ -32,7 +33,7 @@ public class AiffInfoReader extends AiffChunkReader
 
     protected GenericAudioHeader read(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = MappedFileChannel.openForRead(file))
         {
             logger.config(loggingName + ":Reading AIFF file size:" + Hex.asDecAndHex(fc.size()));
             AiffAudioHeader info = new AiffAudioHeader();
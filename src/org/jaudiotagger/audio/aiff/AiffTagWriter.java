@@ -14,6 +14,7 @@ import org.jaudiotagger.logging.Hex;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.aiff.AiffTag;
+import org.jaudiotagger.utils.DirectByteBufferPool;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -236,14 +237,23 @@ public class AiffTagWriter
     private void deleteTagChunkUsingSmallByteBufferSegments(final AiffTag existingTag, final FileChannel channel, final long newLength, final long lengthTagChunk)
             throws IOException
     {
-        final ByteBuffer buffer = ByteBuffer.allocateDirect((int)TagOptionSingleton.getInstance().getWriteChunkSize());
-        while (channel.read(buffer) >= 0 || buffer.position() != 0) {
-            buffer.flip();
-            final long readPosition = channel.position();
-            channel.position(readPosition-lengthTagChunk-buffer.limit());
-            channel.write(buffer);
-            channel.position(readPosition);
-            buffer.compact();
+        //No need for a buffer larger than the data to be moved
+        final long toMove = Math.max(1, channel.size() - channel.position());
+        final ByteBuffer buffer = DirectByteBufferPool.acquire((int) Math.min(toMove, TagOptionSingleton.getInstance().getWriteChunkSize()));
+        try
+        {
+            while (channel.read(buffer) >= 0 || buffer.position() != 0) {
+                buffer.flip();
+                final long readPosition = channel.position();
+                channel.position(readPosition-lengthTagChunk-buffer.limit());
+                channel.write(buffer);
+                channel.position(readPosition);
+                buffer.compact();
+            }
+        }
+        finally
+        {
+            DirectByteBufferPool.release(buffer);
         }
     }
 
@@ -327,7 +337,7 @@ public class AiffTagWriter
                 fc.position(fc.size());
                 if (Utils.isOddLength(fc.size()))
                 {
-                    fc.write(ByteBuffer.allocateDirect(1));
+                    Utils.writeZeros(fc, 1);
                 }
                 writeDataToFile(fc, bb);
             }
@@ -353,7 +363,7 @@ public class AiffTagWriter
     private void rewriteRiffHeaderSize(FileChannel fc) throws IOException {
 
         fc.position(IffHeaderChunk.SIGNATURE_LENGTH);
-        ByteBuffer bb = ByteBuffer.allocateDirect(IffHeaderChunk.SIZE_LENGTH);
+        ByteBuffer bb = ByteBuffer.allocate(IffHeaderChunk.SIZE_LENGTH);
         bb.order(ByteOrder.BIG_ENDIAN);
         int size = ((int) fc.size()) - ChunkHeader.CHUNK_HEADER_SIZE;
         bb.putInt(size);
@@ -394,7 +404,7 @@ public class AiffTagWriter
     {
         if(Utils.isOddLength(size))
         {
-            fc.write(ByteBuffer.allocateDirect(1));
+            Utils.writeZeros(fc, 1);
         }
     }
 
@@ -22,6 +22,7 @@ import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.AudioStreamChunk;
+import org.jaudiotagger.audio.asf.data.GUID;
 import org.jaudiotagger.audio.asf.data.MetadataContainer;
 import org.jaudiotagger.audio.asf.data.MetadataDescriptor;
 import org.jaudiotagger.audio.asf.io.*;
@@ -34,9 +35,13 @@ import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.asf.AsfTag;
 
 import java.io.*;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
@@ -54,6 +59,11 @@ public class AsfFileReader extends AudioFileReader
      */
     private final static Logger LOGGER = Logger.getLogger("org.jaudiotagger.audio.asf");
 
+    /**
+     * Length of the data chunk header (GUID, length, file id, total data packets and reserved) before the packets
+     */
+    private final static int DATA_CHUNK_HEADER_LENGTH = 50;
+
     /**
      * This reader will be configured to read tag and audio header information.<br>
      */
@@ -169,6 +179,30 @@ public class AsfFileReader extends AudioFileReader
         return info;
     }
 
+    /**
+     * The data chunk containing the audio packets follows the header, so if the whole header has been read the
+     * stream is now at the start of it.
+     *
+     * @param header header read from stream
+     * @param stream positioned at the end of the header
+     * @param info to set audio data position of
+     * @throws IOException
+     */
+    private void readDataChunkPosition(final AsfHeader header, final InputStream stream, final GenericAudioHeader info) throws IOException
+    {
+        final long dataChunkStart = header.getChunkEnd();
+        if (GUID.GUID_DATA.equals(Utils.readGUID(stream)))
+        {
+            final BigInteger dataChunkLen = Utils.readBig64(stream);
+            info.setAudioDataStartPosition(dataChunkStart + DATA_CHUNK_HEADER_LENGTH);
+            info.setAudioDataEndPosition(dataChunkStart + dataChunkLen.longValue());
+        }
+        else
+        {
+            LOGGER.warning("Data chunk not found at end of header:" + dataChunkStart);
+        }
+    }
+
     /**
      * Creates a tag instance with provided data from header.
      *
@@ -238,10 +272,11 @@ public class AsfFileReader extends AudioFileReader
                 throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_DO_NOT_HAVE_PERMISSION_TO_READ_FILE.getMsg(f.getAbsolutePath()));
             }
         }
-        InputStream stream = null;
+        FileChannel channel = null;
         try
         {
-            stream = new FullRequestInputStream(new BufferedInputStream(new FileInputStream(f)));
+            channel = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+            final InputStream stream = new FileChannelInputStream(channel, 0);
             final AsfHeader header = HEADER_READER.read(Utils.readGUID(stream), stream, 0);
             if (header == null)
             {
@@ -258,7 +293,24 @@ public class AsfFileReader extends AudioFileReader
                 logger.warning(ErrorMessage.ASF_FILE_HEADER_SIZE_DOES_NOT_MATCH_FILE_SIZE.getMsg(f.getAbsolutePath(), header.getFileHeader().getFileSize().longValue(), f.length()));
             }
 
-            return new AudioFile(f, getAudioHeader(header), getTag(header));
+            //Header and tag are held in the same ASF header object so it is always read in full
+            final int readOptions = TagOptionSingleton.getInstance().getReadOptions();
+            GenericAudioHeader audioHeader = null;
+            if ((readOptions & AudioFile.READ_AUDIO_HEADER) != 0)
+            {
+                audioHeader = getAudioHeader(header);
+                readDataChunkPosition(header, stream, audioHeader);
+            }
+            AsfTag tag = null;
+            if ((readOptions & AudioFile.READ_TAG) != 0)
+            {
+                tag = getTag(header);
+                if ((readOptions & AudioFile.READ_ARTWORK) == 0)
+                {
+                    tag.deleteArtworkField();
+                }
+            }
+            return new AudioFile(f, audioHeader, tag);
 
         }
         catch (final CannotReadException e)
@@ -273,9 +325,9 @@ public class AsfFileReader extends AudioFileReader
         {
             try
             {
-                if (stream != null)
+                if (channel != null)
                 {
-                    stream.close();
+                    channel.close();
                 }
             }
             catch (final Exception ex)
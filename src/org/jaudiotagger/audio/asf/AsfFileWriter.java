@@ -26,11 +26,14 @@ import org.jaudiotagger.audio.asf.io.*;
 import org.jaudiotagger.audio.asf.util.TagConverter;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.generic.RegionReplacement;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.asf.AsfTag;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -87,6 +90,36 @@ public class AsfFileWriter extends AudioFileWriter
          * for each descriptor type, if an object is found, an updater will be
          * configured.
          */
+        final List<ChunkModifier> headerModifier = createHeaderModifiers(tag, raf);
+        new AsfStreamer().createModifiedCopy(new RandomAccessFileInputstream(raf), new RandomAccessFileOutputStream(rafTemp), headerModifier);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * Only the ASF header object contains metadata, so it can always be replaced in place with the data and index
+     * objects following it moved if its size has changed.
+     */
+    @Override
+    protected RegionReplacement createRegionReplacement(AudioFile audioFile, final Tag tag, final RandomAccessFile raf) throws CannotWriteException, IOException
+    {
+        final List<ChunkModifier> headerModifier = createHeaderModifiers(tag, raf);
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final long originalHeaderSize = new AsfStreamer().createModifiedHeader(new RandomAccessFileInputstream(raf), header, headerModifier);
+        return new RegionReplacement(0, originalHeaderSize, ByteBuffer.wrap(header.toByteArray()));
+    }
+
+    /**
+     * Creates the modifiers to apply to the ASF header object to write the given tag, leaves raf positioned at the
+     * start of the file.
+     *
+     * @param tag tag to write
+     * @param raf source file
+     * @return modifiers for the asf header object
+     * @throws IOException on I/O errors.
+     */
+    private List<ChunkModifier> createHeaderModifiers(final Tag tag, final RandomAccessFile raf) throws IOException
+    {
         final AsfHeader sourceHeader = AsfHeaderReader.readTagHeader(raf);
         raf.seek(0); // Reset for the streamer
         /*
@@ -138,7 +171,6 @@ public class AsfFileWriter extends AudioFileWriter
         {
             headerModifier.add(new AsfExtHeaderModifier(extHeaderModifier));
         }
-        new AsfStreamer().createModifiedCopy(new RandomAccessFileInputstream(raf), new RandomAccessFileOutputStream(rafTemp), headerModifier);
+        return headerModifier;
     }
-
-}
\ No newline at end of file
+}
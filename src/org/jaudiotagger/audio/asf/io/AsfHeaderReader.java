@@ -24,6 +24,8 @@ import org.jaudiotagger.audio.asf.util.Utils;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -90,14 +92,16 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
 
     /**
      * Creates a Stream that will read from the specified
-     * {@link RandomAccessFile};<br>
+     * {@link RandomAccessFile} from its current position, using positional
+     * reads so that unread chunks are skipped without reading them;<br>
      *
      * @param raf data source to read from.
      * @return a stream which accesses the source.
+     * @throws IOException on I/O Errors.
      */
-    private static InputStream createStream(final RandomAccessFile raf)
+    private static InputStream createStream(final RandomAccessFile raf) throws IOException
     {
-        return new FullRequestInputStream(new BufferedInputStream(new RandomAccessFileInputstream(raf)));
+        return new FileChannelInputStream(raf.getChannel(), raf.getFilePointer());
     }
 
     /**
@@ -111,10 +115,11 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
      */
     public static AsfHeader readHeader(final File file) throws IOException
     {
-        final InputStream stream = new FileInputStream(file);
-        final AsfHeader result = FULL_READER.read(Utils.readGUID(stream), stream, 0);
-        stream.close();
-        return result;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            final InputStream stream = new FileChannelInputStream(channel, 0);
+            return FULL_READER.read(Utils.readGUID(stream), stream, 0);
+        }
     }
 
     /**
@@ -50,6 +50,26 @@ public class AsfStreamer
      * @throws IOException on I/O errors.
      */
     public void createModifiedCopy(final InputStream source, final OutputStream dest, final List<ChunkModifier> modifiers) throws IOException
+    {
+        createModifiedHeader(source, dest, modifiers);
+        // copy the rest of the file (data and index)
+        Utils.flush(source, dest);
+    }
+
+    /**
+     * Reads the ASF header object from <code>source</code>, applies the
+     * modifications provided by the given <code>modifiers</code> and writes
+     * the modified header object to <code>dest</code>.<br>
+     * On return <code>source</code> is positioned directly after the original
+     * header object, so the rest of the file can be copied unchanged.<br>
+     *
+     * @param source    the source ASF file
+     * @param dest      the destination to write the modified header object to.
+     * @param modifiers list of chunk modifiers to apply.
+     * @return the size of the original header object.
+     * @throws IOException on I/O errors.
+     */
+    public long createModifiedHeader(final InputStream source, final OutputStream dest, final List<ChunkModifier> modifiers) throws IOException
     {
         final List<ChunkModifier> modders = new ArrayList<ChunkModifier>();
         if (modifiers != null)
@@ -148,8 +168,7 @@ public class AsfStreamer
             modifyFileHeader(new ByteArrayInputStream(fileHeader), dest, totalDiff);
             // write the header objects (chunks)
             dest.write(bos.toByteArray());
-            // copy the rest of the file (data and index)
-            Utils.flush(source, dest);
+            return headerSize;
         }
         else
         {
@@ -138,7 +138,14 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer> implements
     public ChunkType read(final GUID guid, final InputStream stream, final long chunkStart) throws IOException, IllegalArgumentException
     {
         checkStream(stream);
-        final CountingInputStream cis = new CountingInputStream(stream);
+        /*
+         * A FileChannelInputStream knows its position and supports mark/reset
+         * itself, so it does not need to be wrapped for counting.
+         */
+        final FileChannelInputStream positional = stream instanceof FileChannelInputStream ? (FileChannelInputStream) stream : null;
+        final CountingInputStream counting = positional == null ? new CountingInputStream(stream) : null;
+        final InputStream cis = positional != null ? positional : counting;
+        final long streamStart = positional != null ? positional.getPosition() : 0;
         if (!Arrays.asList(getApplyingIds()).contains(guid))
         {
             throw new IllegalArgumentException("provided GUID is not supported by this reader.");
@@ -151,7 +158,7 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer> implements
          */
         final ChunkType result = createContainer(chunkStart, chunkLen, cis);
         // 16 bytes have already been for providing the GUID
-        long currentPosition = chunkStart + cis.getReadCount() + 16;
+        long currentPosition = chunkStart + getReadCount(positional, counting, streamStart) + 16;
 
         final HashSet<GUID> alreadyRead = new HashSet<GUID>();
         /*
@@ -195,13 +202,26 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer> implements
                 currentPosition = chunk.getChunkEnd();
                 // Always take into account, that 16 bytes have been read prior
                 // to calling this method
-                assert cis.getReadCount() + chunkStart + 16 == currentPosition;
+                assert getReadCount(positional, counting, streamStart) + chunkStart + 16 == currentPosition;
             }
         }
 
         return result;
     }
 
+    /**
+     * Returns the number of bytes read since {@link #read(GUID, InputStream, long)} was called.<br>
+     *
+     * @param positional  the stream if it is a {@link FileChannelInputStream}, otherwise <code>null</code>.
+     * @param counting    the wrapping counting stream if the stream is not positional.
+     * @param streamStart position of the positional stream when reading started.
+     * @return number of bytes read.
+     */
+    private static long getReadCount(final FileChannelInputStream positional, final CountingInputStream counting, final long streamStart)
+    {
+        return positional != null ? positional.getPosition() - streamStart : counting.getReadCount();
+    }
+
     /**
      * Registers the given reader.<br>
      *
@@ -0,0 +1,214 @@
+package org.jaudiotagger.audio.asf.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Provides {@link InputStream} access to a {@link FileChannel} using positional
+ * reads, so that the position of the channel itself is never changed.<br>
+ * Skipping just moves the read position without reading any data, and
+ * mark/reset is supported without any read limit, so readers working on this
+ * stream do not need additional buffering or counting wrappers.<br>
+ * Like {@link FullRequestInputStream}, array reads always read the requested
+ * number of bytes or throw an {@link IOException}.<br>
+ * Closing the stream does not close the channel.
+ */
+public final class FileChannelInputStream extends InputStream
+{
+
+    /**
+     * Size of the buffer used for small reads.<br>
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Buffered data, starting at {@link #bufferStart}.<br>
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * File position of the first byte in {@link #buffer}.<br>
+     */
+    private long bufferStart;
+
+    /**
+     * The channel to read from.<br>
+     */
+    private final FileChannel channel;
+
+    /**
+     * Position of the last {@link #mark(int)}, <code>-1</code> if not marked.<br>
+     */
+    private long markPosition = -1;
+
+    /**
+     * File position of the next byte to read.<br>
+     */
+    private long position;
+
+    /**
+     * Creates an instance reading from the given position of the channel.<br>
+     *
+     * @param channel  The channel to read.
+     * @param position The file position to start reading at.
+     */
+    public FileChannelInputStream(final FileChannel channel, final long position)
+    {
+        super();
+        if (channel == null)
+        {
+            throw new IllegalArgumentException("null");
+        }
+        this.channel = channel;
+        this.position = position;
+        this.bufferStart = position;
+        this.buffer.limit(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available() throws IOException
+    {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, this.channel.size() - this.position));
+    }
+
+    /**
+     * Makes sure the byte at the current position is buffered.<br>
+     *
+     * @return <code>false</code> if the end of file is reached.
+     * @throws IOException on I/O Errors.
+     */
+    private boolean fill() throws IOException
+    {
+        if (isBuffered())
+        {
+            return true;
+        }
+        this.buffer.clear();
+        this.bufferStart = this.position;
+        final int read = this.channel.read(this.buffer, this.position);
+        this.buffer.flip();
+        return read > 0;
+    }
+
+    /**
+     * @return the file position of the next byte to read.
+     */
+    public long getPosition()
+    {
+        return this.position;
+    }
+
+    /**
+     * @return <code>true</code> if the byte at the current position is buffered.
+     */
+    private boolean isBuffered()
+    {
+        return this.position >= this.bufferStart && this.position < this.bufferStart + this.buffer.limit();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void mark(final int readlimit)
+    {
+        this.markPosition = this.position;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markSupported()
+    {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read() throws IOException
+    {
+        if (!fill())
+        {
+            return -1;
+        }
+        final int result = this.buffer.get((int) (this.position - this.bufferStart)) & 0xff;
+        this.position++;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final byte[] destination, final int off, final int len) throws IOException
+    {
+        int totalRead = 0;
+        while (totalRead < len)
+        {
+            //Large reads go straight into the destination
+            if (len - totalRead >= BUFFER_SIZE && !isBuffered())
+            {
+                final int read = this.channel.read(ByteBuffer.wrap(destination, off + totalRead, len - totalRead), this.position);
+                if (read < 0)
+                {
+                    throw new IOException((len - totalRead) + " more bytes expected.");
+                }
+                this.position += read;
+                totalRead += read;
+                continue;
+            }
+            if (!fill())
+            {
+                throw new IOException((len - totalRead) + " more bytes expected.");
+            }
+            final int index = (int) (this.position - this.bufferStart);
+            final int count = Math.min(len - totalRead, this.buffer.limit() - index);
+            System.arraycopy(this.buffer.array(), index, destination, off + totalRead, count);
+            this.position += count;
+            totalRead += count;
+        }
+        return totalRead;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void reset() throws IOException
+    {
+        if (this.markPosition < 0)
+        {
+            throw new IOException("Resetting to invalid mark");
+        }
+        this.position = this.markPosition;
+    }
+
+    /**
+     * Moves the read position without reading, but not beyond the end of
+     * file.<br>
+     *
+     * @param amount number of bytes to skip.
+     * @return number of bytes skipped.
+     * @throws IOException on I/O Errors.
+     */
+    @Override
+    public long skip(final long amount) throws IOException
+    {
+        if (amount <= 0)
+        {
+            return 0;
+        }
+        final long skipped = Math.min(amount, Math.max(0, this.channel.size() - this.position));
+        this.position += skipped;
+        return skipped;
+    }
+
+}
@@ -7,6 +7,7 @@ package org.jaudiotagger.audio.dff;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Utils;
 
 import java.io.IOException;
@@ -23,7 +24,7 @@ public class DffFileReader extends AudioFileReader2
     @Override
     protected GenericAudioHeader getEncodingInfo(Path file) throws CannotReadException, IOException
     {
-        try (FileChannel fc = FileChannel.open(file))
+        try (FileChannel fc = MappedFileChannel.openForRead(file))
         {
             Frm8Chunk frm8 = Frm8Chunk.readChunk(Utils.readFileDataIntoBufferLE(fc, Frm8Chunk.FRM8_HEADER_LENGTH));
             if (frm8 != null)
@@ -184,7 +185,11 @@ public class DffFileReader extends AudioFileReader2
 
                 }
 
-                return buildAudioHeader(channelNumber, samplingFreqency, sampleCount, bitsPerSample, (dst != null));
+                GenericAudioHeader audioHeader = buildAudioHeader(channelNumber, samplingFreqency, sampleCount, bitsPerSample, (dst != null));
+                BaseChunk soundData = (dst != null) ? dst : end;
+                audioHeader.setAudioDataStartPosition(soundData.getChunkStart());
+                audioHeader.setAudioDataEndPosition(soundData.getChunkEnd());
+                return audioHeader;
 
             }
             else
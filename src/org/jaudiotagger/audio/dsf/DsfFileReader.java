@@ -7,6 +7,7 @@ package org.jaudiotagger.audio.dsf;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
 import org.jaudiotagger.tag.Tag;
@@ -36,7 +37,7 @@ public class DsfFileReader extends AudioFileReader2
     @Override
     protected GenericAudioHeader getEncodingInfo(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = MappedFileChannel.openForRead(file))
         {
             DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
             if (dsd != null)
@@ -62,7 +63,7 @@ public class DsfFileReader extends AudioFileReader2
     @Override
     protected Tag getTag(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = MappedFileChannel.openForRead(file))
         {
             DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
             if (dsd != null)
@@ -45,7 +45,20 @@ public class FmtChunk
     {
         long sizeExcludingChunkHeader = chunkSizeLength - (IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
         ByteBuffer audioData = Utils.readFileDataIntoBufferLE(fc, (int)sizeExcludingChunkHeader);
-        return readAudioInfo(dsd, audioData);
+        GenericAudioHeader audioHeader = readAudioInfo(dsd, audioData);
+
+        //The data chunk containing the samples follows
+        if (fc.size() - fc.position() >= IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH)
+        {
+            long dataChunkStart = fc.position();
+            ByteBuffer dataChunkHeader = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
+            if (DsfChunkType.DATA.getCode().equals(Utils.readFourBytesAsChars(dataChunkHeader)))
+            {
+                audioHeader.setAudioDataStartPosition(fc.position());
+                audioHeader.setAudioDataEndPosition(dataChunkStart + dataChunkHeader.getLong());
+            }
+        }
+        return audioHeader;
     }
 
     /**
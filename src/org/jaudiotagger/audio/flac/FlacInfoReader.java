@@ -23,6 +23,7 @@ import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.flac.metadatablock.BlockType;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Utils;
 
 import java.io.File;
@@ -44,7 +45,7 @@ public class FlacInfoReader
     public FlacAudioHeader read(Path path) throws CannotReadException, IOException
     {
         logger.config(path + ":start");
-        try(FileChannel fc = FileChannel.open(path))
+        try(FileChannel fc = MappedFileChannel.openForRead(path))
         {
             FlacStreamReader flacStream = new FlacStreamReader(fc, path.toString() + " ");
             flacStream.findStream();
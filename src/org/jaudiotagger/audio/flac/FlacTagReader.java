@@ -18,11 +18,14 @@
  */
 package org.jaudiotagger.audio.flac;
 
+import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.logging.Hex;
 import org.jaudiotagger.tag.InvalidFrameException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentReader;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
@@ -49,7 +52,7 @@ public class FlacTagReader
 
     public FlacTag read(Path path) throws CannotReadException, IOException
     {
-        try (FileChannel fc = FileChannel.open(path))
+        try (FileChannel fc = MappedFileChannel.openForRead(path))
         {
             FlacStreamReader flacStream = new FlacStreamReader(fc, path.toString() + " ");
             flacStream.findStream();
@@ -94,9 +97,16 @@ public class FlacTagReader
                             break;
 
                         case PICTURE:
+                            if ((TagOptionSingleton.getInstance().getReadOptions() & AudioFile.READ_ARTWORK) == 0)
+                            {
+                                fc.position(fc.position() + mbh.getDataLength());
+                                break;
+                            }
                             try
                             {
-                                MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, fc);
+                                MetadataBlockDataPicture mbdp = TagOptionSingleton.getInstance().isLazyArtwork()
+                                        ? new MetadataBlockDataPicture(mbh, fc, path)
+                                        : new MetadataBlockDataPicture(mbh, fc);
                                 images.add(mbdp);
                             }
                             catch (IOException ioe)
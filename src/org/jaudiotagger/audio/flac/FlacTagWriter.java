@@ -25,6 +25,7 @@ import org.jaudiotagger.audio.flac.metadatablock.*;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.utils.DirectByteBufferPool;
 import org.jaudiotagger.utils.DirectByteBufferUtils;
 
 import java.io.IOException;
@@ -86,6 +87,21 @@ public class FlacTagWriter
     public void write(Tag tag, Path file) throws CannotWriteException
     {
         logger.config(file + " Writing tag");
+        //Artwork still to be read from the file has to be read before the file is changed
+        if (tag instanceof FlacTag)
+        {
+            try
+            {
+                for (MetadataBlockDataPicture image : ((FlacTag) tag).getImages())
+                {
+                    image.loadImageData();
+                }
+            }
+            catch (IOException ioe)
+            {
+                throw new CannotWriteException(file + ":" + ioe.getMessage(), ioe);
+            }
+        }
         try (FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             MetadataBlockInfo blockInfo = new MetadataBlockInfo();
@@ -239,19 +255,26 @@ public class FlacTagWriter
                 + availableRoom);
 
         //And copy into Buffer, because direct buffer doesnt use heap
-        ByteBuffer audioData = ByteBuffer.allocateDirect((int)(fc.size() - fc.position()));
-        fc.read(audioData);
-        audioData.flip();
+        ByteBuffer audioData = DirectByteBufferPool.acquire((int)(fc.size() - fc.position()));
+        try
+        {
+            fc.read(audioData);
+            audioData.flip();
 
-        //Jump over Id3 (if exists) Flac Header
-        fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
-        writeOtherMetadataBlocks(fc, blockInfo);
+            //Jump over Id3 (if exists) Flac Header
+            fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
+            writeOtherMetadataBlocks(fc, blockInfo);
 
-        //Write tag (and add some default padding)
-        fc.write(tc.convert(tag,  FlacTagCreator.DEFAULT_PADDING));
+            //Write tag (and add some default padding)
+            fc.write(tc.convert(tag,  FlacTagCreator.DEFAULT_PADDING));
 
-        //Write Audio
-        fc.write(audioData);
+            //Write Audio
+            fc.write(audioData);
+        }
+        finally
+        {
+            DirectByteBufferPool.release(audioData);
+        }
     }
 
 
@@ -295,43 +318,55 @@ public class FlacTagWriter
         }
 
         Queue<ByteBuffer> queue = new LinkedBlockingQueue<>();
-
-        //Read first chunk of audio
-        fc.position(audioStart);
+        try
         {
-            ByteBuffer audioBuffer = ByteBuffer.allocateDirect(chunkSize);
-            fc.read(audioBuffer);
-            audioBuffer.flip();
-            queue.add(audioBuffer);
-        }
-        long readPosition = fc.position();
-
-        //Jump over Id3 (if exists) and Flac Header
-        fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
-        writeOtherMetadataBlocks(fc, blockInfo);
-        fc.write(tc.convert(tag, FlacTagCreator.DEFAULT_PADDING));
-        long writePosition = fc.position();
+            //Read first chunk of audio
+            fc.position(audioStart);
+            {
+                ByteBuffer audioBuffer = DirectByteBufferPool.acquire(chunkSize);
+                queue.add(audioBuffer);
+                fc.read(audioBuffer);
+                audioBuffer.flip();
+            }
+            long readPosition = fc.position();
 
+            //Jump over Id3 (if exists) and Flac Header
+            fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
+            writeOtherMetadataBlocks(fc, blockInfo);
+            fc.write(tc.convert(tag, FlacTagCreator.DEFAULT_PADDING));
+            long writePosition = fc.position();
 
-        fc.position(readPosition);
-        while (fc.position() < originalFileSize)
-        {
-            //Read next chunk
-            ByteBuffer audioBuffer = ByteBuffer.allocateDirect(chunkSize);
-            fc.read(audioBuffer);
-            readPosition=fc.position();
-            audioBuffer.flip();
-            queue.add(audioBuffer);
-
-            //Write previous chunk
-            fc.position(writePosition);
-            fc.write(queue.remove());
-            writePosition=fc.position();
 
             fc.position(readPosition);
+            while (fc.position() < originalFileSize)
+            {
+                //Read next chunk
+                ByteBuffer audioBuffer = DirectByteBufferPool.acquire(chunkSize);
+                queue.add(audioBuffer);
+                fc.read(audioBuffer);
+                readPosition=fc.position();
+                audioBuffer.flip();
+
+                //Write previous chunk
+                fc.position(writePosition);
+                ByteBuffer previousAudioBuffer = queue.remove();
+                fc.write(previousAudioBuffer);
+                DirectByteBufferPool.release(previousAudioBuffer);
+                writePosition=fc.position();
+
+                fc.position(readPosition);
+            }
+            fc.position(writePosition);
+            fc.write(queue.peek());
+        }
+        finally
+        {
+            //Release the chunks not yet written
+            for (ByteBuffer audioBuffer : queue)
+            {
+                DirectByteBufferPool.release(audioBuffer);
+            }
         }
-        fc.position(writePosition);
-        fc.write(queue.remove());
     }
 
     /**
@@ -1,5 +1,6 @@
 package org.jaudiotagger.audio.flac.metadatablock;
 
+import org.jaudiotagger.audio.generic.FileRegion;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.InvalidFrameException;
@@ -7,12 +8,14 @@ import org.jaudiotagger.tag.TagField;
 import org.jaudiotagger.tag.reference.PictureTypes;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.logging.Logger;
 
 
@@ -55,17 +58,16 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
     private int lengthOfPictureInBytes;
     private byte[] imageData;
 
+    //Where the image data is held in the file if it has not been read yet
+    private FileRegion imageDataRegion;
+
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.flac.MetadataBlockDataPicture");
 
     private void initFromByteBuffer(ByteBuffer rawdata) throws IOException, InvalidFrameException
     {
         //Picture Type
-        pictureType = rawdata.getInt();
-        if (pictureType >= PictureTypes.getInstanceOf().getSize())
-        {
-            throw new InvalidFrameException("PictureType was:" + pictureType + "but the maximum allowed is " + (PictureTypes.getInstanceOf().getSize() - 1));
-        }
+        readPictureType(rawdata);
 
         //MimeType
         int mimeTypeSize = rawdata.getInt();
@@ -95,6 +97,15 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
         logger.config("Read image:" + this.toString());
     }
 
+    private void readPictureType(ByteBuffer rawdata) throws InvalidFrameException
+    {
+        pictureType = rawdata.getInt();
+        if (pictureType >= PictureTypes.getInstanceOf().getSize())
+        {
+            throw new InvalidFrameException("PictureType was:" + pictureType + "but the maximum allowed is " + (PictureTypes.getInstanceOf().getSize() - 1));
+        }
+    }
+
     /**
      * Initialize MetaBlockDataPicture from byteBuffer
      *
@@ -130,6 +141,63 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
 
     }
 
+    /**
+     * Construct picture block by reading from file, but only record the location of the image data rather than
+     * reading it, it is read from the file when first needed
+     *
+     * @param header
+     * @param fc positioned at start of block data, is left positioned at the end of the block
+     * @param path of file being read
+     * @throws java.io.IOException
+     * @throws org.jaudiotagger.tag.InvalidFrameException
+     */
+    public MetadataBlockDataPicture(MetadataBlockHeader header, FileChannel fc, Path path) throws IOException, InvalidFrameException
+    {
+        long blockEnd = fc.position() + header.getDataLength();
+
+        ByteBuffer rawdata = readBlockData(fc, blockEnd, 8);
+        readPictureType(rawdata);
+        int mimeTypeSize = rawdata.getInt();
+
+        rawdata = readBlockData(fc, blockEnd, mimeTypeSize + 4);
+        mimeType = getString(rawdata, mimeTypeSize, StandardCharsets.ISO_8859_1.name());
+        int descriptionSize = rawdata.getInt();
+
+        rawdata = readBlockData(fc, blockEnd, descriptionSize + 20);
+        description = getString(rawdata, descriptionSize, StandardCharsets.UTF_8.name());
+        width = rawdata.getInt();
+        height = rawdata.getInt();
+        colourDepth = rawdata.getInt();
+        indexedColouredCount = rawdata.getInt();
+        lengthOfPictureInBytes = rawdata.getInt();
+        if (lengthOfPictureInBytes < 0 || fc.position() + lengthOfPictureInBytes > blockEnd)
+        {
+            throw new IOException("Image size " + lengthOfPictureInBytes + " is larger than picture block");
+        }
+        imageDataRegion = new FileRegion(path, fc.position(), lengthOfPictureInBytes);
+        fc.position(blockEnd);
+
+        logger.config("Read image:" + this.toString());
+    }
+
+    private ByteBuffer readBlockData(FileChannel fc, long blockEnd, int length) throws IOException
+    {
+        if (length < 0 || fc.position() + length > blockEnd)
+        {
+            throw new IOException("Unable to read required number of databytes required:" + length + ":remaining:" + (blockEnd - fc.position()));
+        }
+        ByteBuffer rawdata = ByteBuffer.allocate(length);
+        while (rawdata.hasRemaining())
+        {
+            if (fc.read(rawdata) < 0)
+            {
+                throw new EOFException("Unable to read required number of databytes required:" + length);
+            }
+        }
+        rawdata.flip();
+        return rawdata;
+    }
+
     /**
      * Construct new MetadataPicture block
      * @param imageData
@@ -187,6 +255,7 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
             baos.write(Utils.getSizeBEInt32(height));
             baos.write(Utils.getSizeBEInt32(colourDepth));
             baos.write(Utils.getSizeBEInt32(indexedColouredCount));
+            byte[] imageData = getImageData();
             baos.write(Utils.getSizeBEInt32(imageData.length));
             baos.write(imageData);
             return ByteBuffer.wrap(baos.toByteArray());
@@ -238,11 +307,55 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
         return indexedColouredCount;
     }
 
+    /**
+     * The image data is read from the file if it has not been read yet
+     *
+     * @return the image data
+     * @throws RuntimeException if the image data has to be read but cannot be
+     */
     public byte[] getImageData()
     {
+        try
+        {
+            loadImageData();
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe.getMessage(), ioe);
+        }
         return imageData;
     }
 
+    /**
+     * Read the image data from the file if it has not been read yet
+     *
+     * @throws IOException if the file cannot be read or has been modified since the picture was read
+     */
+    public void loadImageData() throws IOException
+    {
+        if (imageDataRegion != null)
+        {
+            imageData = imageDataRegion.read();
+            imageDataRegion = null;
+        }
+    }
+
+    /**
+     * @return true if the image data is held in memory rather than still to be read from the file
+     */
+    public boolean isImageDataLoaded()
+    {
+        return imageDataRegion == null;
+    }
+
+    /**
+     * @return where the image data is held in the file, or null if it has already been read
+     */
+    public FileRegion getImageDataRegion()
+    {
+        return imageDataRegion;
+    }
+
     /**
      * @return true if imagedata  is held as a url rather than actually being imagedata
      */
@@ -269,7 +382,7 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
     public String toString()
     {
         return PictureTypes.getInstanceOf().getValueForId(pictureType) + ":" + mimeType + ":" + description + ":" + "width:" + width + ":height:" + height + ":colourdepth:" + colourDepth + ":indexedColourCount:" + indexedColouredCount
-                + ":image size in bytes:" + lengthOfPictureInBytes + "/" + imageData.length;
+                + ":image size in bytes:" + lengthOfPictureInBytes + "/" + (imageData != null ? imageData.length : "not read");
     }
 
     /**
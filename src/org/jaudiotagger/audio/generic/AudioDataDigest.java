@@ -0,0 +1,261 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.utils.DirectByteBufferPool;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Calculates a digest of a region of a file, used to hash just the audio data so that the hash does not change
+ * when the metadata is modified.
+ *
+ * <p>The data can be given as a number of regions that are digested in turn as if they were one, so that data
+ * interleaved with headers that may change (such as Ogg pages) can be digested without the headers.
+ *
+ * <p>{@link #digest} is a plain digest of the bytes. {@link #treeDigest} splits the region into fixed size chunks
+ * that are digested in parallel, and returns the digest of the concatenated chunk digests. The two methods give
+ * different values, and tree digests can only be compared if they were calculated with the same chunk size.
+ */
+public class AudioDataDigest
+{
+    /**
+     * Default chunk size for tree digests
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Digest bytes from start (inclusive) to end (exclusive) of the file
+     *
+     * @param file
+     * @param start
+     * @param end
+     * @param algorithm such as MD5 or SHA-256
+     * @return digest
+     * @throws IOException if the file is shorter than end
+     * @throws NoSuchAlgorithmException
+     */
+    public static byte[] digest(File file, long start, long end, String algorithm) throws IOException, NoSuchAlgorithmException
+    {
+        return digest(file, new long[]{start, end}, algorithm);
+    }
+
+    /**
+     * Digest bytes of each region of the file in turn
+     *
+     * @param file
+     * @param regions start (inclusive) and end (exclusive) of each region in turn
+     * @param algorithm such as MD5 or SHA-256
+     * @return digest
+     * @throws IOException if the file is shorter than the end of a region
+     * @throws NoSuchAlgorithmException
+     */
+    public static byte[] digest(File file, long[] regions, String algorithm) throws IOException, NoSuchAlgorithmException
+    {
+        checkRegions(regions);
+        MessageDigest digest = MessageDigest.getInstance(algorithm);
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            update(digest, fc, regions);
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Digest bytes from start (inclusive) to end (exclusive) of the file as a two level tree, each chunk is digested
+     * by a task submitted to the executor and the result is the digest of the chunk digests in order.
+     *
+     * @param file
+     * @param start
+     * @param end
+     * @param algorithm such as MD5 or SHA-256
+     * @param chunkSize
+     * @param executor runs the chunk digests, it is not shut down
+     * @return digest
+     * @throws IOException if the file is shorter than end
+     * @throws NoSuchAlgorithmException
+     */
+    public static byte[] treeDigest(File file, long start, long end, final String algorithm, int chunkSize, ExecutorService executor) throws IOException, NoSuchAlgorithmException
+    {
+        return treeDigest(file, new long[]{start, end}, algorithm, chunkSize, executor);
+    }
+
+    /**
+     * Digest bytes of each region of the file in turn as a two level tree, the regions are treated as one so a chunk
+     * may contain parts of several regions.
+     *
+     * @param file
+     * @param regions start (inclusive) and end (exclusive) of each region in turn
+     * @param algorithm such as MD5 or SHA-256
+     * @param chunkSize
+     * @param executor runs the chunk digests, it is not shut down
+     * @return digest
+     * @throws IOException if the file is shorter than the end of a region
+     * @throws NoSuchAlgorithmException
+     */
+    public static byte[] treeDigest(File file, long[] regions, final String algorithm, int chunkSize, ExecutorService executor) throws IOException, NoSuchAlgorithmException
+    {
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException("Invalid chunk size:" + chunkSize);
+        }
+        checkRegions(regions);
+
+        MessageDigest root = MessageDigest.getInstance(algorithm);
+        List<Future<byte[]>> chunkDigests = new ArrayList<Future<byte[]>>();
+        try (final FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            for (long[] chunkRegions : splitIntoChunks(regions, chunkSize))
+            {
+                chunkDigests.add(executor.submit(new ChunkDigest(fc, algorithm, chunkRegions)));
+            }
+
+            for (Future<byte[]> chunkDigest : chunkDigests)
+            {
+                root.update(chunkDigest.get());
+            }
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(file + ":Interrupted calculating digest");
+        }
+        catch (ExecutionException ee)
+        {
+            if (ee.getCause() instanceof IOException)
+            {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException(file + ":" + ee.getCause().getMessage(), ee.getCause());
+        }
+        finally
+        {
+            for (Future<byte[]> chunkDigest : chunkDigests)
+            {
+                chunkDigest.cancel(false);
+            }
+        }
+        return root.digest();
+    }
+
+    private static void checkRegions(long[] regions)
+    {
+        if (regions.length % 2 != 0)
+        {
+            throw new IllegalArgumentException("Regions must be given as pairs of start and end:" + regions.length);
+        }
+    }
+
+    /**
+     * Split the regions into chunks of chunkSize bytes, the last chunk may be smaller
+     *
+     * @param regions
+     * @param chunkSize
+     * @return start and end of the part of each region in each chunk
+     */
+    private static List<long[]> splitIntoChunks(long[] regions, int chunkSize)
+    {
+        List<long[]> chunks = new ArrayList<long[]>();
+        long[] chunk = new long[16];
+        int chunkEntries = 0;
+        long chunkLength = 0;
+        for (int i = 0; i < regions.length; i += 2)
+        {
+            long position = regions[i];
+            while (position < regions[i + 1])
+            {
+                long end = Math.min(regions[i + 1], position + chunkSize - chunkLength);
+                if (chunkEntries == chunk.length)
+                {
+                    chunk = Arrays.copyOf(chunk, chunk.length * 2);
+                }
+                chunk[chunkEntries++] = position;
+                chunk[chunkEntries++] = end;
+                chunkLength += end - position;
+                position = end;
+                if (chunkLength == chunkSize)
+                {
+                    chunks.add(Arrays.copyOf(chunk, chunkEntries));
+                    chunkEntries = 0;
+                    chunkLength = 0;
+                }
+            }
+        }
+        if (chunkEntries > 0)
+        {
+            chunks.add(Arrays.copyOf(chunk, chunkEntries));
+        }
+        return chunks;
+    }
+
+    private static void update(MessageDigest digest, FileChannel fc, long[] regions) throws IOException
+    {
+        //Direct buffer so no copy is made between the file and the buffer
+        ByteBuffer buffer = DirectByteBufferPool.acquire(BUFFER_SIZE);
+        try
+        {
+            for (int i = 0; i < regions.length; i += 2)
+            {
+                update(digest, fc, buffer, regions[i], regions[i + 1]);
+            }
+        }
+        finally
+        {
+            DirectByteBufferPool.release(buffer);
+        }
+    }
+
+    private static void update(MessageDigest digest, FileChannel fc, ByteBuffer buffer, long start, long end) throws IOException
+    {
+        long position = start;
+        while (position < end)
+        {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = fc.read(buffer, position);
+            if (read == -1)
+            {
+                throw new EOFException("Unexpected end of file at:" + position + ", expected data up to:" + end);
+            }
+            buffer.flip();
+            digest.update(buffer);
+            position += read;
+        }
+    }
+
+    private static class ChunkDigest implements Callable<byte[]>
+    {
+        private final FileChannel fc;
+        private final String algorithm;
+        private final long[] regions;
+
+        ChunkDigest(FileChannel fc, String algorithm, long[] regions)
+        {
+            this.fc = fc;
+            this.algorithm = algorithm;
+            this.regions = regions;
+        }
+
+        public byte[] call() throws IOException, NoSuchAlgorithmException
+        {
+            MessageDigest digest = MessageDigest.getInstance(algorithm);
+            update(digest, fc, regions);
+            return digest.digest();
+        }
+    }
+}
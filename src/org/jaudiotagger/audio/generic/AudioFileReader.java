@@ -26,12 +26,14 @@ import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -75,6 +77,42 @@ public abstract class AudioFileReader
       */
     protected abstract Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException;
 
+    /*
+      * Same as above but with the path of the file, for readers that need to refer back to the file after reading
+      * such as when artwork is read lazily.
+      *
+      * @param raf The RandomAccessFile associted with the current file
+      * @param path The path of the current file
+      */
+    protected Tag getTag(RandomAccessFile raf, Path path) throws CannotReadException, IOException
+    {
+        return getTag(raf);
+    }
+
+    /*
+      * Reads the encoding info and the tag as selected by the read options, readers that can share the work of
+      * reading the two override this.
+      *
+      * @param f The file being read
+      * @param raf The RandomAccessFile associated with the file, at the first byte of the file
+      * @param readOptions What to read, see AudioFile.READ_AUDIO_HEADER and AudioFile.READ_TAG
+      */
+    protected AudioFile read(File f, RandomAccessFile raf, int readOptions) throws CannotReadException, IOException
+    {
+        GenericAudioHeader info = null;
+        if ((readOptions & AudioFile.READ_AUDIO_HEADER) != 0)
+        {
+            info = getEncodingInfo(raf);
+            raf.seek(0);
+        }
+        Tag tag = null;
+        if ((readOptions & AudioFile.READ_TAG) != 0)
+        {
+            tag = getTag(raf, f.toPath());
+        }
+        return new AudioFile(f, info, tag);
+    }
+
     /*
       * Reads the given file, and return an AudioFile object containing the Tag
       * and the encoding infos present in the file. If the file has no tag, an
@@ -114,10 +152,7 @@ public abstract class AudioFileReader
             raf = new RandomAccessFile(f, "r");
             raf.seek(0);
 
-            GenericAudioHeader info = getEncodingInfo(raf);
-            raf.seek(0);
-            Tag tag = getTag(raf);
-            return new AudioFile(f, info, tag);
+            return read(f, raf, TagOptionSingleton.getInstance().getReadOptions());
 
         }
         catch (CannotReadException cre)
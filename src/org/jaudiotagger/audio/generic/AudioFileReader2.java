@@ -8,6 +8,7 @@ import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -60,8 +61,17 @@ public abstract class AudioFileReader2 extends AudioFileReader
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(path));
         }
 
-        GenericAudioHeader info = getEncodingInfo(path);
-        Tag tag = getTag(path);
+        int readOptions = TagOptionSingleton.getInstance().getReadOptions();
+        GenericAudioHeader info = null;
+        if ((readOptions & AudioFile.READ_AUDIO_HEADER) != 0)
+        {
+            info = getEncodingInfo(path);
+        }
+        Tag tag = null;
+        if ((readOptions & AudioFile.READ_TAG) != 0)
+        {
+            tag = getTag(path);
+        }
         return new AudioFile(f, info, tag);
     }
 
@@ -28,6 +28,7 @@ import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.Files;
@@ -306,6 +307,11 @@ public abstract class AudioFileWriter
             return;
         }
 
+        if (TagOptionSingleton.getInstance().getWriteStrategy() == WriteStrategy.IN_PLACE && writeInPlace(af))
+        {
+            return;
+        }
+
         RandomAccessFile raf = null;
         RandomAccessFile rafTemp = null;
         File newFile;
@@ -482,6 +488,142 @@ public abstract class AudioFileWriter
         }
     }
 
+    /**
+     * Try to write the tag by modifying the original file directly rather than writing a new file
+     *
+     * @param af The file we want to process
+     * @return true if the tag was written, false if the format cannot make this change in place so the file is unchanged
+     * @throws CannotWriteException if anything went wrong
+     */
+    private boolean writeInPlace(AudioFile af) throws CannotWriteException
+    {
+        RandomAccessFile raf = null;
+        try
+        {
+            raf = new RandomAccessFile(af.getFile(), WRITE_MODE);
+        }
+        catch (IOException ioe)
+        {
+            logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_TO_OPEN_FILE_FOR_EDITING.getMsg(af.getFile().getAbsolutePath()), ioe);
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_TO_OPEN_FILE_FOR_EDITING.getMsg(af.getFile().getAbsolutePath()));
+        }
+
+        try
+        {
+            RegionReplacement replacement = createRegionReplacement(af, af.getTag(), raf);
+            if (replacement == null)
+            {
+                logger.config(af.getFile().getName() + ":Unable to write in place, using temporary file");
+                return false;
+            }
+
+            if (this.modificationListener != null)
+            {
+                this.modificationListener.fileWillBeModified(af, false);
+            }
+            //Applying the replacement consumes its data, so keep a view of it to check against
+            ByteBuffer data = replacement.getData().duplicate();
+            long expectedSize = raf.length() - replacement.getLength() + data.remaining();
+            replacement.apply(raf.getChannel());
+
+            //Ensure we have written correctly, reject if not
+            checkRegionWrittenCorrectly(af, raf, replacement.getStart(), data, expectedSize);
+            checkFileWrittenInPlace(af, raf, replacement);
+            if (this.modificationListener != null)
+            {
+                this.modificationListener.fileModified(af, af.getFile());
+            }
+        }
+        catch (ModifyVetoException veto)
+        {
+            throw new CannotWriteException(veto);
+        }
+        catch (CannotWriteException cwe)
+        {
+            logger.log(Level.SEVERE, cwe.getMessage(), cwe);
+            throw cwe;
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()), e);
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()));
+        }
+        finally
+        {
+            try
+            {
+                raf.close();
+            }
+            catch (IOException ioe)
+            {
+                // Warn but assume has worked okay
+                logger.log(Level.WARNING, ErrorMessage.GENERAL_WRITE_PROBLEM_CLOSING_FILE_HANDLE.getMsg(af.getFile().getAbsolutePath(), ioe.getMessage()), ioe);
+            }
+        }
+
+        if (this.modificationListener != null)
+        {
+            this.modificationListener.fileOperationFinished(af.getFile());
+        }
+        return true;
+    }
+
+    /**
+     * Check the file has the size expected after replacing the region, and that reading the region back gives the
+     * data that was written
+     *
+     * @param af
+     * @param raf
+     * @param start        start of the region
+     * @param data         data the region was replaced with
+     * @param expectedSize
+     * @throws CannotWriteException if the file is not as expected
+     * @throws IOException
+     */
+    private void checkRegionWrittenCorrectly(AudioFile af, RandomAccessFile raf, long start, ByteBuffer data, long expectedSize) throws CannotWriteException, IOException
+    {
+        logger.config("Checking file has been written correctly");
+        FileChannel fc = raf.getChannel();
+        if (fc.size() != expectedSize)
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_IN_PLACE_INCORRECT_SIZE.getMsg(af.getFile(), expectedSize, fc.size()));
+        }
+
+        ByteBuffer written = ByteBuffer.allocate(data.remaining());
+        long position = start;
+        while (written.hasRemaining())
+        {
+            int read = fc.read(written, position);
+            if (read == -1)
+            {
+                break;
+            }
+            position += read;
+        }
+        written.flip();
+        if (!written.equals(data))
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_IN_PLACE_DATA_INCORRECT.getMsg(af.getFile(), start));
+        }
+    }
+
+    /**
+     * Check the file is still valid after a region has been replaced by {@link #writeInPlace(AudioFile)}, the generic
+     * checks that the file has the expected size and the region contains the new data have already been done.
+     * <p/>
+     * Formats override this to make the same checks on the structure of the file as they make on a new file written
+     * by {@link #writeTag(AudioFile, Tag, RandomAccessFile, RandomAccessFile)}. The subclass must not close raf.
+     *
+     * @param audioFile
+     * @param raf         the modified file
+     * @param replacement the region that was replaced
+     * @throws CannotWriteException if the file has not been written correctly
+     * @throws IOException
+     */
+    protected void checkFileWrittenInPlace(AudioFile audioFile, RandomAccessFile raf, RegionReplacement replacement) throws CannotWriteException, IOException
+    {
+    }
+
     /**
      * <p>
      * Transfers the content from {@code newFile} to a file named {@code originalFile}.
@@ -794,4 +936,25 @@ public abstract class AudioFileWriter
      * @throws org.jaudiotagger.audio.exceptions.CannotReadException
      */
     protected abstract void writeTag(AudioFile audioFile, Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException;
+
+    /**
+     * Describe the change needed to write the tag as a single region of the original file to be replaced, used when
+     * the {@link WriteStrategy} is {@link WriteStrategy#IN_PLACE}.
+     * <p/>
+     * Formats that can only be written by creating a new file return null, in which case
+     * {@link #writeTag(AudioFile, Tag, RandomAccessFile, RandomAccessFile)} is used instead. The subclass must not
+     * modify or close raf.
+     *
+     * @param audioFile
+     * @param tag
+     * @param raf
+     * @return the region to replace, or null if the tag cannot be written in place
+     * @throws CannotReadException
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    protected RegionReplacement createRegionReplacement(AudioFile audioFile, Tag tag, RandomAccessFile raf) throws CannotReadException, CannotWriteException, IOException
+    {
+        return null;
+    }
 }
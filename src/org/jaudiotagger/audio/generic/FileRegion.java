@@ -0,0 +1,94 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.logging.ErrorMessage;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A region of a file that is only read when needed, used to hold the location of artwork so that the image data
+ * is not kept in memory unless it is actually used.
+ *
+ * <p>The size and modification time of the file are recorded when the region is created, if the file has changed
+ * when the region is read an IOException is thrown rather than returning the wrong data.
+ */
+public class FileRegion
+{
+    private final Path path;
+    private final long offset;
+    private final int length;
+    private final long fileSize;
+    private final long lastModified;
+
+    /**
+     * @param path
+     * @param offset of the start of the region
+     * @param length of the region
+     * @throws IOException if the file attributes cannot be read
+     */
+    public FileRegion(Path path, long offset, int length) throws IOException
+    {
+        BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        this.path = path;
+        this.offset = offset;
+        this.length = length;
+        this.fileSize = attrs.size();
+        this.lastModified = attrs.lastModifiedTime().toMillis();
+    }
+
+    public Path getPath()
+    {
+        return path;
+    }
+
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Read the region with a positional read
+     *
+     * @return the data
+     * @throws IOException if the file cannot be read, or has been modified since the region was created
+     */
+    public byte[] read() throws IOException
+    {
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            if (fc.size() != fileSize || Files.getLastModifiedTime(path).toMillis() != lastModified)
+            {
+                throw new IOException(ErrorMessage.GENERAL_READ_FAILED_FILE_MODIFIED.getMsg(path));
+            }
+
+            ByteBuffer data = ByteBuffer.allocate(length);
+            long position = offset;
+            while (data.hasRemaining())
+            {
+                int read = fc.read(data, position);
+                if (read < 0)
+                {
+                    throw new EOFException(path + ":Unable to read " + length + " bytes at " + offset);
+                }
+                position += read;
+            }
+            return data.array();
+        }
+    }
+
+    public String toString()
+    {
+        return path + ":" + offset + ":" + length;
+    }
+}
@@ -129,6 +129,16 @@ public class GenericAudioHeader implements AudioHeader
         return (int) Math.round(getPreciseTrackLength());
     }
 
+    /**
+     * Return the length in user friendly format, formatted the same way as for mp3
+     *
+     * @return the length as mm:ss, or hh:mm:ss if an hour or longer
+     */
+    public String getTrackLengthAsString()
+    {
+        return Utils.formatTrackLength(getTrackLength());
+    }
+
     /**
      * This method returns the duration of the represented audio clip in seconds
      * (single-precision).<br>
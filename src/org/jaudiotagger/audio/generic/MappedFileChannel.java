@@ -0,0 +1,225 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only FileChannel backed by a memory mapping of the whole file.
+ *
+ * <p>It can be used anywhere a FileChannel opened for reading is used, but {@link #slice(int)} lets readers
+ * get at the file data without copying it, {@link Utils#readFileDataIntoBufferLE(FileChannel, int)} and
+ * {@link Utils#readFileDataIntoBufferBE(FileChannel, int)} do this automatically.
+ *
+ * <p>Buffers returned by slice are read only and remain valid after the channel is closed, but the mapping
+ * is only released when they are garbage collected so they should not be kept for longer than necessary.
+ */
+public class MappedFileChannel extends FileChannel
+{
+    private final FileChannel fc;
+    private final MappedByteBuffer mappedBuffer;
+    private long position;
+
+    private MappedFileChannel(FileChannel fc) throws IOException
+    {
+        this.fc = fc;
+        this.mappedBuffer = fc.map(MapMode.READ_ONLY, 0, fc.size());
+    }
+
+    /**
+     * Open file for reading, it is memory mapped if {@link TagOptionSingleton#isMemoryMappedRead()} is set and the
+     * file is no larger than {@link TagOptionSingleton#getMemoryMappedReadMaxFileSize()}, otherwise a normal
+     * FileChannel is returned.
+     *
+     * @param path
+     * @return channel positioned at the start of the file
+     * @throws IOException
+     */
+    public static FileChannel openForRead(Path path) throws IOException
+    {
+        FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+        TagOptionSingleton options = TagOptionSingleton.getInstance();
+        if (!options.isMemoryMappedRead() || fc.size() > options.getMemoryMappedReadMaxFileSize() || fc.size() > Integer.MAX_VALUE)
+        {
+            return fc;
+        }
+
+        try
+        {
+            return new MappedFileChannel(fc);
+        }
+        catch (IOException ioe)
+        {
+            //Mapping can fail if address space exhausted, file can still be read normally
+            AudioFileReader.logger.warning(path + ":Unable to memory map file:" + ioe.getMessage());
+            return fc;
+        }
+    }
+
+    /**
+     * Slice data from the current position without copying, and move the position past it
+     *
+     * @param size
+     * @return read only buffer containing the next size bytes, or fewer if the end of file is reached
+     */
+    public ByteBuffer slice(int size)
+    {
+        int length = (int) Math.max(0, Math.min(size, mappedBuffer.limit() - position));
+        ByteBuffer slice = slice(position, length);
+        position += length;
+        return slice;
+    }
+
+    /**
+     * Slice data at a position without copying, the channel position is not changed
+     *
+     * @param position
+     * @param size
+     * @return read only buffer containing size bytes from position
+     */
+    public ByteBuffer slice(long position, int size)
+    {
+        ByteBuffer view = mappedBuffer.duplicate();
+        view.limit((int) position + size);
+        view.position((int) position);
+        return view.slice();
+    }
+
+    @Override
+    public int read(ByteBuffer dst)
+    {
+        int read = read(dst, position);
+        if (read > 0)
+        {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length)
+    {
+        long total = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            int read = read(dsts[i]);
+            if (read == -1)
+            {
+                return total == 0 ? -1 : total;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position)
+    {
+        if (position >= mappedBuffer.limit())
+        {
+            return -1;
+        }
+        int length = (int) Math.min(dst.remaining(), mappedBuffer.limit() - position);
+        dst.put(slice(position, length));
+        return length;
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public FileChannel position(long newPosition)
+    {
+        //Position can be beyond end of file, reads then return -1
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size()
+    {
+        return mappedBuffer.limit();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException
+    {
+        if (position >= mappedBuffer.limit())
+        {
+            return 0;
+        }
+        return target.write(slice(position, (int) Math.min(count, mappedBuffer.limit() - position)));
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException
+    {
+        return fc.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException
+    {
+        return fc.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException
+    {
+        return fc.tryLock(position, size, shared);
+    }
+
+    @Override
+    public void force(boolean metaData)
+    {
+        //Nothing to write
+    }
+
+    @Override
+    public int write(ByteBuffer src)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public FileChannel truncate(long size)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException
+    {
+        fc.close();
+    }
+}
@@ -0,0 +1,141 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.utils.DirectByteBufferPool;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Replaces a region of a file with new data without using a temporary file.
+ *
+ * If the new data is the same size as the region it is simply overwritten, otherwise the data after the region is
+ * shifted within the same file (in chunks of {@link TagOptionSingleton#getWriteChunkSize()}) to make room for it or to
+ * close the gap, and the file is truncated if it has become smaller.
+ */
+public class RegionReplacement
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.generic");
+
+    private final long start;
+    private final long length;
+    private final ByteBuffer data;
+
+    /**
+     * @param start  start of region within the file
+     * @param length length of the existing region
+     * @param data   to replace the region with, from its position to its limit
+     */
+    public RegionReplacement(long start, long length, ByteBuffer data)
+    {
+        this.start = start;
+        this.length = length;
+        this.data = data;
+    }
+
+    public long getStart()
+    {
+        return start;
+    }
+
+    public long getLength()
+    {
+        return length;
+    }
+
+    public ByteBuffer getData()
+    {
+        return data;
+    }
+
+    /**
+     * @return true if the new data fits exactly into the existing region, so nothing else in the file has to move
+     */
+    public boolean isSameSize()
+    {
+        return data.remaining() == length;
+    }
+
+    /**
+     * Replace the region in the file
+     *
+     * @param fc channel opened for reading and writing
+     * @throws IOException
+     */
+    public void apply(FileChannel fc) throws IOException
+    {
+        long tailStart = start + length;
+        long newTailStart = start + data.remaining();
+        long tailLength = fc.size() - tailStart;
+
+        if (newTailStart != tailStart && tailLength > 0)
+        {
+            logger.config("Shifting " + tailLength + " bytes from " + tailStart + " to " + newTailStart);
+            shift(fc, tailStart, newTailStart, tailLength);
+        }
+
+        long position = start;
+        while (data.hasRemaining())
+        {
+            position += fc.write(data, position);
+        }
+
+        if (newTailStart < tailStart)
+        {
+            fc.truncate(newTailStart + tailLength);
+        }
+    }
+
+    /**
+     * Move data within the file, the source and destination may overlap so when moving forward we copy from the
+     * end, and when moving backward from the start, so that no data is overwritten before it has been copied
+     */
+    private void shift(FileChannel fc, long from, long to, long count) throws IOException
+    {
+        ByteBuffer buffer = DirectByteBufferPool.acquire((int) Math.min(TagOptionSingleton.getInstance().getWriteChunkSize(), count));
+        try
+        {
+            long copied = 0;
+            while (copied < count)
+            {
+                int size = (int) Math.min(buffer.capacity(), count - copied);
+                long offset = to > from ? count - copied - size : copied;
+                buffer.clear();
+                buffer.limit(size);
+                readFully(fc, buffer, from + offset);
+                buffer.flip();
+                writeFully(fc, buffer, to + offset);
+                copied += size;
+            }
+        }
+        finally
+        {
+            DirectByteBufferPool.release(buffer);
+        }
+    }
+
+    private void readFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int read = fc.read(buffer, position);
+            if (read == -1)
+            {
+                throw new EOFException("Unexpected end of file at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private void writeFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            position += fc.write(buffer, position);
+        }
+    }
+}
@@ -490,6 +490,8 @@ public class Utils
     }
 
     /**
+     * Read data from the current position, if fc is a {@link MappedFileChannel} the data is sliced
+     * rather than copied so the returned buffer is read only
      *
      * @param fc
      * @param size
@@ -498,6 +500,10 @@ public class Utils
      */
     public static ByteBuffer readFileDataIntoBufferLE(FileChannel fc, final int size) throws IOException
     {
+        if (fc instanceof MappedFileChannel && fc.size() - fc.position() >= size)
+        {
+            return ((MappedFileChannel) fc).slice(size).order(ByteOrder.LITTLE_ENDIAN);
+        }
         final ByteBuffer tagBuffer = ByteBuffer.allocateDirect(size);
         fc.read(tagBuffer);
         tagBuffer.position(0);
@@ -506,6 +512,8 @@ public class Utils
     }
 
     /**
+     * Read data from the current position, if fc is a {@link MappedFileChannel} the data is sliced
+     * rather than copied so the returned buffer is read only
      *
      * @param fc
      * @param size
@@ -514,6 +522,10 @@ public class Utils
      */
     public static ByteBuffer readFileDataIntoBufferBE(FileChannel fc, final int size) throws IOException
     {
+        if (fc instanceof MappedFileChannel && fc.size() - fc.position() >= size)
+        {
+            return ((MappedFileChannel) fc).slice(size).order(ByteOrder.BIG_ENDIAN);
+        }
         final ByteBuffer tagBuffer = ByteBuffer.allocateDirect(size);
         fc.read(tagBuffer);
         tagBuffer.position(0);
@@ -546,6 +558,26 @@ public class Utils
         } //Closeables closed exiting try block in all circumstances
     }
 
+    //Shared source of zero bytes for padding, never written to
+    private static final ByteBuffer ZEROS = ByteBuffer.allocate(8192).asReadOnlyBuffer();
+
+    /**
+     * Write zero bytes at the current position of the channel without allocating a buffer for them
+     *
+     * @param fc
+     * @param count number of zero bytes to write
+     * @throws IOException
+     */
+    public static void writeZeros(final FileChannel fc, long count) throws IOException
+    {
+        while (count > 0)
+        {
+            final ByteBuffer zeros = ZEROS.duplicate();
+            zeros.limit((int) Math.min(count, zeros.capacity()));
+            count -= fc.write(zeros);
+        }
+    }
+
     /**
      *
      * @param length
@@ -559,4 +591,61 @@ public class Utils
         }
         return false;
     }
+
+    private static final int NO_SECONDS_IN_MINUTE = 60;
+    private static final int NO_SECONDS_IN_HOUR = 3600;
+
+    /**
+     * Format a track length as mm:ss, or as hh:mm:ss if an hour or longer
+     *
+     * Done arithmetically rather than with a SimpleDateFormat so no shared formatter or lock is needed and the only
+     * allocation is the returned String.
+     *
+     * @param lengthInSecs
+     * @return the length in user friendly format
+     */
+    public static String formatTrackLength(long lengthInSecs)
+    {
+        if (lengthInSecs < 0)
+        {
+            lengthInSecs = 0;
+        }
+        final long hours   = lengthInSecs / NO_SECONDS_IN_HOUR;
+        final int  minutes = (int) ((lengthInSecs % NO_SECONDS_IN_HOUR) / NO_SECONDS_IN_MINUTE);
+        final int  seconds = (int) (lengthInSecs % NO_SECONDS_IN_MINUTE);
+
+        final char[] chars = new char[24];
+        int pos = chars.length;
+        pos = putTwoDigits(chars, pos, seconds);
+        chars[--pos] = ':';
+        pos = putTwoDigits(chars, pos, minutes);
+        if (hours > 0)
+        {
+            chars[--pos] = ':';
+            long remaining = hours;
+            do
+            {
+                chars[--pos] = (char) ('0' + (remaining % 10));
+                remaining /= 10;
+            }
+            while (remaining > 0);
+            if (hours < 10)
+            {
+                chars[--pos] = '0';
+            }
+        }
+        return new String(chars, pos, chars.length - pos);
+    }
+
+    /**
+     * Write value 0-99 as two digits ending just before pos
+     *
+     * @return the new start position
+     */
+    private static int putTwoDigits(char[] chars, int pos, int value)
+    {
+        chars[--pos] = (char) ('0' + (value % 10));
+        chars[--pos] = (char) ('0' + (value / 10));
+        return pos;
+    }
 }
@@ -0,0 +1,25 @@
+package org.jaudiotagger.audio.generic;
+
+/**
+ * Defines how {@link AudioFileWriter} modifies a file when saving changes to its metadata
+ *
+ * TEMP_FILE writes a complete new file to a temporary file and then transfers it back to the original file, this is
+ * the safest option because the original file is not modified until the new file has been successfully written.
+ *
+ * IN_PLACE modifies the original file directly. If the new metadata fits into the space used by the existing metadata
+ * only that region is overwritten, otherwise the data following the metadata is shifted within the same file. If a
+ * format cannot make the change in place TEMP_FILE is used instead. Mp4 and Ogg files are only modified in place
+ * when the new metadata fits into the existing space (for Mp4 the ilst atom and any free atom after it, for Ogg the
+ * second page), because shifting the data would require the Mp4 chunk offsets to be adjusted or the following Ogg
+ * pages to be renumbered, so otherwise they are written using TEMP_FILE. Once the region has been replaced the file
+ * is checked, but because the original file is modified directly a failure during the write (such as the disk being
+ * removed) may leave it corrupted.
+ *
+ * This option should be set using TagOptionSingleton.setWriteStrategy()
+ */
+public enum WriteStrategy
+{
+    TEMP_FILE,
+    IN_PLACE,
+    ;
+}
@@ -25,6 +25,8 @@ import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.logging.Hex;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.utils.DirectByteBufferPool;
 
 import java.io.EOFException;
 import java.io.File;
@@ -32,10 +34,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -67,6 +66,7 @@ public class MP3AudioHeader implements AudioHeader
     protected MPEGFrameHeader mp3FrameHeader;
     protected XingFrame mp3XingFrame;
     protected VbriFrame mp3VbriFrame;
+    protected MP3FrameScanner mp3FrameScan;
 
     private Long audioDataStartPosition;
     private Long audioDataEndPosition;
@@ -84,9 +84,6 @@ public class MP3AudioHeader implements AudioHeader
      */
     private String  encoder = "";
 
-    private static final SimpleDateFormat timeInFormat = new SimpleDateFormat("ss", Locale.UK);
-    private static final SimpleDateFormat timeOutFormat = new SimpleDateFormat("mm:ss", Locale.UK);
-    private static final SimpleDateFormat timeOutOverAnHourFormat = new SimpleDateFormat("kk:mm:ss", Locale.UK);
     private static final char   isVbrIdentifier = '~';
 
     //Logger
@@ -98,7 +95,6 @@ public class MP3AudioHeader implements AudioHeader
      */
     private final static int FILE_BUFFER_SIZE = 5000;
     private final static int MIN_BUFFER_REMAINING_REQUIRED = MPEGFrameHeader.HEADER_SIZE + XingFrame.MAX_BUFFER_SIZE_NEEDED_TO_READ_XING;
-    private static final int NO_SECONDS_IN_HOUR = 3600;
 
     public MP3AudioHeader()
     {
@@ -169,7 +165,7 @@ public class MP3AudioHeader implements AudioHeader
         final FileChannel fc = fis.getChannel();
 
         //Read into Byte Buffer in Chunks
-        ByteBuffer bb = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        ByteBuffer bb = DirectByteBufferPool.acquire(FILE_BUFFER_SIZE);
 
         //Move FileChannel to the starting position (skipping over tag if any)
         fc.position(startByte);
@@ -298,6 +294,7 @@ public class MP3AudioHeader implements AudioHeader
         }
         finally
         {
+            DirectByteBufferPool.release(bb);
             if (fc != null)
             {
                 fc.close();
@@ -449,6 +446,10 @@ public class MP3AudioHeader implements AudioHeader
         {
             numberOfFrames = mp3VbriFrame.getFrameCount();
         }
+        else if (mp3FrameScan != null)
+        {
+            numberOfFrames = mp3FrameScan.getFrameCount();
+        }
         else
         {
             numberOfFrames = numberOfFramesEstimate;
@@ -519,7 +520,56 @@ public class MP3AudioHeader implements AudioHeader
      */
     protected void setTrackLength()
     {
-        trackLength = numberOfFrames * getTimePerFrame();
+        if (mp3FrameScan != null)
+        {
+            trackLength = mp3FrameScan.getPreciseTrackLength();
+        }
+        else
+        {
+            trackLength = numberOfFrames * getTimePerFrame();
+        }
+    }
+
+    /**
+     * Count the frames in the file rather than estimating from the size of the first frame, this is only done if
+     * there is no Xing or Vbri header providing the frame count.
+     *
+     * The number of frames, track length and bitrate are recalculated from the frames found.
+     *
+     * @param seekFile MP3 file
+     * @param mode     how to count the frames
+     * @throws IOException on any I/O error
+     */
+    public void scanFrames(final File seekFile, MP3FrameCountMode mode) throws IOException
+    {
+        if (mode == MP3FrameCountMode.ESTIMATE
+                || (mp3XingFrame != null && mp3XingFrame.isFrameCountEnabled())
+                || mp3VbriFrame != null)
+        {
+            return;
+        }
+
+        try (FileChannel fc = FileChannel.open(seekFile.toPath(), StandardOpenOption.READ))
+        {
+            //Don't count any tags at the end of the file as audio
+            long audioEnd = MP3FrameScanner.findAudioEnd(fc, startByte, fileSize);
+            if (mode == MP3FrameCountMode.SCAN)
+            {
+                mp3FrameScan = MP3FrameScanner.scan(fc, startByte, audioEnd);
+            }
+            else
+            {
+                mp3FrameScan = MP3FrameScanner.sample(fc, startByte, audioEnd, TagOptionSingleton.getInstance().getMp3FrameCountSampleWindows());
+            }
+        }
+
+        if (mp3FrameScan != null)
+        {
+            logger.config(seekFile.getName() + ":" + mp3FrameScan);
+            setNumberOfFrames();
+            setTrackLength();
+            setBitRate();
+        }
     }
 
 
@@ -542,35 +592,7 @@ public class MP3AudioHeader implements AudioHeader
      */
     public String getTrackLengthAsString()
     {
-        final Date timeIn;
-        try
-        {
-            final long lengthInSecs = getTrackLength();
-            synchronized (timeInFormat)
-            {
-                timeIn = timeInFormat.parse(String.valueOf(lengthInSecs));
-            }
-
-            if (lengthInSecs < NO_SECONDS_IN_HOUR)
-            {
-                synchronized (timeOutFormat)
-                {
-                    return timeOutFormat.format(timeIn);
-                }
-            }
-            else
-            {
-                synchronized (timeOutOverAnHourFormat)
-                {
-                    return timeOutOverAnHourFormat.format(timeIn);
-                }
-            }
-        }
-        catch (ParseException pe)
-        {
-            logger.warning("Unable to parse:" + getPreciseTrackLength() + " failed with ParseException:" + pe.getMessage());
-            return "";
-        }
+        return Utils.formatTrackLength(getTrackLength());
     }
 
     /**
@@ -609,6 +631,10 @@ public class MP3AudioHeader implements AudioHeader
                 bitrate = (long) (((fileSize - startByte) * BITS_IN_BYTE_MULTIPLIER) / (timePerFrame * getNumberOfFrames() *  Utils.KILOBYTE_MULTIPLIER));
             }
         }
+        else if (mp3FrameScan != null)
+        {
+            bitrate = mp3FrameScan.getBitRate();
+        }
         else
         {
             bitrate = mp3FrameHeader.getBitRate();
@@ -652,6 +678,10 @@ public class MP3AudioHeader implements AudioHeader
         {
             return isVbrIdentifier + String.valueOf(bitrate);
         }
+        else if (mp3FrameScan != null && mp3FrameScan.isVariableBitRate())
+        {
+            return isVbrIdentifier + String.valueOf(bitrate);
+        }
         else
         {
             return String.valueOf(bitrate);
@@ -737,6 +767,10 @@ public class MP3AudioHeader implements AudioHeader
         {
             return mp3VbriFrame.isVbr();
         }
+        else if (mp3FrameScan != null)
+        {
+            return mp3FrameScan.isVariableBitRate();
+        }
         else
         {
             return mp3FrameHeader.isVariableBitRate();
@@ -836,6 +870,11 @@ public class MP3AudioHeader implements AudioHeader
         {
             out.append("VBRI Frame:false");
         }
+
+        if (this.mp3FrameScan != null)
+        {
+            out.append(mp3FrameScan.toString());
+        }
         return out.toString();
     }
 
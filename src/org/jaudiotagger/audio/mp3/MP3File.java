@@ -24,23 +24,26 @@ package org.jaudiotagger.audio.mp3;
 
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.*;
+import org.jaudiotagger.audio.generic.AudioDataDigest;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Permissions;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.logging.*;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.TagNotFoundException;
 import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.*;
 import org.jaudiotagger.tag.lyrics3.AbstractLyrics3;
 import org.jaudiotagger.tag.reference.ID3V2Version;
+import org.jaudiotagger.utils.DirectByteBufferPool;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.logging.Level;
 
@@ -51,7 +54,8 @@ public class MP3File extends AudioFile
 {
     private static final int MINIMUM_FILESIZE = 150;
 
-    protected static AbstractTagDisplayFormatter tagFormatter;
+    //Formatter used by the tags createStructure methods, per thread so that files can be displayed concurrently
+    private static final ThreadLocal<AbstractTagDisplayFormatter> tagFormatter = new ThreadLocal<AbstractTagDisplayFormatter>();
 
     /**
      * the ID3v2 tag that this file contains.
@@ -179,11 +183,9 @@ public class MP3File extends AudioFile
         if (startByte >= AbstractID3v2Tag.TAG_HEADER_LENGTH)
         {
             logger.finer("Attempting to read id3v2tags");
-            try (final FileInputStream fis = new FileInputStream(file))
+            try (final FileChannel fc = MappedFileChannel.openForRead(file.toPath()))
             {
-                final ByteBuffer bb = ByteBuffer.allocateDirect(startByte);
-                fis.getChannel().read(bb,0);
-                bb.rewind();
+                final ByteBuffer bb = Utils.readFileDataIntoBufferBE(fc, startByte);
 
                 if ((loadOptions & LOAD_IDV2TAG) != 0)
                 {
@@ -280,12 +282,13 @@ public class MP3File extends AudioFile
         logger.config("Checking file portion:" + Hex.asHex(startByte) + ":" + Hex.asHex(endByte));
         FileInputStream fis=null;
         FileChannel     fc=null;
+        ByteBuffer      bb=null;
         try
         {
             fis = new FileInputStream(file);
             fc = fis.getChannel();
             fc.position(startByte);
-            ByteBuffer bb = ByteBuffer.allocateDirect(endByte - startByte);
+            bb = DirectByteBufferPool.acquire(endByte - startByte);
             fc.read(bb);
             while(bb.hasRemaining())
             {
@@ -297,6 +300,7 @@ public class MP3File extends AudioFile
         }
         finally
         {
+            DirectByteBufferPool.release(bb);
             if (fc != null)
             {
                 fc.close();
@@ -417,23 +421,53 @@ public class MP3File extends AudioFile
             //Check File accessibility
             newFile = checkFilePermissions(file, readOnly);
 
+            int readOptions = TagOptionSingleton.getInstance().getReadOptions();
+            partiallyRead = TagOptionSingleton.getInstance().isPartialRead();
+
             //Read ID3v2 tag size (if tag exists) to allow audioHeader parsing to skip over tag
             long tagSizeReportedByHeader = AbstractID3v2Tag.getV2TagSizeIfExists(file);
             logger.config("TagHeaderSize:" + Hex.asHex(tagSizeReportedByHeader));
-            audioHeader = new MP3AudioHeader(file, tagSizeReportedByHeader);
 
-            //If the audio header is not straight after the end of the tag then search from start of file
-            if (tagSizeReportedByHeader != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+            //Without the audio header we have to trust the tag size reported by the tag header
+            int v2TagEndByte = (int) tagSizeReportedByHeader;
+            if ((readOptions & READ_AUDIO_HEADER) != 0)
             {
-                logger.config("First header found after tag:" + audioHeader);
-                audioHeader = checkAudioStart(tagSizeReportedByHeader, (MP3AudioHeader) audioHeader);
+                audioHeader = new MP3AudioHeader(file, tagSizeReportedByHeader);
+
+                //If the audio header is not straight after the end of the tag then search from start of file
+                if (tagSizeReportedByHeader != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+                {
+                    logger.config("First header found after tag:" + audioHeader);
+                    audioHeader = checkAudioStart(tagSizeReportedByHeader, (MP3AudioHeader) audioHeader);
+                }
+
+                //Only count frames once start of audio is known
+                ((MP3AudioHeader) audioHeader).scanFrames(file, TagOptionSingleton.getInstance().getMp3FrameCountMode());
+                v2TagEndByte = (int) ((MP3AudioHeader) audioHeader).getMp3StartByte();
+
+                //Read v1 tags (if any)
+                readV1Tag(file, newFile, loadOptions);
+
+                //Audio runs from the first frame up to any v1 tag
+                ((MP3AudioHeader) audioHeader).setAudioDataStartPosition(((MP3AudioHeader) audioHeader).getMp3StartByte());
+                ((MP3AudioHeader) audioHeader).setAudioDataEndPosition(file.length() - (id3v1tag != null ? id3v1tag.getSize() : 0));
             }
 
-            //Read v1 tags (if any)
-            readV1Tag(file, newFile, loadOptions);
+            if ((readOptions & READ_TAG) != 0)
+            {
+                //Read v1 tags (if any) if not already read
+                if (audioHeader == null)
+                {
+                    readV1Tag(file, newFile, loadOptions);
+                }
 
-            //Read v2 tags (if any)
-            readV2Tag(file, loadOptions, (int)((MP3AudioHeader) audioHeader).getMp3StartByte());
+                //Read v2 tags (if any)
+                readV2Tag(file, loadOptions, v2TagEndByte);
+            }
+            else
+            {
+                id3v1tag = null;
+            }
 
             //If we have a v2 tag use that, if we do not but have v1 tag use that
             //otherwise use nothing
@@ -676,6 +710,8 @@ public class MP3File extends AudioFile
      * Calculates hash with algorithm "MD5", "SHA-1" or SHA-256".
      * Hash is calculated EXCLUDING meta-data, like id3v1 or id3v2
      *
+     * @param algorithm
+     * @param bufferSize no longer used, data is read using a reusable direct buffer
      * @return byte[] hash value in byte
      * @throws IOException 
      * @throws InvalidAudioFrameException 
@@ -684,42 +720,15 @@ public class MP3File extends AudioFile
     
     public byte[] getHash(String algorithm, int bufferSize) throws InvalidAudioFrameException, IOException, NoSuchAlgorithmException
     {
-    	File mp3File = getFile();
-    	long startByte = getMP3StartByte(mp3File);
-    	
-    	int id3v1TagSize = 0;
-		if (hasID3v1Tag()){
-		ID3v1Tag id1tag= getID3v1Tag();
-		id3v1TagSize  = id1tag.getSize();
-		}
-		
-		InputStream inStream = Files
-				.newInputStream(Paths.get(mp3File.getAbsolutePath()));
-		
-		byte[] buffer = new byte[bufferSize];
+        File mp3File = getFile();
+        long startByte = getMP3StartByte(mp3File);
 
-		MessageDigest digest = MessageDigest.getInstance(algorithm);
-
-		inStream.skip(startByte);
-		
-		int read;
-		long totalSize = mp3File.length() - startByte - id3v1TagSize;
-		int pointer  = buffer.length;
-		
-		while (pointer <= totalSize ) {
-			
-			read = inStream.read(buffer);
-			
-			digest.update(buffer, 0, read);
-			pointer += buffer.length;
-			}
-		read = inStream.read(buffer,0,(int)totalSize - pointer + buffer.length);
-		digest.update(buffer, 0, read);
-		
-		byte[] hash = digest.digest();
-
-		
-        return hash;
+        int id3v1TagSize = 0;
+        if (hasID3v1Tag())
+        {
+            id3v1TagSize = getID3v1Tag().getSize();
+        }
+        return AudioDataDigest.digest(mp3File, startByte, mp3File.length() - id3v1TagSize, algorithm);
     }
 
     /**
@@ -869,6 +878,8 @@ public class MP3File extends AudioFile
      */
     public void commit() throws CannotWriteException
     {
+        //Saves directly rather than via AudioFileIO so apply any options the file was read with here
+        TagOptions.Scope scope = tagOptions != null ? tagOptions.apply() : null;
         try
         {
             save();
@@ -885,6 +896,13 @@ public class MP3File extends AudioFile
         {
             throw new CannotWriteException(te);
         }
+        finally
+        {
+            if (scope != null)
+            {
+                scope.close();
+            }
+        }
     }
 
     /**
@@ -914,6 +932,34 @@ public class MP3File extends AudioFile
             logger.severe(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_FILE_IS_TOO_SMALL.getMsg(file.getName()));
             throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_FILE_IS_TOO_SMALL.getMsg(file.getName()));
         }
+
+        if (isPartiallyRead())
+        {
+            logger.severe(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTIALLY_READ.getMsg(file.getName()));
+            throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTIALLY_READ.getMsg(file.getName()));
+        }
+    }
+
+    /**
+     * Dry run of saving the ID3v2 tag, the file is not modified. Batch jobs can use this to group several edits
+     * to a file into one save if the first edit would move the audio.
+     *
+     * @return true if the ID3v2 tag would be written in the space before the audio (or there is no ID3v2 tag to
+     * write), false if the audio would have to be moved to make room for it
+     * @throws IOException if the file was only partially read so the start of the audio is not known
+     */
+    public boolean isID3v2TagWrittenInPlace() throws IOException
+    {
+        if (!TagOptionSingleton.getInstance().isId3v2Save() || id3v2tag == null)
+        {
+            return true;
+        }
+        if (isPartiallyRead() || !(this.getAudioHeader() instanceof MP3AudioHeader))
+        {
+            throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_FILE_PARTIALLY_READ.getMsg(file.getName()));
+        }
+        final long mp3StartByte = ((MP3AudioHeader) this.getAudioHeader()).getMp3StartByte();
+        return id3v2tag.calculateTagSizeIncPadding(mp3StartByte) <= mp3StartByte;
     }
 
     /**
@@ -1017,18 +1063,9 @@ public class MP3File extends AudioFile
      */
     public String displayStructureAsXML()
     {
-        createXMLStructureFormatter();
-        tagFormatter.openHeadingElement("file", this.getFile().getAbsolutePath());
-        if (this.getID3v1Tag() != null)
-        {
-            this.getID3v1Tag().createStructure();
-        }
-        if (this.getID3v2Tag() != null)
-        {
-            this.getID3v2Tag().createStructure();
-        }
-        tagFormatter.closeHeadingElement("file");
-        return tagFormatter.toString();
+        AbstractTagDisplayFormatter formatter = new XMLTagDisplayFormatter();
+        createStructure(formatter);
+        return formatter.toString();
     }
 
     /**
@@ -1036,33 +1073,56 @@ public class MP3File extends AudioFile
      */
     public String displayStructureAsPlainText()
     {
-        createPlainTextStructureFormatter();
-        tagFormatter.openHeadingElement("file", this.getFile().getAbsolutePath());
-        if (this.getID3v1Tag() != null)
+        AbstractTagDisplayFormatter formatter = new PlainTextTagDisplayFormatter();
+        createStructure(formatter);
+        return formatter.toString();
+    }
+
+    /**
+     * Write the structure of the ID3 tags using the formatter
+     *
+     * @param formatter
+     */
+    @Override
+    protected void createStructure(AbstractTagDisplayFormatter formatter)
+    {
+        AbstractTagDisplayFormatter previous = tagFormatter.get();
+        tagFormatter.set(formatter);
+        try
         {
-            this.getID3v1Tag().createStructure();
+            formatter.openHeadingElement("file", this.getFile().getAbsolutePath());
+            if (this.getID3v1Tag() != null)
+            {
+                this.getID3v1Tag().createStructure();
+            }
+            if (this.getID3v2Tag() != null)
+            {
+                this.getID3v2Tag().createStructure();
+            }
+            formatter.closeHeadingElement("file");
         }
-        if (this.getID3v2Tag() != null)
+        finally
         {
-            this.getID3v2Tag().createStructure();
+            tagFormatter.set(previous);
         }
-        tagFormatter.closeHeadingElement("file");
-        return tagFormatter.toString();
     }
 
-    private static void createXMLStructureFormatter()
-    {
-        tagFormatter = new XMLTagDisplayFormatter();
-    }
-
-    private static void createPlainTextStructureFormatter()
+    /**
+     * @return the formatter in use by this thread whilst displaying the structure of a file
+     */
+    public static AbstractTagDisplayFormatter getStructureFormatter()
     {
-        tagFormatter = new PlainTextTagDisplayFormatter();
+        return tagFormatter.get();
     }
 
-    public static AbstractTagDisplayFormatter getStructureFormatter()
+    /**
+     * @return the formatter in use by this thread whilst displaying the structure of a file
+     * @deprecated the formatter is no longer held in a shared field, use {@link #getStructureFormatter()}
+     */
+    @Deprecated
+    protected static AbstractTagDisplayFormatter getTagFormatter()
     {
-        return tagFormatter;
+        return getStructureFormatter();
     }
 
     /**
@@ -0,0 +1,22 @@
+package org.jaudiotagger.audio.mp3;
+
+/**
+ * How the number of frames is calculated for an MP3 file that does not have a Xing or Vbri header
+ *
+ * ESTIMATE divides the size of the audio by the size of the first frame, this only requires the first frame to be read
+ * but is inaccurate for variable bitrate files.
+ *
+ * SCAN reads every frame header in the file giving an exact frame count, track length and average bitrate.
+ *
+ * SAMPLED reads a number of evenly spaced windows (see TagOptionSingleton.setMp3FrameCountSampleWindows()) and
+ * estimates the frame count from the average frame size found, reducing the amount of the file that has to be read.
+ *
+ * This option should be set using TagOptionSingleton.setMp3FrameCountMode()
+ */
+public enum MP3FrameCountMode
+{
+    ESTIMATE,
+    SCAN,
+    SAMPLED,
+    ;
+}
@@ -0,0 +1,558 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.utils.DirectByteBufferPool;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+
+/**
+ * Counts the MPEG frames in the audio part of a file by walking from frame header to frame header.
+ *
+ * Used when a file has no Xing or Vbri header, because then the frame count can only be estimated from the size of the
+ * first frame which is wrong for variable bitrate files and inexact for constant bitrate files where only some frames
+ * are padded.
+ *
+ * Frame headers are decoded directly from the buffer using lookup tables, so no objects are created per frame. The
+ * tables follow the MPEG specification, in particular MPEG-2/2.5 Layer III frames contain 576 samples, so that the
+ * frame boundaries are found for mono and stereo files.
+ *
+ * A scan reads the whole of the audio, a sample only reads a number of evenly spaced windows and extrapolates from
+ * the average frame size found in them.
+ */
+public class MP3FrameScanner
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp3");
+
+    /**
+     * Size of buffer used to read the audio
+     */
+    private static final int SCAN_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Size of each window read when sampling
+     */
+    private static final int SAMPLE_WINDOW_SIZE = 64 * 1024;
+
+    /**
+     * Tags that may follow the audio at the end of the file
+     */
+    private static final String ID3V1_ID = "TAG";
+    private static final int ID3V1_LENGTH = 128;
+    private static final String APE_ID = "APETAGEX";
+    private static final int APE_FOOTER_LENGTH = 32;
+    private static final int APE_SIZE_POS = 12;
+    private static final int APE_FLAGS_POS = 20;
+    private static final int APE_FLAG_HAS_HEADER = 0x80000000;
+    private static final String LYRICS3V2_ID = "LYRICS200";
+    private static final int LYRICS3V2_SIZE_LENGTH = 6;
+    private static final int LYRICS3V2_FOOTER_LENGTH = LYRICS3V2_SIZE_LENGTH + 9;
+    private static final String LYRICS3V1_BEGIN_ID = "LYRICSBEGIN";
+    private static final String LYRICS3V1_END_ID = "LYRICSEND";
+    private static final int LYRICS3V1_MAX_LENGTH = 5100 + 11 + 9;
+
+    private static final int VERSION_RESERVED = 1;
+    private static final int LAYER_RESERVED = 0;
+    private static final int LAYER_I = MPEGFrameHeader.LAYER_I;
+
+    /**
+     * Bitrates in kbps indexed by bitrate index, index 0 (free format) and 15 are not supported
+     */
+    private static final int[] BITRATE_V1_LAYER_I = {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448, 0};
+    private static final int[] BITRATE_V1_LAYER_II = {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384, 0};
+    private static final int[] BITRATE_V1_LAYER_III = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 0};
+    private static final int[] BITRATE_V2_LAYER_I = {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256, 0};
+    private static final int[] BITRATE_V2_LAYER_II_III = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160, 0};
+
+    /**
+     * Sampling rates indexed by version then sampling rate index
+     */
+    private static final int[][] SAMPLING_RATE =
+            {
+                    {11025, 12000, 8000, 0},
+                    {0, 0, 0, 0},
+                    {22050, 24000, 16000, 0},
+                    {44100, 48000, 32000, 0},
+            };
+
+    /**
+     * Bitrate table indexed by version then layer
+     */
+    private static final int[][][] BITRATE =
+            {
+                    {null, BITRATE_V2_LAYER_II_III, BITRATE_V2_LAYER_II_III, BITRATE_V2_LAYER_I},
+                    {null, null, null, null},
+                    {null, BITRATE_V2_LAYER_II_III, BITRATE_V2_LAYER_II_III, BITRATE_V2_LAYER_I},
+                    {null, BITRATE_V1_LAYER_III, BITRATE_V1_LAYER_II, BITRATE_V1_LAYER_I},
+            };
+
+    /**
+     * Samples per frame indexed by version then layer
+     */
+    private static final int[][] SAMPLES_PER_FRAME =
+            {
+                    {0, 576, 1152, 384},
+                    {0, 0, 0, 0},
+                    {0, 576, 1152, 384},
+                    {0, 1152, 1152, 384},
+            };
+
+    /**
+     * Bits of the second and third header bytes that must be the same in every frame, version, layer and sampling rate
+     */
+    private static final int MASK_BYTE2_FIXED = 0x1E;
+    private static final int MASK_BYTE3_FIXED = 0x0C;
+
+    private long frameCount;
+    private long sampleCount;
+    private long audioByteCount;
+    private int samplingRate;
+    private boolean variableBitRate;
+    private boolean exact;
+
+    //Used whilst scanning
+    private int firstBitRateIndex = -1;
+    private ByteBuffer buffer;
+    private long bufferStart;
+    private int referenceByte2;
+    private int referenceByte3;
+
+    private MP3FrameScanner(int firstFrameHeader)
+    {
+        referenceByte2 = (firstFrameHeader >>> 16) & MASK_BYTE2_FIXED;
+        referenceByte3 = (firstFrameHeader >>> 8) & MASK_BYTE3_FIXED;
+    }
+
+    /**
+     * Count every frame between start and end
+     *
+     * @param fc    channel to read from, its position is not changed
+     * @param start the start of the first frame
+     * @param end   the end of the audio, see {@link #findAudioEnd(FileChannel, long, long)}
+     * @return the result of the scan
+     * @throws IOException
+     */
+    public static MP3FrameScanner scan(FileChannel fc, long start, long end) throws IOException
+    {
+        MP3FrameScanner scanner = createScanner(fc, start);
+        if (scanner == null)
+        {
+            return null;
+        }
+
+        scanner.buffer = DirectByteBufferPool.acquire((int) Math.max(MPEGFrameHeader.HEADER_SIZE, Math.min(SCAN_BUFFER_SIZE, end - start)));
+        try
+        {
+            scanner.countFrames(fc, start, end, true);
+        }
+        finally
+        {
+            DirectByteBufferPool.release(scanner.buffer);
+            scanner.buffer = null;
+        }
+        scanner.exact = true;
+        return scanner;
+    }
+
+    /**
+     * Estimate the frames between start and end by counting the frames in a number of evenly spaced windows
+     *
+     * @param fc      channel to read from, its position is not changed
+     * @param start   the start of the first frame
+     * @param end     the end of the audio, see {@link #findAudioEnd(FileChannel, long, long)}
+     * @param windows the number of windows to read
+     * @return the result of the sample
+     * @throws IOException
+     */
+    public static MP3FrameScanner sample(FileChannel fc, long start, long end, int windows) throws IOException
+    {
+        //No point sampling if would read the whole file anyway
+        if (windows <= 0 || (long) windows * SAMPLE_WINDOW_SIZE >= end - start)
+        {
+            return scan(fc, start, end);
+        }
+
+        MP3FrameScanner scanner = createScanner(fc, start);
+        if (scanner == null)
+        {
+            return null;
+        }
+
+        scanner.buffer = DirectByteBufferPool.acquire(SAMPLE_WINDOW_SIZE);
+        try
+        {
+            long spacing = (end - start - SAMPLE_WINDOW_SIZE) / Math.max(1, windows - 1);
+            for (int i = 0; i < windows; i++)
+            {
+                long windowStart = start + i * spacing;
+                //First window starts on a frame, others have to find one
+                scanner.countFrames(fc, windowStart, windowStart + SAMPLE_WINDOW_SIZE, i == 0);
+            }
+        }
+        finally
+        {
+            DirectByteBufferPool.release(scanner.buffer);
+            scanner.buffer = null;
+        }
+
+        if (scanner.frameCount == 0)
+        {
+            return null;
+        }
+
+        //Extrapolate from average frame size
+        double averageFrameLength = (double) scanner.audioByteCount / scanner.frameCount;
+        double averageSamplesPerFrame = (double) scanner.sampleCount / scanner.frameCount;
+        scanner.frameCount = Math.round((end - start) / averageFrameLength);
+        scanner.sampleCount = Math.round(scanner.frameCount * averageSamplesPerFrame);
+        scanner.audioByteCount = end - start;
+        scanner.exact = false;
+        return scanner;
+    }
+
+    /**
+     * Find the end of the audio, before any ID3v1, Lyrics3 or APE tags at the end of the file, so they are not
+     * scanned as audio
+     *
+     * @param fc    channel to read from, its position is not changed
+     * @param start the start of the first frame
+     * @param end   the length of the file
+     * @return the end of the audio
+     * @throws IOException
+     */
+    public static long findAudioEnd(FileChannel fc, long start, long end) throws IOException
+    {
+        ByteBuffer trailer = ByteBuffer.allocate(APE_FOOTER_LENGTH);
+        boolean found = true;
+        while (found)
+        {
+            found = false;
+            if (end - start >= ID3V1_LENGTH && readTrailer(fc, trailer, end - ID3V1_LENGTH, ID3V1_ID.length()).equals(ID3V1_ID))
+            {
+                end -= ID3V1_LENGTH;
+                found = true;
+            }
+            else if (end - start >= APE_FOOTER_LENGTH && readTrailer(fc, trailer, end - APE_FOOTER_LENGTH, APE_FOOTER_LENGTH).startsWith(APE_ID))
+            {
+                //Size includes the footer but not the optional header
+                trailer.order(ByteOrder.LITTLE_ENDIAN);
+                long size = trailer.getInt(APE_SIZE_POS) & 0xFFFFFFFFL;
+                if ((trailer.getInt(APE_FLAGS_POS) & APE_FLAG_HAS_HEADER) != 0)
+                {
+                    size += APE_FOOTER_LENGTH;
+                }
+                trailer.order(ByteOrder.BIG_ENDIAN);
+                if (size >= APE_FOOTER_LENGTH && size <= end - start)
+                {
+                    end -= size;
+                    found = true;
+                }
+            }
+            else if (end - start >= LYRICS3V2_FOOTER_LENGTH && readTrailer(fc, trailer, end - LYRICS3V2_FOOTER_LENGTH, LYRICS3V2_FOOTER_LENGTH).endsWith(LYRICS3V2_ID))
+            {
+                //Size includes LYRICSBEGIN but not the size or LYRICS200 that follow it
+                try
+                {
+                    long size = Long.parseLong(readTrailer(fc, trailer, end - LYRICS3V2_FOOTER_LENGTH, LYRICS3V2_SIZE_LENGTH)) + LYRICS3V2_FOOTER_LENGTH;
+                    if (size <= end - start)
+                    {
+                        end -= size;
+                        found = true;
+                    }
+                }
+                catch (NumberFormatException nfe)
+                {
+                    logger.finest("Invalid Lyrics3v2 size before:" + end);
+                }
+            }
+            else if (end - start >= LYRICS3V1_END_ID.length() && readTrailer(fc, trailer, end - LYRICS3V1_END_ID.length(), LYRICS3V1_END_ID.length()).equals(LYRICS3V1_END_ID))
+            {
+                long lyricsStart = findLyrics3v1Start(fc, Math.max(start, end - LYRICS3V1_MAX_LENGTH), end);
+                if (lyricsStart != -1)
+                {
+                    end = lyricsStart;
+                    found = true;
+                }
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Read bytes from the file as ISO-8859-1 characters
+     */
+    private static String readTrailer(FileChannel fc, ByteBuffer trailer, long position, int length) throws IOException
+    {
+        trailer.clear();
+        trailer.limit(length);
+        while (trailer.hasRemaining())
+        {
+            if (fc.read(trailer, position + trailer.position()) == -1)
+            {
+                break;
+            }
+        }
+        return new String(trailer.array(), 0, trailer.position(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return the start of the Lyrics3v1 tag that ends at end, or -1 if it cannot be found
+     */
+    private static long findLyrics3v1Start(FileChannel fc, long from, long end) throws IOException
+    {
+        ByteBuffer lyrics = ByteBuffer.allocate((int) (end - from));
+        while (lyrics.hasRemaining())
+        {
+            if (fc.read(lyrics, from + lyrics.position()) == -1)
+            {
+                return -1;
+            }
+        }
+        int index = new String(lyrics.array(), StandardCharsets.ISO_8859_1).lastIndexOf(LYRICS3V1_BEGIN_ID);
+        return index == -1 ? -1 : from + index;
+    }
+
+    /**
+     * Create scanner using the frame at start as the reference all other frames must match
+     */
+    private static MP3FrameScanner createScanner(FileChannel fc, long start) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(MPEGFrameHeader.HEADER_SIZE);
+        while (header.hasRemaining())
+        {
+            if (fc.read(header, start + header.position()) == -1)
+            {
+                return null;
+            }
+        }
+        int firstFrameHeader = header.getInt(0);
+        if (getFrameLength(firstFrameHeader) <= 0)
+        {
+            return null;
+        }
+        MP3FrameScanner scanner = new MP3FrameScanner(firstFrameHeader);
+        scanner.samplingRate = SAMPLING_RATE[(firstFrameHeader >>> 19) & 0x03][(firstFrameHeader >>> 10) & 0x03];
+        return scanner;
+    }
+
+    /**
+     * Count frames between start and end
+     *
+     * @param synced true if start is known to be the start of a frame, otherwise a frame is only accepted if it is
+     *               followed by another frame
+     */
+    private void countFrames(FileChannel fc, long start, long end, boolean synced) throws IOException
+    {
+        long position = start;
+        bufferStart = start;
+        buffer.clear();
+        buffer.limit(0);
+
+        while (position + MPEGFrameHeader.HEADER_SIZE <= end)
+        {
+            if (!fill(fc, position, MPEGFrameHeader.HEADER_SIZE, end))
+            {
+                break;
+            }
+            int offset = (int) (position - bufferStart);
+            int frameHeader = buffer.getInt(offset);
+            int frameLength = getMatchingFrameLength(frameHeader);
+            if (frameLength > 0 && position + frameLength <= end)
+            {
+                if (!synced)
+                {
+                    //Check there is another frame following this one, unless it ends exactly at the end
+                    synced = position + frameLength == end
+                            || (fill(fc, position, frameLength + MPEGFrameHeader.HEADER_SIZE, end)
+                            && getMatchingFrameLength(buffer.getInt((int) (position - bufferStart) + frameLength)) > 0);
+                }
+
+                if (synced)
+                {
+                    addFrame(frameHeader, frameLength);
+                    position += frameLength;
+                    continue;
+                }
+            }
+            else if (synced)
+            {
+                logger.finest("Lost sync at:" + position);
+                synced = false;
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Ensure the buffer contains the required bytes from position, reloading the buffer from position if not
+     *
+     * @return false if they are not all available before end
+     */
+    private boolean fill(FileChannel fc, long position, int required, long end) throws IOException
+    {
+        if (position + required <= bufferStart + buffer.limit())
+        {
+            return true;
+        }
+
+        buffer.clear();
+        if (end - position < buffer.capacity())
+        {
+            buffer.limit((int) (end - position));
+        }
+        bufferStart = position;
+        while (buffer.hasRemaining())
+        {
+            if (fc.read(buffer, position + buffer.position()) == -1)
+            {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer.limit() >= required;
+    }
+
+    private void addFrame(int frameHeader, int frameLength)
+    {
+        frameCount++;
+        audioByteCount += frameLength;
+        sampleCount += SAMPLES_PER_FRAME[(frameHeader >>> 19) & 0x03][(frameHeader >>> 17) & 0x03];
+
+        int bitRateIndex = (frameHeader >>> 12) & 0x0F;
+        if (firstBitRateIndex == -1)
+        {
+            firstBitRateIndex = bitRateIndex;
+        }
+        else if (firstBitRateIndex != bitRateIndex)
+        {
+            variableBitRate = true;
+        }
+    }
+
+    /**
+     * @return the length of the frame, or -1 if this is not a frame header or does not match the first frame
+     */
+    private int getMatchingFrameLength(int frameHeader)
+    {
+        if (((frameHeader >>> 16) & MASK_BYTE2_FIXED) != referenceByte2 || ((frameHeader >>> 8) & MASK_BYTE3_FIXED) != referenceByte3)
+        {
+            return -1;
+        }
+        return getFrameLength(frameHeader);
+    }
+
+    /**
+     * Decode the frame length from the four header bytes
+     *
+     * @param frameHeader the four header bytes, big endian
+     * @return the length of the frame in bytes, or -1 if this is not a valid frame header
+     */
+    static int getFrameLength(int frameHeader)
+    {
+        //Sync
+        if ((frameHeader & 0xFFE00000) != 0xFFE00000)
+        {
+            return -1;
+        }
+
+        int version = (frameHeader >>> 19) & 0x03;
+        int layer = (frameHeader >>> 17) & 0x03;
+        int bitRateIndex = (frameHeader >>> 12) & 0x0F;
+        int samplingRateIndex = (frameHeader >>> 10) & 0x03;
+        int padding = (frameHeader >>> 9) & 0x01;
+        if (version == VERSION_RESERVED || layer == LAYER_RESERVED)
+        {
+            return -1;
+        }
+
+        int bitRate = BITRATE[version][layer][bitRateIndex];
+        int samplingRate = SAMPLING_RATE[version][samplingRateIndex];
+        if (bitRate == 0 || samplingRate == 0)
+        {
+            return -1;
+        }
+
+        if (layer == LAYER_I)
+        {
+            return (12 * bitRate * 1000 / samplingRate + padding) * MPEGFrameHeader.LAYER_I_SLOT_SIZE;
+        }
+        //Samples per frame / 8 bits per byte
+        return (SAMPLES_PER_FRAME[version][layer] / 8) * bitRate * 1000 / samplingRate + padding;
+    }
+
+    /**
+     * @return number of frames
+     */
+    public long getFrameCount()
+    {
+        return frameCount;
+    }
+
+    /**
+     * @return number of samples (per channel)
+     */
+    public long getSampleCount()
+    {
+        return sampleCount;
+    }
+
+    /**
+     * @return number of bytes in frames
+     */
+    public long getAudioByteCount()
+    {
+        return audioByteCount;
+    }
+
+    /**
+     * @return track length in seconds
+     */
+    public double getPreciseTrackLength()
+    {
+        return (double) sampleCount / samplingRate;
+    }
+
+    /**
+     * @return average bitrate in kbps
+     */
+    public long getBitRate()
+    {
+        double trackLength = getPreciseTrackLength();
+        if (trackLength <= 0)
+        {
+            return 0;
+        }
+        return Math.round(audioByteCount * 8 / (trackLength * 1000));
+    }
+
+    /**
+     * @return true if the frames found did not all have the same bitrate
+     */
+    public boolean isVariableBitRate()
+    {
+        return variableBitRate;
+    }
+
+    /**
+     * @return true if every frame was counted, false if the counts were estimated from a sample
+     */
+    public boolean isExact()
+    {
+        return exact;
+    }
+
+    public String toString()
+    {
+        return "MP3 Frame Scan:\n"
+                + "\tframeCount:" + frameCount + "\n"
+                + "\tsampleCount:" + sampleCount + "\n"
+                + "\taudioByteCount:" + audioByteCount + "\n"
+                + "\tbitrate:" + getBitRate() + "\n"
+                + "\tisVariableBitRate:" + variableBitRate + "\n"
+                + "\tisExact:" + exact + "\n";
+    }
+}
@@ -55,6 +55,15 @@ public class Mp4AtomTree
     private ByteBuffer moovBuffer; //Contains all the data under moov
     private Mp4BoxHeader moovHeader;
 
+    //Lazy mode, only box headers are read within moov except for metadata, sample tables are loaded when needed
+    private boolean lazy;
+    private FileChannel fc;
+    private List<DefaultMutableTreeNode> unloadedStblNodes = new ArrayList<DefaultMutableTreeNode>();
+    private DefaultMutableTreeNode ftypNode;
+    private DefaultMutableTreeNode moovUdtaNode;
+    //In lazy mode the data of the udta atom within moov, kept so the metadata can be read without reading it again
+    private ByteBuffer moovUdtaBuffer;
+
     //Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp4");
 
@@ -84,6 +93,26 @@ public class Mp4AtomTree
         buildTree(raf, closeOnExit);
     }
 
+    /**
+     * Create Atom Tree, optionally in lazy mode.
+     *
+     * In lazy mode the moov atom is not loaded into memory, only the headers of its children are read and the data
+     * for udta so the metadata atoms can be found. The children of stbl are not added until
+     * {@link #loadSampleTables()} is called, which must be done while raf is still open and before calling
+     * {@link #getStcos()}, {@link #getStcoNodes()} or {@link #getMoovBuffer()}.
+     *
+     * @param raf
+     * @param closeOnExit to keep randomfileaccess open, only used when randomaccessfile already being used
+     * @param lazy only read what is needed to find the metadata
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    public Mp4AtomTree(RandomAccessFile raf, boolean closeOnExit, boolean lazy) throws IOException, CannotReadException
+    {
+        this.lazy = lazy;
+        buildTree(raf, closeOnExit);
+    }
+
     /**
      * Build a tree of the atoms in the file
      *
@@ -155,17 +184,22 @@ public class Mp4AtomTree
                     moovHeader  = boxHeader;
 
                     long filePosStart = fc.position();
-                    moovBuffer = ByteBuffer.allocate(boxHeader.getDataLength());
-                    int bytesRead = fc.read(moovBuffer);
-
-                    //If Moov atom is incomplete we are not going to be able to read this file properly
-                    if(bytesRead < boxHeader.getDataLength())
+                    if (lazy)
+                    {
+                        //If Moov atom is incomplete we are not going to be able to read this file properly
+                        if (fc.size() - filePosStart < boxHeader.getDataLength())
+                        {
+                            String msg = ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(boxHeader.getId(), boxHeader.getDataLength(), fc.size() - filePosStart);
+                            throw new CannotReadException(msg);
+                        }
+                        this.fc = fc;
+                        buildChildrenOfNodeLazily(fc, newAtom);
+                    }
+                    else
                     {
-                        String msg = ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(boxHeader.getId(), boxHeader.getDataLength(),bytesRead);
-                        throw new CannotReadException(msg);
+                        readMoovBuffer(fc);
+                        buildChildrenOfNode(moovBuffer, newAtom);
                     }
-                    moovBuffer.rewind();
-                    buildChildrenOfNode(moovBuffer, newAtom);
                     fc.position(filePosStart);
                 }
                 else if (boxHeader.getId().equals(Mp4AtomIdentifier.FREE.getFieldName()))
@@ -173,6 +207,10 @@ public class Mp4AtomTree
                     //Might be multiple in different locations
                     freeNodes.add(newAtom);
                 }
+                else if (boxHeader.getId().equals(Mp4AtomIdentifier.FTYP.getFieldName()) && ftypNode == null)
+                {
+                    ftypNode = newAtom;
+                }
                 else if (boxHeader.getId().equals(Mp4AtomIdentifier.MDAT.getFieldName()))
                 {
                     //mdatNode always points to the last mDatNode, normally there is just one mdatnode but do have
@@ -228,6 +266,176 @@ public class Mp4AtomTree
         }
     }
 
+    /**
+     * Read all the data under moov into moovBuffer
+     *
+     * @param fc
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    private void readMoovBuffer(FileChannel fc) throws IOException, CannotReadException
+    {
+        moovBuffer = ByteBuffer.allocate(moovHeader.getDataLength());
+        int bytesRead = fc.read(moovBuffer, moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH);
+
+        //If Moov atom is incomplete we are not going to be able to read this file properly
+        if(bytesRead < moovHeader.getDataLength())
+        {
+            String msg = ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(moovHeader.getId(), moovHeader.getDataLength(),bytesRead);
+            throw new CannotReadException(msg);
+        }
+        moovBuffer.rewind();
+    }
+
+    /**
+     * Build the children of a node within moov by reading just their headers from the file, except for udta (and meta
+     * if not within udta) which are read in full so the metadata can be processed. Descends into trak, mdia and minf
+     * but stbl is left until the sample tables are needed.
+     *
+     * @param fc
+     * @param parentNode
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    private void buildChildrenOfNodeLazily(FileChannel fc, DefaultMutableTreeNode parentNode) throws IOException, CannotReadException
+    {
+        Mp4BoxHeader parentBoxHeader = (Mp4BoxHeader) parentNode.getUserObject();
+        long startPos = parentBoxHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH;
+        long endPos   = startPos + parentBoxHeader.getDataLength();
+
+        ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.REALDATA_64BITLENGTH);
+        long pos = startPos;
+        while (pos < endPos - Mp4BoxHeader.HEADER_LENGTH)
+        {
+            headerBuffer.clear();
+            headerBuffer.limit(Mp4BoxHeader.HEADER_LENGTH);
+            readFully(fc, headerBuffer, pos);
+            headerBuffer.rewind();
+            Mp4BoxHeader boxHeader = new Mp4BoxHeader(headerBuffer);
+            boxHeader.setFilePos(pos);
+
+            //64bit data length, the true length follows the header
+            long length = boxHeader.getLength();
+            if (length == 1)
+            {
+                headerBuffer.limit(Mp4BoxHeader.REALDATA_64BITLENGTH);
+                readFully(fc, headerBuffer, pos + Mp4BoxHeader.HEADER_LENGTH);
+                length = headerBuffer.getLong(Mp4BoxHeader.HEADER_LENGTH);
+                if (length < Mp4BoxHeader.REALDATA_64BITLENGTH)
+                {
+                    throw new CannotReadException(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_LENGTH_IS_INVALID.getMsg(boxHeader.getId(), length));
+                }
+            }
+
+            //Check the atom lies within its parent before reading any more of it
+            if (length > endPos - pos)
+            {
+                throw new CannotReadException(ErrorMessage.ATOM_LENGTH_LARGER_THAN_PARENT.getMsg(boxHeader.getId(), pos, length, endPos - pos, parentBoxHeader.getId()));
+            }
+            logger.finest("Atom " + boxHeader.getId() + " @ " + boxHeader.getFilePos() + " of size:" + length + " ,ends @ " + (boxHeader.getFilePos() + length));
+
+            DefaultMutableTreeNode newAtom = new DefaultMutableTreeNode(boxHeader);
+            parentNode.add(newAtom);
+            recordNode(boxHeader, newAtom, parentNode, null);
+
+            if (boxHeader.getLength() == 1)
+            {
+                //The data length of the header is not valid, so cannot look within it
+                logger.config("Atom " + boxHeader.getId() + " @ " + pos + " has 64bit length, not reading its children");
+            }
+            else if ((boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName())) ||
+                    (boxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())))
+            {
+                ByteBuffer data = ByteBuffer.allocate(boxHeader.getDataLength());
+                int bytesRead = fc.read(data, pos + Mp4BoxHeader.HEADER_LENGTH);
+                if (bytesRead < boxHeader.getDataLength())
+                {
+                    String msg = ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(boxHeader.getId(), boxHeader.getDataLength(), bytesRead);
+                    throw new CannotReadException(msg);
+                }
+                data.rewind();
+                if (parentNode == moovNode && moovUdtaBuffer == null && boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
+                {
+                    moovUdtaNode = newAtom;
+                    moovUdtaBuffer = data;
+                }
+                buildChildrenOfNode(data.duplicate(), pos + Mp4BoxHeader.HEADER_LENGTH, newAtom);
+            }
+            else if ((boxHeader.getId().equals(Mp4AtomIdentifier.TRAK.getFieldName())) ||
+                    (boxHeader.getId().equals(Mp4AtomIdentifier.MDIA.getFieldName())) ||
+                    (boxHeader.getId().equals(Mp4AtomIdentifier.MINF.getFieldName())))
+            {
+                buildChildrenOfNodeLazily(fc, newAtom);
+            }
+            else if (boxHeader.getId().equals(Mp4AtomIdentifier.STBL.getFieldName()))
+            {
+                unloadedStblNodes.add(newAtom);
+            }
+            pos += length;
+        }
+    }
+
+    /**
+     * Read from the file until the buffer is full
+     *
+     * @param fc
+     * @param buffer
+     * @param pos position in file to read from
+     * @throws IOException
+     * @throws CannotReadException if the end of the file is reached first
+     */
+    private void readFully(FileChannel fc, ByteBuffer buffer, long pos) throws IOException, CannotReadException
+    {
+        long start = pos - buffer.position();
+        while (buffer.hasRemaining())
+        {
+            int bytesRead = fc.read(buffer, pos);
+            if (bytesRead < 0)
+            {
+                throw new CannotReadException(ErrorMessage.ATOM_HEADER_INCOMPLETE.getMsg(start, buffer.position()));
+            }
+            pos += bytesRead;
+        }
+    }
+
+    /**
+     * In lazy mode load the moov data and add the children of the sample table atoms to the tree, does nothing
+     * if already loaded
+     *
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    public void loadSampleTables() throws IOException, CannotReadException
+    {
+        if (moovHeader == null)
+        {
+            return;
+        }
+        if (moovBuffer == null)
+        {
+            readMoovBuffer(fc);
+        }
+        for (DefaultMutableTreeNode stblNode : unloadedStblNodes)
+        {
+            //Position buffer just after the stbl header
+            moovBuffer.position((int) (getBoxHeader(stblNode).getFilePos() - moovHeader.getFilePos()));
+            buildChildrenOfNode(moovBuffer, stblNode);
+        }
+        unloadedStblNodes.clear();
+        moovBuffer.rewind();
+    }
+
+    /**
+     * @throws IllegalStateException if in lazy mode and the sample tables have not been loaded
+     */
+    private void checkSampleTablesLoaded()
+    {
+        if (lazy && moovHeader != null && (moovBuffer == null || !unloadedStblNodes.isEmpty()))
+        {
+            throw new IllegalStateException("Sample tables have not been loaded, call loadSampleTables() first");
+        }
+    }
+
     /**
      * Display atom tree
      */
@@ -282,6 +490,19 @@ public class Mp4AtomTree
      * @throws CannotReadException
      */
     public void buildChildrenOfNode(ByteBuffer moovBuffer, DefaultMutableTreeNode parentNode) throws IOException, CannotReadException
+    {
+        buildChildrenOfNode(moovBuffer, moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH, parentNode);
+    }
+
+    /**
+     *
+     * @param moovBuffer buffer containing the node, not necessarily all of moov
+     * @param bufferFilePos position in file of the start of the buffer
+     * @param parentNode
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    private void buildChildrenOfNode(ByteBuffer moovBuffer, long bufferFilePos, DefaultMutableTreeNode parentNode) throws IOException, CannotReadException
     {
         Mp4BoxHeader boxHeader;
 
@@ -321,63 +542,13 @@ public class Mp4AtomTree
             boxHeader = new Mp4BoxHeader(moovBuffer);
             if (boxHeader != null)
             {
-                boxHeader.setFilePos(moovHeader.getFilePos() + moovBuffer.position());
+                boxHeader.setFilePos(bufferFilePos + moovBuffer.position() - Mp4BoxHeader.HEADER_LENGTH);
                 logger.finest("Atom " + boxHeader.getId() + " @ " + boxHeader.getFilePos() + " of size:" + boxHeader.getLength() + " ,ends @ " + (boxHeader.getFilePos() + boxHeader.getLength()));
 
                 DefaultMutableTreeNode newAtom = new DefaultMutableTreeNode(boxHeader);
                 parentNode.add(newAtom);
 
-                if (boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
-                {
-                    udtaNode = newAtom;
-                }
-                //only interested in metaNode that is child of udta node
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())&&parentBoxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
-                {
-                    metaNode = newAtom;
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.HDLR.getFieldName())&&parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()))
-                {
-                    hdlrWithinMetaNode = newAtom;
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.HDLR.getFieldName()))
-                {
-                    hdlrWithinMdiaNode = newAtom;
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.TAGS.getFieldName()))
-                {
-                    tagsNode = newAtom;
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.STCO.getFieldName()))
-                {
-                    stcos.add(new Mp4StcoBox(boxHeader, moovBuffer));
-                    stcoNodes.add(newAtom);
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName()))
-                {
-                    DefaultMutableTreeNode parent = (DefaultMutableTreeNode)parentNode.getParent();
-                    if(parent!=null)
-                    {
-                        Mp4BoxHeader parentsParent = (Mp4BoxHeader)(parent).getUserObject();
-                        if(parentsParent!=null)
-                        {
-                            if(parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())&&parentsParent.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
-                            {
-                                ilstNode = newAtom;
-                            }
-                        }
-                    }    
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.FREE.getFieldName()))
-                {
-                    //Might be multiple in different locations
-                    freeNodes.add(newAtom);
-                }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.TRAK.getFieldName()))
-                {
-                    //Might be multiple in different locations, although only one should be audio track
-                    trakNodes.add(newAtom);
-                }
+                recordNode(boxHeader, newAtom, parentNode, moovBuffer);
 
                 //For these atoms iterate down to build their children
                 if ((boxHeader.getId().equals(Mp4AtomIdentifier.TRAK.getFieldName())) ||
@@ -388,7 +559,7 @@ public class Mp4AtomTree
                         (boxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())) ||
                         (boxHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName())))
                 {                
-                    buildChildrenOfNode(moovBuffer, newAtom);
+                    buildChildrenOfNode(moovBuffer, bufferFilePos, newAtom);
                 }
                 //Now  adjust buffer for the next atom header at this level
                 moovBuffer.position(moovBuffer.position() + boxHeader.getDataLength());
@@ -399,6 +570,71 @@ public class Mp4AtomTree
     }
 
 
+    /**
+     * Keep references to the nodes we are interested in
+     *
+     * @param boxHeader
+     * @param newAtom
+     * @param parentNode
+     * @param buffer positioned at the start of the atoms data, only needed for stco and co64
+     */
+    private void recordNode(Mp4BoxHeader boxHeader, DefaultMutableTreeNode newAtom, DefaultMutableTreeNode parentNode, ByteBuffer buffer)
+    {
+        Mp4BoxHeader parentBoxHeader = (Mp4BoxHeader) parentNode.getUserObject();
+        if (boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
+        {
+            udtaNode = newAtom;
+        }
+        //only interested in metaNode that is child of udta node
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())&&parentBoxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
+        {
+            metaNode = newAtom;
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.HDLR.getFieldName())&&parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName()))
+        {
+            hdlrWithinMetaNode = newAtom;
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.HDLR.getFieldName()))
+        {
+            hdlrWithinMdiaNode = newAtom;
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.TAGS.getFieldName()))
+        {
+            tagsNode = newAtom;
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.STCO.getFieldName()) || boxHeader.getId().equals(Mp4AtomIdentifier.CO64.getFieldName()))
+        {
+            stcos.add(new Mp4StcoBox(boxHeader, buffer));
+            stcoNodes.add(newAtom);
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.ILST.getFieldName()))
+        {
+            DefaultMutableTreeNode parent = (DefaultMutableTreeNode)parentNode.getParent();
+            if(parent!=null)
+            {
+                Mp4BoxHeader parentsParent = (Mp4BoxHeader)(parent).getUserObject();
+                if(parentsParent!=null)
+                {
+                    if(parentBoxHeader.getId().equals(Mp4AtomIdentifier.META.getFieldName())&&parentsParent.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
+                    {
+                        ilstNode = newAtom;
+                    }
+                }
+            }    
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.FREE.getFieldName()))
+        {
+            //Might be multiple in different locations
+            freeNodes.add(newAtom);
+        }
+        else if (boxHeader.getId().equals(Mp4AtomIdentifier.TRAK.getFieldName()))
+        {
+            //Might be multiple in different locations, although only one should be audio track
+            trakNodes.add(newAtom);
+        }
+    }
+
+
     /**
      *
      * @return
@@ -420,10 +656,12 @@ public class Mp4AtomTree
 
     /**
      *
-     * @return
+     * @return the stco and co64 nodes
+     * @throws IllegalStateException if in lazy mode and {@link #loadSampleTables()} has not been called
      */
     public List<DefaultMutableTreeNode> getStcoNodes()
     {
+        checkSampleTablesLoaded();
         return stcoNodes;
     }
 
@@ -524,19 +762,23 @@ public class Mp4AtomTree
 
     /**
      *
-     * @return
+     * @return the stco and co64 boxes
+     * @throws IllegalStateException if in lazy mode and {@link #loadSampleTables()} has not been called
      */
     public List<Mp4StcoBox> getStcos()
     {
+        checkSampleTablesLoaded();
         return stcos;
     }
 
     /**
      *
      * @return
+     * @throws IllegalStateException if in lazy mode and {@link #loadSampleTables()} has not been called
      */
     public ByteBuffer getMoovBuffer()
     {
+        checkSampleTablesLoaded();
         return moovBuffer;
     }
 
@@ -548,4 +790,39 @@ public class Mp4AtomTree
     {
         return moovHeader;
     }
+
+    /**
+     * @return the first ftyp atom at the top level, or null if there is none
+     */
+    public DefaultMutableTreeNode getFtypNode()
+    {
+        return ftypNode;
+    }
+
+    /**
+     * Only available in lazy mode
+     *
+     * @return the udta atom within moov, or null if moov does not contain udta
+     */
+    public DefaultMutableTreeNode getMoovUdtaNode()
+    {
+        return moovUdtaNode;
+    }
+
+    /**
+     * Only available in lazy mode, where the udta atom is read while building the tree
+     *
+     * @return the data of the udta atom within moov (excluding its header) positioned at the start, or null if
+     * moov does not contain udta
+     */
+    public ByteBuffer getMoovUdtaBuffer()
+    {
+        if (moovUdtaBuffer == null)
+        {
+            return null;
+        }
+        ByteBuffer udtaBuffer = moovUdtaBuffer.duplicate();
+        udtaBuffer.rewind();
+        return udtaBuffer;
+    }
 }
@@ -18,13 +18,17 @@
  */
 package org.jaudiotagger.audio.mp4;
 
+import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.file.Path;
 
 /**
  * Mp4 File Reader
@@ -45,4 +49,29 @@ public class Mp4FileReader extends AudioFileReader
     {
         return tr.read(raf);
     }
+
+    protected Tag getTag(RandomAccessFile raf, Path path) throws CannotReadException, IOException
+    {
+        return tr.read(raf, TagOptionSingleton.getInstance().isLazyArtwork() ? path : null);
+    }
+
+    /**
+     * When reading both the audio header and the tag the atoms are only walked once, the atom tree built for the
+     * audio header already contains the udta atom so the tag is read from that
+     */
+    protected AudioFile read(File f, RandomAccessFile raf, int readOptions) throws CannotReadException, IOException
+    {
+        if ((readOptions & AudioFile.READ_AUDIO_HEADER) == 0)
+        {
+            return super.read(f, raf, readOptions);
+        }
+        Mp4AtomTree atomTree = ir.readAtomTree(raf);
+        GenericAudioHeader info = ir.read(raf, atomTree);
+        Tag tag = null;
+        if ((readOptions & AudioFile.READ_TAG) != 0)
+        {
+            tag = tr.read(atomTree, TagOptionSingleton.getInstance().isLazyArtwork() ? f.toPath() : null);
+        }
+        return new AudioFile(f, info, tag);
+    }
 }
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.mp4;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.generic.RegionReplacement;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -42,6 +43,16 @@ public class Mp4FileWriter extends AudioFileWriter
         tw.write(tag, raf, rafTemp);
     }
 
+    protected RegionReplacement createRegionReplacement(AudioFile audioFile, Tag tag, RandomAccessFile raf) throws CannotWriteException, IOException
+    {
+        return tw.createRegionReplacement(tag, raf);
+    }
+
+    protected void checkFileWrittenInPlace(AudioFile audioFile, RandomAccessFile raf, RegionReplacement replacement) throws CannotWriteException, IOException
+    {
+        tw.checkFileWrittenInPlace(raf, replacement);
+    }
+
     protected void deleteTag(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws IOException
     {
         tw.delete(raf, rafTemp);
@@ -24,11 +24,11 @@ import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.atom.*;
 import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.util.logging.Logger;
 
@@ -60,129 +60,172 @@ public class Mp4InfoReader
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp4.atom");
 
-    private boolean isTrackAtomVideo(Mp4FtypBox ftyp,  Mp4BoxHeader boxHeader, ByteBuffer mvhdBuffer )
-            throws IOException
+    //Enough of stco (or co64) to read the number of offsets and the first offset
+    private static final int STCO_FIRST_OFFSET_LENGTH = 12;
+    private static final int CO64_FIRST_OFFSET_LENGTH = 16;
+
+    /**
+     * @param parentNode
+     * @param id
+     * @return the first child of the node with the id, or null if there is none
+     */
+    private static DefaultMutableTreeNode getChild(DefaultMutableTreeNode parentNode, Mp4AtomIdentifier id)
     {
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDIA.getFieldName());
-        if (boxHeader == null)
+        if (parentNode == null)
         {
-            return false;
+            return null;
         }
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDHD.getFieldName());
-        if (boxHeader == null)
+        for (int i = 0; i < parentNode.getChildCount(); i++)
         {
-            return false;
+            DefaultMutableTreeNode child = (DefaultMutableTreeNode) parentNode.getChildAt(i);
+            if (child.getUserObject() instanceof Mp4BoxHeader && ((Mp4BoxHeader) child.getUserObject()).getId().equals(id.getFieldName()))
+            {
+                return child;
+            }
         }
-        mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MINF.getFieldName());
-        if (boxHeader == null)
+        return null;
+    }
+
+    /**
+     * Read the start of the data of a box
+     *
+     * @param fc
+     * @param boxHeader
+     * @param length
+     * @return buffer containing the data, positioned at the start
+     * @throws IOException
+     * @throws CannotReadException if the file ends before length bytes have been read
+     */
+    private static ByteBuffer readBoxData(FileChannel fc, Mp4BoxHeader boxHeader, int length) throws IOException, CannotReadException
+    {
+        ByteBuffer data = ByteBuffer.allocate(length);
+        long pos = boxHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH;
+        while (data.hasRemaining())
         {
-            return false;
+            int bytesRead = fc.read(data, pos);
+            if (bytesRead < 0)
+            {
+                throw new CannotReadException(ErrorMessage.ATOM_LENGTH_LARGER_THAN_DATA.getMsg(boxHeader.getId(), boxHeader.getDataLength(), data.position()));
+            }
+            pos += bytesRead;
         }
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.VMHD.getFieldName());
-        if (boxHeader != null)
+        data.rewind();
+        return data;
+    }
+
+    private boolean isTrackAtomVideo(DefaultMutableTreeNode trakNode)
+    {
+        DefaultMutableTreeNode mdiaNode = getChild(trakNode, Mp4AtomIdentifier.MDIA);
+        if (getChild(mdiaNode, Mp4AtomIdentifier.MDHD) == null)
         {
-            return true;
+            return false;
         }
-        return false;
+        DefaultMutableTreeNode minfNode = getChild(mdiaNode, Mp4AtomIdentifier.MINF);
+        return getChild(minfNode, Mp4AtomIdentifier.VMHD) != null;
     }
 
     public GenericAudioHeader read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return read(raf, readAtomTree(raf));
+    }
+
+    /**
+     * Check the file is an Mp4 container then build the atom tree in lazy mode, so that the top level atoms are only
+     * walked once and the tree can be shared with {@link Mp4TagReader#read(Mp4AtomTree, java.nio.file.Path)}
+     *
+     * @param raf
+     * @return tree of the atoms in the file
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4AtomTree readAtomTree(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        FileChannel fc = raf.getChannel();
+        fc.position(0);
+        if (Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.FTYP.getFieldName()) == null)
+        {
+            throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
+        }
+        return new Mp4AtomTree(raf, false, true);
+    }
+
+    /**
+     * Read the audio header using the atom tree to find the atoms of interest, only these atoms are read from the
+     * file so the sample tables, which are very large in long files such as audiobooks, are not read
+     *
+     * @param raf
+     * @param atomTree lazily built tree of raf
+     * @return audio header
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public GenericAudioHeader read(RandomAccessFile raf, Mp4AtomTree atomTree) throws CannotReadException, IOException
     {
         FileChannel fc = raf.getChannel();
         Mp4AudioHeader info = new Mp4AudioHeader();
 
         //File Identification
-        Mp4BoxHeader ftypHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.FTYP.getFieldName());
-        if (ftypHeader == null)
+        if (atomTree.getFtypNode() == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
         }
-        ByteBuffer ftypBuffer = ByteBuffer.allocate(ftypHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        fc.read(ftypBuffer);
-        ftypBuffer.rewind();
-        Mp4FtypBox ftyp = new Mp4FtypBox(ftypHeader, ftypBuffer);
+        Mp4BoxHeader ftypHeader = atomTree.getBoxHeader(atomTree.getFtypNode());
+        Mp4FtypBox ftyp = new Mp4FtypBox(ftypHeader, readBoxData(fc, ftypHeader, ftypHeader.getDataLength()));
         ftyp.processData();
         info.setBrand(ftyp.getMajorBrand());
 
-        //Get to the facts everything we are interested in is within the moov box, so just load data from file
-        //once so no more file I/O needed
-        Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.MOOV.getFieldName());
-        if (moovHeader == null)
+        //Get to the facts everything we are interested in is within the moov box
+        DefaultMutableTreeNode moovNode = atomTree.getMoovNode();
+        if (moovNode == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
-        ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        moovBuffer.order(ByteOrder.LITTLE_ENDIAN);
-        fc.read(moovBuffer);
-        moovBuffer.rewind();
-
-        //Level 2-Searching for "mvhd" somewhere within "moov", we make a slice after finding header
-        //so all get() methods will be relative to mvdh positions
-        Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.MVHD.getFieldName());
-        if (boxHeader == null)
+
+        //Level 2-Searching for "mvhd" within "moov"
+        DefaultMutableTreeNode node = getChild(moovNode, Mp4AtomIdentifier.MVHD);
+        if (node == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
-        ByteBuffer mvhdBuffer = moovBuffer.slice();
-        Mp4MvhdBox mvhd = new Mp4MvhdBox(boxHeader, mvhdBuffer);
+        Mp4BoxHeader boxHeader = atomTree.getBoxHeader(node);
+        Mp4MvhdBox mvhd = new Mp4MvhdBox(boxHeader, readBoxData(fc, boxHeader, boxHeader.getDataLength()));
         info.setPreciseLength(mvhd.getLength());
-        //Advance position, TODO should we put this in box code ?
-        mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
 
         //Level 2-Searching for "trak" within "moov"
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.TRAK.getFieldName());
-        int endOfFirstTrackInBuffer = mvhdBuffer.position() + boxHeader.getDataLength();
-
-        if (boxHeader == null)
+        DefaultMutableTreeNode trakNode = getChild(moovNode, Mp4AtomIdentifier.TRAK);
+        if (trakNode == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
         //Level 3-Searching for "mdia" within "trak"
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDIA.getFieldName());
-        if (boxHeader == null)
+        DefaultMutableTreeNode mdiaNode = getChild(trakNode, Mp4AtomIdentifier.MDIA);
+        if (mdiaNode == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
         //Level 4-Searching for "mdhd" within "mdia"
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MDHD.getFieldName());
-        if (boxHeader == null)
+        node = getChild(mdiaNode, Mp4AtomIdentifier.MDHD);
+        if (node == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
-        Mp4MdhdBox mdhd = new Mp4MdhdBox(boxHeader, mvhdBuffer.slice());
+        boxHeader = atomTree.getBoxHeader(node);
+        Mp4MdhdBox mdhd = new Mp4MdhdBox(boxHeader, readBoxData(fc, boxHeader, boxHeader.getDataLength()));
         info.setSamplingRate(mdhd.getSampleRate());
-        
-        //Level 4-Searching for "hdlr" within "mdia"
-        /*We dont currently need to process this because contains nothing we want
-        mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4NotMetaFieldKey.HDLR.getFieldName());
-        if (boxHeader == null)
-        {
-            throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
-        }
-        Mp4HdlrBox hdlr = new Mp4HdlrBox(boxHeader, mvhdBuffer.slice());
-        hdlr.processData();
-        */
 
         //Level 4-Searching for "minf" within "mdia"
-        mvhdBuffer.position(mvhdBuffer.position() + boxHeader.getDataLength());
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MINF.getFieldName());
-        if (boxHeader == null)
+        DefaultMutableTreeNode minfNode = getChild(mdiaNode, Mp4AtomIdentifier.MINF);
+        if (minfNode == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
 
         //Level 5-Searching for "smhd" within "minf"
         //Only an audio track would have a smhd frame
-        int pos = mvhdBuffer.position();
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.SMHD.getFieldName());
-        if (boxHeader == null)
+        if (getChild(minfNode, Mp4AtomIdentifier.SMHD) == null)
         {
-            mvhdBuffer.position(pos);
-            boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.VMHD.getFieldName());
             //try easy check to confirm that it is video
-            if(boxHeader!=null)
+            if (getChild(minfNode, Mp4AtomIdentifier.VMHD) != null)
             {
                 throw new CannotReadVideoException(ErrorMessage.MP4_FILE_IS_VIDEO.getMsg());
             }
@@ -191,32 +234,60 @@ public class Mp4InfoReader
                 throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
             }
         }
-        mvhdBuffer.position(pos);
 
         //Level 5-Searching for "stbl within "minf"
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.STBL.getFieldName());
-        if (boxHeader == null)
+        node = getChild(minfNode, Mp4AtomIdentifier.STBL);
+        if (node == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
 
+        //Level 6-The children of "stbl" are not in the lazy tree, so just read their headers to find "stsd" and "stco" (or "co64")
+        Mp4BoxHeader stblHeader = atomTree.getBoxHeader(node);
+        Mp4BoxHeader stsdHeader = null;
+        Mp4BoxHeader stcoHeader = null;
+        ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.HEADER_LENGTH);
+        long pos = stblHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH;
+        long endPos = pos + stblHeader.getDataLength();
+        while (pos <= endPos - Mp4BoxHeader.HEADER_LENGTH && (stsdHeader == null || stcoHeader == null))
+        {
+            headerBuffer.clear();
+            if (fc.read(headerBuffer, pos) < Mp4BoxHeader.HEADER_LENGTH)
+            {
+                break;
+            }
+            headerBuffer.rewind();
+            boxHeader = new Mp4BoxHeader(headerBuffer);
+            boxHeader.setFilePos(pos);
+            if (boxHeader.getLength() < Mp4BoxHeader.HEADER_LENGTH)
+            {
+                break;
+            }
+            if (stsdHeader == null && boxHeader.getId().equals(Mp4AtomIdentifier.STSD.getFieldName()))
+            {
+                stsdHeader = boxHeader;
+            }
+            else if (stcoHeader == null && (boxHeader.getId().equals(Mp4AtomIdentifier.STCO.getFieldName()) || boxHeader.getId().equals(Mp4AtomIdentifier.CO64.getFieldName())))
+            {
+                stcoHeader = boxHeader;
+            }
+            pos += boxHeader.getLength();
+        }
 
-
-        //Level 6-Searching for "stsd within "stbl" and process it direct data, dont think these are mandatory so dont throw
+        //Level 6-Process "stsd" direct data, dont think these are mandatory so dont throw
         //exception if unable to find
-        int positionBeforeStsdSearch = mvhdBuffer.position();
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.STSD.getFieldName());
-        if (boxHeader != null)
+        if (stsdHeader != null)
         {
-            Mp4StsdBox stsd = new Mp4StsdBox(boxHeader, mvhdBuffer);
+            ByteBuffer stsdBuffer = readBoxData(fc, stsdHeader, stsdHeader.getDataLength());
+            Mp4StsdBox stsd = new Mp4StsdBox(stsdHeader, stsdBuffer);
             stsd.processData();
-            int positionAfterStsdHeaderAndData = mvhdBuffer.position();
+            int positionAfterStsdHeaderAndData = stsdBuffer.position();
 
             ///Level 7-Searching for "mp4a within "stsd"
-            boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.MP4A.getFieldName());
+            boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.MP4A.getFieldName());
             if (boxHeader != null)
             {
-                ByteBuffer mp4aBuffer = mvhdBuffer.slice();
+                ByteBuffer mp4aBuffer = stsdBuffer.slice();
                 Mp4Mp4aBox mp4a = new Mp4Mp4aBox(boxHeader, mp4aBuffer);
                 mp4a.processData();
                 //Level 8-Searching for "esds" within mp4a to get No Of Channels and bitrate
@@ -240,18 +311,18 @@ public class Mp4InfoReader
             else
             {
                 //Level 7 -Searching for drms within stsd instead (m4p files)
-                mvhdBuffer.position(positionAfterStsdHeaderAndData);
-                boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.DRMS.getFieldName());
+                stsdBuffer.position(positionAfterStsdHeaderAndData);
+                boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.DRMS.getFieldName());
                 if (boxHeader != null)
                 {
-                    Mp4DrmsBox drms = new Mp4DrmsBox(boxHeader, mvhdBuffer);
+                    Mp4DrmsBox drms = new Mp4DrmsBox(boxHeader, stsdBuffer);
                     drms.processData();
 
                     //Level 8-Searching for "esds" within drms to get No Of Channels and bitrate
-                    boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.ESDS.getFieldName());
+                    boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.ESDS.getFieldName());
                     if (boxHeader != null)
                     {
-                        Mp4EsdsBox esds = new Mp4EsdsBox(boxHeader, mvhdBuffer.slice());
+                        Mp4EsdsBox esds = new Mp4EsdsBox(boxHeader, stsdBuffer.slice());
 
                         //Set Bitrate in kbps
                         info.setBitRate(esds.getAvgBitrate() / Utils.KILOBYTE_MULTIPLIER);
@@ -268,19 +339,19 @@ public class Mp4InfoReader
                 //Level 7-Searching for alac (Apple Lossless) instead
                 else
                 {
-                    mvhdBuffer.position(positionAfterStsdHeaderAndData);
-                    boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
+                    stsdBuffer.position(positionAfterStsdHeaderAndData);
+                    boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
                     if (boxHeader != null)
                     {
                         //Process First Alac
-                        Mp4AlacBox alac = new Mp4AlacBox(boxHeader, mvhdBuffer);
+                        Mp4AlacBox alac = new Mp4AlacBox(boxHeader, stsdBuffer);
                         alac.processData();
-                        
+
                         //Level 8-Searching for 2nd "alac" within box that contains the info we really want
-                        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
+                        boxHeader = Mp4BoxHeader.seekWithinLevel(stsdBuffer, Mp4AtomIdentifier.ALAC.getFieldName());
                         if (boxHeader != null)
                         {
-                            alac = new Mp4AlacBox(boxHeader, mvhdBuffer);
+                            alac = new Mp4AlacBox(boxHeader, stsdBuffer);
                             alac.processData();
                             info.setEncodingType(EncoderType.APPLE_LOSSLESS.getDescription());
                             info.setChannelNumber(alac.getChannels());
@@ -292,15 +363,14 @@ public class Mp4InfoReader
             }
         }
 
-        //Level 6-Searching for "stco within "stbl" to get size of audio data
-        mvhdBuffer.position(positionBeforeStsdSearch);
-        boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.STCO.getFieldName());
-        if (boxHeader != null)
+        //Level 6-Process "stco" to get size of audio data, only the first offset is needed
+        if (stcoHeader != null)
         {
-            Mp4StcoBox stco = new Mp4StcoBox(boxHeader, mvhdBuffer);
-            info.setAudioDataStartPosition((long)stco.getFirstOffSet());
+            boolean isCo64 = stcoHeader.getId().equals(Mp4AtomIdentifier.CO64.getFieldName());
+            Mp4StcoBox stco = new Mp4StcoBox(stcoHeader, readBoxData(fc, stcoHeader, isCo64 ? CO64_FIRST_OFFSET_LENGTH : STCO_FIRST_OFFSET_LENGTH));
+            info.setAudioDataStartPosition(stco.getFirstOffSetAsLong());
             info.setAudioDataEndPosition((long)fc.size());
-            info.setAudioDataLength(fc.size() - stco.getFirstOffSet());
+            info.setAudioDataLength(fc.size() - stco.getFirstOffSetAsLong());
         }
 
         //Set default channels if couldn't calculate it
@@ -329,33 +399,29 @@ public class Mp4InfoReader
 
         logger.config(info.toString());
 
-        //Level 2-Searching for others "trak" within "moov", if we find any traks containing video
+        //Level 2-Checking the other "trak" within "moov", if we find any traks containing video
         //then reject it if no track if not video then we allow it because many encoders seem to contain all sorts
         //of stuff that you wouldn't expect in an audio track
-        mvhdBuffer.position(endOfFirstTrackInBuffer);
-        while(mvhdBuffer.hasRemaining())
+        for (DefaultMutableTreeNode otherTrakNode : atomTree.getTrakNodes())
         {
-            boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.TRAK.getFieldName());
-            if (boxHeader != null)
+            if (otherTrakNode != trakNode && isTrackAtomVideo(otherTrakNode))
             {
-                if(isTrackAtomVideo(ftyp,boxHeader,mvhdBuffer))
-                {
-                    throw new CannotReadVideoException(ErrorMessage.MP4_FILE_IS_VIDEO.getMsg());
-                }
-            }
-            else
-            {
-                break;
+                throw new CannotReadVideoException(ErrorMessage.MP4_FILE_IS_VIDEO.getMsg());
             }
         }
 
         //Because Mp4 is container format we set format to encoder
         info.setFormat(info.getEncodingType());
 
-        //Build AtomTree to ensure it is valid, this means we can detect any problems early on
-        new Mp4AtomTree(raf,false);
+        //Audio ends with the (last) mdat rather than the end of file, so metadata written after it is excluded
+        if (info.getAudioDataStartPosition() != null && atomTree.getMdatNode() != null)
+        {
+            Mp4BoxHeader mdatHeader = (Mp4BoxHeader) atomTree.getMdatNode().getUserObject();
+            if (mdatHeader.getFileEndPos() > info.getAudioDataStartPosition() && mdatHeader.getFileEndPos() <= fc.size())
+            {
+                info.setAudioDataEndPosition(mdatHeader.getFileEndPos());
+            }
+        }
         return info;
     }
-
-
 }
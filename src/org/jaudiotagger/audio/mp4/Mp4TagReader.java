@@ -18,12 +18,14 @@
  */
 package org.jaudiotagger.audio.mp4;
 
+import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
 import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.mp4.Mp4FieldKey;
 import org.jaudiotagger.tag.mp4.Mp4NonStandardFieldKey;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
@@ -36,6 +38,7 @@ import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.logging.Logger;
 
 /**
@@ -84,84 +87,141 @@ public class Mp4TagReader
 
      */
     public Mp4Tag read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return read(raf, null);
+    }
+
+    /**
+     * @param raf
+     * @param path if not null only the location of the artwork within this file is recorded, the image data is read
+     * when first needed
+     * @return tag
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4Tag read(RandomAccessFile raf, Path path) throws CannotReadException, IOException
     {
         FileChannel fc = raf.getChannel();
-        Mp4Tag tag = new Mp4Tag();
 
-        //Get to the facts everything we are interested in is within the moov box, so just load data from file
-        //once so no more file I/O needed
+        //Get to the facts everything we are interested in is within the moov box
         Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.MOOV.getFieldName());
         if (moovHeader == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
         }
+
+        //Level 2-Searching for "udta" within "moov", only the udta data is loaded rather than all of moov because
+        //the sample tables can be very large
+        Mp4BoxHeader udtaHeader = findUdta(fc, moovHeader);
+        if (udtaHeader != null)
+        {
+            ByteBuffer udtaBuffer = ByteBuffer.allocate(udtaHeader.getDataLength());
+            fc.read(udtaBuffer, udtaHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH);
+            udtaBuffer.rewind();
+            return readMeta(udtaBuffer, udtaHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH, path);
+        }
+
+        //No udta (or moov could not be walked) so load all of moov, and search for udta within it so that the
+        //search for meta starts from where that search stopped
+        long moovBufferFilePos = fc.position();
         ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        raf.getChannel().read(moovBuffer);
+        fc.read(moovBuffer);
         moovBuffer.rewind();
+        Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.UDTA.getFieldName());
+        return readMeta(moovBuffer, moovBufferFilePos, path);
+    }
 
-        //Level 2-Searching for "udta" within "moov"
-        Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.UDTA.getFieldName());
-        if (boxHeader != null)
+    /**
+     * Read the tag using the udta atom read while building the atom tree, so nothing has to be read from the file
+     * again (other than artwork if read lazily)
+     *
+     * @param atomTree tree built in lazy mode
+     * @param path if not null only the location of the artwork within this file is recorded, the image data is read
+     * when first needed
+     * @return tag
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4Tag read(Mp4AtomTree atomTree, Path path) throws CannotReadException, IOException
+    {
+        if (atomTree.getMoovHeader() == null)
         {
-            //Level 3-Searching for "meta" within udta
-            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
-            if (boxHeader == null)
-            {
-                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                return tag;
-            }
-            Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
-            meta.processData();
-
-            //Level 4- Search for "ilst" within meta
-            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
-             //This file does not actually contain a tag
-            if (boxHeader == null)
-            {
-                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                return tag;
-            }
+            throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
         }
-        else
+        ByteBuffer udtaBuffer = atomTree.getMoovUdtaBuffer();
+        if (udtaBuffer == null)
         {
-            //Level 2-Searching for "meta" not within udta
-            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
-            if (boxHeader == null)
-            {
-                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                return tag;
-            }
-            Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
-            meta.processData();
+            logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+            return new Mp4Tag();
+        }
+        Mp4BoxHeader udtaHeader = atomTree.getBoxHeader(atomTree.getMoovUdtaNode());
+        return readMeta(udtaBuffer, udtaHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH, path);
+    }
+
+    /**
+     * Read the tag from the meta atom found at the current level of the buffer
+     *
+     * @param buffer positioned where the search for meta should start
+     * @param bufferFilePos position in file of the start of buffer
+     * @param path
+     * @return tag, empty if there is no meta or ilst
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    private Mp4Tag readMeta(ByteBuffer buffer, long bufferFilePos, Path path) throws CannotReadException, IOException
+    {
+        Mp4Tag tag = new Mp4Tag();
 
+        //Searching for "meta"
+        Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(buffer, Mp4AtomIdentifier.META.getFieldName());
+        if (boxHeader == null)
+        {
+            logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+            return tag;
+        }
+        Mp4MetaBox meta = new Mp4MetaBox(boxHeader, buffer);
+        meta.processData();
 
-            //Level 3- Search for "ilst" within meta
-            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
-            //This file does not actually contain a tag
-            if (boxHeader == null)
-            {
-                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                return tag;
-            }
+        //Search for "ilst" within meta
+        boxHeader = Mp4BoxHeader.seekWithinLevel(buffer, Mp4AtomIdentifier.ILST.getFieldName());
+        //This file does not actually contain a tag
+        if (boxHeader == null)
+        {
+            logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+            return tag;
         }
 
         //Size of metadata (exclude the size of the ilst parentHeader), take a slice starting at
         //metadata children to make things safer
         int length = boxHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
-        ByteBuffer metadataBuffer = moovBuffer.slice();
+        long metadataFilePos = bufferFilePos + buffer.position();
+        ByteBuffer metadataBuffer = buffer.slice();
         //Datalength is longer are there boxes after ilst at this level?
         logger.config("headerlengthsays:" + length + "datalength:" + metadataBuffer.limit());
         int read = 0;
+        boolean isReadArtwork = (TagOptionSingleton.getInstance().getReadOptions() & AudioFile.READ_ARTWORK) != 0;
+        int fieldLimit = TagOptionSingleton.getInstance().getReadFieldLimit();
+        int fieldCount = 0;
         logger.config("Started to read metadata fields at position is in metadata buffer:" + metadataBuffer.position());
         while (read < length)
         {
+            if (fieldCount >= fieldLimit)
+            {
+                logger.config("Read field limit reached at:" + metadataBuffer.position());
+                break;
+            }
+
             //Read the boxHeader
             boxHeader.update(metadataBuffer);
 
             //Create the corresponding datafield from the id, and slice the buffer so position of main buffer
             //wont get affected
             logger.config("Next position is at:" + metadataBuffer.position());
-            createMp4Field(tag, boxHeader, metadataBuffer.slice());
+            if (isReadArtwork || !boxHeader.getId().equals(Mp4FieldKey.ARTWORK.getFieldName()))
+            {
+                createMp4Field(tag, boxHeader, metadataBuffer.slice(), path, metadataFilePos + metadataBuffer.position());
+                fieldCount++;
+            }
 
             //Move position in buffer to the start of the next parentHeader
             metadataBuffer.position(metadataBuffer.position() + boxHeader.getDataLength());
@@ -170,6 +230,44 @@ public class Mp4TagReader
         return tag;
     }
 
+    /**
+     * Find the udta box within moov by reading just the headers of moovs children
+     *
+     * @param fc positioned just after the moov header, position is not changed
+     * @param moovHeader
+     * @return the header of the udta box with its file position set, or null if moov does not contain udta
+     * @throws IOException
+     */
+    private Mp4BoxHeader findUdta(FileChannel fc, Mp4BoxHeader moovHeader) throws IOException
+    {
+        long pos    = fc.position();
+        long endPos = pos + moovHeader.getDataLength();
+        ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.HEADER_LENGTH);
+        Mp4BoxHeader boxHeader  = new Mp4BoxHeader();
+        while (pos <= endPos - Mp4BoxHeader.HEADER_LENGTH)
+        {
+            headerBuffer.clear();
+            if (fc.read(headerBuffer, pos) < Mp4BoxHeader.HEADER_LENGTH)
+            {
+                return null;
+            }
+            headerBuffer.rewind();
+            boxHeader.update(headerBuffer);
+            //Something gone wrong probably not at the start of an atom
+            if (boxHeader.getLength() < Mp4BoxHeader.HEADER_LENGTH || pos + boxHeader.getLength() > endPos)
+            {
+                return null;
+            }
+            if (boxHeader.getId().equals(Mp4AtomIdentifier.UDTA.getFieldName()))
+            {
+                boxHeader.setFilePos(pos);
+                return boxHeader;
+            }
+            pos += boxHeader.getLength();
+        }
+        return null;
+    }
+
     /**
      * Process the field and add to the tag
      *
@@ -179,10 +277,12 @@ public class Mp4TagReader
      * @param tag
      * @param header
      * @param raw
+     * @param path if not null artwork is read lazily from this file
+     * @param rawFilePos position in the file of the start of raw
      * @return
-     * @throws UnsupportedEncodingException
+     * @throws IOException
      */
-    private void createMp4Field(Mp4Tag tag, Mp4BoxHeader header, ByteBuffer raw) throws UnsupportedEncodingException
+    private void createMp4Field(Mp4Tag tag, Mp4BoxHeader header, ByteBuffer raw, Path path, long rawFilePos) throws IOException
     {
         //Header with no data #JAUDIOTAGGER-463
          if(header.getDataLength()==0)
@@ -249,7 +349,9 @@ public class Mp4TagReader
                                     processedDataSize + Mp4DataBox.TYPE_POS_INCLUDING_HEADER + Mp4DataBox.TYPE_LENGTH - 1);
                             fieldType = Mp4FieldType.getFieldType(type);
                         }
-                        Mp4TagCoverField field = new Mp4TagCoverField(raw,fieldType);
+                        Mp4TagCoverField field = path != null
+                                ? new Mp4TagCoverField(raw, fieldType, path, rawFilePos)
+                                : new Mp4TagCoverField(raw,fieldType);
                         tag.addField(field);
                         processedDataSize += field.getDataAndHeaderSize();
                         imageCount++;
@@ -20,12 +20,16 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.RegionReplacement;
 import org.jaudiotagger.audio.mp4.atom.*;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagField;
 import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.mp4.Mp4FieldKey;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
 import org.jaudiotagger.tag.mp4.Mp4TagCreator;
+import org.jaudiotagger.tag.mp4.field.Mp4TagCoverField;
 import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
 
 import java.io.IOException;
@@ -45,8 +49,8 @@ import java.util.logging.Logger;
  * If the size of the metadata has increased by more than the size of the {@code free} atom then the size of {@code meta},
  * {@code udta} and {@code moov} should be recalculated and the top level {@code free} atom reduced accordingly.
  * If there is not enough space even if using both of the {@code free} atoms, then the {@code mdat} atom has to be
- * shifted down accordingly to make space, and the {@code stco} atoms have to have their offsets to {@code mdat}
- * chunks table adjusted accordingly.
+ * shifted down accordingly to make space, and the {@code stco} atoms (or {@code co64} atoms with 64 bit offsets used
+ * by files larger than 4GB) have to have their offsets to {@code mdat} chunks table adjusted accordingly.
  * <p/>
  * Exceptions are that the meta/udta/ilst do not currently exist, in which udta/meta/ilst are created. Note it is valid
  * to have meta/ilst without udta but this is less common so we always try to write files according to the Apple/iTunes
@@ -76,7 +80,7 @@ import java.util.logging.Logger;
  * |......|......................|-- stts
  * |......|......................|-- stsc
  * |......|......................|-- stsz
- * |......|......................|-- stco (important! may need to be adjusted.)
+ * |......|......................|-- stco or co64 (important! may need to be adjusted.)
  * |......|
  * |......|----- udta
  * |..............|
@@ -336,6 +340,114 @@ public class Mp4TagWriter
         writeDataAfterIlst(fileReadChannel, fileWriteChannel, neroTagsHeader);
     }
 
+    /**
+     * Artwork still to be read from the file has to be read before the file is changed
+     *
+     * @param tag
+     * @throws IOException
+     */
+    private void loadArtwork(Tag tag) throws IOException
+    {
+        if (tag instanceof Mp4Tag)
+        {
+            for (TagField field : ((Mp4Tag) tag).get(Mp4FieldKey.ARTWORK))
+            {
+                if (field instanceof Mp4TagCoverField)
+                {
+                    ((Mp4TagCoverField) field).loadData();
+                }
+            }
+        }
+    }
+
+    /**
+     * Create replacement for the ilst atom (and any free atom directly after it) if the new metadata can be written
+     * without changing the size of the moov atom, so the file can be modified in place.
+     *
+     * These are the cases where write() keeps the file size the same, all other cases require stco offsets and
+     * parent atom sizes to be adjusted so must be written using write()
+     *
+     * @param tag
+     * @param raf
+     * @return replacement for the ilst region, or null if it cannot be modified in place
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public RegionReplacement createRegionReplacement(Tag tag, RandomAccessFile raf) throws CannotWriteException, IOException
+    {
+        Mp4AtomTree atomTree;
+        try
+        {
+            //Only the metadata atoms are modified so no need to load the sample tables
+            atomTree = new Mp4AtomTree(raf, false, true);
+        }
+        catch (CannotReadException cre)
+        {
+            throw new CannotWriteException(cre.getMessage());
+        }
+
+        Mp4BoxHeader ilstHeader = atomTree.getBoxHeader(atomTree.getIlstNode());
+        Mp4BoxHeader neroTagsHeader = atomTree.getBoxHeader(atomTree.getTagsNode());
+        //Nero tags atom is removed when writing, so the file size changes
+        if (ilstHeader == null || neroTagsHeader != null)
+        {
+            return null;
+        }
+
+        loadArtwork(tag);
+        ByteBuffer newIlstData = tc.convert(tag);
+        newIlstData.rewind();
+        int sizeRequiredByNewIlstAtom = newIlstData.limit();
+        int sizeOfExistingIlstAtom = ilstHeader.getLength();
+        int sizeOfExistingMetaLevelFreeAtom = getMetaLevelFreeAtomSize(atomTree);
+
+        int newFreeSize;
+        int regionLength;
+        if (sizeOfExistingIlstAtom == sizeRequiredByNewIlstAtom)
+        {
+            logger.config("Writing in place:Option 1:Same Size");
+            return new RegionReplacement(ilstHeader.getFilePos(), sizeOfExistingIlstAtom, newIlstData);
+        }
+        else if (sizeOfExistingIlstAtom > sizeRequiredByNewIlstAtom)
+        {
+            if (sizeOfExistingMetaLevelFreeAtom > 0)
+            {
+                logger.config("Writing in place:Option 2:Smaller Size have free atom");
+                newFreeSize = sizeOfExistingMetaLevelFreeAtom + (sizeOfExistingIlstAtom - sizeRequiredByNewIlstAtom) - Mp4BoxHeader.HEADER_LENGTH;
+                regionLength = sizeOfExistingIlstAtom + sizeOfExistingMetaLevelFreeAtom;
+            }
+            else
+            {
+                newFreeSize = (sizeOfExistingIlstAtom - sizeRequiredByNewIlstAtom) - Mp4BoxHeader.HEADER_LENGTH;
+                if (newFreeSize <= 0)
+                {
+                    return null;
+                }
+                logger.config("Writing in place:Option 3:Smaller Size can create free atom");
+                regionLength = sizeOfExistingIlstAtom;
+            }
+        }
+        else
+        {
+            int additionalSpaceRequiredForMetadata = sizeRequiredByNewIlstAtom - sizeOfExistingIlstAtom;
+            if (additionalSpaceRequiredForMetadata > (sizeOfExistingMetaLevelFreeAtom - Mp4BoxHeader.HEADER_LENGTH))
+            {
+                return null;
+            }
+            logger.config("Writing in place:Option 5;Larger Size can use meta free atom");
+            newFreeSize = sizeOfExistingMetaLevelFreeAtom - additionalSpaceRequiredForMetadata - Mp4BoxHeader.HEADER_LENGTH;
+            regionLength = sizeOfExistingIlstAtom + sizeOfExistingMetaLevelFreeAtom;
+        }
+
+        Mp4FreeBox newFreeBox = new Mp4FreeBox(newFreeSize);
+        ByteBuffer data = ByteBuffer.allocate(regionLength);
+        data.put(newIlstData);
+        data.put(newFreeBox.getHeader().getHeaderData());
+        data.put(newFreeBox.getData());
+        data.flip();
+        return new RegionReplacement(ilstHeader.getFilePos(), regionLength, data);
+    }
+
     /**
      * Write tag to {@code rafTemp} file.
      *
@@ -354,9 +466,9 @@ public class Mp4TagWriter
         int sizeOfExistingIlstAtom = 0;
         int sizeRequiredByNewIlstAtom;
         int positionOfNewIlstAtomRelativeToMoovAtom;
-        int positionInExistingFileOfWhereNewIlstAtomShouldBeWritten;
+        long positionInExistingFileOfWhereNewIlstAtomShouldBeWritten;
         int sizeOfExistingMetaLevelFreeAtom;
-        int positionOfTopLevelFreeAtom;
+        long positionOfTopLevelFreeAtom;
         int sizeOfExistingTopLevelFreeAtom;
         long endOfMoov = 0;
         //Found top level free atom that comes after moov and before mdat, (also true if no free atom ?)
@@ -382,6 +494,7 @@ public class Mp4TagWriter
         }
 
         //Go through every field constructing the data that will appear starting from ilst box
+        loadArtwork(tag);
         ByteBuffer newIlstData = tc.convert(tag);
         newIlstData.rewind();
         sizeRequiredByNewIlstAtom = newIlstData.limit();
@@ -411,7 +524,7 @@ public class Mp4TagWriter
                     sizeOfExistingIlstAtom = ilstHeader.getLength();
 
                     //Relative means relative to moov buffer after moov header
-                    positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = (int) ilstHeader.getFilePos();
+                    positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = ilstHeader.getFilePos();
                     positionOfNewIlstAtomRelativeToMoovAtom = (int) (positionInExistingFileOfWhereNewIlstAtomShouldBeWritten - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
                 }
                 else
@@ -419,14 +532,14 @@ public class Mp4TagWriter
                     //Place ilst immediately after existing hdlr atom
                     if (hdlrMetaHeader != null)
                     {
-                        positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = (int) hdlrMetaHeader.getFileEndPos();
+                        positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = hdlrMetaHeader.getFileEndPos();
                         positionOfNewIlstAtomRelativeToMoovAtom = (int) (positionInExistingFileOfWhereNewIlstAtomShouldBeWritten - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
                     }
                     //Place ilst after data fields in meta atom
                     //TODO Should we create a hdlr atom
                     else
                     {
-                        positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = (int) metaHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH + Mp4MetaBox.FLAGS_LENGTH;
+                        positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = metaHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH + Mp4MetaBox.FLAGS_LENGTH;
                         positionOfNewIlstAtomRelativeToMoovAtom = (int) ((positionInExistingFileOfWhereNewIlstAtomShouldBeWritten) - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
                     }
                 }
@@ -435,7 +548,7 @@ public class Mp4TagWriter
             {
                 //There no ilst or meta header so we set to position where it would be if it existed
                 positionOfNewIlstAtomRelativeToMoovAtom = moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
-                positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = (int) (moovHeader.getFileEndPos());
+                positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = moovHeader.getFileEndPos();
             }
         }
         //There no udta header so we are going to create a new structure, but we have to be aware that there might be
@@ -447,13 +560,13 @@ public class Mp4TagWriter
             // as part of the moov atom (and not just bulk copied via writeDataAfterIlst())
             if (metaHeader != null)
             {
-                positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = (int) trakHeader.getFileEndPos();
+                positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = trakHeader.getFileEndPos();
                 positionOfNewIlstAtomRelativeToMoovAtom = (int) (positionInExistingFileOfWhereNewIlstAtomShouldBeWritten - (moovHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH));
             }
             else
             {
                 //There no udta,ilst or meta header so we set to position where it would be if it existed
-                positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = (int) (moovHeader.getFileEndPos());
+                positionInExistingFileOfWhereNewIlstAtomShouldBeWritten = moovHeader.getFileEndPos();
                 positionOfNewIlstAtomRelativeToMoovAtom = moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
             }
         }
@@ -473,7 +586,7 @@ public class Mp4TagWriter
             {
                 topLevelFreeHeader = ((Mp4BoxHeader) freeNode.getUserObject());
                 sizeOfExistingTopLevelFreeAtom = topLevelFreeHeader.getLength();
-                positionOfTopLevelFreeAtom = (int) topLevelFreeHeader.getFilePos();
+                positionOfTopLevelFreeAtom = topLevelFreeHeader.getFilePos();
                 break;
             }
         }
@@ -491,7 +604,7 @@ public class Mp4TagWriter
         }
         else
         {
-            positionOfTopLevelFreeAtom = (int) mdatHeader.getFilePos();
+            positionOfTopLevelFreeAtom = mdatHeader.getFilePos();
         }
 
         logger.config("Read header successfully ready for writing");
@@ -555,7 +668,7 @@ public class Mp4TagWriter
                                             sizeOfExistingMetaLevelFreeAtom,
                                             positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
                                             sizeOfExistingIlstAtom,
-                                            positionOfTopLevelFreeAtom,
+                                            sizeOfExistingTopLevelFreeAtom,
                                             additionalMetaSizeThatWontFitWithinMetaAtom);
                 }
                 else if (metaHeader == null)
@@ -575,7 +688,7 @@ public class Mp4TagWriter
                             sizeOfExistingMetaLevelFreeAtom,
                             positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
                             sizeOfExistingIlstAtom,
-                            positionOfTopLevelFreeAtom,
+                            sizeOfExistingTopLevelFreeAtom,
                             additionalMetaSizeThatWontFitWithinMetaAtom);
                 }
                 else
@@ -747,6 +860,50 @@ public class Mp4TagWriter
         return oldMetaLevelFreeAtomSize;
     }
 
+    /**
+     * Check file modified in place using {@link #createRegionReplacement(Tag, RandomAccessFile)} is still valid.
+     *
+     * Only the ilst atom and the free atom after it are replaced without changing the size of the moov atom, so the
+     * audio data and the stco offsets to it have not moved and only the metadata atoms need to be checked.
+     *
+     * @param raf         the modified file, left open
+     * @param replacement
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public void checkFileWrittenInPlace(RandomAccessFile raf, RegionReplacement replacement) throws CannotWriteException, IOException
+    {
+        logger.config("Checking file has been written correctly in place");
+
+        Mp4AtomTree newAtomTree;
+        try
+        {
+            newAtomTree = new Mp4AtomTree(raf, false, true);
+        }
+        catch (CannotReadException cre)
+        {
+            throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED.getMsg() + ":" + cre.getMessage());
+        }
+
+        if (newAtomTree.getBoxHeader(newAtomTree.getMdatNode()) == null)
+        {
+            throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_DATA.getMsg());
+        }
+
+        Mp4BoxHeader newIlstHeader = newAtomTree.getBoxHeader(newAtomTree.getIlstNode());
+        if (newAtomTree.getBoxHeader(newAtomTree.getUdtaNode()) == null
+                || newAtomTree.getBoxHeader(newAtomTree.getMetaNode()) == null
+                || newIlstHeader == null)
+        {
+            throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_NO_TAG_DATA.getMsg());
+        }
+        if (newIlstHeader.getFilePos() != replacement.getStart())
+        {
+            throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED.getMsg());
+        }
+        logger.config("File has been written correctly");
+    }
+
     /**
      * Check file written correctly.
      *
@@ -806,30 +963,30 @@ public class Mp4TagWriter
             // compare the first new stco offset with mdat,
             // and ensure that all following ones have a constant shift
 
-            int shift = 0;
+            long shift = 0;
             for (int i=0; i<newStcos.size(); i++)
             {
                 final Mp4StcoBox newStco = newStcos.get(i);
                 final Mp4StcoBox stco = stcos.get(i);
-                logger.finer("stco:Original First Offset" + stco.getFirstOffSet());
-                logger.finer("stco:Original Diff" + (int) (stco.getFirstOffSet() - mdatHeader.getFilePos()));
+                logger.finer("stco:Original First Offset" + stco.getFirstOffSetAsLong());
+                logger.finer("stco:Original Diff" + (stco.getFirstOffSetAsLong() - mdatHeader.getFilePos()));
                 logger.finer("stco:Original Mdat Pos" + mdatHeader.getFilePos());
-                logger.finer("stco:New First Offset" + newStco.getFirstOffSet());
-                logger.finer("stco:New Diff" + (int) ((newStco.getFirstOffSet() - newMdatHeader.getFilePos())));
+                logger.finer("stco:New First Offset" + newStco.getFirstOffSetAsLong());
+                logger.finer("stco:New Diff" + (newStco.getFirstOffSetAsLong() - newMdatHeader.getFilePos()));
                 logger.finer("stco:New Mdat Pos" + newMdatHeader.getFilePos());
 
                 if (i == 0)
                 {
-                    final int diff = (int) (stco.getFirstOffSet() - mdatHeader.getFilePos());
-                    if ((newStco.getFirstOffSet() - newMdatHeader.getFilePos()) != diff)
+                    final long diff = stco.getFirstOffSetAsLong() - mdatHeader.getFilePos();
+                    if ((newStco.getFirstOffSetAsLong() - newMdatHeader.getFilePos()) != diff)
                     {
-                        int discrepancy = (int) ((newStco.getFirstOffSet() - newMdatHeader.getFilePos()) - diff);
+                        long discrepancy = (newStco.getFirstOffSetAsLong() - newMdatHeader.getFilePos()) - diff;
                         throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_INCORRECT_OFFSETS.getMsg(discrepancy));
                     }
-                    shift = stco.getFirstOffSet() - newStco.getFirstOffSet();
+                    shift = stco.getFirstOffSetAsLong() - newStco.getFirstOffSetAsLong();
                 }
                 else {
-                    if (shift != stco.getFirstOffSet() - newStco.getFirstOffSet())
+                    if (shift != stco.getFirstOffSetAsLong() - newStco.getFirstOffSetAsLong())
                     {
                         throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_INCORRECT_OFFSETS.getMsg(shift));
                     }
@@ -906,7 +1063,7 @@ public class Mp4TagWriter
                                          boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                          Mp4BoxHeader neroTagsHeader,
                                          int sizeOfExistingMetaLevelFreeAtom,
-                                         int positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
+                                         long positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
                                          int existingSizeOfIlstData,
                                          int topLevelFreeSize,
                                          int additionalMetaSizeThatWontFitWithinMetaAtom)
@@ -992,7 +1149,7 @@ public class Mp4TagWriter
                                          boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                          Mp4BoxHeader neroTagsHeader,
                                          int sizeOfExistingMetaLevelFreeAtom,
-                                         int positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
+                                         long positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
                                          int existingSizeOfIlstData,
                                          int topLevelFreeSize,
                                          int additionalMetaSizeThatWontFitWithinMetaAtom) throws IOException, CannotWriteException
@@ -1104,7 +1261,7 @@ public class Mp4TagWriter
                                            ByteBuffer newIlstData,
                                            Mp4BoxHeader neroTagsHeader,
                                            int sizeOfExistingMetaLevelFreeAtom,
-                                           int positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
+                                           long positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
                                            int existingSizeOfIlstData)
             throws IOException, CannotWriteException
     {
@@ -1221,7 +1378,7 @@ public class Mp4TagWriter
     }
 
     /**
-     * May need to rewrite the {@code stco} offsets, if the location of {@code mdat} (audio) header is going to move.
+     * May need to rewrite the {@code stco} or {@code co64} offsets, if the location of {@code mdat} (audio) header is going to move.
      *
      * @param topLevelFreeSize
      * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
@@ -1232,13 +1389,14 @@ public class Mp4TagWriter
      *
      * @return {@code true}, if offsets were adjusted because unable to fit in new
      * metadata without shifting {@code mdat} header further down
+     * @throws CannotWriteException if the offsets of a {@code stco} atom would go beyond 4GB
      */
     private boolean adjustStcosIfNoSuitableTopLevelAtom(int topLevelFreeSize,
                                                         boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                                         int additionalSizeRequired,
                                                         List<Mp4StcoBox> stcos,
                                                         Mp4BoxHeader moovHeader,
-                                                        Mp4BoxHeader mdatHeader)
+                                                        Mp4BoxHeader mdatHeader) throws CannotWriteException
     {
         //We don't bother using the top level free atom coz not big enough anyway, we need to adjust offsets
         //by the amount mdat is going to be shifted as long as mdat is after moov
@@ -1251,6 +1409,13 @@ public class Mp4TagWriter
                     ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalSizeRequired)
                             && (topLevelFreeSize != additionalSizeRequired)))
             {
+                for (final Mp4StcoBox stoc : stcos)
+                {
+                    if (!stoc.canAdjustOffsets(additionalSizeRequired))
+                    {
+                        throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_OFFSETS_TOO_LARGE.getMsg());
+                    }
+                }
                 for (final Mp4StcoBox stoc : stcos)
                 {
                     stoc.adjustOffsets(additionalSizeRequired);
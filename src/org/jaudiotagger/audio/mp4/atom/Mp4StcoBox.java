@@ -1,7 +1,6 @@
 package org.jaudiotagger.audio.mp4.atom;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
-import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.Mp4AtomIdentifier;
 
 import java.io.IOException;
@@ -12,6 +11,8 @@ import java.nio.channels.FileChannel;
 
 /**
  * StcoBox ( media (stream) header), holds offsets into the Audio data
+ *
+ * Also used for the co64 box, which is the same except each offset is 64 bits so it can point beyond 4GB
  */
 public class Mp4StcoBox extends AbstractMp4Box
 {
@@ -24,8 +25,9 @@ public class Mp4StcoBox extends AbstractMp4Box
     public static final int OTHER_FLAG_LENGTH = 3;
     public static final int NO_OF_OFFSETS_LENGTH = 4;
     public static final int OFFSET_LENGTH = 4;
+    public static final int CO64_OFFSET_LENGTH = 8;
     private int noOfOffSets = 0;
-    private int firstOffSet;
+    private long firstOffSet;
 
     /**
      * Construct box from data and show contents
@@ -47,20 +49,46 @@ public class Mp4StcoBox extends AbstractMp4Box
         this.noOfOffSets = dataBuffer.getInt();
 
         //First Offset, useful for sanity checks
-        firstOffSet = dataBuffer.getInt();
+        firstOffSet = readOffset();
+    }
+
+    /**
+     * @return true if this is a co64 box with 64 bit offsets
+     */
+    public boolean isCo64()
+    {
+        return header.getId().equals(Mp4AtomIdentifier.CO64.getFieldName());
+    }
+
+    /**
+     * @return length of each offset in the box
+     */
+    public int getOffsetLength()
+    {
+        return isCo64() ? CO64_OFFSET_LENGTH : OFFSET_LENGTH;
+    }
+
+    /**
+     * Read offset at the current position of the data buffer, stco offsets are unsigned
+     */
+    private long readOffset()
+    {
+        if (isCo64())
+        {
+            return dataBuffer.getLong();
+        }
+        return dataBuffer.getInt() & 0xffffffffL;
     }
 
     public void printTotalOffset()
     {
-        int offset = 0;
+        long offset = 0;
         dataBuffer.rewind();
         dataBuffer.position(VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
-        for (int i = 0; i < noOfOffSets - 1; i++)
+        for (int i = 0; i < noOfOffSets; i++)
         {
-            offset += Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
-            dataBuffer.position(dataBuffer.position() + OFFSET_LENGTH);
+            offset += readOffset();
         }
-        offset += Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + OFFSET_LENGTH - 1));
         System.out.println("Print Offset Total:" + offset);
     }
 
@@ -72,13 +100,11 @@ public class Mp4StcoBox extends AbstractMp4Box
         System.out.println("Print Offsets:start");
         dataBuffer.rewind();
         dataBuffer.position(VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
-        for (int i = 0; i < noOfOffSets - 1; i++)
+        for (int i = 0; i < noOfOffSets; i++)
         {
-            int offset = dataBuffer.getInt();
+            long offset = readOffset();
             System.out.println("offset into audio data is:" + offset);
         }
-        int offset = dataBuffer.getInt();
-        System.out.println("offset into audio data is:" + offset);
         System.out.println("Print Offsets:end");
 
     }
@@ -88,15 +114,48 @@ public class Mp4StcoBox extends AbstractMp4Box
         //Skip the flags
         dataBuffer.rewind();
         dataBuffer.position(dataBuffer.position() + VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
-        for (int i = 0; i < noOfOffSets; i++)
+        if (isCo64())
+        {
+            for (int i = 0; i < noOfOffSets; i++)
+            {
+                long offset = dataBuffer.getLong();
+
+                //Calculate new offset and update buffer
+                offset = offset + adjustment;
+                dataBuffer.position(dataBuffer.position() - CO64_OFFSET_LENGTH);
+                dataBuffer.putLong(offset);
+            }
+        }
+        else
         {
-            int offset = dataBuffer.getInt();
+            for (int i = 0; i < noOfOffSets; i++)
+            {
+                int offset = dataBuffer.getInt();
+
+                //Calculate new offset and update buffer
+                offset = offset + adjustment;
+                dataBuffer.position(dataBuffer.position() - OFFSET_LENGTH);
+                dataBuffer.putInt(offset);
+            }
+        }
+    }
 
-            //Calculate new offset and update buffer
-            offset = offset + adjustment;
-            dataBuffer.position(dataBuffer.position() - OFFSET_LENGTH);
-            dataBuffer.putInt(offset);
+    /**
+     * @param adjustment
+     * @return true if every offset can be adjusted, stco offsets cannot go beyond 4GB
+     */
+    public boolean canAdjustOffsets(int adjustment)
+    {
+        dataBuffer.position(VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
+        for (int i = 0; i < noOfOffSets; i++)
+        {
+            long offset = readOffset() + adjustment;
+            if (offset < 0 || (!isCo64() && offset > 0xffffffffL))
+            {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
@@ -112,22 +171,19 @@ public class Mp4StcoBox extends AbstractMp4Box
 
         //Make a slice of databuffer then we can work with relative or absolute methods safetly
         this.dataBuffer = originalDataBuffer.slice();
+        dataBuffer.order(ByteOrder.BIG_ENDIAN);
 
         //Skip the flags
         dataBuffer.position(dataBuffer.position() + VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH);
 
         //No of offsets
-        this.noOfOffSets = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + NO_OF_OFFSETS_LENGTH - 1));
-        dataBuffer.position(dataBuffer.position() + NO_OF_OFFSETS_LENGTH);
+        this.noOfOffSets = dataBuffer.getInt();
 
-        for (int i = 0; i < noOfOffSets; i++)
-        {
-            int offset = Utils.getIntBE(dataBuffer, dataBuffer.position(), (dataBuffer.position() + NO_OF_OFFSETS_LENGTH - 1));
+        adjustOffsets(adjustment);
 
-            //Calculate new offset and update buffer
-            offset = offset + adjustment;
-            dataBuffer.put(Utils.getSizeBEInt32(offset));
-        }
+        //First Offset, after adjustment
+        dataBuffer.position(VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
+        firstOffSet = readOffset();
     }
 
     /**
@@ -146,6 +202,16 @@ public class Mp4StcoBox extends AbstractMp4Box
      * @return
      */
     public int getFirstOffSet()
+    {
+        return (int) firstOffSet;
+    }
+
+    /**
+     * The value of the first offset, which may be beyond 4GB for co64
+     *
+     * @return
+     */
+    public long getFirstOffSetAsLong()
     {
         return firstOffSet;
     }
@@ -51,7 +51,9 @@ public class OggFileReader extends AudioFileReader
 
     protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
     {
-        return ir.read(raf);
+        GenericAudioHeader info = ir.read(raf);
+        ir.readAudioDataPosition(raf, info);
+        return info;
     }
 
     protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
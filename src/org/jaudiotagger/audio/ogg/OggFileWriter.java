@@ -22,6 +22,7 @@ import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.generic.RegionReplacement;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -45,6 +46,11 @@ public class OggFileWriter extends AudioFileWriter
         vtw.write(tag, raf, rafTemp);
     }
 
+    protected RegionReplacement createRegionReplacement(AudioFile audioFile, Tag tag, RandomAccessFile raf) throws CannotReadException, CannotWriteException, IOException
+    {
+        return vtw.createRegionReplacement(tag, raf);
+    }
+
     protected void deleteTag(Tag tag, RandomAccessFile raf, RandomAccessFile tempRaf) throws CannotReadException, CannotWriteException, IOException
     {
         vtw.delete(raf, tempRaf);
@@ -21,18 +21,22 @@ package org.jaudiotagger.audio.ogg;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.RegionReplacement;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.id3.AbstractID3v1Tag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
+import org.jaudiotagger.utils.DirectByteBufferPool;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -46,6 +50,9 @@ public class OggVorbisTagWriter
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
 
+    //Size of buffer used to renumber the audio pages, must be able to hold at least one complete page
+    private static final int REMAINING_PAGES_WINDOW_SIZE = OggPageHeader.MAXIMUM_PAGE_SIZE * 4;
+
     private OggVorbisCommentTagCreator tc = new OggVorbisCommentTagCreator();
     private OggVorbisTagReader reader = new OggVorbisTagReader();
 
@@ -232,6 +239,24 @@ public class OggVorbisTagWriter
             long secondPageHeaderEndPos,
             RandomAccessFile raf,
             RandomAccessFile rafTemp) throws IOException
+    {
+        ByteBuffer secondPageBuffer = createSecondPageOnly(vorbisHeaderSizes, newCommentLength, newSecondPageLength, secondPageHeader, newComment, secondPageHeaderEndPos, raf);
+        rafTemp.getChannel().write(secondPageBuffer);
+        rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getFilePointer(), raf.length() - raf.getFilePointer());
+    }
+
+    /**
+     * Create the complete new second page when comment, setup header and any extra packets still fit on it, leaving
+     * raf positioned at the end of the original second page
+     */
+    private ByteBuffer createSecondPageOnly(
+            OggVorbisTagReader.OggVorbisHeaderSizes vorbisHeaderSizes,
+            int newCommentLength,
+            int newSecondPageLength,
+            OggPageHeader secondPageHeader,
+            ByteBuffer newComment,
+            long secondPageHeaderEndPos,
+            RandomAccessFile raf) throws IOException
     {
         logger.fine("WriteOgg Type 1");
         ByteBuffer secondPageBuffer = startCreateBasicSecondPage(vorbisHeaderSizes, newCommentLength, newSecondPageLength, secondPageHeader, newComment);
@@ -242,8 +267,49 @@ public class OggVorbisTagWriter
         //Read in setup header and extra packets
         raf.getChannel().read(secondPageBuffer);
         calculateChecksumOverPage(secondPageBuffer);
-        rafTemp.getChannel().write(secondPageBuffer);
-        rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getFilePointer(), raf.length() - raf.getFilePointer());
+        return secondPageBuffer;
+    }
+
+    /**
+     * Create replacement for the second page if the new comment can be written without modifying any other page,
+     * so the file can be modified in place.
+     *
+     * @param tag
+     * @param raf
+     * @return replacement for the second page, or null if other pages have to be modified
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public RegionReplacement createRegionReplacement(Tag tag, RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        OggPageHeader pageHeader = OggPageHeader.read(raf);
+        //Rewriting drops any data before the first page, cannot do that in place
+        if (pageHeader.getStartByte() != 0)
+        {
+            return null;
+        }
+        raf.seek(pageHeader.getStartByte() + pageHeader.getPageLength() + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageHeader.getSegmentTable().length);
+
+        OggPageHeader secondPageHeader = OggPageHeader.read(raf);
+        long secondPageHeaderEndPos = raf.getFilePointer();
+
+        raf.seek(0);
+        OggVorbisTagReader.OggVorbisHeaderSizes vorbisHeaderSizes = reader.readOggVorbisHeaderSizes(raf);
+        ByteBuffer newComment = tc.convert(tag);
+        int newCommentLength = newComment.capacity();
+        int newSecondPageDataLength = vorbisHeaderSizes.getSetupHeaderSize() + newCommentLength + vorbisHeaderSizes.getExtraPacketDataSize();
+
+        //Same conditions as write() uses to decide only the second page needs replacing
+        if (isCommentAndSetupHeaderFitsOnASinglePage(newCommentLength, vorbisHeaderSizes.getSetupHeaderSize(), vorbisHeaderSizes.getExtraPacketList())
+                && (secondPageHeader.getPageLength() < OggPageHeader.MAXIMUM_PAGE_DATA_SIZE)
+                && (((secondPageHeader.getPacketList().size() == 2) && (!secondPageHeader.isLastPacketIncomplete())) || (secondPageHeader.getPacketList().size() > 2)))
+        {
+            long secondPageStart = secondPageHeader.getStartByte();
+            long secondPageLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + secondPageHeader.getSegmentTable().length + secondPageHeader.getPageLength();
+            ByteBuffer secondPageBuffer = createSecondPageOnly(vorbisHeaderSizes, newCommentLength, newSecondPageDataLength, secondPageHeader, newComment, secondPageHeaderEndPos, raf);
+            return new RegionReplacement(secondPageStart, secondPageLength, secondPageBuffer);
+        }
+        return null;
     }
 
     /**
@@ -448,54 +514,89 @@ public class OggVorbisTagWriter
         long startAudio = raf.getFilePointer();
         long startAudioWritten = rafTemp.getFilePointer();
 
-        //TODO there is a risk we wont have enough memory to create these buffers
-        ByteBuffer bb       = ByteBuffer.allocate((int) (raf.length() - raf.getFilePointer()));
-        ByteBuffer bbTemp   = ByteBuffer.allocate((int)(raf.length() - raf.getFilePointer()));
+        FileChannel fc = raf.getChannel();
+        FileChannel fcTemp = rafTemp.getChannel();
 
-        //Read in the rest of the data into bytebuffer and rewind it to start
-        raf.getChannel().read(bb);
-        bb.rewind();
+        //Pages are read into the window, renumbered and rechecksummed in place, and then written out from the
+        //same buffer so memory used depends on the maximum page size rather than the size of the audio
+        ByteBuffer window = DirectByteBufferPool.acquire(REMAINING_PAGES_WINDOW_SIZE);
+        window.order(ByteOrder.LITTLE_ENDIAN);
         long bytesToDiscard = 0;
-        while(bb.hasRemaining())
+        boolean endOfFile = false;
+        try
         {
-            OggPageHeader nextPage=null;
-            try
-            {
-                nextPage = OggPageHeader.read(bb);
-            }
-            catch(CannotReadException cre)
+            while (!endOfFile)
             {
-                //Go back to where were
-                bb.position(bb.position() - OggPageHeader.CAPTURE_PATTERN.length);
-                //#117:Ogg file with invalid ID3v1 tag at end remove and save
-                if(Utils.readThreeBytesAsChars(bb).equals(AbstractID3v1Tag.TAG))
+                while (window.hasRemaining())
                 {
-                    bytesToDiscard = bb.remaining() + AbstractID3v1Tag.TAG.length();
-                    break;
+                    if (fc.read(window) == -1)
+                    {
+                        endOfFile = true;
+                        break;
+                    }
                 }
-                else
+                window.flip();
+
+                while (window.hasRemaining())
                 {
-                    throw cre;
+                    int pageStart = window.position();
+                    if (window.remaining() < OggPageHeader.CAPTURE_PATTERN.length && !endOfFile)
+                    {
+                        //Rest of page will be read on next iteration
+                        break;
+                    }
+
+                    if (!isCapturePattern(window))
+                    {
+                        //#117:Ogg file with invalid ID3v1 tag at end remove and save
+                        if (window.remaining() >= AbstractID3v1Tag.TAG.length() && Utils.readThreeBytesAsChars(window).equals(AbstractID3v1Tag.TAG))
+                        {
+                            window.position(pageStart);
+                            bytesToDiscard = window.remaining() + (fc.size() - fc.position());
+                            window.limit(pageStart);
+                            endOfFile = true;
+                            break;
+                        }
+                        byte[] b = new byte[Math.min(OggPageHeader.CAPTURE_PATTERN.length, window.remaining())];
+                        window.get(b);
+                        throw new CannotReadException(ErrorMessage.OGG_HEADER_CANNOT_BE_FOUND.getMsg(new String(b)));
+                    }
+
+                    int pageSize = getCompletePageSize(window);
+                    if (pageSize == -1)
+                    {
+                        if (endOfFile)
+                        {
+                            throw new CannotReadException(ErrorMessage.OGG_PAGE_INCOMPLETE.getMsg(fc.position() - window.limit() + pageStart));
+                        }
+                        //Rest of page will be read on next iteration
+                        break;
+                    }
+
+                    window.putInt(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
+                    window.putInt(pageStart + OggPageHeader.FIELD_PAGE_CHECKSUM_POS, 0);
+                    window.putInt(pageStart + OggPageHeader.FIELD_PAGE_CHECKSUM_POS, OggCRCFactory.computeCRC(window, pageStart, pageSize));
+                    window.position(pageStart + pageSize);
                 }
+
+                //Write the completed pages and keep any partial page for the next read
+                int processed = window.position();
+                int limit = window.limit();
+                window.position(0);
+                window.limit(processed);
+                while (window.hasRemaining())
+                {
+                    fcTemp.write(window);
+                }
+                window.limit(limit);
+                window.compact();
             }
-            //Create buffer large enough for next page (header and data) and set byte order to LE so we can use
-            //putInt method
-            ByteBuffer nextPageHeaderBuffer = ByteBuffer.allocate(nextPage.getRawHeaderData().length + nextPage.getPageLength());
-            nextPageHeaderBuffer.order(ByteOrder.LITTLE_ENDIAN);
-            nextPageHeaderBuffer.put(nextPage.getRawHeaderData());
-            ByteBuffer data = bb.slice();
-            data.limit(nextPage.getPageLength());
-            nextPageHeaderBuffer.put(data);
-            nextPageHeaderBuffer.putInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
-            calculateChecksumOverPage(nextPageHeaderBuffer);
-            bb.position(bb.position() + nextPage.getPageLength());
-
-            nextPageHeaderBuffer.rewind();
-            bbTemp.put(nextPageHeaderBuffer);
-        }
-        //Now just write as a single IO operation
-        bbTemp.flip();
-        rafTemp.getChannel().write(bbTemp);
+        }
+        finally
+        {
+            DirectByteBufferPool.release(window);
+        }
+
         //Check we have written all the data (minus any invalid Tag at end)
         if ((raf.length() - startAudio) != ((rafTemp.length() + bytesToDiscard) - startAudioWritten))
         {
@@ -506,6 +607,63 @@ public class OggVorbisTagWriter
         }
     }
 
+    /**
+     * Check the buffer starts with the capture pattern at its current position, the position is not modified
+     *
+     * @param buffer
+     * @return true if there is an OggS capture pattern at the current position
+     */
+    private boolean isCapturePattern(ByteBuffer buffer)
+    {
+        if (buffer.remaining() < OggPageHeader.CAPTURE_PATTERN.length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < OggPageHeader.CAPTURE_PATTERN.length; i++)
+        {
+            if (buffer.get(buffer.position() + i) != OggPageHeader.CAPTURE_PATTERN[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the size of the page at the current position of the buffer, the position is not modified
+     *
+     * @param buffer starting with the capture pattern of the page
+     * @return size of page including its header, or -1 if the buffer does not contain the complete page
+     */
+    private int getCompletePageSize(ByteBuffer buffer)
+    {
+        int pageStart = buffer.position();
+        if (buffer.remaining() < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+        {
+            return -1;
+        }
+
+        int pageSegments = buffer.get(pageStart + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+        int headerSize = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments;
+        if (buffer.remaining() < headerSize)
+        {
+            return -1;
+        }
+
+        int pageLength = 0;
+        for (int i = 0; i < pageSegments; i++)
+        {
+            pageLength += buffer.get(pageStart + OggPageHeader.FIELD_SEGMENT_TABLE_POS + i) & 0xFF;
+        }
+
+        if (buffer.remaining() < headerSize + pageLength)
+        {
+            return -1;
+        }
+        return headerSize + pageLength;
+    }
+
     /**
      * This method creates a new segment table for the second page (header).
      *
@@ -18,6 +18,7 @@
  */
 package org.jaudiotagger.audio.ogg.util;
 
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 
@@ -96,6 +97,33 @@ public class OggCRCFactory
     }
 
 
+    /**
+     * Compute CRC over part of a buffer without copying it, the buffer position is not modified
+     *
+     * @param buffer
+     * @param start  position of the first byte to include
+     * @param length number of bytes to include
+     * @return the crc, to be written little endian into the checksum field
+     */
+    public static int computeCRC(ByteBuffer buffer, int start, int length)
+    {
+        if (!init)
+        {
+            init();
+        }
+
+        long crc_reg = 0;
+
+        for (int i = start; i < start + length; i++)
+        {
+            int tmp = (int) (((crc_reg >>> 24) & 0xff) ^ u(buffer.get(i)));
+
+            crc_reg = (crc_reg << 8) ^ crc_lookup[tmp];
+            crc_reg &= 0xffffffff;
+        }
+        return (int) crc_reg;
+    }
+
     private static int u(int n)
     {
         return n & 0xff;
@@ -28,6 +28,8 @@ import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.logging.Logger;
 
@@ -39,12 +41,15 @@ public class OggInfoReader
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg.atom");
 
+    //Size of blocks read when searching backwards for the last page
+    private static final int TAIL_BLOCK_SIZE = 64 * 1024;
+    private static final int MAXIMUM_HEADER_BLOCK_SIZE = 1024 * 1024;
+
     public GenericAudioHeader read(RandomAccessFile raf) throws CannotReadException, IOException
     {
         long start = raf.getFilePointer();
         GenericAudioHeader info = new GenericAudioHeader();
         logger.fine("Started");
-        long oldPos;
 
         //Check start of file does it have Ogg pattern
         byte[] b = new byte[OggPageHeader.CAPTURE_PATTERN.length];
@@ -68,37 +73,8 @@ public class OggInfoReader
 
         //Now work backwards from file looking for the last ogg page, it reads the granule position for this last page
         //which must be set.
-        //TODO should do buffering to cut down the number of file reads
-        raf.seek(start);
-        double pcmSamplesNumber = -1;
-        raf.seek(raf.length() - 2);
-        while (raf.getFilePointer() >= 4)
-        {
-            if (raf.read() == OggPageHeader.CAPTURE_PATTERN[3])
-            {
-                raf.seek(raf.getFilePointer() - OggPageHeader.FIELD_CAPTURE_PATTERN_LENGTH);
-                byte[] ogg = new byte[3];
-                raf.readFully(ogg);
-                if (ogg[0] == OggPageHeader.CAPTURE_PATTERN[0] && ogg[1] == OggPageHeader.CAPTURE_PATTERN[1] && ogg[2] == OggPageHeader.CAPTURE_PATTERN[2])
-                {
-                    raf.seek(raf.getFilePointer() - 3);
-
-                    oldPos = raf.getFilePointer();
-                    raf.seek(raf.getFilePointer() + OggPageHeader.FIELD_PAGE_SEGMENTS_POS);
-                    int pageSegments = raf.readByte() & 0xFF; //Unsigned
-                    raf.seek(oldPos);
-
-                    b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
-                    raf.readFully(b);
-
-                    OggPageHeader pageHeader = new OggPageHeader(b);
-                    raf.seek(0);
-                    pcmSamplesNumber = pageHeader.getAbsoluteGranulePosition();
-                    break;
-                }
-            }
-            raf.seek(raf.getFilePointer() - 2);
-        }
+        double pcmSamplesNumber = readLastGranulePosition(raf);
+        raf.seek(0);
 
         if (pcmSamplesNumber == -1)
         {
@@ -150,6 +126,221 @@ public class OggInfoReader
         return info;
     }
 
+    /**
+     * The comment and setup headers follow the identification header, they have a granule position of zero and
+     * the audio starts on a new page so it starts at the first page with a non zero granule position.
+     *
+     * The pages are walked in blocks and the page headers parsed in memory, because the comment header can span
+     * many pages when it contains artwork.
+     *
+     * This is kept separate from {@link #read(RandomAccessFile)} so that reading the track length does not require
+     * reading the comment header.
+     *
+     * @param raf
+     * @param info
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public void readAudioDataPosition(RandomAccessFile raf, GenericAudioHeader info) throws CannotReadException, IOException
+    {
+        //1st page = Identification Header
+        raf.seek(0);
+        OggPageHeader identificationPageHeader = OggPageHeader.read(raf);
+        raf.seek(raf.getFilePointer() + identificationPageHeader.getPageLength());
+
+        long fileLength = raf.length();
+        byte[] block = new byte[TAIL_BLOCK_SIZE];
+        long blockStart = 0;
+        int blockLength = 0;
+        long pageStart = raf.getFilePointer();
+        while (pageStart + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH <= fileLength)
+        {
+            //Refill block if the largest possible page header is not already in it, doubling its size each time
+            //so that a large comment header only needs a few reads
+            if (pageStart < blockStart || pageStart + OggPageHeader.MAXIMUM_PAGE_HEADER_SIZE > blockStart + blockLength)
+            {
+                if (blockLength == block.length && block.length < MAXIMUM_HEADER_BLOCK_SIZE)
+                {
+                    block = new byte[block.length * 2];
+                }
+                blockStart = pageStart;
+                blockLength = (int) Math.min(block.length, fileLength - pageStart);
+                raf.seek(blockStart);
+                raf.readFully(block, 0, blockLength);
+            }
+
+            int offset = (int) (pageStart - blockStart);
+            for (int i = 0; i < OggPageHeader.CAPTURE_PATTERN.length; i++)
+            {
+                if (block[offset + i] != OggPageHeader.CAPTURE_PATTERN[i])
+                {
+                    logger.warning("Unable to find start of audio data, no Ogg page at:" + pageStart);
+                    return;
+                }
+            }
+
+            int pageSegments = block[offset + OggPageHeader.FIELD_PAGE_SEGMENTS_POS] & 0xFF; //Unsigned
+            if (offset + OggPageHeader.FIELD_SEGMENT_TABLE_POS + pageSegments > blockLength)
+            {
+                logger.warning("Unable to find start of audio data, truncated Ogg page at:" + pageStart);
+                return;
+            }
+
+            long granulePosition = 0;
+            for (int i = OggPageHeader.FIELD_ABSOLUTE_GRANULE_LENGTH - 1; i >= 0; i--)
+            {
+                granulePosition = (granulePosition << 8) | (block[offset + OggPageHeader.FIELD_ABSOLUTE_GRANULE_POS + i] & 0xFF);
+            }
+            if (granulePosition != 0)
+            {
+                info.setAudioDataStartPosition(pageStart);
+                info.setAudioDataEndPosition(fileLength);
+                return;
+            }
+
+            int pageLength = 0;
+            for (int i = 0; i < pageSegments; i++)
+            {
+                pageLength += block[offset + OggPageHeader.FIELD_SEGMENT_TABLE_POS + i] & 0xFF;
+            }
+            pageStart += OggPageHeader.FIELD_SEGMENT_TABLE_POS + pageSegments + pageLength;
+        }
+    }
+
+    /**
+     * Find the data of each page from start to end, without the page headers.
+     *
+     * The page headers contain the page sequence number and checksum, which change for every following page if
+     * writing the comment header changes the number of pages it needs, so these regions are used to hash the audio
+     * rather than the complete pages. If no page is found where one is expected the rest of the data is included
+     * as it is.
+     *
+     * @param fc
+     * @param start start of the first page
+     * @param end
+     * @return start (inclusive) and end (exclusive) of the data of each page in turn
+     * @throws IOException
+     */
+    public static long[] readPageDataRegions(FileChannel fc, long start, long end) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(OggPageHeader.MAXIMUM_PAGE_HEADER_SIZE);
+        long[] regions = new long[256];
+        int count = 0;
+        long pageStart = start;
+        while (pageStart < end)
+        {
+            header.clear();
+            header.limit((int) Math.min(header.capacity(), end - pageStart));
+            int read = 0;
+            while (header.hasRemaining() && read != -1)
+            {
+                read = fc.read(header, pageStart + header.position());
+            }
+
+            long dataStart;
+            long dataEnd;
+            int pageSegments = header.position() > OggPageHeader.FIELD_PAGE_SEGMENTS_POS ? header.get(OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF : 0;
+            if (header.position() >= OggPageHeader.FIELD_SEGMENT_TABLE_POS + pageSegments
+                    && header.get(0) == OggPageHeader.CAPTURE_PATTERN[0]
+                    && header.get(1) == OggPageHeader.CAPTURE_PATTERN[1]
+                    && header.get(2) == OggPageHeader.CAPTURE_PATTERN[2]
+                    && header.get(3) == OggPageHeader.CAPTURE_PATTERN[3])
+            {
+                int pageLength = 0;
+                for (int i = 0; i < pageSegments; i++)
+                {
+                    pageLength += header.get(OggPageHeader.FIELD_SEGMENT_TABLE_POS + i) & 0xFF; //Unsigned
+                }
+                dataStart = pageStart + OggPageHeader.FIELD_SEGMENT_TABLE_POS + pageSegments;
+                dataEnd = Math.min(end, dataStart + pageLength);
+            }
+            else
+            {
+                logger.warning("No Ogg page at:" + pageStart + ", including remaining data");
+                dataStart = pageStart;
+                dataEnd = end;
+            }
+
+            if (count == regions.length)
+            {
+                regions = Arrays.copyOf(regions, regions.length * 2);
+            }
+            regions[count++] = dataStart;
+            regions[count++] = dataEnd;
+            pageStart = dataEnd;
+        }
+        return Arrays.copyOf(regions, count);
+    }
+
+    /**
+     * Search backwards from the end of the file for the start of the last Ogg page and return its granule position.
+     *
+     * The file is read in blocks of TAIL_BLOCK_SIZE and the capture pattern is matched in memory, so normally only a
+     * single read is required because the last page is near the end of the file.
+     *
+     * @param raf
+     * @return the absolute granule position of the last page, or -1 if no page was found
+     * @throws IOException
+     */
+    private double readLastGranulePosition(RandomAccessFile raf) throws IOException
+    {
+        long fileLength = raf.length();
+        byte[] block = new byte[TAIL_BLOCK_SIZE + OggPageHeader.MAXIMUM_PAGE_HEADER_SIZE];
+
+        //Candidate page starts are searched from searchEnd (exclusive) down to the second byte of the file,
+        //the complete capture pattern must fit in the file
+        long searchEnd = fileLength - OggPageHeader.CAPTURE_PATTERN.length;
+        while (searchEnd > 1)
+        {
+            long blockStart = Math.max(1, searchEnd - TAIL_BLOCK_SIZE);
+
+            //Read a little beyond searchEnd so the page header of any page found is usually in the block as well
+            int blockLength = (int) Math.min(fileLength - blockStart, searchEnd - blockStart + OggPageHeader.MAXIMUM_PAGE_HEADER_SIZE);
+            raf.seek(blockStart);
+            raf.readFully(block, 0, blockLength);
+
+            for (int i = (int) (searchEnd - blockStart) - 1; i >= 0; i--)
+            {
+                if (block[i + 3] == OggPageHeader.CAPTURE_PATTERN[3]
+                        && block[i] == OggPageHeader.CAPTURE_PATTERN[0]
+                        && block[i + 1] == OggPageHeader.CAPTURE_PATTERN[1]
+                        && block[i + 2] == OggPageHeader.CAPTURE_PATTERN[2])
+                {
+                    return readPageHeader(raf, block, i, blockLength, blockStart + i).getAbsoluteGranulePosition();
+                }
+            }
+            searchEnd = blockStart;
+        }
+        return -1;
+    }
+
+    /**
+     * Create page header from the block if it contains the complete header, otherwise read it from file
+     */
+    private OggPageHeader readPageHeader(RandomAccessFile raf, byte[] block, int offset, int blockLength, long filePos) throws IOException
+    {
+        byte[] b;
+        if (offset + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH <= blockLength)
+        {
+            int pageSegments = block[offset + OggPageHeader.FIELD_PAGE_SEGMENTS_POS] & 0xFF; //Unsigned
+            b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
+            if (offset + b.length <= blockLength)
+            {
+                System.arraycopy(block, offset, b, 0, b.length);
+                return new OggPageHeader(b);
+            }
+        }
+        else
+        {
+            raf.seek(filePos + OggPageHeader.FIELD_PAGE_SEGMENTS_POS);
+            int pageSegments = raf.readByte() & 0xFF; //Unsigned
+            b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
+        }
+        raf.seek(filePos);
+        raf.readFully(b);
+        return new OggPageHeader(b);
+    }
+
     private int computeBitrate(int length, long size)
     {
         //Protect against audio less than 0.5 seconds that can be rounded to zero causing Arithmetic Exception
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.wav;
 import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
@@ -54,7 +55,7 @@ public class WavInfoReader
     public GenericAudioHeader read(Path path) throws CannotReadException, IOException
     {
         GenericAudioHeader info = new GenericAudioHeader();
-        try(FileChannel fc = FileChannel.open(path))
+        try(FileChannel fc = MappedFileChannel.openForRead(path))
         {
             if(WavRIFFHeader.isValidHeader(loggingName, fc))
             {
@@ -19,6 +19,7 @@
 package org.jaudiotagger.audio.wav;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.MappedFileChannel;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
@@ -64,7 +65,7 @@ public class WavTagReader
     {
         logger.config(loggingName + " Read Tag:start");
         WavTag tag = new WavTag(TagOptionSingleton.getInstance().getWavOptions());
-        try(FileChannel fc = FileChannel.open(path))
+        try(FileChannel fc = MappedFileChannel.openForRead(path))
         {
             if (WavRIFFHeader.isValidHeader(loggingName, fc))
             {
@@ -220,6 +221,7 @@ public class WavTagReader
                 throw new CannotReadException(msg);
             }
             logger.config(loggingName + " Skipping chunk bytes:" + chunkHeader.getSize() +"for"+chunkHeader.getID());
+            tag.addChunkSummary(new ChunkSummary(chunkHeader.getID(), chunkHeader.getStartLocationInFile(), chunkHeader.getSize()));
             fc.position(fc.position() + chunkHeader.getSize());
             if(fc.position()>fc.size())
             {
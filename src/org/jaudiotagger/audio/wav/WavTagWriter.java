@@ -57,6 +57,10 @@ public class WavTagWriter
 {
     //For logging
     private String loggingName;
+
+    //Set if metadata was written into the space of the existing chunks rather than at the end of the file
+    private boolean isMetadataWrittenInPlace;
+
     public WavTagWriter(String loggingName)
     {
         this.loggingName = loggingName;
@@ -146,6 +150,7 @@ public class WavTagWriter
         try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             WavTag existingTag = getExistingMetadata(file);
+            removeTrailingPadding(fc, existingTag);
 
             //have both tags
             if (existingTag.isExistingId3Tag() && existingTag.isExistingInfoTag())
@@ -301,7 +306,9 @@ public class WavTagWriter
         //Position for reading after the tag
         fc.position(endOfExistingChunk);
 
-        final ByteBuffer buffer = ByteBuffer.allocate((int) TagOptionSingleton.getInstance().getWriteChunkSize());
+        //No need for a buffer larger than the data to be moved
+        final long toMove = Math.max(1, fc.size() - endOfExistingChunk);
+        final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(toMove, TagOptionSingleton.getInstance().getWriteChunkSize()));
         while (fc.read(buffer) >= 0 || buffer.position() != 0)
         {
             buffer.flip();
@@ -340,6 +347,9 @@ public class WavTagWriter
 
         try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
+            final long originalFileSize = fc.size();
+            final boolean isTrailingPaddingRemoved = removeTrailingPadding(fc, existingTag);
+            isMetadataWrittenInPlace = false;
 
             final WavTag wavTag = (WavTag) tag;
             if (wso == WavSaveOptions.SAVE_BOTH)
@@ -369,6 +379,10 @@ public class WavTagWriter
             {
                 throw new RuntimeException(loggingName + " No setting for:WavSaveOptions");
             }
+            if (!isMetadataWrittenInPlace)
+            {
+                writeTrailingPadding(fc, originalFileSize, isTrailingPaddingRemoved);
+            }
             rewriteRiffHeaderSize(fc);
         }
         catch(AccessDeniedException ade)
@@ -390,7 +404,7 @@ public class WavTagWriter
     private void rewriteRiffHeaderSize(FileChannel fc) throws IOException
     {
         fc.position(IffHeaderChunk.SIGNATURE_LENGTH);
-        ByteBuffer bb = ByteBuffer.allocateDirect(IffHeaderChunk.SIZE_LENGTH);
+        ByteBuffer bb = ByteBuffer.allocate(IffHeaderChunk.SIZE_LENGTH);
         bb.order(ByteOrder.LITTLE_ENDIAN);
         int size = ((int) fc.size()) - SIGNATURE_LENGTH - SIZE_LENGTH;
         bb.putInt(size);
@@ -474,7 +488,173 @@ public class WavTagWriter
      */
     private void writePaddingToFile(final FileChannel  fc, final int paddingSize) throws IOException
     {
-        fc.write(ByteBuffer.allocateDirect(paddingSize));
+        Utils.writeZeros(fc, paddingSize);
+    }
+
+    /**
+     * Write JUNK chunk with data of the given size at the current position
+     *
+     * @param fc
+     * @param dataSize size of padding excluding chunk header, must be even
+     * @throws IOException
+     */
+    private void writeJunkChunk(final FileChannel fc, final long dataSize) throws IOException
+    {
+        final ByteBuffer junkHeaderBuffer = ByteBuffer.allocate(ChunkHeader.CHUNK_HEADER_SIZE);
+        junkHeaderBuffer.order(ByteOrder.LITTLE_ENDIAN);
+        junkHeaderBuffer.put(WavChunkType.JUNK.getCode().getBytes(StandardCharsets.US_ASCII));
+        junkHeaderBuffer.putInt((int) dataSize);
+        junkHeaderBuffer.flip();
+        fc.write(junkHeaderBuffer);
+        Utils.writeZeros(fc, dataSize);
+    }
+
+    /**
+     * If the last metadata chunk is only followed by JUNK chunks to the end of the file remove them, so that the
+     * metadata is at the end of the file and can be rewritten there.
+     *
+     * @param fc
+     * @param existingTag
+     * @return true if padding was removed
+     * @throws IOException
+     */
+    private boolean removeTrailingPadding(final FileChannel fc, final WavTag existingTag) throws IOException
+    {
+        final List<ChunkSummary> chunks = existingTag.getChunkSummaryList();
+        int firstPadding = chunks.size();
+        while (firstPadding > 1 && chunks.get(firstPadding - 1).getChunkId().equals(WavChunkType.JUNK.getCode()))
+        {
+            firstPadding--;
+        }
+        if (firstPadding == chunks.size())
+        {
+            return false;
+        }
+
+        final String precedingChunkId = chunks.get(firstPadding - 1).getChunkId();
+        if (!precedingChunkId.equals(WavChunkType.LIST.getCode()) && !precedingChunkId.equals(WavChunkType.ID3.getCode()))
+        {
+            return false;
+        }
+
+        final long endOfPadding = chunks.get(chunks.size() - 1).getEndLocation();
+        if (endOfPadding != fc.size() && !(Utils.isOddLength(endOfPadding) && endOfPadding + 1 == fc.size()))
+        {
+            return false;
+        }
+        final long startOfPadding = chunks.get(firstPadding).getFileStartLocation();
+        logger.config(loggingName + " Removing padding after metadata from:" + startOfPadding);
+        fc.truncate(startOfPadding);
+        return true;
+    }
+
+    /**
+     * Write JUNK chunk after metadata written at the end of the file. If the file had padding the file is
+     * restored to its original size if possible, so the next write of the same metadata can also be done in place,
+     * otherwise padding of {@link TagOptionSingleton#getWavPaddingSize()} is added.
+     *
+     * @param fc
+     * @param originalFileSize
+     * @param isTrailingPaddingRemoved
+     * @throws IOException
+     */
+    private void writeTrailingPadding(final FileChannel fc, final long originalFileSize, final boolean isTrailingPaddingRemoved) throws IOException
+    {
+        fc.position(fc.size());
+        if (Utils.isOddLength(fc.position()))
+        {
+            writePaddingToFile(fc, 1);
+        }
+
+        long paddingSize = TagOptionSingleton.getInstance().getWavPaddingSize();
+        if (isTrailingPaddingRemoved && originalFileSize - fc.position() >= ChunkHeader.CHUNK_HEADER_SIZE)
+        {
+            paddingSize = (originalFileSize - fc.position() - ChunkHeader.CHUNK_HEADER_SIZE) & ~1L;
+        }
+        else if (paddingSize <= 0)
+        {
+            return;
+        }
+        else if (Utils.isOddLength(paddingSize))
+        {
+            paddingSize++;
+        }
+        writeJunkChunk(fc, paddingSize);
+    }
+
+    /**
+     * If the new metadata chunks fit in the space used by the existing chunks from start to end, together with any
+     * JUNK chunks that follow them, write them there so nothing else in the file has to be moved. Any space left over
+     * is filled with a JUNK chunk.
+     *
+     * @param fc
+     * @param existingTag
+     * @param start start of existing metadata chunks
+     * @param end end of existing metadata chunks
+     * @param infoTagBuffer new INFO data or null if not writing INFO chunk
+     * @param id3TagBuffer new ID3 data or null if not writing ID3 chunk
+     * @return true if written
+     * @throws IOException
+     */
+    private boolean writeMetadataInPlace(final FileChannel fc, final WavTag existingTag, final long start, long end,
+                                         final ByteBuffer infoTagBuffer, final ByteBuffer id3TagBuffer) throws IOException
+    {
+        if (Utils.isOddLength(end))
+        {
+            end++;
+        }
+        for (ChunkSummary cs : existingTag.getChunkSummaryList())
+        {
+            if (cs.getFileStartLocation() == end && cs.getChunkId().equals(WavChunkType.JUNK.getCode()))
+            {
+                end = cs.getEndLocation();
+                if (Utils.isOddLength(end))
+                {
+                    end++;
+                }
+            }
+        }
+        if (end > fc.size())
+        {
+            return false;
+        }
+
+        long required = 0;
+        if (infoTagBuffer != null)
+        {
+            required += ChunkHeader.CHUNK_HEADER_SIZE + infoTagBuffer.limit() + (infoTagBuffer.limit() & 1);
+        }
+        if (id3TagBuffer != null)
+        {
+            required += ChunkHeader.CHUNK_HEADER_SIZE + id3TagBuffer.limit() + (id3TagBuffer.limit() & 1);
+        }
+        final long available = end - start;
+        if (required != available && available - required < ChunkHeader.CHUNK_HEADER_SIZE)
+        {
+            return false;
+        }
+
+        logger.config(loggingName + " Writing metadata in place at:" + start + ":available:" + available + ":required:" + required);
+        fc.position(start);
+        if (infoTagBuffer != null && id3TagBuffer != null)
+        {
+            writeBothTags(fc, infoTagBuffer, id3TagBuffer);
+        }
+        else if (infoTagBuffer != null)
+        {
+            writeInfoDataToFile(fc, infoTagBuffer);
+        }
+        else
+        {
+            writeId3DataToFile(fc, id3TagBuffer);
+            writeExtraByteIfChunkOddSize(fc, id3TagBuffer.limit());
+        }
+        if (available > required)
+        {
+            writeJunkChunk(fc, available - required - ChunkHeader.CHUNK_HEADER_SIZE);
+        }
+        isMetadataWrittenInPlace = true;
+        return true;
     }
 
     class InfoFieldWriterOrderComparator implements Comparator<TagField>
@@ -595,7 +775,7 @@ public class WavTagWriter
 
 
             //Construct a single ByteBuffer from both
-            ByteBuffer listInfoBuffer = ByteBuffer.allocateDirect(infoHeaderBuffer.limit() + infoBuffer.limit());
+            ByteBuffer listInfoBuffer = ByteBuffer.allocate(infoHeaderBuffer.limit() + infoBuffer.limit());
             listInfoBuffer.put(infoHeaderBuffer);
             listInfoBuffer.put(infoBuffer);
             listInfoBuffer.flip();
@@ -823,6 +1003,14 @@ public class WavTagWriter
                         fc.truncate(fc.position());
                     }
                 }
+                //Both chunks are together and there is space for the new chunks where they are
+                else if (fs.isContiguous && writeMetadataInPlace(fc, existingTag,
+                        Math.min(existingTag.getInfoTag().getStartLocationInFile(), existingTag.getStartLocationInFileOfId3Chunk()),
+                        Math.max(existingTag.getInfoTag().getEndLocationInFile(), existingTag.getEndLocationInFileOfId3Chunk()),
+                        infoTagBuffer, id3TagBuffer))
+                {
+                    logger.config(loggingName + " Replaced both metadata chunks in place");
+                }
                 //Both chunks are together but there is another chunk after them
                 else
                 {
@@ -968,7 +1156,8 @@ public class WavTagWriter
             logger.severe("writinginfo");
             writeInfoChunk(fc, existingTag.getInfoTag(), infoTagBuffer);
         }
-        else
+        else if (!writeMetadataInPlace(fc, existingTag, existingTag.getInfoTag().getStartLocationInFile(),
+                existingTag.getInfoTag().getEndLocationInFile(), infoTagBuffer, null))
         {
             deleteInfoChunkAndCreateNewOneAtFileEnd( fc, existingTag, infoChunkHeader, infoTagBuffer);
         }
@@ -1167,7 +1356,8 @@ public class WavTagWriter
         {
             writeId3DataToFile(fc, id3TagBuffer);
         }
-        else
+        else if (!writeMetadataInPlace(fc, existingTag, existingTag.getStartLocationInFileOfId3Chunk(),
+                existingTag.getEndLocationInFileOfId3Chunk(), null, id3TagBuffer))
         {
             deleteId3ChunkAndCreateNewOneAtFileEnd( fc, existingTag, id3ChunkHeader, id3TagBuffer);
         }
@@ -69,7 +69,8 @@ public class WavChunkSummary
                 if(
                         !cs.getChunkId().equals(WavChunkType.ID3.getCode()) &&
                         !cs.getChunkId().equals(WavChunkType.LIST.getCode()) &&
-                        !cs.getChunkId().equals(WavChunkType.INFO.getCode())
+                        !cs.getChunkId().equals(WavChunkType.INFO.getCode()) &&
+                        !cs.getChunkId().equals(WavChunkType.JUNK.getCode())
                   )
                 {
                     return false;
@@ -25,17 +25,71 @@
  */
 package org.jaudiotagger.logging;
 
+import java.io.IOException;
 import java.util.HashMap;
 
 /**
  * Abstract class that provides structure to use for displaying a files metadata content
+ *
+ * Output is written directly to an {@link Appendable}, by default an internal buffer returned by {@link #toString()}.
+ * Because the formatting methods are called from throughout the tag classes they do not throw {@link IOException},
+ * instead the first error is recorded, no further output is written and the error is available from
+ * {@link #getError()}.
  */
 public abstract class AbstractTagDisplayFormatter
 {
+    /**
+     * Formats that a files structure can be displayed in
+     */
+    public enum Format
+    {
+        XML
+        {
+            public AbstractTagDisplayFormatter createFormatter(Appendable out)
+            {
+                return new XMLTagDisplayFormatter(out);
+            }
+        },
+        PLAIN_TEXT
+        {
+            public AbstractTagDisplayFormatter createFormatter(Appendable out)
+            {
+                return new PlainTextTagDisplayFormatter(out);
+            }
+        },
+        JSON
+        {
+            public AbstractTagDisplayFormatter createFormatter(Appendable out)
+            {
+                return new JSONTagDisplayFormatter(out);
+            }
+        };
+
+        /**
+         * @param out
+         * @return a new formatter of this format writing to out
+         */
+        public abstract AbstractTagDisplayFormatter createFormatter(Appendable out);
+    }
+
     protected int level;
 
+    protected final Appendable out;
+
+    private IOException error;
+
     private static HashMap<String, String> hexBinaryMap = new HashMap<String, String>();
 
+    protected AbstractTagDisplayFormatter()
+    {
+        this(new StringBuilder());
+    }
+
+    protected AbstractTagDisplayFormatter(Appendable out)
+    {
+        this.out = out;
+    }
+
     public abstract void openHeadingElement(String type, String value);
 
     public abstract void openHeadingElement(String type, boolean value);
@@ -51,7 +105,65 @@ public abstract class AbstractTagDisplayFormatter
 
     public abstract void addElement(String type, boolean value);
 
-    public abstract String toString();
+    protected void append(CharSequence csq)
+    {
+        if (csq == null)
+        {
+            csq = "null";
+        }
+        append(csq, 0, csq.length());
+    }
+
+    protected void append(CharSequence csq, int start, int end)
+    {
+        if (error == null && start < end)
+        {
+            try
+            {
+                out.append(csq, start, end);
+            }
+            catch (IOException ioe)
+            {
+                error = ioe;
+            }
+        }
+    }
+
+    protected void append(char c)
+    {
+        if (error == null)
+        {
+            try
+            {
+                out.append(c);
+            }
+            catch (IOException ioe)
+            {
+                error = ioe;
+            }
+        }
+    }
+
+    /**
+     * @return the first error writing the output, or null if there has been no error
+     */
+    public IOException getError()
+    {
+        return error;
+    }
+
+    /**
+     * @return the output if it is being written to a buffer such as the default internal buffer, otherwise an
+     * empty string
+     */
+    public String toString()
+    {
+        if (out instanceof CharSequence)
+        {
+            return out.toString();
+        }
+        return "";
+    }
 
     /**
      * Use to display headers as their binary representation
@@ -20,6 +20,7 @@ public enum ErrorMessage
     MP4_CHANGES_TO_FILE_FAILED_INCORRECT_OFFSETS("Unable to make changes to Mp4 file, incorrect offsets written difference was {0}"),
     MP4_CHANGES_TO_FILE_FAILED_INCORRECT_NUMBER_OF_TRACKS("Unable to make changes to Mp4 file, incorrect number of tracks: {0} vs {1}"),
     MP4_CHANGES_TO_FILE_FAILED_CANNOT_FIND_AUDIO("Unable to make changes to Mp4 file, unable to determine start of audio"),
+    MP4_CHANGES_TO_FILE_FAILED_OFFSETS_TOO_LARGE("Unable to make changes to Mp4 file, audio data would be moved beyond the 4GB limit of the stco atom"),
     FLAC_NO_FLAC_HEADER_FOUND("Flac Header not found, not a flac file"),
     OGG_VORBIS_NO_VORBIS_HEADER_FOUND("Cannot find vorbis setup parentHeader"),
     MP4_REVERSE_DNS_FIELD_HAS_NO_DATA("Reverse dns field:{0} has no data"),
@@ -37,6 +38,10 @@ public enum ErrorMessage
     GENERAL_WRITE_FAILED_NEW_FILE_DOESNT_EXIST("New file {0} does not appear to exist"),
     GENERAL_WRITE_FAILED_BECAUSE("Cannot make changes to file {0} because {1}"),
     GENERAL_WRITE_FAILED_BECAUSE_FILE_NOT_FOUND("Cannot make changes to file {0} because the file cannot be found"),
+    GENERAL_WRITE_FAILED_FILE_PARTIALLY_READ("Cannot make changes to file {0} because it was only partially read"),
+    GENERAL_WRITE_FAILED_IN_PLACE_INCORRECT_SIZE("Changes made in place to file {0} are incorrect, expected file size {1} but was {2}"),
+    GENERAL_WRITE_FAILED_IN_PLACE_DATA_INCORRECT("Changes made in place to file {0} are incorrect, data read back at {1} is not what was written"),
+    GENERAL_READ_FAILED_FILE_MODIFIED("Unable to read data from file {0} because it has been modified since the tag was read"),
     GENERAL_WRITE_WARNING_UNABLE_TO_DELETE_BACKUP_FILE("Unable to delete the backup file {0}"),
     GENERAL_WRITE_PROBLEM_CLOSING_FILE_HANDLE("Problem closing file handles for file {0} because {1}"),
     GENERAL_DELETE_FAILED("Cannot delete file {0} because not writable"),
@@ -71,6 +76,7 @@ public enum ErrorMessage
     ASF_HEADER_MISSING("For file {0} the Asf Header missing. Invalid ASF/WMA file."),
     GENERAL_UNIDENITIFED_IMAGE_FORMAT("Cannot safetly identify the format of this image setting to default type of Png"),
     MP4_IMAGE_FORMAT_IS_NOT_TO_EXPECTED_TYPE("ImageFormat for cover art atom is not set to a known image format, instead set to {0}"),
+    MP4_IMAGE_LENGTH_IS_INVALID("Cover art atom image length {0} is invalid, only {1} bytes remain"),
     MP3_FRAME_IS_COMPRESSED("Filename {0}:{1} is compressed"),
     MP3_FRAME_IS_ENCRYPTED("Filename {0}:{1} is encrypted"),
     MP3_FRAME_IS_GROUPED("Filename {0}:{1} is grouped"),
@@ -117,10 +123,15 @@ public enum ErrorMessage
     FLAC_CONTAINS_ID3TAG("Flac File contains invalid ID3 Tag, skipping ID3 Tag of length:{0}"),
     ADDITIONAL_MOOV_ATOM_AT_END_OF_MP4("Additional moov atom found at end of file starting at offset {0}"),
     ATOM_LENGTH_LARGER_THAN_DATA("The atom {0} states its data length to be {1} but there are only {2} bytes remaining in the file"),
+    ATOM_HEADER_INCOMPLETE("Unable to read the atom header at {0}, only {1} bytes could be read"),
+    ATOM_LENGTH_LARGER_THAN_PARENT("The atom {0} at {1} states its length to be {2} but there are only {3} bytes remaining in its parent atom {4}"),
     INVALID_FIELD_FOR_ID3V1TAG("Invalid field {0} for ID3v1 tag"),
     NO_AUDIO_HEADER_FOUND("No audio header found within {0}"),
     NOT_STANDARD_MP$_GENRE("This is not a standard genre value, use custom genre field instead"),
     FLAC_NO_BLOCKTYPE("Flac file has invalid block type {0}"),
+    OGG_PAGE_INCOMPLETE("Ogg page starting at offset {0} extends beyond the end of the file"),
+    AUDIO_DATA_POSITION_UNKNOWN("Unable to calculate hash of audio data for {0} because the position of the audio data is not known"),
+    AUDIO_DATA_POSITION_BEYOND_END_OF_FILE("Unable to calculate hash of audio data for {0} because the audio data is expected to end at {1} but the file is only {2} bytes"),
     ;
 
 
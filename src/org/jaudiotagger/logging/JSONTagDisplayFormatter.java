@@ -0,0 +1,176 @@
+/**
+ *  This library is free software; you can redistribute it and/or modify it under the terms of the GNU Lesser
+ *  General Public  License as published by the Free Software Foundation; either version 2.1 of the License,
+ *  or (at your option) any later version.
+ *
+ *  This library is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even
+ *  the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ *  See the GNU Lesser General Public License for more details.
+ *
+ *  You should have received a copy of the GNU Lesser General Public License along with this library; if not,
+ *  you can get a copy from http://www.opensource.org/licenses/lgpl-license.php or write to the Free Software
+ *  Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA
+ */
+package org.jaudiotagger.logging;
+
+/*
+ * For Formatting the metadata contents of a file in JSON format
+ *
+ * Each heading is written as an object with name, optional id and an array of children, each element as an object
+ * with name and value, e.g {"name":"frame","id":"TIT2","children":[{"name":"text","value":"Title"}]}
+ *
+ * Element names can repeat within a heading so are not used as object keys.
+ */
+public class JSONTagDisplayFormatter extends AbstractTagDisplayFormatter
+{
+    private static final String HEX_DIGITS = "0123456789abcdef";
+
+    //Whether the next heading or element follows a sibling so needs a separator
+    private boolean needsSeparator;
+
+    public JSONTagDisplayFormatter()
+    {
+
+    }
+
+    /**
+     * @param out where to write the json
+     */
+    public JSONTagDisplayFormatter(Appendable out)
+    {
+        super(out);
+    }
+
+    private void openObject(String type)
+    {
+        if (needsSeparator)
+        {
+            append(',');
+        }
+        append("{\"name\":");
+        appendString(type);
+    }
+
+    private void openChildren()
+    {
+        append(",\"children\":[");
+        needsSeparator = false;
+        level++;
+    }
+
+    public void openHeadingElement(String type, String value)
+    {
+        openObject(type);
+        if (value.length() > 0)
+        {
+            append(",\"id\":");
+            appendString(value);
+        }
+        openChildren();
+    }
+
+    public void openHeadingElement(String type, boolean value)
+    {
+        openObject(type);
+        append(",\"id\":");
+        append(String.valueOf(value));
+        openChildren();
+    }
+
+    public void openHeadingElement(String type, int value)
+    {
+        openObject(type);
+        append(",\"id\":");
+        append(String.valueOf(value));
+        openChildren();
+    }
+
+    public void closeHeadingElement(String type)
+    {
+        append("]}");
+        needsSeparator = true;
+        level--;
+    }
+
+    public void addElement(String type, String value)
+    {
+        openObject(type);
+        append(",\"value\":");
+        if (value == null)
+        {
+            append("null");
+        }
+        else
+        {
+            appendString(value);
+        }
+        append('}');
+        needsSeparator = true;
+    }
+
+    public void addElement(String type, int value)
+    {
+        openObject(type);
+        append(",\"value\":");
+        append(String.valueOf(value));
+        append('}');
+        needsSeparator = true;
+    }
+
+    public void addElement(String type, boolean value)
+    {
+        openObject(type);
+        append(",\"value\":");
+        append(String.valueOf(value));
+        append('}');
+        needsSeparator = true;
+    }
+
+    /**
+     * Write value as a quoted json string, escaping control characters and the line separators that
+     * javascript does not allow in strings
+     *
+     * @param value
+     */
+    private void appendString(String value)
+    {
+        append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029')
+            {
+                continue;
+            }
+            append(value, start, i);
+            switch (c)
+            {
+                case'"':
+                    append("\\\"");
+                    break;
+                case'\\':
+                    append("\\\\");
+                    break;
+                case'\n':
+                    append("\\n");
+                    break;
+                case'\r':
+                    append("\\r");
+                    break;
+                case'\t':
+                    append("\\t");
+                    break;
+                default:
+                    append("\\u");
+                    append(HEX_DIGITS.charAt((c >> 12) & 0xf));
+                    append(HEX_DIGITS.charAt((c >> 8) & 0xf));
+                    append(HEX_DIGITS.charAt((c >> 4) & 0xf));
+                    append(HEX_DIGITS.charAt(c & 0xf));
+            }
+            start = i + 1;
+        }
+        append(value, start, value.length());
+        append('"');
+    }
+}
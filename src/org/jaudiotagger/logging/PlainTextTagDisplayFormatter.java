@@ -27,14 +27,19 @@ public class PlainTextTagDisplayFormatter extends AbstractTagDisplayFormatter
 {
     private static PlainTextTagDisplayFormatter formatter;
 
-    StringBuffer sb = new StringBuffer();
-    StringBuffer indent = new StringBuffer();
-
     public PlainTextTagDisplayFormatter()
     {
 
     }
 
+    /**
+     * @param out where to write the text
+     */
+    public PlainTextTagDisplayFormatter(Appendable out)
+    {
+        super(out);
+    }
+
     public void openHeadingElement(String type, String value)
     {
         addElement(type, value);
@@ -59,18 +64,23 @@ public class PlainTextTagDisplayFormatter extends AbstractTagDisplayFormatter
     public void increaseLevel()
     {
         level++;
-        indent.append("  ");
     }
 
     public void decreaseLevel()
     {
         level--;
-        indent = new StringBuffer(indent.substring(0, indent.length() - 2));
     }
 
     public void addElement(String type, String value)
     {
-        sb.append(indent).append(type).append(":").append(value).append('\n');
+        for (int i = 0; i < level; i++)
+        {
+            append("  ");
+        }
+        append(type);
+        append(':');
+        append(value);
+        append('\n');
     }
 
     public void addElement(String type, int value)
@@ -83,11 +93,6 @@ public class PlainTextTagDisplayFormatter extends AbstractTagDisplayFormatter
         addElement(type, String.valueOf(value));
     }
 
-    public String toString()
-    {
-        return sb.toString();
-    }
-
     public static AbstractTagDisplayFormatter getInstanceOf()
     {
         if (formatter == null)
@@ -20,9 +20,6 @@
  */
 package org.jaudiotagger.logging;
 
-import java.text.CharacterIterator;
-import java.text.StringCharacterIterator;
-
 /*
  * For Formatting the metadata contents of a file in an XML format
  *
@@ -42,13 +39,19 @@ public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter
     protected static final String xmlCDataTagClose = "]]>";
 
 
-    StringBuffer sb = new StringBuffer();
-
     public XMLTagDisplayFormatter()
     {
 
     }
 
+    /**
+     * @param out where to write the xml
+     */
+    public XMLTagDisplayFormatter(Appendable out)
+    {
+        super(out);
+    }
+
     /**
      * Return xml open tag round a string e.g <tag>
      * @param xmlName
@@ -74,7 +77,7 @@ public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter
     public static String xmlCData(String xmlData)
     {
         char tempChar;
-        StringBuffer replacedString = new StringBuffer();
+        StringBuilder replacedString = new StringBuilder();
         for (int i = 0; i < xmlData.length(); i++)
         {
             tempChar = xmlData.charAt(i);
@@ -113,14 +116,15 @@ public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter
 
     public void openHeadingElement(String type, String value)
     {
-        if (value.length() == 0)
+        append(xmlOpenStart);
+        append(type);
+        if (value.length() > 0)
         {
-            sb.append(xmlOpen(type));
-        }
-        else
-        {
-            sb.append(xmlOpenHeading(type, replaceXMLCharacters(value)));
+            append(" id=\"");
+            appendXMLCharacters(value);
+            append('"');
         }
+        append(xmlOpenEnd);
     }
 
     public void openHeadingElement(String type, boolean value)
@@ -135,12 +139,20 @@ public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter
 
     public void closeHeadingElement(String type)
     {
-        sb.append(xmlClose(type));
+        append(xmlCloseStart);
+        append(type);
+        append(xmlCloseEnd);
     }
 
     public void addElement(String type, String value)
     {
-        sb.append(xmlFullTag(type, replaceXMLCharacters(value)));
+        append(xmlOpenStart);
+        append(type);
+        append(xmlOpenEnd);
+        append(xmlCDataTagOpen);
+        appendCData(value);
+        append(xmlCDataTagClose);
+        closeHeadingElement(type);
     }
 
     public void addElement(String type, int value)
@@ -153,11 +165,97 @@ public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter
         addElement(type, String.valueOf(value));
     }
 
-    public String toString()
+    /**
+     * Write value with special xml characters replaced, the same as {@link #replaceXMLCharacters(String)}
+     *
+     * @param value
+     */
+    private void appendXMLCharacters(String value)
     {
-        return sb.toString();
+        int start = 0;
+        for (int i = 0; i < value.length(); i++)
+        {
+            String replacement = getXMLReplacement(value.charAt(i));
+            if (replacement != null)
+            {
+                append(value, start, i);
+                append(replacement);
+                start = i + 1;
+            }
+        }
+        append(value, start, value.length());
     }
 
+    /**
+     * Write value as CDATA content, the same as {@link #xmlCData(String)} of {@link #replaceXMLCharacters(String)}
+     * but without creating intermediate strings
+     *
+     * @param value
+     */
+    private void appendCData(String value)
+    {
+        int start = 0;
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if ((Character.isLetterOrDigit(c)) || (Character.isSpaceChar(c)))
+            {
+                continue;
+            }
+            append(value, start, i);
+            String replacement = getXMLReplacement(c);
+            if (replacement != null)
+            {
+                for (int j = 0; j < replacement.length(); j++)
+                {
+                    appendCDataChar(replacement, j);
+                }
+            }
+            else
+            {
+                appendCDataChar(value, i);
+            }
+            start = i + 1;
+        }
+        append(value, start, value.length());
+    }
+
+    private void appendCDataChar(String value, int index)
+    {
+        char c = value.charAt(index);
+        if ((Character.isLetterOrDigit(c)) || (Character.isSpaceChar(c)))
+        {
+            append(c);
+        }
+        else
+        {
+            append("&#x");
+            append(Integer.toString(Character.codePointAt(value, index), 16));
+        }
+    }
+
+    /**
+     * @param c
+     * @return escape sequence for a special xml character, or null if c is not special
+     */
+    private static String getXMLReplacement(char c)
+    {
+        switch (c)
+        {
+            case'&':
+                return "&amp;";
+            case'<':
+                return "&lt;";
+            case'>':
+                return "&gt;";
+            case'"':
+                return "&quot;";
+            case'\'':
+                return "&apos;";
+            default:
+                return null;
+        }
+    }
 
     /**
      * Replace any special xml characters with the appropiate escape sequences
@@ -167,31 +265,18 @@ public class XMLTagDisplayFormatter extends AbstractTagDisplayFormatter
      */
     public static String replaceXMLCharacters(String xmlData)
     {
-        StringBuffer sb = new StringBuffer();
-        StringCharacterIterator sCI = new StringCharacterIterator(xmlData);
-        for (char c = sCI.first(); c != CharacterIterator.DONE; c = sCI.next())
+        StringBuilder sb = new StringBuilder(xmlData.length());
+        for (int i = 0; i < xmlData.length(); i++)
         {
-            switch (c)
+            char c = xmlData.charAt(i);
+            String replacement = getXMLReplacement(c);
+            if (replacement != null)
+            {
+                sb.append(replacement);
+            }
+            else
             {
-                case'&':
-                    sb.append("&amp;");
-                    break;
-                case'<':
-                    sb.append("&lt;");
-                    break;
-                case'>':
-                    sb.append("&gt;");
-                    break;
-                case'"':
-                    sb.append("&quot;");
-                    break;
-                case'\'':
-                    sb.append("&apos;");
-                    break;
-
-
-                default:
-                    sb.append(c);
+                sb.append(c);
             }
         }
         return sb.toString();
@@ -24,12 +24,13 @@
  */
 package org.jaudiotagger.tag;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.generic.WriteStrategy;
+import org.jaudiotagger.audio.mp3.MP3FrameCountMode;
 import org.jaudiotagger.audio.wav.WavOptions;
 import org.jaudiotagger.audio.wav.WavSaveOptions;
 import org.jaudiotagger.audio.wav.WavSaveOrder;
-import org.jaudiotagger.tag.id3.ID3v22Frames;
-import org.jaudiotagger.tag.id3.ID3v23Frames;
-import org.jaudiotagger.tag.id3.ID3v24Frames;
+import org.jaudiotagger.tag.id3.ID3v2PaddingPolicy;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyCOMM;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyTIPL;
@@ -46,6 +47,8 @@ import org.jaudiotagger.tag.vorbiscomment.VorbisAlbumArtistSaveOptions;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TagOptionSingleton
 {
@@ -55,6 +58,7 @@ public class TagOptionSingleton
 
     public void setWavOptions(WavOptions wavOptions)
     {
+        checkModifiable();
         this.wavOptions = wavOptions;
     }
 
@@ -67,6 +71,7 @@ public class TagOptionSingleton
 
     public void setWavSaveOptions(WavSaveOptions wavSaveOptions)
     {
+        checkModifiable();
         this.wavSaveOptions = wavSaveOptions;
     }
 
@@ -79,6 +84,7 @@ public class TagOptionSingleton
 
     public void setWavSaveOrder(WavSaveOrder wavSaveOrder)
     {
+        checkModifiable();
         this.wavSaveOrder = wavSaveOrder;
     }
 
@@ -91,6 +97,7 @@ public class TagOptionSingleton
 
     public void setVorbisAlbumArtistSaveOptions(VorbisAlbumArtistSaveOptions vorbisAlbumArtistSaveOptions)
     {
+        checkModifiable();
         this.vorbisAlbumArtistSaveOptions = vorbisAlbumArtistSaveOptions;
     }
 
@@ -103,6 +110,7 @@ public class TagOptionSingleton
 
     public void setVorbisAlbumArtistReadOptions(VorbisAlbumArtistReadOptions vorbisAlbumArtistReadOptions)
     {
+        checkModifiable();
         this.vorbisAlbumArtistReadOptions = vorbisAlbumArtistReadOptions;
     }
 
@@ -114,7 +122,18 @@ public class TagOptionSingleton
     /**
      *
      */
-    private static HashMap<String, TagOptionSingleton> tagOptionTable = new HashMap<String, TagOptionSingleton>();
+    private static ConcurrentHashMap<String, TagOptionSingleton> tagOptionTable = new ConcurrentHashMap<String, TagOptionSingleton>();
+
+    /**
+     * Options applied to the current thread by {@link TagOptions#apply()}, if set these are used instead of the
+     * keyed instances
+     */
+    private static final ThreadLocal<TagOptionSingleton> scopedOptions = new ThreadLocal<TagOptionSingleton>();
+
+    /**
+     * Options held by a {@link TagOptions} cannot be modified
+     */
+    private boolean modifiable = true;
 
     /**
      *
@@ -380,6 +399,56 @@ public class TagOptionSingleton
      */
     private boolean preserveFileIdentity = true;
 
+    /**
+     * How files are modified when writing changes
+     */
+    private WriteStrategy writeStrategy = WriteStrategy.TEMP_FILE;
+
+    /**
+     * How the number of frames is calculated for MP3 files without a Xing or Vbri header
+     */
+    private MP3FrameCountMode mp3FrameCountMode = MP3FrameCountMode.ESTIMATE;
+
+    /**
+     * Number of windows read when mp3FrameCountMode is SAMPLED
+     */
+    private int mp3FrameCountSampleWindows = 10;
+
+    /**
+     * Read files through a read-only memory mapping rather than a RandomAccessFile
+     */
+    private boolean memoryMappedRead = false;
+
+    /**
+     * Files larger than this are read normally even if memoryMappedRead is set
+     */
+    private long memoryMappedReadMaxFileSize = 64 * 1024 * 1024;
+
+    /**
+     * What is read from a file, bitmask of AudioFile.READ_* values
+     */
+    private int readOptions = AudioFile.READ_ALL;
+
+    /**
+     * Maximum number of fields read from a tag, any further fields are ignored
+     */
+    private int readFieldLimit = Integer.MAX_VALUE;
+
+    /**
+     * Only record where artwork is held in the file when reading, the image data is read when first needed
+     */
+    private boolean lazyArtwork = false;
+
+    /**
+     * Size of JUNK chunk reserved after Wav metadata written at the end of the file, 0 for none
+     */
+    private int wavPaddingSize = 0;
+
+    /**
+     * How much padding is left after an ID3v2 tag when the audio has to be moved to make room for it
+     */
+    private ID3v2PaddingPolicy id3v2PaddingPolicy = ID3v2PaddingPolicy.FIXED;
+
     /**
      * 
      */
@@ -393,12 +462,101 @@ public class TagOptionSingleton
         setToDefault();
     }
 
+    /**
+     * Creates an unmodifiable copy of the given options, used by {@link TagOptions}
+     *
+     * @param options
+     */
+    TagOptionSingleton(TagOptionSingleton options)
+    {
+        isWriteWavForTwonky = options.isWriteWavForTwonky;
+        wavOptions = options.wavOptions;
+        wavSaveOptions = options.wavSaveOptions;
+        wavSaveOrder = options.wavSaveOrder;
+        vorbisAlbumArtistSaveOptions = options.vorbisAlbumArtistSaveOptions;
+        vorbisAlbumArtistReadOptions = options.vorbisAlbumArtistReadOptions;
+        keywordMap = new HashMap<Class<? extends ID3v24FrameBody>, LinkedList<String>>();
+        for (Map.Entry<Class<? extends ID3v24FrameBody>, LinkedList<String>> next : options.keywordMap.entrySet())
+        {
+            keywordMap.put(next.getKey(), new LinkedList<String>(next.getValue()));
+        }
+        lyrics3SaveFieldMap = new HashMap<String, Boolean>(options.lyrics3SaveFieldMap);
+        parenthesisMap = new HashMap<String, String>(options.parenthesisMap);
+        replaceWordMap = new HashMap<String, String>(options.replaceWordMap);
+        language = options.language;
+        filenameTagSave = options.filenameTagSave;
+        id3v1Save = options.id3v1Save;
+        id3v1SaveAlbum = options.id3v1SaveAlbum;
+        id3v1SaveArtist = options.id3v1SaveArtist;
+        id3v1SaveComment = options.id3v1SaveComment;
+        id3v1SaveGenre = options.id3v1SaveGenre;
+        id3v1SaveTitle = options.id3v1SaveTitle;
+        id3v1SaveTrack = options.id3v1SaveTrack;
+        id3v1SaveYear = options.id3v1SaveYear;
+        id3v2PaddingCopyTag = options.id3v2PaddingCopyTag;
+        id3v2PaddingWillShorten = options.id3v2PaddingWillShorten;
+        id3v2Save = options.id3v2Save;
+        id3v2ITunes12_6WorkGroupingMode = options.id3v2ITunes12_6WorkGroupingMode;
+        lyrics3KeepEmptyFieldIfRead = options.lyrics3KeepEmptyFieldIfRead;
+        lyrics3Save = options.lyrics3Save;
+        lyrics3SaveEmptyField = options.lyrics3SaveEmptyField;
+        originalSavedAfterAdjustingID3v2Padding = options.originalSavedAfterAdjustingID3v2Padding;
+        timeStampFormat = options.timeStampFormat;
+        numberMP3SyncFrame = options.numberMP3SyncFrame;
+        unsyncTags = options.unsyncTags;
+        removeTrailingTerminatorOnWrite = options.removeTrailingTerminatorOnWrite;
+        id3v23DefaultTextEncoding = options.id3v23DefaultTextEncoding;
+        id3v24DefaultTextEncoding = options.id3v24DefaultTextEncoding;
+        id3v24UnicodeTextEncoding = options.id3v24UnicodeTextEncoding;
+        resetTextEncodingForExistingFrames = options.resetTextEncodingForExistingFrames;
+        truncateTextWithoutErrors = options.truncateTextWithoutErrors;
+        padNumbers = options.padNumbers;
+        padNumberTotalLength = options.padNumberTotalLength;
+        isAndroid = options.isAndroid;
+        isAPICDescriptionITunesCompatible = options.isAPICDescriptionITunesCompatible;
+        isEncodeUTF16BomAsLittleEndian = options.isEncodeUTF16BomAsLittleEndian;
+        playerCompatability = options.playerCompatability;
+        writeChunkSize = options.writeChunkSize;
+        isWriteMp4GenresAsText = options.isWriteMp4GenresAsText;
+        isWriteMp3GenresAsText = options.isWriteMp3GenresAsText;
+        id3v2Version = options.id3v2Version;
+        checkIsWritable = options.checkIsWritable;
+        preserveFileIdentity = options.preserveFileIdentity;
+        writeStrategy = options.writeStrategy;
+        mp3FrameCountMode = options.mp3FrameCountMode;
+        mp3FrameCountSampleWindows = options.mp3FrameCountSampleWindows;
+        memoryMappedRead = options.memoryMappedRead;
+        memoryMappedReadMaxFileSize = options.memoryMappedReadMaxFileSize;
+        readOptions = options.readOptions;
+        readFieldLimit = options.readFieldLimit;
+        lazyArtwork = options.lazyArtwork;
+        wavPaddingSize = options.wavPaddingSize;
+        id3v2PaddingPolicy = options.id3v2PaddingPolicy;
+        modifiable = false;
+    }
+
+    /**
+     * @throws UnsupportedOperationException if these options belong to a {@link TagOptions}
+     */
+    private void checkModifiable()
+    {
+        if (!modifiable)
+        {
+            throw new UnsupportedOperationException("Options applied from TagOptions cannot be modified");
+        }
+    }
+
 
     /**
      * @return
      */
     public static TagOptionSingleton getInstance()
     {
+        TagOptionSingleton tagOptions = scopedOptions.get();
+        if (tagOptions != null)
+        {
+            return tagOptions;
+        }
         return getInstance(defaultOptions);
     }
 
@@ -413,17 +571,42 @@ public class TagOptionSingleton
         if (tagOptions == null)
         {
             tagOptions = new TagOptionSingleton();
-            tagOptionTable.put(instanceKey, tagOptions);
+            TagOptionSingleton existing = tagOptionTable.putIfAbsent(instanceKey, tagOptions);
+            if (existing != null)
+            {
+                tagOptions = existing;
+            }
         }
 
         return tagOptions;
     }
 
+    /**
+     * Apply options to the current thread, replacing any already applied
+     *
+     * @param tagOptions options to apply, or null to go back to the keyed instances
+     * @return the options previously applied to the current thread, may be null
+     */
+    static TagOptionSingleton setScopedInstance(TagOptionSingleton tagOptions)
+    {
+        TagOptionSingleton previous = scopedOptions.get();
+        if (tagOptions == null)
+        {
+            scopedOptions.remove();
+        }
+        else
+        {
+            scopedOptions.set(tagOptions);
+        }
+        return previous;
+    }
+
     /**
      * @param filenameTagSave
      */
     public void setFilenameTagSave(boolean filenameTagSave)
     {
+        checkModifiable();
         this.filenameTagSave = filenameTagSave;
     }
 
@@ -440,6 +623,7 @@ public class TagOptionSingleton
      */
     public void setID3V2Version(ID3V2Version  id3v2Version)
     {
+        checkModifiable();
         this.id3v2Version = id3v2Version;
     }
 
@@ -474,6 +658,7 @@ public class TagOptionSingleton
      */
     public void setId3v1Save(boolean id3v1Save)
     {
+        checkModifiable();
         this.id3v1Save = id3v1Save;
     }
 
@@ -490,6 +675,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveAlbum(boolean id3v1SaveAlbum)
     {
+        checkModifiable();
         this.id3v1SaveAlbum = id3v1SaveAlbum;
     }
 
@@ -506,6 +692,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveArtist(boolean id3v1SaveArtist)
     {
+        checkModifiable();
         this.id3v1SaveArtist = id3v1SaveArtist;
     }
 
@@ -522,6 +709,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveComment(boolean id3v1SaveComment)
     {
+        checkModifiable();
         this.id3v1SaveComment = id3v1SaveComment;
     }
 
@@ -538,6 +726,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveGenre(boolean id3v1SaveGenre)
     {
+        checkModifiable();
         this.id3v1SaveGenre = id3v1SaveGenre;
     }
 
@@ -554,6 +743,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveTitle(boolean id3v1SaveTitle)
     {
+        checkModifiable();
         this.id3v1SaveTitle = id3v1SaveTitle;
     }
 
@@ -570,6 +760,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveTrack(boolean id3v1SaveTrack)
     {
+        checkModifiable();
         this.id3v1SaveTrack = id3v1SaveTrack;
     }
 
@@ -586,6 +777,7 @@ public class TagOptionSingleton
      */
     public void setId3v1SaveYear(boolean id3v1SaveYear)
     {
+        checkModifiable();
         this.id3v1SaveYear = id3v1SaveYear;
     }
 
@@ -603,6 +795,7 @@ public class TagOptionSingleton
      */
     public void setId3v2PaddingCopyTag(boolean id3v2PaddingCopyTag)
     {
+        checkModifiable();
         this.id3v2PaddingCopyTag = id3v2PaddingCopyTag;
     }
 
@@ -620,6 +813,7 @@ public class TagOptionSingleton
      */
     public void setId3v2PaddingWillShorten(boolean id3v2PaddingWillShorten)
     {
+        checkModifiable();
         this.id3v2PaddingWillShorten = id3v2PaddingWillShorten;
     }
 
@@ -636,6 +830,7 @@ public class TagOptionSingleton
      */
     public void setId3v2Save(boolean id3v2Save)
     {
+        checkModifiable();
         this.id3v2Save = id3v2Save;
     }
 
@@ -664,16 +859,14 @@ public class TagOptionSingleton
      *
      * <p>The latter used to be the default behavior before iTunes 12.6.</p>
      *
+     * <p>The ID3 frame mappings check this option on each lookup, so it only affects files read or written
+     * with these options.</p>
+     *
      * @param id3v2ITunes12_6WorkGroupingMode {@code true} or {@code false}.
      */
     public void setId3v2ITunes12_6WorkGroupingMode(final boolean id3v2ITunes12_6WorkGroupingMode) {
-        final boolean oldMode = this.id3v2ITunes12_6WorkGroupingMode;
-        if (oldMode != id3v2ITunes12_6WorkGroupingMode) {
-            ID3v22Frames.getInstanceOf().setITunes12_6WorkGroupingMode(id3v2ITunes12_6WorkGroupingMode);
-            ID3v23Frames.getInstanceOf().setITunes12_6WorkGroupingMode(id3v2ITunes12_6WorkGroupingMode);
-            ID3v24Frames.getInstanceOf().setITunes12_6WorkGroupingMode(id3v2ITunes12_6WorkGroupingMode);
-            this.id3v2ITunes12_6WorkGroupingMode = id3v2ITunes12_6WorkGroupingMode;
-        }
+        checkModifiable();
+        this.id3v2ITunes12_6WorkGroupingMode = id3v2ITunes12_6WorkGroupingMode;
     }
 
     /**
@@ -702,6 +895,7 @@ public class TagOptionSingleton
      */
     public void setLanguage(String lang)
     {
+        checkModifiable();
         if (Languages.getInstanceOf().getIdToValueMap().containsKey(lang))
         {
             language = lang;
@@ -723,6 +917,7 @@ public class TagOptionSingleton
      */
     public void setLyrics3KeepEmptyFieldIfRead(boolean lyrics3KeepEmptyFieldIfRead)
     {
+        checkModifiable();
         this.lyrics3KeepEmptyFieldIfRead = lyrics3KeepEmptyFieldIfRead;
     }
 
@@ -739,6 +934,7 @@ public class TagOptionSingleton
      */
     public void setLyrics3Save(boolean lyrics3Save)
     {
+        checkModifiable();
         this.lyrics3Save = lyrics3Save;
     }
 
@@ -755,6 +951,7 @@ public class TagOptionSingleton
      */
     public void setLyrics3SaveEmptyField(boolean lyrics3SaveEmptyField)
     {
+        checkModifiable();
         this.lyrics3SaveEmptyField = lyrics3SaveEmptyField;
     }
 
@@ -774,6 +971,7 @@ public class TagOptionSingleton
      */
     public void setLyrics3SaveField(String id, boolean save)
     {
+        checkModifiable();
         this.lyrics3SaveFieldMap.put(id, save);
     }
 
@@ -816,6 +1014,7 @@ public class TagOptionSingleton
      */
     public void setNumberMP3SyncFrame(int numberMP3SyncFrame)
     {
+        checkModifiable();
         this.numberMP3SyncFrame = numberMP3SyncFrame;
     }
 
@@ -863,6 +1062,7 @@ public class TagOptionSingleton
      */
     public void setOriginalSavedAfterAdjustingID3v2Padding(boolean originalSavedAfterAdjustingID3v2Padding)
     {
+        checkModifiable();
         this.originalSavedAfterAdjustingID3v2Padding = originalSavedAfterAdjustingID3v2Padding;
     }
 
@@ -889,6 +1089,7 @@ public class TagOptionSingleton
      */
     public void setTimeStampFormat(byte tsf)
     {
+        checkModifiable();
         if ((tsf == 1) || (tsf == 2))
         {
             timeStampFormat = tsf;
@@ -915,6 +1116,7 @@ public class TagOptionSingleton
      */
     public void setToDefault()
     {
+        checkModifiable();
         isWriteWavForTwonky = false;
         wavOptions = WavOptions.READ_ID3_UNLESS_ONLY_INFO;
         wavSaveOptions = WavSaveOptions.SAVE_BOTH;
@@ -957,6 +1159,16 @@ public class TagOptionSingleton
         id3v2Version = ID3V2Version.ID3_V23;
         checkIsWritable = false;
         preserveFileIdentity = true;
+        writeStrategy = WriteStrategy.TEMP_FILE;
+        mp3FrameCountMode = MP3FrameCountMode.ESTIMATE;
+        mp3FrameCountSampleWindows = 10;
+        memoryMappedRead = false;
+        memoryMappedReadMaxFileSize = 64 * 1024 * 1024;
+        readOptions = AudioFile.READ_ALL;
+        readFieldLimit = Integer.MAX_VALUE;
+        lazyArtwork = false;
+        wavPaddingSize = 0;
+        id3v2PaddingPolicy = ID3v2PaddingPolicy.FIXED;
         //default all lyrics3 fields to save. id3v1 fields are individual
         // settings. id3v2 fields are always looked at to save.
         Iterator<String> iterator = Lyrics3v2Fields.getInstanceOf().getIdToValueMap().keySet().iterator();
@@ -1051,6 +1263,7 @@ public class TagOptionSingleton
      */
     public void addKeyword(Class<? extends ID3v24FrameBody> id3v2FrameBodyClass, String keyword) throws TagException
     {
+        checkModifiable();
         if (!AbstractID3v2FrameBody.class.isAssignableFrom(id3v2FrameBodyClass))
         {
             throw new TagException("Invalid class type. Must be AbstractId3v2FrameBody " + id3v2FrameBodyClass);
@@ -1080,6 +1293,7 @@ public class TagOptionSingleton
      */
     public void addParenthesis(String open, String close)
     {
+        checkModifiable();
         parenthesisMap.put(open, close);
     }
 
@@ -1089,6 +1303,7 @@ public class TagOptionSingleton
      */
     public void addReplaceWord(String oldWord, String newWord)
     {
+        checkModifiable();
         replaceWordMap.put(oldWord, newWord);
     }
 
@@ -1108,6 +1323,7 @@ public class TagOptionSingleton
      */
     public void setUnsyncTags(boolean unsyncTags)
     {
+        checkModifiable();
         this.unsyncTags = unsyncTags;
     }
 
@@ -1129,6 +1345,7 @@ public class TagOptionSingleton
      */
     public void setRemoveTrailingTerminatorOnWrite(boolean removeTrailingTerminatorOnWrite)
     {
+        checkModifiable();
         this.removeTrailingTerminatorOnWrite = removeTrailingTerminatorOnWrite;
     }
 
@@ -1151,6 +1368,7 @@ public class TagOptionSingleton
      */
     public void setId3v23DefaultTextEncoding(byte id3v23DefaultTextEncoding)
     {
+        checkModifiable();
         if ((id3v23DefaultTextEncoding == TextEncoding.ISO_8859_1) || (id3v23DefaultTextEncoding == TextEncoding.UTF_16))
         {
             this.id3v23DefaultTextEncoding = id3v23DefaultTextEncoding;
@@ -1176,6 +1394,7 @@ public class TagOptionSingleton
      */
     public void setId3v24DefaultTextEncoding(byte id3v24DefaultTextEncoding)
     {
+        checkModifiable();
         if ((id3v24DefaultTextEncoding == TextEncoding.ISO_8859_1) || (id3v24DefaultTextEncoding == TextEncoding.UTF_16) || (id3v24DefaultTextEncoding == TextEncoding.UTF_16BE) || (id3v24DefaultTextEncoding == TextEncoding.UTF_8))
         {
             this.id3v24DefaultTextEncoding = id3v24DefaultTextEncoding;
@@ -1202,6 +1421,7 @@ public class TagOptionSingleton
      */
     public void setId3v24UnicodeTextEncoding(byte id3v24UnicodeTextEncoding)
     {
+        checkModifiable();
         if ((id3v24UnicodeTextEncoding == TextEncoding.UTF_16) || (id3v24UnicodeTextEncoding == TextEncoding.UTF_16BE) || (id3v24UnicodeTextEncoding == TextEncoding.UTF_8))
         {
             this.id3v24UnicodeTextEncoding = id3v24UnicodeTextEncoding;
@@ -1230,6 +1450,7 @@ public class TagOptionSingleton
      */
     public void setResetTextEncodingForExistingFrames(boolean resetTextEncodingForExistingFrames)
     {
+        checkModifiable();
         this.resetTextEncodingForExistingFrames = resetTextEncodingForExistingFrames;
     }
 
@@ -1249,6 +1470,7 @@ public class TagOptionSingleton
      */
     public void setTruncateTextWithoutErrors(boolean truncateTextWithoutErrors)
     {
+        checkModifiable();
         this.truncateTextWithoutErrors = truncateTextWithoutErrors;
     }
 
@@ -1259,6 +1481,7 @@ public class TagOptionSingleton
 
     public void setPadNumbers(boolean padNumbers)
     {
+        checkModifiable();
         this.padNumbers = padNumbers;
     }
 
@@ -1269,6 +1492,7 @@ public class TagOptionSingleton
 
     public void setAndroid(boolean android)
     {
+        checkModifiable();
         isAndroid = android;
     }
 
@@ -1284,6 +1508,7 @@ public class TagOptionSingleton
 
     public void setPlayerCompatability(int playerCompatability)
     {
+        checkModifiable();
         this.playerCompatability = playerCompatability;
     }
 
@@ -1298,6 +1523,7 @@ public class TagOptionSingleton
 
     public void setEncodeUTF16BomAsLittleEndian(boolean encodeUTF16BomAsLittleEndian)
     {
+        checkModifiable();
         isEncodeUTF16BomAsLittleEndian = encodeUTF16BomAsLittleEndian;
     }
 
@@ -1313,6 +1539,7 @@ public class TagOptionSingleton
 
     public void setWriteChunkSize(long writeChunkSize)
     {
+        checkModifiable();
         this.writeChunkSize = writeChunkSize;
     }
 
@@ -1327,6 +1554,7 @@ public class TagOptionSingleton
 
     public void setWriteMp4GenresAsText(boolean writeMp4GenresAsText)
     {
+        checkModifiable();
         isWriteMp4GenresAsText = writeMp4GenresAsText;
     }
 
@@ -1341,6 +1569,7 @@ public class TagOptionSingleton
 
     public void setWriteMp3GenresAsText(boolean writeMp3GenresAsText)
     {
+        checkModifiable();
         isWriteMp3GenresAsText = writeMp3GenresAsText;
     }
 
@@ -1354,6 +1583,7 @@ public class TagOptionSingleton
 
     public void setPadNumberTotalLength(PadNumberOption padNumberTotalLength)
     {
+        checkModifiable();
         this.padNumberTotalLength = padNumberTotalLength;
     }
 
@@ -1367,6 +1597,7 @@ public class TagOptionSingleton
 
     public void setAPICDescriptionITunesCompatible(boolean APICDescriptionITunesCompatible)
     {
+        checkModifiable();
         isAPICDescriptionITunesCompatible = APICDescriptionITunesCompatible;
     }
 
@@ -1379,6 +1610,7 @@ public class TagOptionSingleton
 	}
 
 	public void setCheckIsWritable(boolean checkIsWritable) {
+		checkModifiable();
 		this.checkIsWritable = checkIsWritable;
 	}
 
@@ -1406,6 +1638,7 @@ public class TagOptionSingleton
      * @see #isPreserveFileIdentity()
      */
     public void setPreserveFileIdentity(final boolean preserveFileIdentity) {
+        checkModifiable();
         this.preserveFileIdentity = preserveFileIdentity;
     }
 
@@ -1416,6 +1649,229 @@ public class TagOptionSingleton
 
     public void setWriteWavForTwonky(boolean isWriteWavForTwonky)
     {
+        checkModifiable();
         this.isWriteWavForTwonky = isWriteWavForTwonky;
     }
+
+    /**
+     * How files written by {@link org.jaudiotagger.audio.generic.AudioFileWriter} are modified
+     *
+     * @return the write strategy, default is {@link WriteStrategy#TEMP_FILE}
+     */
+    public WriteStrategy getWriteStrategy()
+    {
+        return writeStrategy;
+    }
+
+    /**
+     * Set how files written by {@link org.jaudiotagger.audio.generic.AudioFileWriter} are modified
+     *
+     * @param writeStrategy
+     */
+    public void setWriteStrategy(WriteStrategy writeStrategy)
+    {
+        checkModifiable();
+        this.writeStrategy = writeStrategy;
+    }
+
+    /**
+     * How the number of frames is calculated for MP3 files without a Xing or Vbri header
+     *
+     * @return the frame count mode, default is {@link MP3FrameCountMode#ESTIMATE}
+     */
+    public MP3FrameCountMode getMp3FrameCountMode()
+    {
+        return mp3FrameCountMode;
+    }
+
+    /**
+     * Set how the number of frames is calculated for MP3 files without a Xing or Vbri header, scanning gives
+     * accurate track lengths for variable bitrate files without a header but has to read the whole file
+     *
+     * @param mp3FrameCountMode
+     */
+    public void setMp3FrameCountMode(MP3FrameCountMode mp3FrameCountMode)
+    {
+        checkModifiable();
+        this.mp3FrameCountMode = mp3FrameCountMode;
+    }
+
+    /**
+     * @return number of evenly spaced windows read when the frame count mode is {@link MP3FrameCountMode#SAMPLED}
+     */
+    public int getMp3FrameCountSampleWindows()
+    {
+        return mp3FrameCountSampleWindows;
+    }
+
+    /**
+     * Set the number of windows read when the frame count mode is {@link MP3FrameCountMode#SAMPLED}, more windows
+     * give a more accurate estimate but read more of the file
+     *
+     * @param mp3FrameCountSampleWindows
+     */
+    public void setMp3FrameCountSampleWindows(int mp3FrameCountSampleWindows)
+    {
+        checkModifiable();
+        this.mp3FrameCountSampleWindows = mp3FrameCountSampleWindows;
+    }
+
+    /**
+     * @return true if files are read through a read-only memory mapping where the format supports it
+     */
+    public boolean isMemoryMappedRead()
+    {
+        return memoryMappedRead;
+    }
+
+    /**
+     * Read files through a read-only memory mapping so that format readers can slice the data they need
+     * rather than copying it, files larger than {@link #getMemoryMappedReadMaxFileSize()} are still read normally.
+     *
+     * <p>Use with {@link TagOptions} to enable it for a single read.
+     *
+     * @param memoryMappedRead
+     */
+    public void setMemoryMappedRead(boolean memoryMappedRead)
+    {
+        checkModifiable();
+        this.memoryMappedRead = memoryMappedRead;
+    }
+
+    /**
+     * @return largest file that will be memory mapped, default is 64MB
+     */
+    public long getMemoryMappedReadMaxFileSize()
+    {
+        return memoryMappedReadMaxFileSize;
+    }
+
+    /**
+     * Set the largest file that will be memory mapped when {@link #isMemoryMappedRead()} is set
+     *
+     * @param memoryMappedReadMaxFileSize
+     */
+    public void setMemoryMappedReadMaxFileSize(long memoryMappedReadMaxFileSize)
+    {
+        checkModifiable();
+        this.memoryMappedReadMaxFileSize = memoryMappedReadMaxFileSize;
+    }
+
+    /**
+     * @return what is read from a file, bitmask of AudioFile.READ_* values, default is {@link AudioFile#READ_ALL}
+     */
+    public int getReadOptions()
+    {
+        return readOptions;
+    }
+
+    /**
+     * Set what is read from a file, for example {@link AudioFile#READ_TAG} alone reads the text fields without
+     * parsing the audio header or keeping artwork. Files not read with {@link AudioFile#READ_ALL} cannot be written.
+     *
+     * <p>Use with {@link TagOptions} to set it for a single read.
+     *
+     * @param readOptions bitmask of AudioFile.READ_* values
+     */
+    public void setReadOptions(int readOptions)
+    {
+        checkModifiable();
+        this.readOptions = readOptions;
+    }
+
+    /**
+     * @return maximum number of fields read from a tag, default is no limit
+     */
+    public int getReadFieldLimit()
+    {
+        return readFieldLimit;
+    }
+
+    /**
+     * Stop reading a tag once this many fields have been read, files read with a limit cannot be written.
+     *
+     * @param readFieldLimit
+     */
+    public void setReadFieldLimit(int readFieldLimit)
+    {
+        checkModifiable();
+        if (readFieldLimit <= 0)
+        {
+            throw new IllegalArgumentException("Invalid read field limit:" + readFieldLimit);
+        }
+        this.readFieldLimit = readFieldLimit;
+    }
+
+    /**
+     * @return true if files are only partially read with these options, so cannot be written
+     */
+    public boolean isPartialRead()
+    {
+        return readOptions != AudioFile.READ_ALL || readFieldLimit != Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return true if artwork image data is only read from the file when first needed
+     */
+    public boolean isLazyArtwork()
+    {
+        return lazyArtwork;
+    }
+
+    /**
+     * If set the image data of Flac and Mp4 artwork is not kept in memory when the file is read, only its location
+     * is recorded and it is read from the file when first needed. The picture type, mime type and dimensions are
+     * available without reading the image data.
+     *
+     * <p>If the file is modified by anything else before the image data is read, reading it will fail.
+     *
+     * @param lazyArtwork
+     */
+    public void setLazyArtwork(boolean lazyArtwork)
+    {
+        checkModifiable();
+        this.lazyArtwork = lazyArtwork;
+    }
+
+    /**
+     * @return size of padding reserved after Wav metadata
+     */
+    public int getWavPaddingSize()
+    {
+        return wavPaddingSize;
+    }
+
+    /**
+     * If greater than zero, when Wav metadata is written at the end of the file it is followed by a JUNK chunk of
+     * this size. Later writes use the JUNK chunk to grow or shrink the metadata without changing the size of the
+     * file, so repeated edits are written in place.
+     *
+     * @param wavPaddingSize in bytes
+     */
+    public void setWavPaddingSize(int wavPaddingSize)
+    {
+        checkModifiable();
+        this.wavPaddingSize = wavPaddingSize;
+    }
+
+    /**
+     * @return how much padding is left after an ID3v2 tag when the audio has to be moved
+     */
+    public ID3v2PaddingPolicy getId3v2PaddingPolicy()
+    {
+        return id3v2PaddingPolicy;
+    }
+
+    /**
+     * Set how much padding is left after an ID3v2 tag when it no longer fits before the audio so the audio has to
+     * be moved. More padding means later edits to the tag are more likely to be written without moving the audio
+     * again. Use MP3File.isID3v2TagWrittenInPlace() to check in advance whether a save will move the audio.
+     *
+     * @param id3v2PaddingPolicy
+     */
+    public void setId3v2PaddingPolicy(ID3v2PaddingPolicy id3v2PaddingPolicy)
+    {
+        checkModifiable();
+        this.id3v2PaddingPolicy = id3v2PaddingPolicy;
+    }
 }
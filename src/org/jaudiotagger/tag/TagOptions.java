@@ -0,0 +1,96 @@
+package org.jaudiotagger.tag;
+
+/**
+ * Immutable set of tag options that can be passed to {@link org.jaudiotagger.audio.AudioFileIO#read(java.io.File, TagOptions)}
+ * and {@link org.jaudiotagger.audio.AudioFileIO#write(org.jaudiotagger.audio.AudioFile, TagOptions)} so that files can be
+ * read and written with different options at the same time in different threads.
+ *
+ * <p>Options are configured as usual on a {@link TagOptionSingleton} and then copied, {@link TagOptionSingleton#getInstance()}
+ * remains the default used when no TagOptions are given.
+ *
+ * <pre>
+ * TagOptionSingleton tenant = TagOptionSingleton.getInstance("tenant");
+ * tenant.setId3v2ITunes12_6WorkGroupingMode(true);
+ * TagOptions tagOptions = TagOptions.copyOf(tenant);
+ * AudioFile af = AudioFileIO.read(file, tagOptions);
+ * </pre>
+ *
+ * <p>Tag fields are created and modified using the options in force at the time, so to do this outside of
+ * AudioFileIO with the same options use {@link #apply()}
+ *
+ * <pre>
+ * try (TagOptions.Scope scope = tagOptions.apply())
+ * {
+ *     af.getTagOrCreateAndSetDefault().setField(FieldKey.WORK, "Work");
+ * }
+ * </pre>
+ */
+public final class TagOptions
+{
+    private final TagOptionSingleton options;
+
+    private TagOptions(TagOptionSingleton options)
+    {
+        this.options = options;
+    }
+
+    /**
+     * @param options
+     * @return copy of options, later changes to options do not affect it
+     */
+    public static TagOptions copyOf(TagOptionSingleton options)
+    {
+        return new TagOptions(new TagOptionSingleton(options));
+    }
+
+    /**
+     * @return copy of the options currently in force for this thread
+     */
+    public static TagOptions current()
+    {
+        return copyOf(TagOptionSingleton.getInstance());
+    }
+
+    /**
+     * Use these options for the current thread until the returned scope is closed, during this time
+     * {@link TagOptionSingleton#getInstance()} returns an unmodifiable copy of them.
+     *
+     * @return scope that must be closed, restoring whatever options were in force before
+     */
+    public Scope apply()
+    {
+        return new Scope(TagOptionSingleton.setScopedInstance(options));
+    }
+
+    /**
+     * @return unmodifiable view of these options
+     */
+    public TagOptionSingleton getOptions()
+    {
+        return options;
+    }
+
+    /**
+     * Options applied to the current thread, closing restores the previous options
+     */
+    public static final class Scope implements AutoCloseable
+    {
+        private final TagOptionSingleton previous;
+        private boolean closed;
+
+        private Scope(TagOptionSingleton previous)
+        {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close()
+        {
+            if (!closed)
+            {
+                closed = true;
+                TagOptionSingleton.setScopedInstance(previous);
+            }
+        }
+    }
+}
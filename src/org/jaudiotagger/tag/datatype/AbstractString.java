@@ -25,6 +25,7 @@ package org.jaudiotagger.tag.datatype;
 
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+import org.jaudiotagger.utils.CharsetCoders;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
@@ -113,7 +114,7 @@ public abstract class AbstractString extends AbstractDataType
         final byte textEncoding = this.getBody().getTextEncoding();
         final TextEncoding encoding = TextEncoding.getInstanceOf();
         final Charset charset = encoding.getCharsetForId(textEncoding);
-        CharsetEncoder encoder = charset.newEncoder();
+        CharsetEncoder encoder = CharsetCoders.getEncoder(charset);
 
         if (encoder.canEncode((String) value))
         {
@@ -139,7 +140,7 @@ public abstract class AbstractString extends AbstractDataType
         CharsetDecoder decoder=null;
         if(inBuffer.remaining()<=2)
         {
-            decoder = getTextEncodingCharSet().newDecoder();
+            decoder = CharsetCoders.getDecoder(getTextEncodingCharSet());
             decoder.reset();
             return decoder;
         }
@@ -149,26 +150,26 @@ public abstract class AbstractString extends AbstractDataType
             if(inBuffer.getChar(0)==0xfffe || inBuffer.getChar(0)==0xfeff)
             {
                 //Get the Specified Decoder
-                decoder = getTextEncodingCharSet().newDecoder();
+                decoder = CharsetCoders.getDecoder(getTextEncodingCharSet());
                 decoder.reset();
             }
             else
             {
                 if(inBuffer.get(0)==0)
                 {
-                    decoder = StandardCharsets.UTF_16BE.newDecoder();
+                    decoder = CharsetCoders.getDecoder(StandardCharsets.UTF_16BE);
                     decoder.reset();
                 }
                 else
                 {
-                    decoder = StandardCharsets.UTF_16LE.newDecoder();
+                    decoder = CharsetCoders.getDecoder(StandardCharsets.UTF_16LE);
                     decoder.reset();
                 }
             }
         }
         else
         {
-            decoder = getTextEncodingCharSet().newDecoder();
+            decoder = CharsetCoders.getDecoder(getTextEncodingCharSet());
             decoder.reset();
         }
         return decoder;
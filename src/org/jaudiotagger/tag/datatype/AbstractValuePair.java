@@ -25,6 +25,9 @@ import java.util.*;
 
 /**
  * A two way mapping between an id and a value
+ *
+ * <p>The mappings are built once by the constructor of the subclass and are read only afterwards, so a single
+ * instance can be shared by any number of threads without locking.
  */
 public abstract class AbstractValuePair<I, V>
 {
@@ -32,7 +35,12 @@ public abstract class AbstractValuePair<I, V>
     protected final Map<V, I> valueToId = new LinkedHashMap<V, I>();
     protected final List<V> valueList = new ArrayList<V>();
 
-    protected Iterator<I> iterator = idToValue.keySet().iterator();
+    //Read only views returned to callers
+    private final Map<I, V> idToValueView = Collections.unmodifiableMap(idToValue);
+    private final Map<V, I> valueToIdView = Collections.unmodifiableMap(valueToId);
+    private final List<V> valueListView = Collections.unmodifiableList(valueList);
+
+    protected Iterator<I> iterator;
 
     protected String value;
 
@@ -42,17 +50,17 @@ public abstract class AbstractValuePair<I, V>
      */
     public List<V> getAlphabeticalValueList()
     {
-        return valueList;
+        return valueListView;
     }
 
     public Map<I, V> getIdToValueMap()
     {
-        return idToValue;
+        return idToValueView;
     }
 
     public Map<V, I> getValueToIdMap()
     {
-        return valueToId;
+        return valueToIdView;
     }
 
     /**
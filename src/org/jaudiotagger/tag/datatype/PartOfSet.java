@@ -5,6 +5,7 @@ import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.tag.options.PadNumberOption;
+import org.jaudiotagger.utils.CharsetCoders;
 import org.jaudiotagger.utils.EqualsUtil;
 
 import java.nio.ByteBuffer;
@@ -87,23 +88,26 @@ public class PartOfSet extends AbstractString
     {
         logger.finest("Reading from array from offset:" + offset);
 
-        //Get the Specified Decoder
-        CharsetDecoder decoder = getTextEncodingCharSet().newDecoder();
-
-        //Decode sliced inBuffer
-        ByteBuffer inBuffer = ByteBuffer.wrap(arr, offset, arr.length - offset).slice();
-        CharBuffer outBuffer = CharBuffer.allocate(arr.length - offset);
-        decoder.reset();
-        CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
-        if (coderResult.isError())
+        String stringValue = CharsetCoders.decodeSingleByte(getTextEncodingCharSet(), arr, offset, arr.length - offset);
+        if (stringValue == null)
         {
-            logger.warning("Decoding error:" + coderResult.toString());
+            //Get the Specified Decoder
+            CharsetDecoder decoder = CharsetCoders.getDecoder(getTextEncodingCharSet());
+
+            //Decode sliced inBuffer
+            ByteBuffer inBuffer = ByteBuffer.wrap(arr, offset, arr.length - offset).slice();
+            CharBuffer outBuffer = CharsetCoders.getCharBuffer(arr.length - offset);
+            CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
+            if (coderResult.isError())
+            {
+                logger.warning("Decoding error:" + coderResult.toString());
+            }
+            decoder.flush(outBuffer);
+            outBuffer.flip();
+            stringValue = outBuffer.toString();
         }
-        decoder.flush(outBuffer);
-        outBuffer.flip();
 
         //Store value
-        String stringValue = outBuffer.toString();
         value = new PartOfSetValue(stringValue);
 
         //SetSize, important this is correct for finding the next datatype
@@ -142,13 +146,13 @@ public class PartOfSet extends AbstractString
             final CharsetEncoder encoder;
             if (StandardCharsets.UTF_16.equals(charset))
             {
-                encoder = StandardCharsets.UTF_16LE.newEncoder();
+                encoder = CharsetCoders.getEncoder(StandardCharsets.UTF_16LE);
                 //Note remember LE BOM is ff fe but this is handled by encoder Unicode char is fe ff
                 valueWithBOM = '\ufeff' + value;
             }
             else
             {
-                encoder = charset.newEncoder();
+                encoder = CharsetCoders.getEncoder(charset);
                 valueWithBOM = value;
             }
             encoder.onMalformedInput(CodingErrorAction.IGNORE);
@@ -26,6 +26,7 @@ package org.jaudiotagger.tag.datatype;
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+import org.jaudiotagger.utils.CharsetCoders;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -87,7 +88,7 @@ public class StringFixedLength extends AbstractString
         logger.config("Reading from array from offset:" + offset);
         try
         {
-            final CharsetDecoder decoder = getTextEncodingCharSet().newDecoder();
+            final CharsetDecoder decoder = CharsetCoders.getDecoder(getTextEncodingCharSet());
 
             //Decode buffer if runs into problems should through exception which we
             //catch and then set value to empty string.
@@ -98,7 +99,11 @@ public class StringFixedLength extends AbstractString
             {
                 throw new InvalidDataTypeException("byte array is to small to retrieve string of declared length:" + size);
             }
-            String str = decoder.decode(ByteBuffer.wrap(arr, offset, size)).toString();
+            String str = CharsetCoders.decodeSingleByte(getTextEncodingCharSet(), arr, offset, size);
+            if (str == null)
+            {
+                str = decoder.decode(ByteBuffer.wrap(arr, offset, size)).toString();
+            }
             if (str == null)
             {
                 throw new NullPointerException("String is null");
@@ -146,12 +151,12 @@ public class StringFixedLength extends AbstractString
             if (StandardCharsets.UTF_16.equals(charset))
             {
                 //Note remember LE BOM is ff fe but tis is handled by encoder Unicode char is fe ff
-                encoder = StandardCharsets.UTF_16LE.newEncoder();
+                encoder = CharsetCoders.getEncoder(StandardCharsets.UTF_16LE);
                 dataBuffer = encoder.encode(CharBuffer.wrap('\ufeff' + (String) value));
             }
             else
             {
-                encoder = charset.newEncoder();
+                encoder = CharsetCoders.getEncoder(charset);
                 dataBuffer = encoder.encode(CharBuffer.wrap((String) value));
             }
         }
@@ -4,6 +4,7 @@ import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+import org.jaudiotagger.utils.CharsetCoders;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -175,19 +176,24 @@ public class TextEncodedStringNullTerminated extends AbstractString
         }
         else
         {
-            //Decode sliced inBuffer
-            ByteBuffer inBuffer = ByteBuffer.wrap(arr, offset, bufferSize).slice();
-            CharBuffer outBuffer = CharBuffer.allocate(bufferSize);
-
-            final CharsetDecoder decoder = getCorrectDecoder(inBuffer);
-            CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
-            if (coderResult.isError())
+            //Text that maps one byte to one char does not need decoding
+            value = CharsetCoders.decodeSingleByte(getTextEncodingCharSet(), arr, offset, bufferSize);
+            if (value == null)
             {
-                logger.warning("Problem decoding text encoded null terminated string:" + coderResult.toString());
+                //Decode sliced inBuffer
+                ByteBuffer inBuffer = ByteBuffer.wrap(arr, offset, bufferSize).slice();
+                CharBuffer outBuffer = CharsetCoders.getCharBuffer(bufferSize);
+
+                final CharsetDecoder decoder = getCorrectDecoder(inBuffer);
+                CoderResult coderResult = decoder.decode(inBuffer, outBuffer, true);
+                if (coderResult.isError())
+                {
+                    logger.warning("Problem decoding text encoded null terminated string:" + coderResult.toString());
+                }
+                decoder.flush(outBuffer);
+                outBuffer.flip();
+                value = outBuffer.toString();
             }
-            decoder.flush(outBuffer);
-            outBuffer.flip();
-            value = outBuffer.toString();
         }
         //Set Size so offset is ready for next field (includes the null terminator)
         logger.config("Read NullTerminatedString:" + value + " size inc terminator:" + size);
@@ -211,7 +217,7 @@ public class TextEncodedStringNullTerminated extends AbstractString
             {
                 if(TagOptionSingleton.getInstance().isEncodeUTF16BomAsLittleEndian())
                 {
-                    final CharsetEncoder encoder = StandardCharsets.UTF_16LE.newEncoder();
+                    final CharsetEncoder encoder = CharsetCoders.getEncoder(StandardCharsets.UTF_16LE);
                     encoder.onMalformedInput(CodingErrorAction.IGNORE);
                     encoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
 
@@ -222,7 +228,7 @@ public class TextEncodedStringNullTerminated extends AbstractString
                 }
                 else
                 {
-                     final CharsetEncoder encoder = StandardCharsets.UTF_16BE.newEncoder();
+                     final CharsetEncoder encoder = CharsetCoders.getEncoder(StandardCharsets.UTF_16BE);
                      encoder.onMalformedInput(CodingErrorAction.IGNORE);
                      encoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
 
@@ -234,7 +240,7 @@ public class TextEncodedStringNullTerminated extends AbstractString
             }
             else
             {
-                final CharsetEncoder encoder = charset.newEncoder();
+                final CharsetEncoder encoder = CharsetCoders.getEncoder(charset);
                 encoder.onMalformedInput(CodingErrorAction.IGNORE);
                 encoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
 
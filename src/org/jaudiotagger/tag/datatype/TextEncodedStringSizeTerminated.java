@@ -4,6 +4,7 @@ import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
+import org.jaudiotagger.utils.CharsetCoders;
 
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
@@ -81,6 +82,15 @@ public class TextEncodedStringSizeTerminated extends AbstractString
     {
         logger.finest("Reading from array from offset:" + offset);
 
+        //Text that maps one byte to one char does not need decoding
+        String text = CharsetCoders.decodeSingleByte(getTextEncodingCharSet(), arr, offset, arr.length - offset);
+        if (text != null)
+        {
+            value = text;
+            setSize(arr.length - offset);
+            logger.finest("Read SizeTerminatedString:" + value + " size:" + size);
+            return;
+        }
 
         //Decode sliced inBuffer
         ByteBuffer inBuffer;
@@ -96,7 +106,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
            inBuffer = ByteBuffer.wrap(arr, offset, arr.length - offset).slice();
         }
 
-        CharBuffer outBuffer = CharBuffer.allocate(arr.length - offset);
+        CharBuffer outBuffer = CharsetCoders.getCharBuffer(arr.length - offset);
 
 
         CharsetDecoder decoder = getCorrectDecoder(inBuffer);
@@ -174,7 +184,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
     protected ByteBuffer writeStringUTF16LEBOM(final String next, final int i, final int noOfValues)
             throws CharacterCodingException
     {
-        final CharsetEncoder encoder = StandardCharsets.UTF_16LE.newEncoder();
+        final CharsetEncoder encoder = CharsetCoders.getEncoder(StandardCharsets.UTF_16LE);
         encoder.onMalformedInput(CodingErrorAction.IGNORE);
         encoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
 
@@ -206,7 +216,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
     protected ByteBuffer writeStringUTF16BEBOM(final String next, final int i, final int noOfValues)
             throws CharacterCodingException
     {
-        final CharsetEncoder encoder = StandardCharsets.UTF_16BE.newEncoder();
+        final CharsetEncoder encoder = CharsetCoders.getEncoder(StandardCharsets.UTF_16BE);
         encoder.onMalformedInput(CodingErrorAction.IGNORE);
         encoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
 
@@ -318,7 +328,7 @@ public class TextEncodedStringSizeTerminated extends AbstractString
                 }
                 else
                 {
-                    final CharsetEncoder charsetEncoder = charset.newEncoder();
+                    final CharsetEncoder charsetEncoder = CharsetCoders.getEncoder(charset);
                     charsetEncoder.onMalformedInput(CodingErrorAction.IGNORE);
                     charsetEncoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
                     outputBuffer.put(writeString(charsetEncoder, next, i, values.size()));
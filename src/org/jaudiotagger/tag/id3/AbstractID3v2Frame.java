@@ -20,6 +20,7 @@ import org.jaudiotagger.tag.*;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyEncrypted;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
+import org.jaudiotagger.tag.id3.framebody.ID3v2FrameBodyFactory;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
 
@@ -119,30 +120,12 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         logger.config("Creating empty frame of type" + identifier);
         this.identifier = identifier;
 
-        // Use reflection to map id to frame body, which makes things much easier
-        // to keep things up to date.
-        try
-        {
-            Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-            frameBody = c.newInstance();
-        }
-        catch (ClassNotFoundException cnfe)
+        frameBody = ID3v2FrameBodyFactory.createFrameBody(identifier);
+        if (frameBody == null)
         {
-            logger.severe(cnfe.getMessage());
+            logger.severe("No framebody exists for identifier:" + identifier);
             frameBody = new FrameBodyUnsupported(identifier);
         }
-        //Instantiate Interface/Abstract should not happen
-        catch (InstantiationException ie)
-        {
-            logger.log(Level.SEVERE, "InstantiationException:" + identifier, ie);
-            throw new RuntimeException(ie);
-        }
-        //Private Constructor shouild not happen
-        catch (IllegalAccessException iae)
-        {
-            logger.log(Level.SEVERE, "IllegalAccessException:" + identifier, iae);
-            throw new RuntimeException(iae);
-        }
         frameBody.setHeader(this);
         if (this instanceof ID3v24Frame)
         {
@@ -254,86 +237,34 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
      * @return a newly created FrameBody
      * @throws InvalidFrameException unable to construct a framebody from the data
      */
-    @SuppressWarnings("unchecked")
-    //TODO using reflection is rather slow perhaps we should change this
     protected AbstractID3v2FrameBody readBody(String identifier, ByteBuffer byteBuffer, int frameSize)
             throws InvalidFrameException, InvalidDataTypeException
     {
-        //Use reflection to map id to frame body, which makes things much easier
-        //to keep things up to date,although slight performance hit.
         logger.finest("Creating framebody:start");
 
         AbstractID3v2FrameBody frameBody;
         try
         {
-            Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-            Class<?>[] constructorParameterTypes = {Class.forName("java.nio.ByteBuffer"), Integer.TYPE};
-            Object[] constructorParameterValues = {byteBuffer, frameSize};
-            Constructor<AbstractID3v2FrameBody> construct = c.getConstructor(constructorParameterTypes);
-            frameBody = (construct.newInstance(constructorParameterValues));
-        }
-        //No class defined for this frame type,use FrameUnsupported
-        catch (ClassNotFoundException cex)
-        {
-            logger.config(getLoggingFilename() + ":" + "Identifier not recognised:" + identifier + " using FrameBodyUnsupported");
-            try
+            frameBody = ID3v2FrameBodyFactory.createFrameBody(identifier, byteBuffer, frameSize);
+
+            //No class defined for this frame type,use FrameUnsupported
+            if (frameBody == null)
             {
+                logger.config(getLoggingFilename() + ":" + "Identifier not recognised:" + identifier + " using FrameBodyUnsupported");
                 frameBody = new FrameBodyUnsupported(byteBuffer, frameSize);
             }
-            //Should only throw InvalidFrameException but unfortunately legacy hierachy forces
-            //read method to declare it can throw InvalidtagException
-            catch (InvalidFrameException ife)
-            {
-                throw ife;
-            }
-            catch (InvalidTagException te)
-            {
-                throw new InvalidFrameException(te.getMessage());
-            }
         }
-        //An error has occurred during frame instantiation, if underlying cause is an unchecked exception or error
-        //propagate it up otherwise mark this frame as invalid
-        catch (InvocationTargetException ite)
+        //Should only throw InvalidFrameException or InvalidDataTypeException but unfortunately legacy hierachy forces
+        //read method to declare it can throw InvalidtagException
+        catch (InvalidFrameException | InvalidDataTypeException e)
         {
-            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + ite.getCause().getMessage());
-            if (ite.getCause() instanceof Error)
-            {
-                throw (Error) ite.getCause();
-            }
-            else if (ite.getCause() instanceof RuntimeException)
-            {
-                throw (RuntimeException) ite.getCause();
-            }
-            else if(ite.getCause() instanceof  InvalidFrameException )
-            {
-                throw (InvalidFrameException)ite.getCause();
-            }
-            else if(ite.getCause() instanceof  InvalidDataTypeException )
-            {
-                throw (InvalidDataTypeException)ite.getCause();
-            }
-            else
-            {
-                throw new InvalidFrameException(ite.getCause().getMessage());
-            }
+            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + e.getMessage());
+            throw e;
         }
-        //No Such Method should not happen
-        catch (NoSuchMethodException sme)
-        {
-            logger.log(Level.SEVERE, getLoggingFilename() + ":" + "No such method:" + sme.getMessage(), sme);
-            throw new RuntimeException(sme.getMessage());
-        }
-        //Instantiate Interface/Abstract should not happen
-        catch (InstantiationException ie)
+        catch (InvalidTagException te)
         {
-            logger.log(Level.SEVERE, getLoggingFilename() + ":" + "Instantiation exception:" + ie.getMessage(), ie);
-            throw new RuntimeException(ie.getMessage());
-        }
-        //Private Constructor shouild not happen
-        catch (IllegalAccessException iae)
-        {
-            logger.log(Level.SEVERE, getLoggingFilename() + ":" + "Illegal access exception :" + iae.getMessage(), iae);
-            throw new RuntimeException(iae.getMessage());
+            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + te.getMessage());
+            throw new InvalidFrameException(te.getMessage());
         }
         logger.finest(getLoggingFilename() + ":" + "Created framebody:end" + frameBody.getIdentifier());
         frameBody.setHeader(this);
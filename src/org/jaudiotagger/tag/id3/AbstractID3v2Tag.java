@@ -33,6 +33,8 @@ import org.jaudiotagger.tag.id3.valuepair.StandardIPLSKey;
 import org.jaudiotagger.tag.images.Artwork;
 import org.jaudiotagger.tag.reference.Languages;
 import org.jaudiotagger.tag.reference.PictureTypes;
+import org.jaudiotagger.utils.DirectByteBufferPool;
+import org.jaudiotagger.utils.ExposedByteArrayOutputStream;
 
 import java.io.*;
 import java.nio.ByteBuffer;
@@ -84,6 +86,9 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
 
     protected static final int TAG_SIZE_INCREMENT = 100;
 
+    //Zeroes padding is written from, never modified so can be shared
+    private static final byte[] PADDING_BYTES = new byte[16384];
+
     //The max size we try to write in one go to avoid out of memory errors (10mb)
     private static final long MAXIMUM_WRITABLE_CHUNK_SIZE = 10000000;
     //The max size we try to write in one go during "in place" operations to avoid memory issues
@@ -200,11 +205,19 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
             return false;
         }
         //So we have a tag
-        ByteBuffer bb = ByteBuffer.allocateDirect(FIELD_TAG_SIZE_LENGTH);
-        fc.position(fc.position() + FIELD_TAGID_LENGTH + FIELD_TAG_MAJOR_VERSION_LENGTH + FIELD_TAG_MINOR_VERSION_LENGTH + FIELD_TAG_FLAG_LENGTH);
-        fc.read(bb);
-        bb.flip();
-        int size = ID3SyncSafeInteger.bufferToValue(bb);
+        ByteBuffer bb = DirectByteBufferPool.acquire(FIELD_TAG_SIZE_LENGTH);
+        int size;
+        try
+        {
+            fc.position(fc.position() + FIELD_TAGID_LENGTH + FIELD_TAG_MAJOR_VERSION_LENGTH + FIELD_TAG_MINOR_VERSION_LENGTH + FIELD_TAG_FLAG_LENGTH);
+            fc.read(bb);
+            bb.flip();
+            size = ID3SyncSafeInteger.bufferToValue(bb);
+        }
+        finally
+        {
+            DirectByteBufferPool.release(bb);
+        }
         fc.position(size + TAG_HEADER_LENGTH);
         return true;
     }
@@ -1163,9 +1176,14 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      */
     protected void writePadding(WritableByteChannel channel, int padding) throws IOException
     {
-        if (padding > 0)
+        //Written from a shared block of zeroes rather than allocating the padding each time
+        while (padding > 0)
         {
-            channel.write(ByteBuffer.wrap(new byte[padding]));
+            ByteBuffer paddingBuffer = ByteBuffer.wrap(PADDING_BYTES, 0, Math.min(padding, PADDING_BYTES.length));
+            while (paddingBuffer.hasRemaining())
+            {
+                padding -= channel.write(paddingBuffer);
+            }
         }
     }
 
@@ -1287,7 +1305,79 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         /** There is not enough room as we need to move the audio file we might
          *  as well increase it more than neccessary for future changes
          */
-        return tagSize + TAG_SIZE_INCREMENT;
+        return Math.max(tagSize, TagOptionSingleton.getInstance().getId3v2PaddingPolicy().calculateTagSize(tagSize, preferredSize));
+    }
+
+    /**
+     * Write the frames to a buffer as they are written to file, unsynchronized if required
+     *
+     * @return the body of the tag, wrapping the buffer the frames were written to so the body is not copied
+     * @throws IOException
+     */
+    protected ByteBuffer writeBodyToBuffer() throws IOException
+    {
+        return writeFramesToBuffer().toByteBuffer();
+    }
+
+    /**
+     * Dry run of {@link #write(File, long)}, the file is not modified
+     *
+     * @param audioStartLocation
+     * @return the size the tag would be written with including padding, if larger than audioStartLocation the audio
+     * would have to be moved to make room for the tag
+     * @throws IOException
+     */
+    public int calculateTagSizeIncPadding(long audioStartLocation) throws IOException
+    {
+        //Writing the frames sets their encoding flags, so put them back afterwards to leave the tag unchanged
+        Map<AbstractID3v2Frame, Byte> encodingFlags = new IdentityHashMap<AbstractID3v2Frame, Byte>();
+        getEncodingFlags(frameMap, encodingFlags);
+        getEncodingFlags(encryptedFrameMap, encodingFlags);
+        try
+        {
+            return calculateTagSize(writeBodyToBuffer().remaining() + TAG_HEADER_LENGTH, (int) audioStartLocation);
+        }
+        finally
+        {
+            for (Map.Entry<AbstractID3v2Frame, Byte> next : encodingFlags.entrySet())
+            {
+                next.getKey().getEncodingFlags().setFlags(next.getValue());
+            }
+        }
+    }
+
+    /**
+     * Add the encoding flags of each frame in map that has them to encodingFlags
+     *
+     * @param map
+     * @param encodingFlags
+     */
+    private void getEncodingFlags(Map<String, Object> map, Map<AbstractID3v2Frame, Byte> encodingFlags)
+    {
+        for (Object o : map.values())
+        {
+            Collection<AbstractID3v2Frame> frames;
+            if (o instanceof AbstractID3v2Frame)
+            {
+                frames = Collections.singletonList((AbstractID3v2Frame) o);
+            }
+            else if (o instanceof AggregatedFrame)
+            {
+                frames = ((AggregatedFrame) o).getFrames();
+            }
+            else
+            {
+                frames = (List<AbstractID3v2Frame>) o;
+            }
+
+            for (AbstractID3v2Frame frame : frames)
+            {
+                if (frame.getEncodingFlags() != null)
+                {
+                    encodingFlags.put(frame, frame.getEncodingFlags().getFlags());
+                }
+            }
+        }
     }
 
     /**
@@ -1573,6 +1663,24 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * @throws IOException
      */
     protected void writeBufferToFile(File file, ByteBuffer headerBuffer, byte[] bodyByteBuffer, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
+    {
+        writeBufferToFile(file, headerBuffer, ByteBuffer.wrap(bodyByteBuffer), padding, sizeIncPadding, audioStartLocation);
+    }
+
+    /**
+     * Adjust the length of the  padding at the beginning of the MP3 file, this is only called when there is currently
+     * not enough space before the start of the audio to write the tag.
+     * <p/>
+     *
+     * @param file
+     * @param headerBuffer
+     * @param bodyByteBuffer
+     * @param padding
+     * @param sizeIncPadding
+     * @param audioStartLocation
+     * @throws IOException
+     */
+    protected void writeBufferToFile(File file, ByteBuffer headerBuffer, ByteBuffer bodyByteBuffer, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
     {
         FileChannel fc = null;
         FileLock fileLock = null;
@@ -1589,8 +1697,8 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
             fc = new RandomAccessFile(file, "rw").getChannel();
             fileLock = getFileLockForWriting(fc, file.getPath());
             fc.write(headerBuffer);
-            fc.write(ByteBuffer.wrap(bodyByteBuffer));
-            fc.write(ByteBuffer.wrap(new byte[padding]));
+            fc.write(bodyByteBuffer);
+            writePadding(fc, padding);
         }
         catch (FileNotFoundException fe)
         {
@@ -1750,6 +1858,21 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         }
     }
 
+    /**
+     * Artwork frames are only loaded if {@link AudioFile#READ_ARTWORK} is set in the read options
+     *
+     * @param frameId
+     * @return true if frame read from file should be added to the frame map
+     */
+    protected boolean isFrameToBeLoaded(String frameId)
+    {
+        if ((TagOptionSingleton.getInstance().getReadOptions() & AudioFile.READ_ARTWORK) == 0)
+        {
+            return !(frameId.equals(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE) || frameId.equals(ID3v22Frames.FRAME_ID_V2_ATTACHED_PICTURE));
+        }
+        return true;
+    }
+
     /**
      * Add frame to the frame map
      *
@@ -1876,12 +1999,15 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * <p>Currently Write all frames, defaults to the order in which they were loaded, newly
      * created frames will be at end of tag.
      *
+     * <p>The buffer is sized from the sizes of the frames, and the frames are written directly into it, so large
+     * frames such as artwork are only copied once.
+     *
      * @return ByteBuffer Contains all the frames written within the tag ready for writing to file
      * @throws IOException
      */
-    protected ByteArrayOutputStream writeFramesToBuffer() throws IOException
+    protected ExposedByteArrayOutputStream writeFramesToBuffer() throws IOException
     {
-        ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream();
+        ExposedByteArrayOutputStream bodyBuffer = new ExposedByteArrayOutputStream(getSize());
         writeFramesToBufferStream(frameMap, bodyBuffer);
         writeFramesToBufferStream(encryptedFrameMap, bodyBuffer);
         return bodyBuffer;
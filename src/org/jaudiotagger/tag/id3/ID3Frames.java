@@ -15,6 +15,7 @@
  */
 package org.jaudiotagger.tag.id3;
 
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.datatype.AbstractStringStringValuePair;
 
 import java.util.Iterator;
@@ -293,10 +294,15 @@ public abstract class ID3Frames extends AbstractStringStringValuePair
      * to {@code TIT1} instead of the regular mapping
      * ({@code GROUPING -> TIT1, WORK -> TXXX:WORK}).</p>
      *
-     * <p>This method is called internally by {@link org.jaudiotagger.tag.TagOptionSingleton#setId3v2ITunes12_6WorkGroupingMode(boolean)}
-     * and should not be called by framework users directly.</p>
+     * <p>The mappings no longer hold the mode, they check the options currently in force on each lookup, so this
+     * just sets the option on the {@link org.jaudiotagger.tag.TagOptionSingleton} in force.</p>
      *
      * @param id3v2ITunes12_6Mode true or false
+     * @deprecated use {@link org.jaudiotagger.tag.TagOptionSingleton#setId3v2ITunes12_6WorkGroupingMode(boolean)}
      */
-    public abstract void setITunes12_6WorkGroupingMode(boolean id3v2ITunes12_6Mode);
+    @Deprecated
+    public void setITunes12_6WorkGroupingMode(boolean id3v2ITunes12_6Mode)
+    {
+        TagOptionSingleton.getInstance().setId3v2ITunes12_6WorkGroupingMode(id3v2ITunes12_6Mode);
+    }
 }
@@ -2,8 +2,6 @@ package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.audio.mp3.MPEGFrameHeader;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,7 +26,20 @@ public class ID3Unsynchronization
      */
     public static boolean requiresUnsynchronization(byte[] abySource)
     {
-        for (int i = 0; i < abySource.length - 1; i++)
+        return requiresUnsynchronization(abySource, 0, abySource.length);
+    }
+
+    /**
+     * Check if part of a byte array will require unsynchronization before being written as a tag.
+     *
+     * @param abySource the byte array to be examined
+     * @param offset    start of the part to be examined
+     * @param length    length of the part to be examined
+     * @return true if unsynchronization is required, false otherwise
+     */
+    public static boolean requiresUnsynchronization(byte[] abySource, int offset, int length)
+    {
+        for (int i = offset; i < offset + length - 1; i++)
         {
             if (((abySource[i] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1) && ((abySource[i + 1] & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2))
             {
@@ -57,53 +68,68 @@ public class ID3Unsynchronization
      */
     public static byte[] unsynchronize(byte[] abySource)
     {
-        ByteArrayInputStream input = new ByteArrayInputStream(abySource);
-        ByteArrayOutputStream output = new ByteArrayOutputStream(abySource.length);
+        int length = abySource.length;
+        if (length == 0)
+        {
+            return abySource;
+        }
 
-        int count = 0;
-        while (input.available() > 0)
+        //First count the zero bytes that need inserting so can create output of the correct size
+        int insertCount = 0;
+        for (int i = 0; i < length - 1; i++)
         {
-            int firstByte = input.read();
-            count++;
-            output.write(firstByte);
-            if ((firstByte & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            if (isUnsynchronizationRequired(abySource[i], abySource[i + 1]))
             {
-                // if byte is $FF, we must check the following byte if there is one
-                if (input.available() > 0)
+                insertCount++;
+            }
+        }
+
+        // if this tag ends with 0xff, we have to append a zero byte, which will be removed on de-unsynchronization later
+        boolean endsWithSync = (abySource[length - 1] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1;
+        if (endsWithSync)
+        {
+            insertCount++;
+        }
+
+        if (insertCount == 0)
+        {
+            return abySource;
+        }
+
+        //Copy runs of bytes between the positions where a zero byte needs inserting
+        byte[] output = new byte[length + insertCount];
+        int from = 0;
+        int to = 0;
+        for (int i = 0; i < length - 1; i++)
+        {
+            if (isUnsynchronizationRequired(abySource[i], abySource[i + 1]))
+            {
+                if (logger.isLoggable(Level.FINEST))
                 {
-                    input.mark(1);  // remember where we were, if we don't need to unsynchronize
-                    int secondByte = input.read();
-                    if ((secondByte & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2)
-                    {
-                        // we need to unsynchronize here
-                        if (logger.isLoggable(Level.FINEST))
-                        {
-                            logger.finest("Writing unsynchronisation bit at:" + count);
-                        }
-                        output.write(0);
-
-                    }
-                    else if (secondByte == 0)
-                    {
-                        // we need to unsynchronize here
-                        if (logger.isLoggable(Level.FINEST))
-                        {
-                            logger.finest("Inserting zero unsynchronisation bit at:" + count);
-                        }
-                        output.write(0);
-                    }
-                    input.reset();
+                    logger.finest("Writing unsynchronisation bit at:" + (i + 1));
                 }
+                int runLength = i + 1 - from;
+                System.arraycopy(abySource, from, output, to, runLength);
+                to += runLength + 1;
+                from = i + 1;
             }
         }
-        // if we needed to unsynchronize anything, and this tag ends with 0xff, we have to append a zero byte,
-        // which will be removed on de-unsynchronization later
-        if ((abySource[abySource.length - 1] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+        System.arraycopy(abySource, from, output, to, length - from);
+        if (endsWithSync)
         {
             logger.finest("Adding unsynchronisation bit at end of stream");
-            output.write(0);
         }
-        return output.toByteArray();
+        //Any bytes not copied to are already zero
+        return output;
+    }
+
+    /**
+     * $FF followed by a byte with value >=224 or by $00 needs a $00 inserted between them
+     */
+    private static boolean isUnsynchronizationRequired(byte firstByte, byte secondByte)
+    {
+        return ((firstByte & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+                && (((secondByte & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2) || secondByte == 0);
     }
 
 
@@ -112,128 +138,70 @@ public class ID3Unsynchronization
      *
      * Any patterns of the form $FF $00 should be replaced by $FF
      *
+     * If there are no such patterns the data is not copied, the returned buffer shares the content of the source.
+     *
      * @param source a ByteBuffer to be unsynchronized
      * @return a synchronized representation of the source
      */
-    /*
     public static ByteBuffer synchronize(ByteBuffer source)
     {
-        long start = System.nanoTime();
+        int start = source.position();
+        int end = source.limit();
 
-        int bufferSize = source.limit();
-        ByteArrayOutputStream oBAOS = new ByteArrayOutputStream(bufferSize);
-        int position = 0;
-        while (position < bufferSize)
+        //First count the zero bytes to be removed so can return source if none or create output of the correct size
+        int removeCount = 0;
+        for (int i = start; i < end - 1; i++)
         {
-            int byteValue = source.get();
-            position ++;
-            oBAOS.write(byteValue);
-            if ((byteValue & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            if (((source.get(i) & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1) && source.get(i + 1) == 0)
             {
-                // we are skipping if $00 byte but check not an end of stream
-                if (position < bufferSize)
-                {
-                    int unsyncByteValue = source.get();
-                    position++;
-                    //If its the null byte we just ignore it
-                    if (unsyncByteValue != 0)
-                    {
-                        oBAOS.write(unsyncByteValue);
-                    }
-                }
+                removeCount++;
+                i++;
             }
         }
-        long time = System.nanoTime() - start;
-        ByteBuffer bb = ByteBuffer.wrap(oBAOS.toByteArray());
-        System.out.printf("Took %6.3f ms, was %d bytes, now %,d bytes%n", time/1e6, source.limit(), bb.limit());
-        return bb;
-    }
-    */
 
-    /**
-     * Synchronize an array of bytes, this should only be called if it has been determined the tag is unsynchronised
-     *
-     * Any patterns of the form $FF $00 should be replaced by $FF
-     *
-     * @param source a ByteBuffer to be unsynchronized
-     * @return a synchronized representation of the source
-     */
-    /*
-    public static ByteBuffer synchronize(ByteBuffer source)
-    {
-        long start = System.nanoTime();
-
-        int bufferSize = source.limit();
-        ByteBuffer output = ByteBuffer.allocate(bufferSize);
-        int position = 0;
-        int offset = 0;
-        int length = 0;
-        while (position < bufferSize)
+        if (removeCount == 0)
         {
-            int byteValue = source.get();
-            position++;
-            length++;
-            if ((byteValue & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            ByteBuffer bb = source.slice();
+            source.position(end);
+            return bb;
+        }
+
+        byte[] output = new byte[end - start - removeCount];
+        if (source.hasArray())
+        {
+            //Copy runs of bytes between the zero bytes being removed
+            byte[] bytes = source.array();
+            int offset = source.arrayOffset();
+            int from = start;
+            int to = 0;
+            for (int i = start; i < end - 1; i++)
             {
-                // we are skipping if $00 byte but check not an end of stream
-                if (position < bufferSize)
+                if (((bytes[offset + i] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1) && bytes[offset + i + 1] == 0)
                 {
-                    int unsyncByteValue = source.get();
-                    position++;
-                    //If this is null byte, then write upto this point
-                    if (unsyncByteValue == 0)
-                    {
-                        output.put(source.array(), source.arrayOffset() + offset, length);
-                        offset = position;
-                        length = 0;
-                    }
-                    else
-                    {
-                        length++;
-                    }
+                    int runLength = i + 1 - from;
+                    System.arraycopy(bytes, offset + from, output, to, runLength);
+                    to += runLength;
+                    from = i + 2;
+                    i++;
                 }
             }
+            System.arraycopy(bytes, offset + from, output, to, end - from);
         }
-        if (length > 0)
+        else
         {
-            output.put(source.array(), source.arrayOffset() + offset, length);
-        }
-        output.flip();
-        long time = System.nanoTime() - start;
-        System.out.printf("Took %6.3f ms, was %d bytes, now %,d bytes%n", time/1e6, source.limit(), output.limit());
-        return output;
-    }
-    */
-
-    /**
-     * Synchronize an array of bytes, this should only be called if it has been determined the tag is unsynchronised
-     *
-     * Any patterns of the form $FF $00 should be replaced by $FF
-     *
-     * @param source a ByteBuffer to be unsynchronized
-     * @return a synchronized representation of the source
-     */
-
-    public static ByteBuffer synchronize(ByteBuffer source)
-    {
-        //long start = System.nanoTime();
-        
-        int len = source.remaining();
-        byte[] bytes = new byte[len + 1]; // an extra byte saves a check later.
-        source.get(bytes, 0, len);
-        int from = 0, to = 0;
-        boolean copy = true; // whether to copy the byte, if false, check the byte != 0.
-        while (from < len)
-        {
-            byte byteValue = bytes[from++];
-            if (copy || byteValue != 0) bytes[to++] = byteValue;
-            copy = ((byteValue & MPEGFrameHeader.SYNC_BYTE1) != MPEGFrameHeader.SYNC_BYTE1);
+            int to = 0;
+            for (int i = start; i < end; i++)
+            {
+                byte byteValue = source.get(i);
+                output[to++] = byteValue;
+                if (((byteValue & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1) && i + 1 < end && source.get(i + 1) == 0)
+                {
+                    i++;
+                }
+            }
         }
-
-        ByteBuffer bb2 = ByteBuffer.wrap(bytes, 0, to);
-        //long time = System.nanoTime() - start;
-        //System.out.printf("Took %6.3f ms, was %d bytes, now %,d bytes%n", time/1e6, source.limit(), bb2.limit());
-        return bb2;
+        source.position(end);
+        return ByteBuffer.wrap(output);
     }
 
 }
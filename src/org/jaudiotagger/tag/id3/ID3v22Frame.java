@@ -23,8 +23,10 @@ import org.jaudiotagger.tag.InvalidFrameIdentifierException;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyDeprecated;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
+import org.jaudiotagger.tag.id3.framebody.ID3v2FrameBodyFactory;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
+import org.jaudiotagger.utils.ExposedByteArrayOutputStream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -32,7 +34,6 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -116,7 +117,6 @@ public class ID3v22Frame extends AbstractID3v2Frame
      * create a new frame from scratch using user values
      * @param identifier
      */
-    @SuppressWarnings("unchecked")
     public ID3v22Frame(String identifier)
     {
 
@@ -152,30 +152,12 @@ public class ID3v22Frame extends AbstractID3v2Frame
             }
         }
 
-        // Use reflection to map id to frame body, which makes things much easier
-        // to keep things up to date.
-        try
+        frameBody = ID3v2FrameBodyFactory.createFrameBody(bodyIdentifier);
+        if (frameBody == null)
         {
-            Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + bodyIdentifier);
-            frameBody = c.newInstance();
-        }
-        catch (ClassNotFoundException cnfe)
-        {
-            logger.log(Level.SEVERE, cnfe.getMessage(), cnfe);
+            logger.severe("No framebody exists for identifier:" + bodyIdentifier);
             frameBody = new FrameBodyUnsupported(identifier);
         }
-        //Instantiate Interface/Abstract should not happen
-        catch (InstantiationException ie)
-        {
-            logger.log(Level.SEVERE, ie.getMessage(), ie);
-            throw new RuntimeException(ie);
-        }
-        //Private Constructor shouild not happen
-        catch (IllegalAccessException iae)
-        {
-            logger.log(Level.SEVERE, iae.getMessage(), iae);
-            throw new RuntimeException(iae);
-        }
         frameBody.setHeader(this);
         logger.config("Created empty frame of type" + this.identifier + "with frame body of" + bodyIdentifier);
 
@@ -424,31 +406,35 @@ public class ID3v22Frame extends AbstractID3v2Frame
     public void write(ByteArrayOutputStream tagBuffer)
     {
         logger.config("Write Frame to Buffer" + getIdentifier());
-        //This is where we will write header, move position to where we can
-        //write body
-        ByteBuffer headerBuffer = ByteBuffer.allocate(getFrameHeaderSize());
-
-        //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        //Write straight into the tag buffer if we can, otherwise into our own buffer that is then copied
+        ExposedByteArrayOutputStream frameBuffer = tagBuffer instanceof ExposedByteArrayOutputStream
+                ? (ExposedByteArrayOutputStream) tagBuffer
+                : new ExposedByteArrayOutputStream(getFrameHeaderSize() + frameBody.getSize());
 
-        //Write Frame Header
+        //Write Frame Header, size is not known until the body has been written
         //Write Frame ID must adjust can only be 3 bytes long
-        headerBuffer.put(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, getFrameIdSize());
-        encodeSize(headerBuffer, frameBody.getSize());
+        int headerOffset = frameBuffer.size();
+        frameBuffer.write(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, getFrameIdSize());
+        frameBuffer.write(new byte[getFrameSizeSize()], 0, getFrameSizeSize());
 
-        //Add header to the Byte Array Output Stream
-        try
-        {
-            tagBuffer.write(headerBuffer.array());
+        //Write Frame Body Data
+        ((AbstractID3v2FrameBody) frameBody).write(frameBuffer);
 
-            //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
-        }
-        catch (IOException ioe)
+        ByteBuffer sizeBuffer = ByteBuffer.allocate(getFrameSizeSize());
+        encodeSize(sizeBuffer, frameBody.getSize());
+        frameBuffer.set(headerOffset + getFrameIdSize(), sizeBuffer.array());
+
+        if (frameBuffer != tagBuffer)
         {
-            //This could never happen coz not writing to file, so convert to RuntimeException
-            throw new RuntimeException(ioe);
+            try
+            {
+                frameBuffer.writeTo(tagBuffer);
+            }
+            catch (IOException ioe)
+            {
+                //This could never happen coz not writing to file, so convert to RuntimeException
+                throw new RuntimeException(ioe);
+            }
         }
     }
 
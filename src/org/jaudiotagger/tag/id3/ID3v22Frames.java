@@ -16,6 +16,7 @@
 package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -109,7 +110,7 @@ public class ID3v22Frames extends ID3Frames
     public static final String FRAME_ID_V2_ALBUM_ARTIST_SORT_ORDER_ITUNES = "TS2";
     public static final String FRAME_ID_V2_COMPOSER_SORT_ORDER_ITUNES = "TSC";
 
-    private static ID3v22Frames id3v22Frames;
+    private static final ID3v22Frames id3v22Frames = new ID3v22Frames();
 
     /**
      * Maps from Generic key to ID3 key
@@ -121,13 +122,19 @@ public class ID3v22Frames extends ID3Frames
      */
     protected EnumMap<ID3v22FieldKey, FieldKey> id3ToTagField = new EnumMap<ID3v22FieldKey,FieldKey>(ID3v22FieldKey.class);
 
+    /**
+     * Mapping from generic key to id3 key used in iTunes 12.6 work/grouping mode
+     */
+    private EnumMap<FieldKey, ID3v22FieldKey> iTunes12_6TagFieldToId3;
+
+    /**
+     * Mapping from id3 key to generic key used in iTunes 12.6 work/grouping mode
+     */
+    private EnumMap<ID3v22FieldKey, FieldKey> iTunes12_6Id3ToTagField;
+
 
     public static ID3v22Frames getInstanceOf()
     {
-        if (id3v22Frames == null)
-        {
-            id3v22Frames = new ID3v22Frames();
-        }
         return id3v22Frames;
     }
 
@@ -483,6 +490,7 @@ public class ID3v22Frames extends ID3Frames
         tagFieldToId3.put(FieldKey.YEAR, ID3v22FieldKey.YEAR);
 
         populateId3ToTagField();
+        populateITunes12_6Mapping();
     }
 
     private void populateId3ToTagField()
@@ -493,17 +501,20 @@ public class ID3v22Frames extends ID3Frames
         }
     }
 
-    @Override
-    public void setITunes12_6WorkGroupingMode(final boolean on)
+    /**
+     * Create the alternative mappings used when {@link TagOptionSingleton#isId3v2ITunes12_6WorkGroupingMode()},
+     * so the mode can be chosen on each lookup rather than by changing these shared mappings
+     */
+    private void populateITunes12_6Mapping()
     {
-        if (on) {
-            tagFieldToId3.put(FieldKey.WORK, ID3v22FieldKey.GROUPING);
-            tagFieldToId3.put(FieldKey.GROUPING, ID3v22FieldKey.ITUNES_GROUPING);
-        } else {
-            tagFieldToId3.put(FieldKey.WORK, ID3v22FieldKey.WORK);
-            tagFieldToId3.put(FieldKey.GROUPING, ID3v22FieldKey.GROUPING);
+        iTunes12_6TagFieldToId3 = new EnumMap<FieldKey, ID3v22FieldKey>(tagFieldToId3);
+        iTunes12_6TagFieldToId3.put(FieldKey.WORK, ID3v22FieldKey.GROUPING);
+        iTunes12_6TagFieldToId3.put(FieldKey.GROUPING, ID3v22FieldKey.ITUNES_GROUPING);
+        iTunes12_6Id3ToTagField = new EnumMap<ID3v22FieldKey, FieldKey>(id3ToTagField);
+        for(Map.Entry<FieldKey,ID3v22FieldKey> next:iTunes12_6TagFieldToId3.entrySet())
+        {
+            iTunes12_6Id3ToTagField.put(next.getValue(), next.getKey());
         }
-        populateId3ToTagField();
     }
 
     /**
@@ -512,6 +523,10 @@ public class ID3v22Frames extends ID3Frames
      */
     public ID3v22FieldKey getId3KeyFromGenericKey(FieldKey genericKey)
     {
+        if (TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode())
+        {
+            return iTunes12_6TagFieldToId3.get(genericKey);
+        }
         return tagFieldToId3.get(genericKey);
     }
 
@@ -522,6 +537,10 @@ public class ID3v22Frames extends ID3Frames
      */
     public FieldKey getGenericKeyFromId3(ID3v22FieldKey fieldKey)
     {
+        if (TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode())
+        {
+            return iTunes12_6Id3ToTagField.get(fieldKey);
+        }
         return id3ToTagField.get(fieldKey);
     }
 }
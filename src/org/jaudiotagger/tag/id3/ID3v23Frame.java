@@ -28,6 +28,7 @@ import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
 import org.jaudiotagger.tag.id3.framebody.ID3v23FrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
+import org.jaudiotagger.utils.ExposedByteArrayOutputStream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -517,23 +518,21 @@ public class ID3v23Frame extends AbstractID3v2Frame
     public void write(ByteArrayOutputStream tagBuffer)
     {
         logger.config("Writing frame to buffer:" + getIdentifier());
-        //This is where we will write header, move position to where we can
-        //write body
+        //Write straight into the tag buffer if we can, otherwise into our own buffer that is then copied
+        ExposedByteArrayOutputStream frameBuffer = tagBuffer instanceof ExposedByteArrayOutputStream
+                ? (ExposedByteArrayOutputStream) tagBuffer
+                : new ExposedByteArrayOutputStream(FRAME_HEADER_SIZE + frameBody.getSize());
+
+        //Write Frame Header, size is not known until the body has been written
         ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
-        //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
-        //Write Frame Header write Frame ID
+        //Write Frame ID
         if (getIdentifier().length() == 3)
         {
             identifier = identifier + ' ';
         }
         headerBuffer.put(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, FRAME_ID_SIZE);
-        //Write Frame Size
-        int size = frameBody.getSize();
-        logger.fine("Frame Size Is:" + size);
-        headerBuffer.putInt(frameBody.getSize());
+        headerBuffer.putInt(0);
 
         //Write the Flags
         //Status Flags:leave as they were when we read
@@ -549,28 +548,38 @@ public class ID3v23Frame extends AbstractID3v2Frame
         try
         {
             //Add header to the Byte Array Output Stream
-            tagBuffer.write(headerBuffer.array());
+            int headerOffset = frameBuffer.size();
+            frameBuffer.write(headerBuffer.array());
 
             if (((EncodingFlags) encodingFlags).isEncryption())
             {
-               tagBuffer.write(encryptionMethod);
+               frameBuffer.write(encryptionMethod);
             }
 
             if (((EncodingFlags) encodingFlags).isGrouping())
             {
-                tagBuffer.write(groupIdentifier);
+                frameBuffer.write(groupIdentifier);
             }
 
-            //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
+            //Write Frame Body Data
+            ((AbstractID3v2FrameBody) frameBody).write(frameBuffer);
+
+            //Write Frame Size
+            int size = frameBody.getSize();
+            logger.fine("Frame Size Is:" + size);
+            headerBuffer.putInt(FRAME_ID_SIZE, size);
+            frameBuffer.set(headerOffset, headerBuffer.array());
+
+            if (frameBuffer != tagBuffer)
+            {
+                frameBuffer.writeTo(tagBuffer);
+            }
         }
         catch (IOException ioe)
         {
             //This could never happen coz not writing to file, so convert to RuntimeException
             throw new RuntimeException(ioe);
         }
-
-
     }
 
     public AbstractID3v2Frame.StatusFlags getStatusFlags()
@@ -16,6 +16,7 @@
 package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -124,7 +125,7 @@ public class ID3v23Frames extends ID3Frames
     public static final String FRAME_ID_V3_COMPOSER_SORT_ORDER_ITUNES = "TSOC";
     public static final String FRAME_ID_V3_SET_SUBTITLE = "TSST";
 
-    private static ID3v23Frames id3v23Frames;
+    private static final ID3v23Frames id3v23Frames = new ID3v23Frames();
 
     /**
      * Maps from Generic key to ID3 key
@@ -136,13 +137,19 @@ public class ID3v23Frames extends ID3Frames
      * Maps from ID3 key to Generic key
      */
     protected EnumMap<ID3v23FieldKey, FieldKey> id3ToTagField = new EnumMap<ID3v23FieldKey,FieldKey>(ID3v23FieldKey.class);
+
+    /**
+     * Mapping from generic key to id3 key used in iTunes 12.6 work/grouping mode
+     */
+    private EnumMap<FieldKey, ID3v23FieldKey> iTunes12_6TagFieldToId3;
+
+    /**
+     * Mapping from id3 key to generic key used in iTunes 12.6 work/grouping mode
+     */
+    private EnumMap<ID3v23FieldKey, FieldKey> iTunes12_6Id3ToTagField;
     
     public static ID3v23Frames getInstanceOf()
     {
-        if (id3v23Frames == null)
-        {
-            id3v23Frames = new ID3v23Frames();
-        }
         return id3v23Frames;
     }
 
@@ -533,6 +540,7 @@ public class ID3v23Frames extends ID3Frames
         tagFieldToId3.put(FieldKey.YEAR, ID3v23FieldKey.YEAR);
 
         populateId3ToTagField();
+        populateITunes12_6Mapping();
     }
 
     private void populateId3ToTagField()
@@ -543,17 +551,20 @@ public class ID3v23Frames extends ID3Frames
         }
     }
 
-    @Override
-    public void setITunes12_6WorkGroupingMode(final boolean id3v2ITunes12_6Mode)
+    /**
+     * Create the alternative mappings used when {@link TagOptionSingleton#isId3v2ITunes12_6WorkGroupingMode()},
+     * so the mode can be chosen on each lookup rather than by changing these shared mappings
+     */
+    private void populateITunes12_6Mapping()
     {
-        if (id3v2ITunes12_6Mode) {
-            tagFieldToId3.put(FieldKey.WORK, ID3v23FieldKey.GROUPING);
-            tagFieldToId3.put(FieldKey.GROUPING, ID3v23FieldKey.ITUNES_GROUPING);
-        } else {
-            tagFieldToId3.put(FieldKey.WORK, ID3v23FieldKey.WORK);
-            tagFieldToId3.put(FieldKey.GROUPING, ID3v23FieldKey.GROUPING);
+        iTunes12_6TagFieldToId3 = new EnumMap<FieldKey, ID3v23FieldKey>(tagFieldToId3);
+        iTunes12_6TagFieldToId3.put(FieldKey.WORK, ID3v23FieldKey.GROUPING);
+        iTunes12_6TagFieldToId3.put(FieldKey.GROUPING, ID3v23FieldKey.ITUNES_GROUPING);
+        iTunes12_6Id3ToTagField = new EnumMap<ID3v23FieldKey, FieldKey>(id3ToTagField);
+        for(Map.Entry<FieldKey,ID3v23FieldKey> next:iTunes12_6TagFieldToId3.entrySet())
+        {
+            iTunes12_6Id3ToTagField.put(next.getValue(), next.getKey());
         }
-        populateId3ToTagField();
     }
 
     /**
@@ -562,6 +573,10 @@ public class ID3v23Frames extends ID3Frames
      */
     public ID3v23FieldKey getId3KeyFromGenericKey(FieldKey genericKey)
     {
+        if (TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode())
+        {
+            return iTunes12_6TagFieldToId3.get(genericKey);
+        }
         return tagFieldToId3.get(genericKey);
     }
 
@@ -572,6 +587,10 @@ public class ID3v23Frames extends ID3Frames
      */
     public FieldKey getGenericKeyFromId3(ID3v23FieldKey fieldKey)
     {
+        if (TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode())
+        {
+            return iTunes12_6Id3ToTagField.get(fieldKey);
+        }
         return id3ToTagField.get(fieldKey);
     }
 }
@@ -27,6 +27,7 @@ import org.jaudiotagger.tag.id3.valuepair.ID3NumberTotalFields;
 import org.jaudiotagger.tag.images.Artwork;
 import org.jaudiotagger.tag.images.ArtworkFactory;
 import org.jaudiotagger.tag.reference.PictureTypes;
+import org.jaudiotagger.utils.ExposedByteArrayOutputStream;
 
 import java.io.File;
 import java.io.IOException;
@@ -615,6 +616,8 @@ public class ID3v23Tag extends AbstractID3v2Tag
 
         // Read the frames until got to up to the size as specified in header or until
         // we hit an invalid frame identifier or padding
+        int fieldLimit = TagOptionSingleton.getInstance().getReadFieldLimit();
+        int fieldCount = 0;
         while (byteBuffer.position() < size)
         {
             String id;
@@ -626,7 +629,16 @@ public class ID3v23Tag extends AbstractID3v2Tag
                 next = new ID3v23Frame(byteBuffer, getLoggingFilename());
                 id = next.getIdentifier();
                 logger.config(getLoggingFilename() + ":Found "+ id+ " at frame at:" + posBeforeRead);
+                if (!isFrameToBeLoaded(id))
+                {
+                    continue;
+                }
                 loadFrameIntoMap(id, next);
+                if (++fieldCount >= fieldLimit)
+                {
+                    logger.config(getLoggingFilename() + ":Read field limit reached at:" + byteBuffer.position());
+                    break;
+                }
             }
             //Found Padding, no more frames
             catch (PaddingException ex)
@@ -762,6 +774,44 @@ public class ID3v23Tag extends AbstractID3v2Tag
     }
 
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected ByteBuffer writeBodyToBuffer() throws IOException
+    {
+        ExposedByteArrayOutputStream bodyBuffer = writeFramesToBuffer();
+        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyBuffer.size());
+
+        //Unsynchronize if option enabled and unsync required
+        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyBuffer.getBuffer(), 0, bodyBuffer.size());
+        if (isUnsynchronization())
+        {
+            byte[] bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyBuffer.toByteArray());
+            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
+            return ByteBuffer.wrap(bodyByteBuffer);
+        }
+        return bodyBuffer.toByteBuffer();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int calculateTagSizeIncPadding(long audioStartLocation) throws IOException
+    {
+        //Writing the body sets unsynchronization, so put it back afterwards to leave the tag unchanged
+        boolean unsynchronization = this.unsynchronization;
+        try
+        {
+            return super.calculateTagSizeIncPadding(audioStartLocation);
+        }
+        finally
+        {
+            this.unsynchronization = unsynchronization;
+        }
+    }
+
     /**
      * Write tag to file
      *
@@ -777,24 +827,15 @@ public class ID3v23Tag extends AbstractID3v2Tag
         logger.config("Writing tag to file:"+getLoggingFilename());
 
         //Write Body Buffer
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
-        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.length);
+        ByteBuffer bodyByteBuffer = writeBodyToBuffer();
 
-        // Unsynchronize if option enabled and unsync required
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyByteBuffer);
-        if (isUnsynchronization())
-        {
-            bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyByteBuffer);
-            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
-        }
-
-        int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) audioStartLocation);
-        int padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+        int sizeIncPadding = calculateTagSize(bodyByteBuffer.remaining() + TAG_HEADER_LENGTH, (int) audioStartLocation);
+        int padding = sizeIncPadding - (bodyByteBuffer.remaining() + TAG_HEADER_LENGTH);
         logger.config(getLoggingFilename() + ":Current audiostart:" + audioStartLocation);
         logger.config(getLoggingFilename() + ":Size including padding:" + sizeIncPadding);
         logger.config(getLoggingFilename() + ":Padding:" + padding);
 
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.remaining());
         writeBufferToFile(file, headerBuffer, bodyByteBuffer, padding, sizeIncPadding, audioStartLocation);
         return sizeIncPadding;
     }
@@ -807,28 +848,19 @@ public class ID3v23Tag extends AbstractID3v2Tag
     {
         logger.config(getLoggingFilename() + ":Writing tag to channel");
 
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
-        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.length);
-
-        // Unsynchronize if option enabled and unsync required
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyByteBuffer);
-        if (isUnsynchronization())
-        {
-            bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyByteBuffer);
-            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
-        }
+        ByteBuffer bodyByteBuffer = writeBodyToBuffer();
 
         int padding = 0;
         if(currentTagSize > 0)
         {
-            int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) currentTagSize);
-            padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+            int sizeIncPadding = calculateTagSize(bodyByteBuffer.remaining() + TAG_HEADER_LENGTH, (int) currentTagSize);
+            padding = sizeIncPadding - (bodyByteBuffer.remaining() + TAG_HEADER_LENGTH);
             logger.config(getLoggingFilename() + ":Padding:"+padding);
         }
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.remaining());
 
         channel.write(headerBuffer);
-        channel.write(ByteBuffer.wrap(bodyByteBuffer));
+        channel.write(bodyByteBuffer);
         writePadding(channel, padding);
     }
 
@@ -28,6 +28,7 @@ import org.jaudiotagger.tag.id3.valuepair.StandardIPLSKey;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.tag.lyrics3.*;
 import org.jaudiotagger.utils.EqualsUtil;
+import org.jaudiotagger.utils.ExposedByteArrayOutputStream;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -35,6 +36,7 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -702,24 +704,14 @@ public class ID3v24Frame extends AbstractID3v2Frame
 
         logger.config("Writing frame to file:" + getIdentifier());
 
-        //This is where we will write header, move position to where we can
-        //write bodybuffer
-        ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
-
-        //Write Frame Body Data to a new stream
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        //Write straight into the tag buffer if we can, otherwise into our own buffer that is then copied
+        ExposedByteArrayOutputStream frameBuffer = tagBuffer instanceof ExposedByteArrayOutputStream
+                ? (ExposedByteArrayOutputStream) tagBuffer
+                : new ExposedByteArrayOutputStream(FRAME_HEADER_SIZE + frameBody.getSize());
 
-        //Does it need unsynchronizing, and are we allowing unsychronizing
-        byte[] bodyBuffer = bodyOutputStream.toByteArray();
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyBuffer);
-        if (unsynchronization)
-        {
-            bodyBuffer = ID3Unsynchronization.unsynchronize(bodyBuffer);
-            logger.config("bodybytebuffer:sizeafterunsynchronisation:" + bodyBuffer.length);
-        }
+        //Write Frame Header, size and unsynchronization flag are not known until the body has been written
+        ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
-        //Write Frame Header
         //Write Frame ID, the identifier must be 4 bytes bytes long it may not be
         //because converted an unknown v2.2 id (only 3 bytes long)
         if (getIdentifier().length() == 3)
@@ -727,12 +719,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
             identifier = identifier + ' ';
         }
         headerBuffer.put(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, FRAME_ID_SIZE);
-
-        //Write Frame Size based on size of body buffer (if it has been unsynced then it size
-        //will have increased accordingly
-        int size = bodyBuffer.length;
-        logger.fine("Frame Size Is:" + size);
-        headerBuffer.put(ID3SyncSafeInteger.valueToBuffer(size));
+        headerBuffer.putInt(0);
 
         //Write the Flags
         //Status Flags:leave as they were when we read
@@ -741,37 +728,64 @@ public class ID3v24Frame extends AbstractID3v2Frame
         //Remove any non standard flags
         ((ID3v24Frame.EncodingFlags) encodingFlags).unsetNonStandardFlags();
 
-        //Encoding we only support unsynchronization
-        if (unsynchronization)
-        {
-            ((ID3v24Frame.EncodingFlags) encodingFlags).setUnsynchronised();
-        }
-        else
-        {
-            ((ID3v24Frame.EncodingFlags) encodingFlags).unsetUnsynchronised();
-        }
         //These are not currently supported on write
         ((ID3v24Frame.EncodingFlags) encodingFlags).unsetCompression();
         ((ID3v24Frame.EncodingFlags) encodingFlags).unsetDataLengthIndicator();
-        headerBuffer.put(encodingFlags.getFlags());
 
         try
         {
             //Add header to the Byte Array Output Stream
-            tagBuffer.write(headerBuffer.array());
+            int headerOffset = frameBuffer.size();
+            frameBuffer.write(headerBuffer.array());
 
             if (((EncodingFlags) encodingFlags).isEncryption())
             {
-                tagBuffer.write(encryptionMethod);
+                frameBuffer.write(encryptionMethod);
             }
 
             if (((EncodingFlags) encodingFlags).isGrouping())
             {
-                tagBuffer.write(groupIdentifier);
+                frameBuffer.write(groupIdentifier);
+            }
+
+            //Write Frame Body Data
+            int bodyOffset = frameBuffer.size();
+            ((AbstractID3v2FrameBody) frameBody).write(frameBuffer);
+            int size = frameBuffer.size() - bodyOffset;
+
+            //Does it need unsynchronizing, and are we allowing unsychronizing
+            unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(frameBuffer.getBuffer(), bodyOffset, size);
+            if (unsynchronization)
+            {
+                byte[] bodyBuffer = ID3Unsynchronization.unsynchronize(Arrays.copyOfRange(frameBuffer.getBuffer(), bodyOffset, bodyOffset + size));
+                logger.config("bodybytebuffer:sizeafterunsynchronisation:" + bodyBuffer.length);
+                frameBuffer.truncate(bodyOffset);
+                frameBuffer.write(bodyBuffer);
+                size = bodyBuffer.length;
+            }
+
+            //Write Frame Size based on size of body buffer (if it has been unsynced then it size
+            //will have increased accordingly
+            logger.fine("Frame Size Is:" + size);
+            headerBuffer.position(FRAME_ID_SIZE);
+            headerBuffer.put(ID3SyncSafeInteger.valueToBuffer(size));
+
+            //Encoding we only support unsynchronization
+            if (unsynchronization)
+            {
+                ((ID3v24Frame.EncodingFlags) encodingFlags).setUnsynchronised();
+            }
+            else
+            {
+                ((ID3v24Frame.EncodingFlags) encodingFlags).unsetUnsynchronised();
             }
+            headerBuffer.put(FRAME_HEADER_SIZE - 1, encodingFlags.getFlags());
+            frameBuffer.set(headerOffset, headerBuffer.array());
 
-            //Add bodybuffer to the Byte Array Output Stream
-            tagBuffer.write(bodyBuffer);
+            if (frameBuffer != tagBuffer)
+            {
+                frameBuffer.writeTo(tagBuffer);
+            }
         }
         catch (IOException ioe)
         {
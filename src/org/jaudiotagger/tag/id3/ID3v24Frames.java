@@ -16,6 +16,7 @@
 package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.util.EnumMap;
 import java.util.Map;
@@ -136,15 +137,21 @@ public class ID3v24Frames extends ID3Frames
      */
     protected EnumMap<ID3v24FieldKey, FieldKey> id3ToTagField = new EnumMap<ID3v24FieldKey,FieldKey>(ID3v24FieldKey.class);
 
+    /**
+     * Mapping from generic key to id3 key used in iTunes 12.6 work/grouping mode
+     */
+    private EnumMap<FieldKey, ID3v24FieldKey> iTunes12_6TagFieldToId3;
+
+    /**
+     * Mapping from id3 key to generic key used in iTunes 12.6 work/grouping mode
+     */
+    private EnumMap<ID3v24FieldKey, FieldKey> iTunes12_6Id3ToTagField;
+
 
-    private static ID3v24Frames id3v24Frames;
+    private static final ID3v24Frames id3v24Frames = new ID3v24Frames();
 
     public static ID3v24Frames getInstanceOf()
     {
-        if (id3v24Frames == null)
-        {
-            id3v24Frames = new ID3v24Frames();
-        }
         return id3v24Frames;
     }
 
@@ -532,6 +539,7 @@ public class ID3v24Frames extends ID3Frames
         tagFieldToId3.put(FieldKey.WORK_TYPE, ID3v24FieldKey.WORK_TYPE);
         tagFieldToId3.put(FieldKey.YEAR, ID3v24FieldKey.YEAR);
         populateId3ToTagField();
+        populateITunes12_6Mapping();
     }
 
     private void populateId3ToTagField()
@@ -542,17 +550,20 @@ public class ID3v24Frames extends ID3Frames
         }
     }
 
-    @Override
-    public void setITunes12_6WorkGroupingMode(final boolean id3v2ITunes12_6Mode)
+    /**
+     * Create the alternative mappings used when {@link TagOptionSingleton#isId3v2ITunes12_6WorkGroupingMode()},
+     * so the mode can be chosen on each lookup rather than by changing these shared mappings
+     */
+    private void populateITunes12_6Mapping()
     {
-        if (id3v2ITunes12_6Mode) {
-            tagFieldToId3.put(FieldKey.WORK, ID3v24FieldKey.GROUPING);
-            tagFieldToId3.put(FieldKey.GROUPING, ID3v24FieldKey.ITUNES_GROUPING);
-        } else {
-            tagFieldToId3.put(FieldKey.WORK, ID3v24FieldKey.WORK);
-            tagFieldToId3.put(FieldKey.GROUPING, ID3v24FieldKey.GROUPING);
+        iTunes12_6TagFieldToId3 = new EnumMap<FieldKey, ID3v24FieldKey>(tagFieldToId3);
+        iTunes12_6TagFieldToId3.put(FieldKey.WORK, ID3v24FieldKey.GROUPING);
+        iTunes12_6TagFieldToId3.put(FieldKey.GROUPING, ID3v24FieldKey.ITUNES_GROUPING);
+        iTunes12_6Id3ToTagField = new EnumMap<ID3v24FieldKey, FieldKey>(id3ToTagField);
+        for(Map.Entry<FieldKey,ID3v24FieldKey> next:iTunes12_6TagFieldToId3.entrySet())
+        {
+            iTunes12_6Id3ToTagField.put(next.getValue(), next.getKey());
         }
-        populateId3ToTagField();
     }
 
     /**
@@ -561,6 +572,10 @@ public class ID3v24Frames extends ID3Frames
      */
     public ID3v24FieldKey getId3KeyFromGenericKey(FieldKey genericKey)
     {
+        if (TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode())
+        {
+            return iTunes12_6TagFieldToId3.get(genericKey);
+        }
         return tagFieldToId3.get(genericKey);
     }
 
@@ -571,6 +586,10 @@ public class ID3v24Frames extends ID3Frames
      */
     public FieldKey getGenericKeyFromId3(ID3v24FieldKey fieldKey)
     {
+        if (TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode())
+        {
+            return iTunes12_6Id3ToTagField.get(fieldKey);
+        }
         return id3ToTagField.get(fieldKey);
     }
 }
\ No newline at end of file
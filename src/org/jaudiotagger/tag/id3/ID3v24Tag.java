@@ -907,6 +907,8 @@ public class ID3v24Tag extends AbstractID3v2Tag
         this.fileReadSize = size;
         // Read the frames until got to upto the size as specified in header
         logger.finest(getLoggingFilename() + ":" + "Start of frame body at:" + byteBuffer.position() + ",frames data size is:" + size);
+        int fieldLimit = TagOptionSingleton.getInstance().getReadFieldLimit();
+        int fieldCount = 0;
         while (byteBuffer.position() <= size)
         {
             String id;
@@ -916,7 +918,16 @@ public class ID3v24Tag extends AbstractID3v2Tag
                 logger.config(getLoggingFilename() + ":" + "looking for next frame at:" + byteBuffer.position());
                 next = new ID3v24Frame(byteBuffer, getLoggingFilename());
                 id = next.getIdentifier();
+                if (!isFrameToBeLoaded(id))
+                {
+                    continue;
+                }
                 loadFrameIntoMap(id, next);
+                if (++fieldCount >= fieldLimit)
+                {
+                    logger.config(getLoggingFilename() + ":Read field limit reached at:" + byteBuffer.position());
+                    break;
+                }
             }
             //Found Padding, no more frames
             catch (PaddingException ex)
@@ -1112,15 +1123,15 @@ public class ID3v24Tag extends AbstractID3v2Tag
         logger.config(getLoggingFilename()+":Writing tag to file:");
 
         //Write Body Buffer
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
+        ByteBuffer bodyByteBuffer = writeBodyToBuffer();
 
         //Calculate Tag Size including Padding
-        int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) audioStartLocation);
+        int sizeIncPadding = calculateTagSize(bodyByteBuffer.remaining() + TAG_HEADER_LENGTH, (int) audioStartLocation);
 
         //Calculate padding bytes required
-        int padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+        int padding = sizeIncPadding - (bodyByteBuffer.remaining() + TAG_HEADER_LENGTH);
 
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.remaining());
         writeBufferToFile(file, headerBuffer, bodyByteBuffer, padding, sizeIncPadding, audioStartLocation);
         return sizeIncPadding;
     }
@@ -1133,19 +1144,19 @@ public class ID3v24Tag extends AbstractID3v2Tag
     {
         logger.config(getLoggingFilename() +":Writing tag to channel");
 
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
+        ByteBuffer bodyByteBuffer = writeBodyToBuffer();
 
 
         int padding = 0;
         if(currentTagSize > 0)
         {
-            int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) currentTagSize);
-            padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+            int sizeIncPadding = calculateTagSize(bodyByteBuffer.remaining() + TAG_HEADER_LENGTH, (int) currentTagSize);
+            padding = sizeIncPadding - (bodyByteBuffer.remaining() + TAG_HEADER_LENGTH);
         }
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.remaining());
 
         channel.write(headerBuffer);
-        channel.write(ByteBuffer.wrap(bodyByteBuffer));
+        channel.write(bodyByteBuffer);
         writePadding(channel, padding);
     }
 
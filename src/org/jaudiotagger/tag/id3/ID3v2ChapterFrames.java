@@ -33,14 +33,10 @@ public class ID3v2ChapterFrames extends ID3Frames
     public static final String FRAME_ID_CHAPTER = "CHAP";
     public static final String FRAME_ID_TABLE_OF_CONTENT = "CTOC";
 
-    private static ID3v2ChapterFrames id3v2ChapterFrames;
+    private static final ID3v2ChapterFrames id3v2ChapterFrames = new ID3v2ChapterFrames();
 
     public static ID3v2ChapterFrames getInstanceOf()
     {
-        if (id3v2ChapterFrames == null)
-        {
-            id3v2ChapterFrames = new ID3v2ChapterFrames();
-        }
         return id3v2ChapterFrames;
     }
 
@@ -52,9 +48,4 @@ public class ID3v2ChapterFrames extends ID3Frames
         multipleFrames = new TreeSet<String>();
         discardIfFileAlteredFrames = new TreeSet<String>();
     }
-
-    @Override
-    public void setITunes12_6WorkGroupingMode(final boolean id3v2ITunes12_6Mode) {
-        throw new UnsupportedOperationException();
-    }
 }
@@ -0,0 +1,145 @@
+package org.jaudiotagger.tag.id3;
+
+import java.util.Arrays;
+
+/**
+ * Decides how much padding to leave after an ID3v2 tag when the tag no longer fits in the space before the audio, so
+ * the audio has to be moved. More padding means later edits are more likely to fit in place without moving the audio
+ * again, at the cost of a larger file.
+ *
+ * The policy is not used if the tag fits in the existing space, then the existing space is always reused.
+ *
+ * This option should be set using TagOptionSingleton.setId3v2PaddingPolicy()
+ */
+public abstract class ID3v2PaddingPolicy
+{
+    /**
+     * Add a fixed {@value AbstractID3v2Tag#TAG_SIZE_INCREMENT} bytes of padding, the default
+     */
+    public static final ID3v2PaddingPolicy FIXED = new ID3v2PaddingPolicy()
+    {
+        public int calculateTagSize(int requiredSize, int availableSize)
+        {
+            return requiredSize + AbstractID3v2Tag.TAG_SIZE_INCREMENT;
+        }
+
+        public String toString()
+        {
+            return "fixed:" + AbstractID3v2Tag.TAG_SIZE_INCREMENT;
+        }
+    };
+
+    /**
+     * @param requiredSize  size needed for the tag including its header but without padding
+     * @param availableSize size of the space before the audio, less than requiredSize
+     * @return total size the tag should be written with including padding, at least requiredSize
+     */
+    public abstract int calculateTagSize(int requiredSize, int availableSize);
+
+    /**
+     * Padding proportional to the size of the tag, and when replacing an existing tag at least as large as the amount
+     * the tag has just grown by. So a tag that has outgrown its space because of a large edit, such as adding artwork,
+     * has room for another edit of the same size.
+     *
+     * @param percent padding as a percentage of the size of the tag
+     * @return the policy
+     */
+    public static ID3v2PaddingPolicy proportional(final int percent)
+    {
+        if (percent < 0)
+        {
+            throw new IllegalArgumentException("Percentage must not be negative:" + percent);
+        }
+        return new ID3v2PaddingPolicy()
+        {
+            public int calculateTagSize(int requiredSize, int availableSize)
+            {
+                long padding = Math.max((long) requiredSize * percent / 100, AbstractID3v2Tag.TAG_SIZE_INCREMENT);
+                //No existing tag means nothing to learn from
+                if (availableSize > 0)
+                {
+                    padding = Math.max(padding, requiredSize - availableSize);
+                }
+                return (int) Math.min(requiredSize + padding, Integer.MAX_VALUE);
+            }
+
+            public String toString()
+            {
+                return "proportional:" + percent + "%";
+            }
+        };
+    }
+
+    /**
+     * Round the tag up to a multiple of the block size, so the audio starts on a block boundary of the file system
+     *
+     * @param blockSize typically the block size of the file system such as 4096
+     * @return the policy
+     */
+    public static ID3v2PaddingPolicy blockAligned(final int blockSize)
+    {
+        if (blockSize <= 0)
+        {
+            throw new IllegalArgumentException("Block size must be positive:" + blockSize);
+        }
+        return new ID3v2PaddingPolicy()
+        {
+            public int calculateTagSize(int requiredSize, int availableSize)
+            {
+                return roundUp(requiredSize + AbstractID3v2Tag.TAG_SIZE_INCREMENT, blockSize);
+            }
+
+            public String toString()
+            {
+                return "blockAligned:" + blockSize;
+            }
+        };
+    }
+
+    /**
+     * Use the smallest of the sizes that the tag fits in, tags larger than the largest size are rounded up to a
+     * multiple of the largest size. Tags of a similar size are written with the same size, so a file can be edited
+     * many times without moving the audio as long as the tag stays within its size class.
+     *
+     * @param sizes total tag sizes including padding
+     * @return the policy
+     */
+    public static ID3v2PaddingPolicy sizeClasses(int... sizes)
+    {
+        if (sizes.length == 0)
+        {
+            throw new IllegalArgumentException("At least one size is required");
+        }
+        final int[] sortedSizes = sizes.clone();
+        Arrays.sort(sortedSizes);
+        if (sortedSizes[0] <= 0)
+        {
+            throw new IllegalArgumentException("Sizes must be positive:" + sortedSizes[0]);
+        }
+        return new ID3v2PaddingPolicy()
+        {
+            public int calculateTagSize(int requiredSize, int availableSize)
+            {
+                for (int size : sortedSizes)
+                {
+                    if (size >= requiredSize)
+                    {
+                        return size;
+                    }
+                }
+                return roundUp(requiredSize, sortedSizes[sortedSizes.length - 1]);
+            }
+
+            public String toString()
+            {
+                return "sizeClasses:" + Arrays.toString(sortedSizes);
+            }
+        };
+    }
+
+    private static int roundUp(int size, int multiple)
+    {
+        long rounded = ((size + (long) multiple - 1) / multiple) * multiple;
+        return (int) Math.min(rounded, Integer.MAX_VALUE);
+    }
+}
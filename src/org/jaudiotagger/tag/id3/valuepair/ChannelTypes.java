@@ -26,14 +26,10 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class ChannelTypes extends AbstractIntStringValuePair
 {
-    private static ChannelTypes channelTypes;
+    private static final ChannelTypes channelTypes = new ChannelTypes();
 
     public static ChannelTypes getInstanceOf()
     {
-        if (channelTypes == null)
-        {
-            channelTypes = new ChannelTypes();
-        }
         return channelTypes;
     }
 
@@ -26,14 +26,10 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 public class EventTimingTimestampTypes extends AbstractIntStringValuePair
 {
 
-    private static EventTimingTimestampTypes eventTimingTimestampTypes;
+    private static final EventTimingTimestampTypes eventTimingTimestampTypes = new EventTimingTimestampTypes();
 
     public static EventTimingTimestampTypes getInstanceOf()
     {
-        if (eventTimingTimestampTypes == null)
-        {
-            eventTimingTimestampTypes = new EventTimingTimestampTypes();
-        }
         return eventTimingTimestampTypes;
     }
 
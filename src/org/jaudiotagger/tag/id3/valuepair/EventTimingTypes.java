@@ -25,14 +25,10 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class EventTimingTypes extends AbstractIntStringValuePair
 {
-    private static EventTimingTypes eventTimingTypes;
+    private static final EventTimingTypes eventTimingTypes = new EventTimingTypes();
 
     public static EventTimingTypes getInstanceOf()
     {
-        if (eventTimingTypes == null)
-        {
-            eventTimingTypes = new EventTimingTypes();
-        }
         return eventTimingTypes;
     }
 
@@ -25,14 +25,10 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class InterpolationTypes extends AbstractIntStringValuePair
 {
-    private static InterpolationTypes interpolationTypes;
+    private static final InterpolationTypes interpolationTypes = new InterpolationTypes();
 
     public static InterpolationTypes getInstanceOf()
     {
-        if (interpolationTypes == null)
-        {
-            interpolationTypes = new InterpolationTypes();
-        }
         return interpolationTypes;
     }
 
@@ -33,14 +33,10 @@ public class ReceivedAsTypes extends AbstractIntStringValuePair
     //The number of bytes used to hold the text encoding field size
     public static final int RECEIVED_AS_FIELD_SIZE = 1;
 
-    private static ReceivedAsTypes receivedAsTypes;
+    private static final ReceivedAsTypes receivedAsTypes = new ReceivedAsTypes();
 
     public static ReceivedAsTypes getInstanceOf()
     {
-        if (receivedAsTypes == null)
-        {
-            receivedAsTypes = new ReceivedAsTypes();
-        }
         return receivedAsTypes;
     }
 
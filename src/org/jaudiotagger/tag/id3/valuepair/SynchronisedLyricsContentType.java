@@ -7,15 +7,11 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
  */
 public class SynchronisedLyricsContentType extends AbstractIntStringValuePair
 {
-    private static SynchronisedLyricsContentType eventTimingTypes;
+    private static final SynchronisedLyricsContentType eventTimingTypes = new SynchronisedLyricsContentType();
 
     public static SynchronisedLyricsContentType getInstanceOf()
     {
-        if (SynchronisedLyricsContentType.eventTimingTypes == null)
-        {
-            SynchronisedLyricsContentType.eventTimingTypes = new SynchronisedLyricsContentType();
-        }
-        return SynchronisedLyricsContentType.eventTimingTypes;
+        return eventTimingTypes;
     }
 
     public static final int CONTENT_KEY_FIELD_SIZE = 1;
@@ -52,7 +52,7 @@ public class TextEncoding extends AbstractIntStringValuePair
     /** The number of bytes used to hold the text encoding field size. */
     public static final int TEXT_ENCODING_FIELD_SIZE = 1;
 
-    private static TextEncoding textEncodings;
+    private static final TextEncoding textEncodings = new TextEncoding();
 
     private final Map<Integer, Charset> idToCharset = new HashMap<>();
 
@@ -61,12 +61,8 @@ public class TextEncoding extends AbstractIntStringValuePair
      *
      * @return singleton
      */
-    public static synchronized TextEncoding getInstanceOf()
+    public static TextEncoding getInstanceOf()
     {
-        if (textEncodings == null)
-        {
-            textEncodings = new TextEncoding();
-        }
         return textEncodings;
     }
 
@@ -2,6 +2,7 @@ package org.jaudiotagger.tag.id3.valuepair;
 
 import org.jaudiotagger.tag.reference.GenreTypes;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -12,7 +13,7 @@ import java.util.List;
  */
 public class V2GenreTypes
 {
-    private static V2GenreTypes v2GenresTypes;
+    private static final V2GenreTypes v2GenresTypes = new V2GenreTypes();
 
     private V2GenreTypes()
     {
@@ -21,10 +22,6 @@ public class V2GenreTypes
 
     public static V2GenreTypes getInstanceOf()
     {
-        if (v2GenresTypes == null)
-        {
-            v2GenresTypes = new V2GenreTypes();
-        }
         return v2GenresTypes;
     }
 
@@ -33,7 +30,7 @@ public class V2GenreTypes
      */
     public List<String> getAlphabeticalValueList()
     {
-        List<String> genres = GenreTypes.getInstanceOf().getAlphabeticalValueList();
+        List<String> genres = new ArrayList<String>(GenreTypes.getInstanceOf().getAlphabeticalValueList());
         genres.add(ID3V2ExtendedGenreTypes.CR.getDescription());
         genres.add(ID3V2ExtendedGenreTypes.RX.getDescription());
 
@@ -1,6 +1,7 @@
 package org.jaudiotagger.tag.images;
 
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.generic.FileRegion;
 import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.File;
@@ -47,6 +48,30 @@ public class ArtworkFactory
         }
     }
 
+    /**
+     * Create Artwork instance whose binary data is read from the file when first required
+     *
+     * @param binaryDataRegion where the binary data is held in the file
+     * @return
+     */
+    public static Artwork createArtworkFromFileRegion(FileRegion binaryDataRegion)
+    {
+        //Normal
+        if(!TagOptionSingleton.getInstance().isAndroid())
+        {
+            StandardArtwork artwork = new StandardArtwork();
+            artwork.setBinaryDataRegion(binaryDataRegion);
+            return artwork;
+        }
+        //Android
+        else
+        {
+            AndroidArtwork artwork = new AndroidArtwork();
+            artwork.setBinaryDataRegion(binaryDataRegion);
+            return artwork;
+        }
+    }
+
     /**
      * Create Artwork instance from an image file
      *
@@ -1,6 +1,7 @@
 package org.jaudiotagger.tag.images;
 
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.generic.FileRegion;
 import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
 import org.jaudiotagger.tag.reference.PictureTypes;
 
@@ -15,6 +16,7 @@ import java.io.RandomAccessFile;
 public class StandardArtwork implements Artwork
 {
     private byte[]          binaryData;
+    private FileRegion      binaryDataRegion;
     private String          mimeType="";
     private String          description="";
     private boolean         isLinked=false;
@@ -27,14 +29,45 @@ public class StandardArtwork implements Artwork
     {
 
     }
+    /**
+     * If the binary data is still held in the file it is read now
+     *
+     * @return the binary data
+     * @throws RuntimeException if the binary data has to be read but cannot be
+     */
     public byte[] getBinaryData()
     {
+        if (binaryDataRegion != null)
+        {
+            try
+            {
+                binaryData = binaryDataRegion.read();
+                binaryDataRegion = null;
+            }
+            catch (IOException ioe)
+            {
+                throw new RuntimeException(ioe.getMessage(), ioe);
+            }
+        }
         return binaryData;
     }
 
     public void setBinaryData(byte[] binaryData)
     {
         this.binaryData = binaryData;
+        this.binaryDataRegion = null;
+    }
+
+    /**
+     * Set where the binary data is held in the file rather than the data itself, it is read from the file when
+     * {@link #getBinaryData()} is first called
+     *
+     * @param binaryDataRegion
+     */
+    public void setBinaryDataRegion(FileRegion binaryDataRegion)
+    {
+        this.binaryData = null;
+        this.binaryDataRegion = binaryDataRegion;
     }
 
     public String getMimeType()
@@ -190,10 +223,14 @@ public class StandardArtwork implements Artwork
             setLinked(coverArt.isImageUrl());
             setImageUrl(coverArt.getImageUrl());
         }
-        else
+        else if (coverArt.isImageDataLoaded())
         {
             setBinaryData(coverArt.getImageData());
         }
+        else
+        {
+            setBinaryDataRegion(coverArt.getImageDataRegion());
+        }
         setWidth(coverArt.getWidth());
         setHeight(coverArt.getHeight());
     }
@@ -1,16 +1,33 @@
 package org.jaudiotagger.tag.images;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  Image Handling used when running on standard JVM
@@ -35,20 +52,63 @@ public class StandardImageHandler implements ImageHandler
 
     /**
      * Resize the image until the total size require to store the image is less than maxsize
+     *
+     * Each halving of the width roughly quarters the size of the stored image, so the number of halvings required
+     * is worked out up front and the image is decoded and resized once. If the estimate was not enough the image is
+     * halved again from the already decoded image rather than decoding the resized image.
+     *
      * @param artwork
      * @param maxSize
      * @throws IOException
      */
     public void reduceQuality(Artwork artwork, int maxSize) throws IOException
     {
-        while(artwork.getBinaryData().length > maxSize)
+        byte[] data = artwork.getBinaryData();
+        if(data.length <= maxSize)
+        {
+            return;
+        }
+
+        BufferedImage srcImage;
+        int size;
+        ImageReader reader = createReader(data);
+        if(reader!=null)
+        {
+            try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(data)))
+            {
+                reader.setInput(iis, true, true);
+                size = estimateSize(reader.getWidth(0), data.length, maxSize);
+                srcImage = readImage(reader, size);
+            }
+            finally
+            {
+                reader.dispose();
+            }
+        }
+        else
         {
-            Image srcImage = (Image)artwork.getImage();
-            int w = srcImage.getWidth(null);
-            int newSize = w /2;
-            makeSmaller(artwork,newSize);
+            srcImage = decodeImage(data);
+            size = estimateSize(srcImage.getWidth(), data.length, maxSize);
+        }
+
+        //Same writer is used for each attempt
+        ImageWriter writer = createWriter(artwork.getMimeType());
+        try
+        {
+            byte[] newData = writeImage(writer, resizeImage(srcImage, size));
+            while(newData.length > maxSize && size > 1)
+            {
+                size = size / 2;
+                newData = writeImage(writer, resizeImage(srcImage, size));
+            }
+            artwork.setBinaryData(newData);
+        }
+        finally
+        {
+            writer.dispose();
         }
     }
+
     /**
      * Resize image using Java 2D
      * @param artwork
@@ -57,8 +117,186 @@ public class StandardImageHandler implements ImageHandler
      */
     public void makeSmaller(Artwork artwork,int size) throws IOException
     {
-        Image srcImage = (Image)artwork.getImage();
+        BufferedImage srcImage = readImage(artwork.getBinaryData(), size);
+        ImageWriter writer = createWriter(artwork.getMimeType());
+        try
+        {
+            artwork.setBinaryData(writeImage(writer, resizeImage(srcImage, size)));
+        }
+        finally
+        {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Reduce the artwork of each file so that no image is larger than maxSize and save the files that are changed,
+     * the files are processed in parallel on the executor.
+     *
+     * @param files
+     * @param maxSize
+     * @param executor
+     * @return the files that could not be processed, with the reason
+     * @throws InterruptedException
+     */
+    public Map<File, Exception> reduceQuality(Collection<File> files, final int maxSize, ExecutorService executor) throws InterruptedException
+    {
+        final TagOptions tagOptions = TagOptions.current();
+        Map<File, Future<Void>> futures = new LinkedHashMap<File, Future<Void>>();
+        for(final File file:files)
+        {
+            futures.put(file, executor.submit(new Callable<Void>()
+            {
+                public Void call() throws Exception
+                {
+                    TagOptions.Scope scope = tagOptions.apply();
+                    try
+                    {
+                        reduceQuality(file, maxSize);
+                    }
+                    finally
+                    {
+                        scope.close();
+                    }
+                    return null;
+                }
+            }));
+        }
+
+        Map<File, Exception> failures = new LinkedHashMap<File, Exception>();
+        for(Map.Entry<File, Future<Void>> next:futures.entrySet())
+        {
+            try
+            {
+                next.getValue().get();
+            }
+            catch(ExecutionException ee)
+            {
+                failures.put(next.getKey(), ee.getCause() instanceof Exception ? (Exception)ee.getCause() : ee);
+            }
+        }
+        return failures;
+    }
 
+    private void reduceQuality(File file, int maxSize) throws Exception
+    {
+        AudioFile audioFile = AudioFileIO.read(file);
+        Tag tag = audioFile.getTag();
+        if(tag==null)
+        {
+            return;
+        }
+
+        List<Artwork> artworkList = tag.getArtworkList();
+        boolean isChanged = false;
+        for(Artwork artwork:artworkList)
+        {
+            if(!artwork.isLinked() && artwork.getBinaryData().length > maxSize)
+            {
+                reduceQuality(artwork, maxSize);
+                isChanged = true;
+            }
+        }
+
+        if(isChanged)
+        {
+            tag.deleteArtworkField();
+            for(Artwork artwork:artworkList)
+            {
+                tag.addField(artwork);
+            }
+            audioFile.commit();
+        }
+    }
+
+    /**
+     * @param width of the image
+     * @param dataLength size of the stored image
+     * @param maxSize
+     * @return width expected to give a stored image no larger than maxSize
+     */
+    private static int estimateSize(int width, long dataLength, int maxSize)
+    {
+        int size = width;
+        long estimatedSize = dataLength;
+        while(estimatedSize > maxSize && size > 1)
+        {
+            size = size / 2;
+            estimatedSize = estimatedSize / 4;
+        }
+        return size;
+    }
+
+    /**
+     * Decode the image, if the image is at least twice as wide as required only decode every nth pixel
+     *
+     * @param data
+     * @param size width required
+     * @return decoded image
+     * @throws IOException
+     */
+    private BufferedImage readImage(byte[] data, int size) throws IOException
+    {
+        ImageReader reader = createReader(data);
+        if(reader==null)
+        {
+            return decodeImage(data);
+        }
+
+        try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(data)))
+        {
+            reader.setInput(iis, true, true);
+            return readImage(reader, size);
+        }
+        finally
+        {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * @param reader with its input set
+     * @param size width required
+     * @return decoded image, only decoding every nth pixel if the image is at least twice as wide as required
+     * @throws IOException
+     */
+    private static BufferedImage readImage(ImageReader reader, int size) throws IOException
+    {
+        ImageReadParam param = reader.getDefaultReadParam();
+        int subsampling = reader.getWidth(0) / size;
+        if(subsampling >= 2)
+        {
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        }
+        return reader.read(0, param);
+    }
+
+    /**
+     * Decode the image with whichever reader ImageIO chooses
+     *
+     * @param data
+     * @return decoded image
+     * @throws IOException if the image cannot be decoded
+     */
+    private BufferedImage decodeImage(byte[] data) throws IOException
+    {
+        BufferedImage image = (BufferedImage)getImage(data);
+        if(image==null)
+        {
+            throw new IOException("Unable to decode image");
+        }
+        return image;
+    }
+
+    /**
+     * Scale image to size x size
+     *
+     * @param srcImage
+     * @param size
+     * @return scaled image
+     */
+    private static BufferedImage resizeImage(BufferedImage srcImage, int size)
+    {
         int w = srcImage.getWidth(null);
         int h = srcImage.getHeight(null);
 
@@ -78,16 +316,71 @@ public class StandardImageHandler implements ImageHandler
         Graphics2D g2d = bi.createGraphics();
         g2d.drawImage(srcImage, tx, null);
         g2d.dispose();
+        return bi;
+    }
+
+    /**
+     * @param mimeType
+     * @return new writer that encodes as the mimetype if possible, otherwise as PNG, which must be disposed of once
+     * used
+     * @throws IOException if no writer is available
+     */
+    private ImageWriter createWriter(String mimeType) throws IOException
+    {
+        if(mimeType==null || !isMimeTypeWritable(mimeType))
+        {
+            mimeType = ImageFormats.MIME_TYPE_PNG;
+        }
+        Iterator<ImageWriter> writers =  ImageIO.getImageWritersByMIMEType(mimeType);
+        if(!writers.hasNext())
+        {
+            throw new IOException("Cannot write to this mimetype");
+        }
+        return writers.next();
+    }
 
+    /**
+     * Encode image, the writer can be used again afterwards
+     *
+     * @param writer
+     * @param bi
+     * @return encoded image
+     * @throws IOException
+     */
+    private static byte[] writeImage(ImageWriter writer, BufferedImage bi) throws IOException
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(baos))
+        {
+            writer.setOutput(ios);
+            writer.write(bi);
+        }
+        finally
+        {
+            writer.reset();
+        }
+        return baos.toByteArray();
+    }
 
-        if(artwork.getMimeType()!=null && isMimeTypeWritable(artwork.getMimeType()))
+    /**
+     * @param data
+     * @return new reader that can decode the image, which must be disposed of once used, or null if the format is
+     * not recognised
+     */
+    private ImageReader createReader(byte[] data)
+    {
+        String mimeType = ImageFormats.getMimeTypeForBinarySignature(data);
+        if(mimeType==null)
         {
-            artwork.setBinaryData(writeImage(bi,artwork.getMimeType()));
+            return null;
         }
-        else
+
+        Iterator<ImageReader> iterator = ImageIO.getImageReadersByMIMEType(mimeType);
+        if(!iterator.hasNext())
         {
-            artwork.setBinaryData(writeImageAsPng(bi));
+            return null;
         }
+        return iterator.next();
     }
 
     public boolean isMimeTypeWritable(String mimeType)
@@ -106,15 +399,19 @@ public class StandardImageHandler implements ImageHandler
     public byte[] writeImage(Object bi,String mimeType) throws IOException
     {
         Iterator<ImageWriter> writers =  ImageIO.getImageWritersByMIMEType(mimeType);
-        if(writers.hasNext())
+        if(!writers.hasNext())
+        {
+            throw new IOException("Cannot write to this mimetype");
+        }
+        ImageWriter writer = writers.next();
+        try
         {
-            ImageWriter writer = writers.next();
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            writer.setOutput(ImageIO.createImageOutputStream(baos));
-            writer.write((BufferedImage)bi);
-            return baos.toByteArray();
+            return writeImage(writer, (BufferedImage)bi);
+        }
+        finally
+        {
+            writer.dispose();
         }
-        throw new IOException("Cannot write to this mimetype");
     }
 
     /**
@@ -125,9 +422,7 @@ public class StandardImageHandler implements ImageHandler
      */
     public byte[] writeImageAsPng(Object bi) throws IOException
     {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ImageIO.write((BufferedImage)bi, ImageFormats.MIME_TYPE_PNG,baos);
-        return baos.toByteArray();
+        return writeImage(bi, ImageFormats.MIME_TYPE_PNG);
     }
 
     @Override
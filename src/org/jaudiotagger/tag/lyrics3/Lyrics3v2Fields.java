@@ -26,7 +26,7 @@ import org.jaudiotagger.tag.datatype.AbstractStringStringValuePair;
 public class Lyrics3v2Fields extends AbstractStringStringValuePair
 {
 
-    private static Lyrics3v2Fields lyrics3Fields;
+    private static final Lyrics3v2Fields lyrics3Fields = new Lyrics3v2Fields();
 
     /**
      * CRLF int set
@@ -39,10 +39,6 @@ public class Lyrics3v2Fields extends AbstractStringStringValuePair
 
     public static Lyrics3v2Fields getInstanceOf()
     {
-        if (lyrics3Fields == null)
-        {
-            lyrics3Fields = new Lyrics3v2Fields();
-        }
         return lyrics3Fields;
     }
 
@@ -923,8 +923,16 @@ public class Mp4Tag extends AbstractTag
         for(TagField next:coverartList)
         {
             Mp4TagCoverField mp4CoverArt = (Mp4TagCoverField)next;
-            Artwork artwork = ArtworkFactory.getNew();
-            artwork.setBinaryData(mp4CoverArt.getData());
+            Artwork artwork;
+            if (mp4CoverArt.isDataLoaded())
+            {
+                artwork = ArtworkFactory.getNew();
+                artwork.setBinaryData(mp4CoverArt.getData());
+            }
+            else
+            {
+                artwork = ArtworkFactory.createArtworkFromFileRegion(mp4CoverArt.getDataRegion());
+            }
             artwork.setMimeType(Mp4TagCoverField.getMimeTypeForImageType(mp4CoverArt.getFieldType()));
             artworkList.add(artwork);
         }
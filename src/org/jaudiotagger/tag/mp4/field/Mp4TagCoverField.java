@@ -18,6 +18,7 @@
  */
 package org.jaudiotagger.tag.mp4.field;
 
+import org.jaudiotagger.audio.generic.FileRegion;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
@@ -25,8 +26,10 @@ import org.jaudiotagger.tag.mp4.Mp4FieldKey;
 import org.jaudiotagger.tag.mp4.atom.Mp4DataBox;
 import org.jaudiotagger.tag.mp4.atom.Mp4NameBox;
 
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
  * Represents Cover Art
@@ -45,6 +48,9 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
     //may have data and name atom
     private int dataAndHeaderSize;
 
+    //Where the image data is held in the file if it has not been read yet
+    private FileRegion dataRegion;
+
     /**
      * Empty CoverArt Field
      */
@@ -78,6 +84,35 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
         }
     }
 
+    /**
+     * Construct CoverField by reading from audio file, but only record the location of the image data rather than
+     * reading it, it is read from the file when first needed
+     *
+     * @param raw
+     * @param imageType
+     * @param path of file being read
+     * @param rawFilePos position in the file of the start of raw
+     * @throws IOException if the image length is not within raw
+     */
+    public Mp4TagCoverField(ByteBuffer raw, Mp4FieldType imageType, Path path, long rawFilePos) throws IOException
+    {
+        super(Mp4FieldKey.ARTWORK.getFieldName());
+        this.imageType=imageType;
+        if(!Mp4FieldType.isCoverArtType(imageType))
+        {
+            logger.warning(ErrorMessage.MP4_IMAGE_FORMAT_IS_NOT_TO_EXPECTED_TYPE.getMsg(imageType));
+        }
+
+        int imageLength = readDataHeader(raw);
+        if (imageLength < 0 || imageLength > raw.remaining())
+        {
+            throw new IOException(ErrorMessage.MP4_IMAGE_LENGTH_IS_INVALID.getMsg(imageLength, raw.remaining()));
+        }
+        dataRegion = new FileRegion(path, rawFilePos + raw.position(), imageLength);
+        raw.position(raw.position() + imageLength);
+        readNameBox(raw);
+    }
+
     /**
      * Construct new cover art with binarydata provided
      *
@@ -134,10 +169,89 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
 
     public String toString()
     {
-        return imageType +":" + dataBytes.length + "bytes";
+        return imageType +":" + (dataRegion != null ? dataRegion.getLength() : dataBytes.length) + "bytes";
+    }
+
+    /**
+     * If the image data is still held in the file it is read now
+     *
+     * @return the image data
+     * @throws RuntimeException if the image data has to be read but cannot be
+     */
+    public byte[] getData()
+    {
+        try
+        {
+            loadData();
+        }
+        catch (IOException ioe)
+        {
+            throw new RuntimeException(ioe.getMessage(), ioe);
+        }
+        return dataBytes;
+    }
+
+    public void setData(byte[] d)
+    {
+        super.setData(d);
+        dataRegion = null;
+    }
+
+    protected byte[] getDataBytes() throws UnsupportedEncodingException
+    {
+        return getData();
+    }
+
+    public boolean isEmpty()
+    {
+        return dataRegion != null ? dataRegion.getLength() == 0 : super.isEmpty();
+    }
+
+    /**
+     * Read the image data from the file if it has not been read yet
+     *
+     * @throws IOException if the file cannot be read or has been modified since the field was read
+     */
+    public void loadData() throws IOException
+    {
+        if (dataRegion != null)
+        {
+            dataBytes = dataRegion.read();
+            dataRegion = null;
+        }
+    }
+
+    /**
+     * @return true if the image data is held in memory rather than still to be read from the file
+     */
+    public boolean isDataLoaded()
+    {
+        return dataRegion == null;
+    }
+
+    /**
+     * @return where the image data is held in the file, or null if it has already been read
+     */
+    public FileRegion getDataRegion()
+    {
+        return dataRegion;
     }
 
     protected void build(ByteBuffer raw)
+    {
+        //Read the raw data into byte array
+        this.dataBytes = new byte[readDataHeader(raw)];
+        raw.get(dataBytes,0,dataBytes.length);
+        readNameBox(raw);
+    }
+
+    /**
+     * Read the data atom header, leaving the buffer positioned at the start of the image data
+     *
+     * @param raw
+     * @return length of the image data
+     */
+    private int readDataHeader(ByteBuffer raw)
     {
         Mp4BoxHeader header = new Mp4BoxHeader(raw);
         dataSize = header.getDataLength();
@@ -145,11 +259,16 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
 
         //Skip the version and length fields
         raw.position(raw.position() + Mp4DataBox.PRE_DATA_LENGTH);
+        return dataSize - Mp4DataBox.PRE_DATA_LENGTH;
+    }
 
-        //Read the raw data into byte array
-        this.dataBytes = new byte[dataSize - Mp4DataBox.PRE_DATA_LENGTH];
-        raw.get(dataBytes,0,dataBytes.length);
-
+    /**
+     * Read the optional name atom that may follow the data atom
+     *
+     * @param raw positioned after the image data
+     */
+    private void readNameBox(ByteBuffer raw)
+    {
         //Is there room for another atom (remember actually passed all the data so unless Covr is last atom
         //there will be room even though more likely to be for the text top level atom)
         int positionAfterDataAtom = raw.position();
@@ -22,9 +22,7 @@
 package org.jaudiotagger.tag.reference;
 
 import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
-
-import java.util.LinkedHashMap;
-import java.util.Map;
+import org.jaudiotagger.utils.CaseInsensitiveIndex;
 
 /**
  * Genre list
@@ -51,19 +49,15 @@ public class GenreTypes extends AbstractIntStringValuePair
         return MAX_GENRE_ID;
     }
 
-    private static GenreTypes genreTypes;
+    private static final GenreTypes genreTypes = new GenreTypes();
 
     public static GenreTypes getInstanceOf()
     {
-        if (genreTypes == null)
-        {
-            genreTypes = new GenreTypes();
-        }
         return genreTypes;
     }
 
-    //This maps the lowercase version to the id, so applications can map from the lowercase value to the id
-    private Map<String, Integer> nameToIdMap;
+    //This maps the name to the id ignoring case, so applications can map from the lowercase value to the id
+    private final CaseInsensitiveIndex<Integer> nameToId;
 
 
     private GenreTypes()
@@ -265,12 +259,8 @@ public class GenreTypes extends AbstractIntStringValuePair
 
         createMaps();
 
-        //We now need to map from lowercase version to Id
-        nameToIdMap = new LinkedHashMap<String, Integer>(idToValue.size());
-        for (Map.Entry<Integer, String> entry : idToValue.entrySet())
-        {
-            nameToIdMap.put(entry.getValue().toLowerCase(), entry.getKey());
-        }
+        //We now need to map from any case version to Id
+        nameToId = new CaseInsensitiveIndex<Integer>(valueToId);
     }
 
     /**
@@ -281,7 +271,7 @@ public class GenreTypes extends AbstractIntStringValuePair
      */
     public Integer getIdForName(String name)
     {
-        return nameToIdMap.get(name.toLowerCase());
+        return nameToId.get(name);
     }
 
 
@@ -35,15 +35,11 @@ public class Languages extends AbstractStringStringValuePair
     //The number of bytes used to hold the language field size
     public static final int LANGUAGE_FIELD_SIZE = 3;
 
-    private static Languages languageTypes;
+    private static final Languages languageTypes = new Languages();
 
 
     public static Languages getInstanceOf()
     {
-        if (languageTypes == null)
-        {
-            languageTypes = new Languages();
-        }
         return languageTypes;
     }
 
@@ -32,14 +32,10 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
  */
 public class PictureTypes extends AbstractIntStringValuePair
 {
-    private static PictureTypes pictureTypes;
+    private static final PictureTypes pictureTypes = new PictureTypes();
 
     public static PictureTypes getInstanceOf()
     {
-        if (pictureTypes == null)
-        {
-            pictureTypes = new PictureTypes();
-        }
         return pictureTypes;
     }
 
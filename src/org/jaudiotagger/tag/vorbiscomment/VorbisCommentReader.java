@@ -19,10 +19,12 @@
  */
 package org.jaudiotagger.tag.vorbiscomment;
 
+import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.ogg.util.VorbisHeader;
 import org.jaudiotagger.logging.ErrorMessage;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.IOException;
 import java.util.logging.Logger;
@@ -100,9 +102,18 @@ public class VorbisCommentReader
 
         int userComments = Utils.getIntLE(b);
         logger.config("Number of user comments:" + userComments);
-        
+
+        boolean isReadArtwork = (TagOptionSingleton.getInstance().getReadOptions() & AudioFile.READ_ARTWORK) != 0;
+        int fieldLimit = TagOptionSingleton.getInstance().getReadFieldLimit();
+        int fieldCount = 0;
         for (int i = 0; i < userComments; i++)
         {
+            if (fieldCount >= fieldLimit)
+            {
+                logger.config("Read field limit reached at:" + pos);
+                return tag;
+            }
+
             b = new byte[FIELD_COMMENT_LENGTH_LENGTH];
             System.arraycopy(rawdata, pos, b, 0, FIELD_COMMENT_LENGTH_LENGTH);
             pos += FIELD_COMMENT_LENGTH_LENGTH;
@@ -120,8 +131,14 @@ public class VorbisCommentReader
                 logger.warning(ErrorMessage.VORBIS_COMMENT_LENGTH_LARGE_THAN_HEADER.getMsg(commentLength,rawdata.length));
                 break;
             }
+            else if (!isReadArtwork && (isField(rawdata, pos, commentLength, VorbisCommentFieldKey.METADATA_BLOCK_PICTURE) || isField(rawdata, pos, commentLength, VorbisCommentFieldKey.COVERART)))
+            {
+                logger.config("Skipping artwork");
+                pos += commentLength;
+            }
             else
             {
+                fieldCount++;
                 b = new byte[commentLength];
                 System.arraycopy(rawdata, pos, b, 0, commentLength);
                 pos += commentLength;
@@ -142,5 +159,31 @@ public class VorbisCommentReader
         }
         return tag;
     }
+
+    /**
+     * Check the field name without decoding the comment
+     *
+     * @param rawdata
+     * @param pos start of comment
+     * @param commentLength
+     * @param key
+     * @return true if the comment is for this key
+     */
+    private boolean isField(byte[] rawdata, int pos, int commentLength, VorbisCommentFieldKey key)
+    {
+        String fieldName = key.getFieldName();
+        if (commentLength <= fieldName.length() || rawdata[pos + fieldName.length()] != '=')
+        {
+            return false;
+        }
+        for (int i = 0; i < fieldName.length(); i++)
+        {
+            if (Character.toUpperCase((char) rawdata[pos + i]) != fieldName.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
 }
 
@@ -0,0 +1,269 @@
+package org.jaudiotagger.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read only lookup from names to values where names are matched ignoring case, without creating a lowercase copy
+ * of the name being looked up.
+ *
+ * The table is perfectly hashed, names are split into buckets by hash and each bucket is given a seed that places
+ * all its names in slots not used by any other name. So a lookup hashes the name once, and compares it against at
+ * most one name. The seeds are searched for once when the index is created, after that the index is never modified
+ * so can be shared between threads without locking.
+ */
+public final class CaseInsensitiveIndex<V>
+{
+    //Names for each slot, null if the slot is empty
+    private final String[] keys;
+
+    private final Object[] values;
+
+    //Seed used to place the names of each bucket
+    private final int[] seeds;
+
+    private final int slotMask;
+
+    private final int bucketMask;
+
+    private final int size;
+
+    /**
+     * @param map names to values, if names differ only by case the value of the last one is used
+     * @throws IllegalArgumentException if a name is null
+     */
+    public CaseInsensitiveIndex(Map<String, ? extends V> map)
+    {
+        //Merge names that only differ by case
+        final List<String> names = new ArrayList<String>(map.size());
+        final List<V> nameValues = new ArrayList<V>(map.size());
+        final List<Long> hashes = new ArrayList<Long>(map.size());
+        Map<Long, Integer> hashToIndex = new HashMap<Long, Integer>(map.size() * 2);
+        for (Map.Entry<String, ? extends V> entry : map.entrySet())
+        {
+            String name = entry.getKey();
+            if (name == null)
+            {
+                throw new IllegalArgumentException("Names must not be null");
+            }
+            long hash = hash(name);
+            Integer index = hashToIndex.get(hash);
+            if (index != null && matches(names.get(index), name))
+            {
+                nameValues.set(index, entry.getValue());
+                continue;
+            }
+            hashToIndex.put(hash, names.size());
+            names.add(name);
+            nameValues.add(entry.getValue());
+            hashes.add(hash);
+        }
+        size = names.size();
+
+        //Load factor no more than a half, with about four names per bucket
+        int slotCount = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        int[] bucketSeeds;
+        int[] slotForName;
+        while (true)
+        {
+            bucketSeeds = new int[Math.max(1, slotCount >>> 3)];
+            slotForName = place(hashes, slotCount, bucketSeeds);
+            if (slotForName != null)
+            {
+                break;
+            }
+            slotCount <<= 1;
+        }
+        seeds = bucketSeeds;
+        slotMask = slotCount - 1;
+        bucketMask = seeds.length - 1;
+
+        keys = new String[slotCount];
+        values = new Object[slotCount];
+        for (int i = 0; i < size; i++)
+        {
+            keys[slotForName[i]] = names.get(i);
+            values[slotForName[i]] = nameValues.get(i);
+        }
+    }
+
+    /**
+     * Find a seed for each bucket so that every name has a slot of its own, largest buckets first as they are the
+     * hardest to place
+     *
+     * @param hashes
+     * @param slotCount
+     * @param seeds filled with the seed found for each bucket
+     * @return slot for each name, or null if no seeds could be found
+     */
+    private static int[] place(final List<Long> hashes, int slotCount, int[] seeds)
+    {
+        final int bucketMask = seeds.length - 1;
+        final List<List<Integer>> buckets = new ArrayList<List<Integer>>(seeds.length);
+        for (int i = 0; i < seeds.length; i++)
+        {
+            buckets.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < hashes.size(); i++)
+        {
+            buckets.get(mix(hashes.get(i), 0) & bucketMask).add(i);
+        }
+        final List<Integer> order = new ArrayList<Integer>(seeds.length);
+        for (int i = 0; i < seeds.length; i++)
+        {
+            order.add(i);
+        }
+        Collections.sort(order, new Comparator<Integer>()
+        {
+            public int compare(Integer o1, Integer o2)
+            {
+                return buckets.get(o2).size() - buckets.get(o1).size();
+            }
+        });
+
+        final int[] slotForName = new int[hashes.size()];
+        final boolean[] used = new boolean[slotCount];
+        final int[] slots = new int[hashes.size()];
+        for (int bucket : order)
+        {
+            List<Integer> bucketNames = buckets.get(bucket);
+            if (bucketNames.isEmpty())
+            {
+                break;
+            }
+            int seed = 1;
+            while (!tryPlace(hashes, bucketNames, seed, slotCount - 1, used, slots))
+            {
+                if (++seed > 1 << 16)
+                {
+                    return null;
+                }
+            }
+            seeds[bucket] = seed;
+            for (int i = 0; i < bucketNames.size(); i++)
+            {
+                used[slots[i]] = true;
+                slotForName[bucketNames.get(i)] = slots[i];
+            }
+        }
+        return slotForName;
+    }
+
+    /**
+     * @return true if all the names of the bucket are placed in different unused slots with this seed, slots filled
+     * with the slot for each name
+     */
+    private static boolean tryPlace(List<Long> hashes, List<Integer> bucketNames, int seed, int slotMask, boolean[] used, int[] slots)
+    {
+        for (int i = 0; i < bucketNames.size(); i++)
+        {
+            int slot = mix(hashes.get(bucketNames.get(i)), seed) & slotMask;
+            if (used[slot])
+            {
+                return false;
+            }
+            for (int j = 0; j < i; j++)
+            {
+                if (slots[j] == slot)
+                {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * @param name
+     * @return value for the name ignoring case, or {@code null} if not found
+     */
+    @SuppressWarnings("unchecked")
+    public V get(String name)
+    {
+        if (name == null)
+        {
+            return null;
+        }
+        long hash = hash(name);
+        int slot = mix(hash, seeds[mix(hash, 0) & bucketMask]) & slotMask;
+        String key = keys[slot];
+        if (key != null && matches(key, name))
+        {
+            return (V) values[slot];
+        }
+        return null;
+    }
+
+    /**
+     * @return the number of names in the index
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return the number of slots in the table, for testing
+     */
+    int getSlotCount()
+    {
+        return keys.length;
+    }
+
+    private static boolean matches(String key, String name)
+    {
+        if (key.length() != name.length())
+        {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++)
+        {
+            char c1 = key.charAt(i);
+            char c2 = name.charAt(i);
+            if (c1 != c2 && fold(c1) != fold(c2))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fold case the same way as {@link String#regionMatches(boolean, int, String, int, int)}, so characters that
+     * match ignoring case fold to the same character
+     */
+    private static char fold(char c)
+    {
+        if (c < 0x80)
+        {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Hash of the name with case folded, so names that match ignoring case have the same hash
+     */
+    private static long hash(String name)
+    {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++)
+        {
+            hash = (hash ^ fold(name.charAt(i))) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int mix(long hash, int seed)
+    {
+        hash ^= seed * 0x9e3779b97f4a7c15L;
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (hash ^ (hash >>> 33));
+    }
+}
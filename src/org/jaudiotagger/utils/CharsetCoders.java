@@ -0,0 +1,154 @@
+package org.jaudiotagger.utils;
+
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per thread cache of charset decoders and encoders, and of the buffer that text is decoded into.
+ *
+ * Creating a decoder or encoder for every text field read is a large part of the garbage created when reading
+ * tags, decoders and encoders cannot be shared between threads but can be reused within a thread once reset.
+ *
+ * The decoder, encoder and buffer returned are only valid until the next call from the same thread so must not be
+ * held onto.
+ */
+public final class CharsetCoders
+{
+    //Buffers larger than this are not kept, so that one large field does not hold memory for the life of the thread
+    private static final int MAX_CACHED_BUFFER_SIZE = 8192;
+
+    private static final ThreadLocal<Map<Charset, CharsetDecoder>> DECODERS = new ThreadLocal<Map<Charset, CharsetDecoder>>()
+    {
+        @Override
+        protected Map<Charset, CharsetDecoder> initialValue()
+        {
+            return new HashMap<Charset, CharsetDecoder>();
+        }
+    };
+
+    private static final ThreadLocal<Map<Charset, CharsetEncoder>> ENCODERS = new ThreadLocal<Map<Charset, CharsetEncoder>>()
+    {
+        @Override
+        protected Map<Charset, CharsetEncoder> initialValue()
+        {
+            return new HashMap<Charset, CharsetEncoder>();
+        }
+    };
+
+    private static final ThreadLocal<CharBuffer> CHAR_BUFFER = new ThreadLocal<CharBuffer>()
+    {
+        @Override
+        protected CharBuffer initialValue()
+        {
+            return CharBuffer.allocate(256);
+        }
+    };
+
+    private CharsetCoders()
+    {
+    }
+
+    /**
+     * @param charset
+     * @return this threads decoder for the charset, reset and reporting errors as a new decoder would
+     */
+    public static CharsetDecoder getDecoder(Charset charset)
+    {
+        Map<Charset, CharsetDecoder> decoders = DECODERS.get();
+        CharsetDecoder decoder = decoders.get(charset);
+        if (decoder == null)
+        {
+            decoder = charset.newDecoder();
+            decoders.put(charset, decoder);
+        }
+        else
+        {
+            decoder.onMalformedInput(CodingErrorAction.REPORT);
+            decoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        decoder.reset();
+        return decoder;
+    }
+
+    /**
+     * @param charset
+     * @return this threads encoder for the charset, reset and reporting errors as a new encoder would
+     */
+    public static CharsetEncoder getEncoder(Charset charset)
+    {
+        Map<Charset, CharsetEncoder> encoders = ENCODERS.get();
+        CharsetEncoder encoder = encoders.get(charset);
+        if (encoder == null)
+        {
+            encoder = charset.newEncoder();
+            encoders.put(charset, encoder);
+        }
+        else
+        {
+            encoder.onMalformedInput(CodingErrorAction.REPORT);
+            encoder.onUnmappableCharacter(CodingErrorAction.REPORT);
+        }
+        encoder.reset();
+        return encoder;
+    }
+
+    /**
+     * @param capacity
+     * @return empty buffer with at least the capacity
+     */
+    public static CharBuffer getCharBuffer(int capacity)
+    {
+        if (capacity > MAX_CACHED_BUFFER_SIZE)
+        {
+            return CharBuffer.allocate(capacity);
+        }
+
+        CharBuffer buffer = CHAR_BUFFER.get();
+        if (buffer.capacity() < capacity)
+        {
+            buffer = CharBuffer.allocate(Math.max(capacity, buffer.capacity() * 2));
+            CHAR_BUFFER.set(buffer);
+        }
+        buffer.clear();
+        buffer.limit(capacity);
+        return buffer;
+    }
+
+    /**
+     * Text in ISO-8859-1, or pure ASCII text in UTF-8 or US-ASCII, maps one byte to one char so can be converted
+     * directly without a decoder
+     *
+     * @param charset
+     * @param data
+     * @param offset
+     * @param length
+     * @return the text, or null if the text has to be decoded
+     */
+    public static String decodeSingleByte(Charset charset, byte[] data, int offset, int length)
+    {
+        if (StandardCharsets.ISO_8859_1.equals(charset))
+        {
+            return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+        }
+
+        if (StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset))
+        {
+            int end = offset + length;
+            for (int i = offset; i < end; i++)
+            {
+                if (data[i] < 0)
+                {
+                    return null;
+                }
+            }
+            return new String(data, offset, length, StandardCharsets.ISO_8859_1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,403 @@
+package org.jaudiotagger.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of direct {@link ByteBuffer}s for the temporary buffers used when reading and writing files, so a high rate of
+ * files does not allocate a new direct buffer for every read and leave the freeing of them to the garbage collector.
+ * <p/>
+ * Each thread keeps its own free buffers so no locking is needed. Buffers are pooled in power of two size classes
+ * from {@value #MIN_POOLED_SIZE} to {@value #MAX_POOLED_SIZE} bytes, a thread keeps at most
+ * {@value #BUFFERS_PER_SIZE_CLASS} free buffers of each size and no more than {@value #MAX_RETAINED_BYTES} bytes in
+ * total. Larger buffers are allocated when required and freed as soon as they are released.
+ * <p/>
+ * The buffer returned by {@link #acquire(int)} has a capacity of exactly the size asked for, and must be given back
+ * with {@link #release(ByteBuffer)} by the same thread once it is no longer used, normally in a finally block. A buffer
+ * that is not released, or is released by another thread, is not reused and is freed by the garbage collector as
+ * before. A buffer must not be used after it has been released.
+ * <p/>
+ * When leak detection is enabled where each buffer was acquired is recorded, so buffers never released can be found
+ * with {@link #reportLeaks()}.
+ */
+public final class DirectByteBufferPool
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.utils");
+
+    /**
+     * Smallest size class, smaller buffers are taken from this class
+     */
+    public static final int MIN_POOLED_SIZE = 4096;
+
+    /**
+     * Largest size class, larger buffers are not pooled
+     */
+    public static final int MAX_POOLED_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Most free buffers of each size class kept by a thread
+     */
+    public static final int BUFFERS_PER_SIZE_CLASS = 2;
+
+    /**
+     * Most bytes of free buffers kept by a thread
+     */
+    public static final int MAX_RETAINED_BYTES = 16 * 1024 * 1024;
+
+    //Most buffers a thread can have acquired and not released, beyond that some are forgotten and not reused
+    private static final int MAX_LENT_BUFFERS = 16;
+
+    private static final int SIZE_CLASSES = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE / MIN_POOLED_SIZE) + 1;
+
+    private static final ThreadLocal<ThreadCache> threadCache = new ThreadLocal<ThreadCache>()
+    {
+        @Override
+        protected ThreadCache initialValue()
+        {
+            return new ThreadCache();
+        }
+    };
+
+    private static final AtomicLong acquisitions = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong allocations = new AtomicLong();
+    private static final AtomicLong allocatedBytes = new AtomicLong();
+    private static final AtomicLong releases = new AtomicLong();
+    private static final AtomicLong frees = new AtomicLong();
+
+    private static volatile boolean leakDetection = false;
+
+    //Where each buffer not yet released was acquired, only used with leak detection
+    private static final Map<ByteBuffer, Throwable> outstanding = new IdentityHashMap<ByteBuffer, Throwable>();
+
+    private DirectByteBufferPool()
+    {
+    }
+
+    /**
+     * Free buffers and buffers lent out by a single thread
+     */
+    private static final class ThreadCache
+    {
+        private final ByteBuffer[][] free = new ByteBuffer[SIZE_CLASSES][BUFFERS_PER_SIZE_CLASS];
+        private final int[] freeCount = new int[SIZE_CLASSES];
+        private long retainedBytes;
+
+        //Buffers given to callers and the pooled buffer each was sliced from, overwritten in turn when full
+        private final ByteBuffer[] lent = new ByteBuffer[MAX_LENT_BUFFERS];
+        private final ByteBuffer[] lentFrom = new ByteBuffer[MAX_LENT_BUFFERS];
+        private int nextLent;
+
+        private ByteBuffer take(int sizeClass)
+        {
+            if (freeCount[sizeClass] == 0)
+            {
+                return null;
+            }
+            ByteBuffer buffer = free[sizeClass][--freeCount[sizeClass]];
+            free[sizeClass][freeCount[sizeClass]] = null;
+            retainedBytes -= buffer.capacity();
+            return buffer;
+        }
+
+        /**
+         * @return false if the buffer could not be kept
+         */
+        private boolean give(int sizeClass, ByteBuffer buffer)
+        {
+            if (freeCount[sizeClass] == BUFFERS_PER_SIZE_CLASS || retainedBytes + buffer.capacity() > MAX_RETAINED_BYTES)
+            {
+                return false;
+            }
+            free[sizeClass][freeCount[sizeClass]++] = buffer;
+            retainedBytes += buffer.capacity();
+            return true;
+        }
+
+        private void lend(ByteBuffer buffer, ByteBuffer from)
+        {
+            for (int i = 0; i < MAX_LENT_BUFFERS; i++)
+            {
+                if (lent[i] == null)
+                {
+                    lent[i] = buffer;
+                    lentFrom[i] = from;
+                    return;
+                }
+            }
+            logger.fine("Too many buffers not released, forgetting one");
+            lent[nextLent] = buffer;
+            lentFrom[nextLent] = from;
+            nextLent = (nextLent + 1) % MAX_LENT_BUFFERS;
+        }
+
+        /**
+         * @return the pooled buffer the buffer was sliced from, or null if the buffer was not lent by this thread
+         */
+        private ByteBuffer unlend(ByteBuffer buffer)
+        {
+            for (int i = 0; i < MAX_LENT_BUFFERS; i++)
+            {
+                if (lent[i] == buffer)
+                {
+                    ByteBuffer from = lentFrom[i];
+                    lent[i] = null;
+                    lentFrom[i] = null;
+                    return from;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @param size
+     * @return the size class for buffers of this size, or -1 if too large to be pooled
+     */
+    private static int sizeClass(int size)
+    {
+        if (size > MAX_POOLED_SIZE)
+        {
+            return -1;
+        }
+        if (size <= MIN_POOLED_SIZE)
+        {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    }
+
+    /**
+     * Get a direct buffer, reusing a free buffer of this thread if there is one large enough
+     *
+     * @param size
+     * @return a cleared big endian direct buffer with a capacity of size
+     * @throws IllegalArgumentException if size is negative
+     */
+    public static ByteBuffer acquire(int size)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Size must not be negative:" + size);
+        }
+        acquisitions.incrementAndGet();
+        ThreadCache cache = threadCache.get();
+        int sizeClass = sizeClass(size);
+        ByteBuffer from = sizeClass == -1 ? null : cache.take(sizeClass);
+        if (from != null)
+        {
+            hits.incrementAndGet();
+        }
+        else
+        {
+            int capacity = sizeClass == -1 ? size : MIN_POOLED_SIZE << sizeClass;
+            from = ByteBuffer.allocateDirect(capacity);
+            allocations.incrementAndGet();
+            allocatedBytes.addAndGet(capacity);
+        }
+
+        ByteBuffer buffer;
+        if (from.capacity() == size)
+        {
+            buffer = from;
+            buffer.clear();
+            buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        else
+        {
+            from.clear();
+            from.limit(size);
+            buffer = from.slice();
+        }
+        cache.lend(buffer, from);
+
+        if (leakDetection)
+        {
+            synchronized (outstanding)
+            {
+                outstanding.put(buffer, new Throwable("Buffer of " + size + " bytes acquired by " + Thread.currentThread().getName()));
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Give back a buffer got from {@link #acquire(int)} so it can be reused, does nothing if buffer is null
+     *
+     * @param buffer
+     */
+    public static void release(ByteBuffer buffer)
+    {
+        if (buffer == null)
+        {
+            return;
+        }
+        releases.incrementAndGet();
+        if (leakDetection)
+        {
+            synchronized (outstanding)
+            {
+                if (outstanding.remove(buffer) == null)
+                {
+                    logger.log(Level.WARNING, "Released buffer that was not acquired from the pool or was already released", new Throwable());
+                }
+            }
+        }
+
+        ThreadCache cache = threadCache.get();
+        ByteBuffer from = cache.unlend(buffer);
+        if (from == null)
+        {
+            logger.finest("Buffer not lent by this thread, left to the garbage collector");
+            return;
+        }
+        int sizeClass = sizeClass(from.capacity());
+        if (sizeClass == -1 || !cache.give(sizeClass, from))
+        {
+            frees.incrementAndGet();
+            DirectByteBufferUtils.release(from);
+        }
+    }
+
+    /**
+     * Enable recording where buffers are acquired so buffers never released can be found, this is slow so should only
+     * be used when debugging. Buffers acquired before it is enabled are not tracked.
+     *
+     * @param enabled
+     */
+    public static void setLeakDetection(boolean enabled)
+    {
+        synchronized (outstanding)
+        {
+            leakDetection = enabled;
+            if (!enabled)
+            {
+                outstanding.clear();
+            }
+        }
+    }
+
+    public static boolean isLeakDetection()
+    {
+        return leakDetection;
+    }
+
+    /**
+     * Log where each buffer acquired since leak detection was enabled and not yet released was acquired
+     *
+     * @return the buffers not released, empty if leak detection is not enabled
+     */
+    public static List<Throwable> reportLeaks()
+    {
+        List<Throwable> leaks;
+        synchronized (outstanding)
+        {
+            leaks = new ArrayList<Throwable>(outstanding.values());
+        }
+        for (Throwable leak : leaks)
+        {
+            logger.log(Level.WARNING, "Buffer not released", leak);
+        }
+        return leaks;
+    }
+
+    /**
+     * @return counts of the buffers acquired and allocated since the JVM started
+     */
+    public static Metrics getMetrics()
+    {
+        return new Metrics(acquisitions.get(), hits.get(), allocations.get(), allocatedBytes.get(), releases.get(), frees.get());
+    }
+
+    /**
+     * Counts of the use of the pool at a point in time
+     */
+    public static final class Metrics
+    {
+        private final long acquisitions;
+        private final long hits;
+        private final long allocations;
+        private final long allocatedBytes;
+        private final long releases;
+        private final long frees;
+
+        private Metrics(long acquisitions, long hits, long allocations, long allocatedBytes, long releases, long frees)
+        {
+            this.acquisitions = acquisitions;
+            this.hits = hits;
+            this.allocations = allocations;
+            this.allocatedBytes = allocatedBytes;
+            this.releases = releases;
+            this.frees = frees;
+        }
+
+        /**
+         * @return number of buffers acquired
+         */
+        public long getAcquisitions()
+        {
+            return acquisitions;
+        }
+
+        /**
+         * @return number of buffers acquired that reused a free buffer
+         */
+        public long getHits()
+        {
+            return hits;
+        }
+
+        /**
+         * @return number of new direct buffers allocated
+         */
+        public long getAllocations()
+        {
+            return allocations;
+        }
+
+        /**
+         * @return total capacity of the new direct buffers allocated
+         */
+        public long getAllocatedBytes()
+        {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return number of buffers released
+         */
+        public long getReleases()
+        {
+            return releases;
+        }
+
+        /**
+         * @return number of buffers freed straight away on release because they were too large or the pool was full
+         */
+        public long getFrees()
+        {
+            return frees;
+        }
+
+        /**
+         * @return fraction of buffers acquired that reused a free buffer
+         */
+        public double getHitRate()
+        {
+            return acquisitions == 0 ? 0 : (double) hits / acquisitions;
+        }
+
+        public String toString()
+        {
+            return "acquisitions:" + acquisitions + ":hits:" + hits + ":allocations:" + allocations
+                    + ":allocatedBytes:" + allocatedBytes + ":releases:" + releases + ":frees:" + frees;
+        }
+    }
+}
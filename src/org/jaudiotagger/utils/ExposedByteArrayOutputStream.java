@@ -0,0 +1,76 @@
+package org.jaudiotagger.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * ByteArrayOutputStream that gives access to the bytes written without copying them, and allows bytes already
+ * written to be overwritten.
+ *
+ * So a structure whose header holds the size of what follows can be written in one pass, writing the header with a
+ * placeholder size and setting the size once the rest has been written, rather than writing the rest to a separate
+ * stream and copying it.
+ */
+public class ExposedByteArrayOutputStream extends ByteArrayOutputStream
+{
+    public ExposedByteArrayOutputStream()
+    {
+        super();
+    }
+
+    /**
+     * @param size initial capacity, if the final size is known or can be estimated the stream never has to grow
+     */
+    public ExposedByteArrayOutputStream(int size)
+    {
+        super(Math.max(size, 32));
+    }
+
+    /**
+     * @return the internal buffer, only the first {@link #size()} bytes are valid. The buffer is replaced if the
+     * stream has to grow so should not be kept once more bytes are written.
+     */
+    public byte[] getBuffer()
+    {
+        return buf;
+    }
+
+    /**
+     * @return ByteBuffer wrapping the bytes written without copying them
+     */
+    public ByteBuffer toByteBuffer()
+    {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+
+    /**
+     * Overwrite bytes already written
+     *
+     * @param offset position in the stream
+     * @param bytes
+     * @throws IndexOutOfBoundsException if the bytes go beyond what has been written
+     */
+    public void set(int offset, byte[] bytes)
+    {
+        if (offset < 0 || offset + bytes.length > count)
+        {
+            throw new IndexOutOfBoundsException("Cannot set " + bytes.length + " bytes at " + offset + " of " + count);
+        }
+        System.arraycopy(bytes, 0, buf, offset, bytes.length);
+    }
+
+    /**
+     * Discard the bytes after size, so they can be written again
+     *
+     * @param size
+     * @throws IndexOutOfBoundsException if size is larger than what has been written
+     */
+    public void truncate(int size)
+    {
+        if (size < 0 || size > count)
+        {
+            throw new IndexOutOfBoundsException("Cannot truncate to " + size + " of " + count);
+        }
+        count = size;
+    }
+}
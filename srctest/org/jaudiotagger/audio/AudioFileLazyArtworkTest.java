@@ -0,0 +1,169 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
+import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.mp4.Mp4FieldKey;
+import org.jaudiotagger.tag.mp4.Mp4Tag;
+import org.jaudiotagger.tag.mp4.field.Mp4FieldType;
+import org.jaudiotagger.tag.mp4.field.Mp4TagCoverField;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test reading artwork image data only when it is needed
+ */
+public class AudioFileLazyArtworkTest extends AbstractTestCase
+{
+    private static final String[] FILES = new String[]{"test.flac", "test.m4a"};
+
+    private static TagOptions lazyArtwork()
+    {
+        TagOptionSingleton options = TagOptionSingleton.getInstance("AudioFileLazyArtworkTest");
+        options.setToDefault();
+        options.setLazyArtwork(true);
+        return TagOptions.copyOf(options);
+    }
+
+    /**
+     * Copy file and add two images
+     */
+    private File createTestFile(String fileName) throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testLazyArtwork" + fileName));
+        AudioFile af = AudioFileIO.read(testFile);
+        Tag tag = af.getTagOrCreateAndSetDefault();
+        tag.setField(FieldKey.TITLE, "title");
+        tag.deleteArtworkField();
+        tag.addField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png")));
+        tag.addField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.jpg")));
+        af.commit();
+        return testFile;
+    }
+
+    private static boolean isImageDataLoaded(Tag tag, int index)
+    {
+        if (tag instanceof FlacTag)
+        {
+            return ((FlacTag) tag).getImages().get(index).isImageDataLoaded();
+        }
+        return ((Mp4TagCoverField) ((Mp4Tag) tag).get(Mp4FieldKey.ARTWORK).get(index)).isDataLoaded();
+    }
+
+    public void testLazyArtworkSameAsEager() throws Exception
+    {
+        for (String fileName : FILES)
+        {
+            File testFile = createTestFile(fileName);
+            List<Artwork> expected = AudioFileIO.read(testFile).getTag().getArtworkList();
+            assertEquals(fileName, 2, expected.size());
+
+            AudioFile af = AudioFileIO.read(testFile, lazyArtwork());
+            assertFalse(fileName, isImageDataLoaded(af.getTag(), 0));
+            assertFalse(fileName, isImageDataLoaded(af.getTag(), 1));
+
+            List<Artwork> artworkList = af.getTag().getArtworkList();
+            assertEquals(fileName, 2, artworkList.size());
+            for (int i = 0; i < artworkList.size(); i++)
+            {
+                assertEquals(fileName, expected.get(i).getMimeType(), artworkList.get(i).getMimeType());
+                assertEquals(fileName, expected.get(i).getPictureType(), artworkList.get(i).getPictureType());
+                assertEquals(fileName, expected.get(i).getWidth(), artworkList.get(i).getWidth());
+                assertEquals(fileName, expected.get(i).getHeight(), artworkList.get(i).getHeight());
+                assertTrue(fileName, Arrays.equals(expected.get(i).getBinaryData(), artworkList.get(i).getBinaryData()));
+            }
+
+            //Artwork reads its own copy, the field itself is still not loaded
+            assertFalse(fileName, isImageDataLoaded(af.getTag(), 0));
+            assertEquals(fileName, expected.get(0).getMimeType(), af.getTag().getFirstArtwork().getMimeType());
+        }
+    }
+
+    public void testCommitWithLazyArtwork() throws Exception
+    {
+        for (String fileName : FILES)
+        {
+            File testFile = createTestFile(fileName);
+            List<Artwork> expected = AudioFileIO.read(testFile).getTag().getArtworkList();
+
+            AudioFile af = AudioFileIO.read(testFile, lazyArtwork());
+            af.getTag().setField(FieldKey.TITLE, "a much longer title so that the metadata has to grow");
+            af.commit();
+
+            List<Artwork> artworkList = AudioFileIO.read(testFile).getTag().getArtworkList();
+            assertEquals(fileName, 2, artworkList.size());
+            for (int i = 0; i < artworkList.size(); i++)
+            {
+                assertTrue(fileName, Arrays.equals(expected.get(i).getBinaryData(), artworkList.get(i).getBinaryData()));
+            }
+        }
+    }
+
+    public void testModifiedFileDetected() throws Exception
+    {
+        for (String fileName : FILES)
+        {
+            File testFile = createTestFile(fileName);
+            AudioFile af = AudioFileIO.read(testFile, lazyArtwork());
+            Artwork artwork = af.getTag().getFirstArtwork();
+
+            AudioFile other = AudioFileIO.read(testFile);
+            other.getTag().setField(FieldKey.ALBUM, "an album name that changes the size of the file");
+            other.getTag().deleteArtworkField();
+            other.commit();
+
+            try
+            {
+                artwork.getBinaryData();
+                fail(fileName + ":Expected RuntimeException");
+            }
+            catch (RuntimeException re)
+            {
+                //expected
+            }
+
+            try
+            {
+                af.commit();
+                fail(fileName + ":Expected CannotWriteException");
+            }
+            catch (CannotWriteException cwe)
+            {
+                //expected
+            }
+        }
+    }
+
+    /**
+     * A cover art data atom claiming more image data than there is is a read error
+     */
+    public void testInvalidImageLength() throws Exception
+    {
+        ByteBuffer raw = ByteBuffer.allocate(40);
+        raw.putInt(1000);
+        raw.put("data".getBytes(StandardCharsets.ISO_8859_1));
+        raw.putInt(Mp4FieldType.COVERART_PNG.getFileClassId());
+        raw.putInt(0);
+        raw.rewind();
+        try
+        {
+            new Mp4TagCoverField(raw, Mp4FieldType.COVERART_PNG, new File("testdata", "test.m4a").toPath(), 0);
+            fail("Expected IOException");
+        }
+        catch (IOException ioe)
+        {
+            //expected
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+import java.io.File;
+
+/**
+ * Test reading just the audio header or just the tag
+ */
+public class AudioFileReadOptionsTest extends AbstractTestCase
+{
+    private static final String[] FILES = new String[]{"testV1.mp3", "test.flac", "test.ogg", "test.m4a", "test1.wma", "test122.dsf"};
+
+    private static TagOptions readOptions(int readOptions)
+    {
+        TagOptionSingleton options = TagOptionSingleton.getInstance("AudioFileReadOptionsTest");
+        options.setToDefault();
+        options.setReadOptions(readOptions);
+        return TagOptions.copyOf(options);
+    }
+
+    /**
+     * Copy file and add artwork and some text fields
+     */
+    private File createTestFile(String fileName) throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testReadOptions" + fileName));
+        AudioFile af = AudioFileIO.read(testFile);
+        Tag tag = af.getTagOrCreateAndSetDefault();
+        tag.setField(FieldKey.ARTIST, "artist");
+        tag.setField(FieldKey.TITLE, "title");
+        tag.setField(FieldKey.ALBUM, "album");
+        tag.deleteArtworkField();
+        tag.setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png")));
+        af.commit();
+        return testFile;
+    }
+
+    public void testTagOnly() throws Exception
+    {
+        TagOptions tagOnly = readOptions(AudioFile.READ_TAG);
+        for (String fileName : FILES)
+        {
+            File testFile = createTestFile(fileName);
+            AudioFile full = AudioFileIO.read(testFile);
+            assertFalse(fileName, full.isPartiallyRead());
+            assertEquals(fileName, 1, full.getTag().getArtworkList().size());
+
+            AudioFile af = AudioFileIO.read(testFile, tagOnly);
+            assertTrue(fileName, af.isPartiallyRead());
+            assertNull(fileName, af.getAudioHeader());
+            assertEquals(fileName, "artist", af.getTag().getFirst(FieldKey.ARTIST));
+            assertEquals(fileName, "title", af.getTag().getFirst(FieldKey.TITLE));
+            assertEquals(fileName, "album", af.getTag().getFirst(FieldKey.ALBUM));
+            assertTrue(fileName, af.getTag().getArtworkList().isEmpty());
+        }
+    }
+
+    public void testTagWithArtworkOnly() throws Exception
+    {
+        TagOptions tagOnly = readOptions(AudioFile.READ_TAG | AudioFile.READ_ARTWORK);
+        for (String fileName : FILES)
+        {
+            File testFile = createTestFile(fileName);
+            AudioFile af = AudioFileIO.read(testFile, tagOnly);
+            assertNull(fileName, af.getAudioHeader());
+            assertEquals(fileName, 1, af.getTag().getArtworkList().size());
+        }
+    }
+
+    public void testHeaderOnly() throws Exception
+    {
+        TagOptions headerOnly = readOptions(AudioFile.READ_AUDIO_HEADER);
+        for (String fileName : FILES)
+        {
+            File testFile = createTestFile(fileName);
+            AudioFile full = AudioFileIO.read(testFile);
+            AudioFile af = AudioFileIO.read(testFile, headerOnly);
+            assertNull(fileName, af.getTag());
+            assertEquals(fileName, full.getAudioHeader().toString(), af.getAudioHeader().toString());
+        }
+    }
+
+    public void testReadFieldLimit() throws Exception
+    {
+        TagOptionSingleton options = TagOptionSingleton.getInstance("AudioFileReadOptionsTest");
+        options.setToDefault();
+        options.setReadOptions(AudioFile.READ_AUDIO_HEADER | AudioFile.READ_TAG);
+        options.setReadFieldLimit(2);
+        TagOptions limited = TagOptions.copyOf(options);
+        for (String fileName : new String[]{"testV1.mp3", "test.flac", "test.ogg", "test.m4a"})
+        {
+            File testFile = createTestFile(fileName);
+            AudioFile af = AudioFileIO.read(testFile, limited);
+            assertTrue(fileName, af.isPartiallyRead());
+            assertNotNull(fileName, af.getAudioHeader());
+            //Vorbis comments hold the vendor as a field as well
+            int vendorFields = fileName.endsWith(".flac") || fileName.endsWith(".ogg") ? 1 : 0;
+            assertTrue(fileName, AudioFileIO.read(testFile).getTag().getFieldCount() > 2 + vendorFields);
+            assertEquals(fileName, 2 + vendorFields, af.getTag().getFieldCount());
+        }
+    }
+
+    public void testPartiallyReadFileCannotBeWritten() throws Exception
+    {
+        File testFile = createTestFile("testV1.mp3");
+        long length = testFile.length();
+        AudioFile af = AudioFileIO.read(testFile, readOptions(AudioFile.READ_TAG));
+        af.getTag().setField(FieldKey.TITLE, "changed");
+        try
+        {
+            af.commit();
+            fail("Expected CannotWriteException");
+        }
+        catch (CannotWriteException cwe)
+        {
+            //expected
+        }
+        assertEquals(length, testFile.length());
+        assertEquals(1, AudioFileIO.read(testFile).getTag().getArtworkList().size());
+    }
+}
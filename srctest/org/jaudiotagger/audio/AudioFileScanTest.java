@@ -0,0 +1,196 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test scanning a directory tree
+ */
+public class AudioFileScanTest extends AbstractTestCase
+{
+    private File root;
+
+    @Override
+    public void setUp()
+    {
+        root = new File("testdatatmp", "scan");
+        delete(root);
+        new File(root, "a/b").mkdirs();
+        new File(root, "c").mkdirs();
+        copy("test.flac", "a/test.flac");
+        copy("test.m4a", "a/b/test.m4a");
+        copy("testV1.mp3", "c/testV1.mp3");
+        copy("test.ogg", "test.ogg");
+        write("a/corrupt.flac", new byte[1000]);
+        write("c/notes.txt", new byte[10]);
+    }
+
+    @Override
+    public void tearDown()
+    {
+        delete(root);
+    }
+
+    public void testScan() throws Exception
+    {
+        final Map<String, ScanResult> results = Collections.synchronizedMap(new HashMap<String, ScanResult>());
+        ScanOptions options = new ScanOptions();
+        options.setThreads(2);
+        options.setMaxInFlight(1);
+        long count = AudioFileIO.scan(root.toPath(), options, new ScanCallback()
+        {
+            public void scanned(ScanResult result)
+            {
+                results.put(result.getFile().getName(), result);
+            }
+        });
+
+        assertEquals(5, count);
+        assertEquals(5, results.size());
+        for (String name : new String[]{"test.flac", "test.m4a", "testV1.mp3", "test.ogg"})
+        {
+            assertTrue(name, results.get(name).isSuccess());
+            assertNotNull(name, results.get(name).getAudioFile().getAudioHeader());
+        }
+        assertFalse(results.get("corrupt.flac").isSuccess());
+        assertNull(results.get("corrupt.flac").getAudioFile());
+        assertTrue(results.get("corrupt.flac").getException() instanceof CannotReadException);
+        assertFalse(results.containsKey("notes.txt"));
+    }
+
+    /**
+     * The walk should wait rather than queue more than the maximum number of files, the callbacks are blocked so no
+     * file completes until the number submitted has been checked
+     */
+    public void testMaxInFlight() throws Exception
+    {
+        final AtomicInteger submitted = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(4, 4, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>())
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                submitted.incrementAndGet();
+                super.execute(command);
+            }
+        };
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<ScanResult> results = Collections.synchronizedList(new ArrayList<ScanResult>());
+        final ScanOptions options = new ScanOptions();
+        options.setExecutor(executor);
+        options.setMaxInFlight(2);
+        Thread scan = new Thread()
+        {
+            public void run()
+            {
+                try
+                {
+                    AudioFileIO.scan(root.toPath(), options, new ScanCallback()
+                    {
+                        public void scanned(ScanResult result)
+                        {
+                            try
+                            {
+                                release.await();
+                            }
+                            catch (InterruptedException ie)
+                            {
+                                Thread.currentThread().interrupt();
+                            }
+                            results.add(result);
+                        }
+                    });
+                }
+                catch (Exception e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        try
+        {
+            scan.start();
+            Thread.sleep(500);
+            assertEquals(2, submitted.get());
+            release.countDown();
+            scan.join(10000);
+            assertFalse(scan.isAlive());
+            assertFalse(executor.isShutdown());
+        }
+        finally
+        {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertEquals(5, submitted.get());
+        assertEquals(5, results.size());
+    }
+
+    public void testCallbackExceptionDoesNotStopScan() throws Exception
+    {
+        final AtomicInteger calls = new AtomicInteger();
+        long count = AudioFileIO.scan(root.toPath(), new ScanOptions(), new ScanCallback()
+        {
+            public void scanned(ScanResult result)
+            {
+                calls.incrementAndGet();
+                throw new IllegalStateException("Callback failed");
+            }
+        });
+        assertEquals(5, count);
+        assertEquals(5, calls.get());
+    }
+
+    private void copy(String testFile, String target)
+    {
+        try
+        {
+            Files.copy(new File("testdata", testFile).toPath(), new File(root, target).toPath());
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void write(String target, byte[] data)
+    {
+        try (FileOutputStream fos = new FileOutputStream(new File(root, target)))
+        {
+            fos.write(data);
+        }
+        catch (Exception e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
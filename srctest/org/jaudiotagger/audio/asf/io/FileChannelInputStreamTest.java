@@ -0,0 +1,116 @@
+package org.jaudiotagger.audio.asf.io;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.asf.data.AsfHeader;
+import org.jaudiotagger.audio.asf.util.Utils;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link FileChannelInputStream}, and that headers read through it are the same as when read through the
+ * buffered stream wrappers.
+ */
+public class FileChannelInputStreamTest extends AbstractTestCase
+{
+
+    /**
+     * @return reader configured like the one used by {@link AsfHeaderReader#readHeader(File)}
+     */
+    private static AsfHeaderReader createFullReader()
+    {
+        final List<Class<? extends ChunkReader>> readers = new ArrayList<Class<? extends ChunkReader>>();
+        readers.add(ContentDescriptionReader.class);
+        readers.add(ContentBrandingReader.class);
+        readers.add(LanguageListReader.class);
+        readers.add(MetadataReader.class);
+        final AsfExtHeaderReader extReader = new AsfExtHeaderReader(readers, true);
+        readers.add(FileHeaderReader.class);
+        readers.add(StreamChunkReader.class);
+        readers.add(EncodingChunkReader.class);
+        readers.add(EncryptionChunkReader.class);
+        readers.add(StreamBitratePropertiesReader.class);
+        final AsfHeaderReader reader = new AsfHeaderReader(readers, false);
+        reader.setExtendedHeaderReader(extReader);
+        return reader;
+    }
+
+    private File createTestFile(final byte[] data) throws IOException
+    {
+        final File file = new File("testdatatmp", "testFileChannelInputStream.dat");
+        file.getParentFile().mkdirs();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            raf.setLength(0);
+            raf.write(data);
+        }
+        return file;
+    }
+
+    public void testReadSkipMarkReset() throws Exception
+    {
+        final byte[] data = new byte[50000];
+        new Random(1).nextBytes(data);
+        final File file = createTestFile(data);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            final FileChannelInputStream stream = new FileChannelInputStream(channel, 10);
+            assertEquals(data[10] & 0xff, stream.read());
+
+            //Small read from buffer, then large read straight from channel
+            byte[] read = new byte[100];
+            stream.read(read);
+            assertTrue(Arrays.equals(Arrays.copyOfRange(data, 11, 111), read));
+            read = new byte[20000];
+            stream.read(read, 0, read.length);
+            assertTrue(Arrays.equals(Arrays.copyOfRange(data, 111, 20111), read));
+            assertEquals(20111, stream.getPosition());
+
+            stream.mark(0);
+            assertEquals(10000, stream.skip(10000));
+            assertEquals(data[30111] & 0xff, stream.read());
+            stream.reset();
+            assertEquals(data[20111] & 0xff, stream.read());
+
+            //Channel position is not used
+            assertEquals(0, channel.position());
+
+            //Cannot skip beyond end of file
+            assertEquals(50000 - 20112, stream.skip(100000));
+            assertEquals(-1, stream.read());
+            try
+            {
+                stream.read(new byte[1]);
+                fail("Expected IOException");
+            }
+            catch (IOException ioe)
+            {
+                //expected
+            }
+        }
+    }
+
+    public void testHeaderSameAsStreamRead() throws Exception
+    {
+        for (String fileName : new String[]{"test1.wma", "test2.wma", "test5.wma"})
+        {
+            final File file = new File("testdata", fileName);
+            final AsfHeader header;
+            try (InputStream stream = new FullRequestInputStream(new BufferedInputStream(new FileInputStream(file))))
+            {
+                header = createFullReader().read(Utils.readGUID(stream), stream, 0);
+            }
+            assertEquals(fileName, header.prettyPrint(""), AsfHeaderReader.readHeader(file).prettyPrint(""));
+        }
+    }
+}
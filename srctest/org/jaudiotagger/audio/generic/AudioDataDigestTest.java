@@ -0,0 +1,229 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.utils.DirectByteBufferPool;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test hashing the audio data, so that modifying the tag does not change the hash
+ */
+public class AudioDataDigestTest extends AbstractTestCase
+{
+    private static final String[] FILES = new String[]{"testV1.mp3", "test.flac", "test.ogg", "test.m4a", "test123.wav", "test119.aif", "test122.dsf", "test229.dff", "test1.wma"};
+
+    public void testHashUnchangedByTagEdit() throws Exception
+    {
+        StringBuilder longTitle = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+        {
+            longTitle.append("Changed Title ");
+        }
+
+        for (String fileName : FILES)
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testHashUnchangedByTagEdit" + fileName));
+            AudioFile af = AudioFileIO.read(testFile);
+            assertNotNull(fileName, af.getAudioHeader().getAudioDataStartPosition());
+            assertNotNull(fileName, af.getAudioHeader().getAudioDataEndPosition());
+            assertTrue(fileName, af.getAudioHeader().getAudioDataStartPosition() < af.getAudioHeader().getAudioDataEndPosition());
+            byte[] hash = af.getAudioHash("SHA-256");
+            byte[] treeHash = af.getAudioTreeHash("SHA-256");
+
+            //DFF tags cannot be written, only check hash can be calculated
+            if (fileName.endsWith(".dff"))
+            {
+                continue;
+            }
+
+            long originalLength = testFile.length();
+            af.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, longTitle.toString());
+            af.commit();
+            assertTrue(fileName, testFile.length() > originalLength);
+
+            af = AudioFileIO.read(testFile);
+            assertTrue(fileName, Arrays.equals(hash, af.getAudioHash("SHA-256")));
+            assertTrue(fileName, Arrays.equals(treeHash, af.getAudioTreeHash("SHA-256")));
+        }
+    }
+
+    public void testMp3HashSameAsAudioHash() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3", new File("testMp3HashSameAsAudioHash.mp3"));
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+        assertTrue(mp3File.hasID3v1Tag());
+        assertEquals(testFile.length() - 128, (long) mp3File.getAudioHeader().getAudioDataEndPosition());
+        assertTrue(Arrays.equals(mp3File.getHash("MD5"), mp3File.getAudioHash("MD5")));
+    }
+
+    /**
+     * Comment grows so that it needs more pages, every audio page is renumbered and gets a new checksum but the
+     * hash of the audio is unchanged
+     */
+    public void testOggHashUnchangedByRenumberedPages() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testOggHashUnchangedByRenumberedPages.ogg"));
+        AudioFile af = AudioFileIO.read(testFile);
+        int pageSequence = readAudioPageSequence(af);
+        byte[] hash = af.getAudioHash("SHA-256");
+        byte[] treeHash = af.getAudioTreeHash("SHA-256");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            byte[] smallChunkTreeHash = af.getAudioTreeHash("SHA-256", 1000, executor);
+
+            char[] title = new char[70000];
+            Arrays.fill(title, 'a');
+            af.getTag().setField(FieldKey.TITLE, new String(title));
+            af.commit();
+
+            af = AudioFileIO.read(testFile);
+            assertTrue(readAudioPageSequence(af) > pageSequence);
+            assertTrue(Arrays.equals(hash, af.getAudioHash("SHA-256")));
+            assertTrue(Arrays.equals(treeHash, af.getAudioTreeHash("SHA-256")));
+            assertTrue(Arrays.equals(smallChunkTreeHash, af.getAudioTreeHash("SHA-256", 1000, executor)));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private int readAudioPageSequence(AudioFile af) throws Exception
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(af.getFile(), "r"))
+        {
+            raf.seek(af.getAudioHeader().getAudioDataStartPosition());
+            return OggPageHeader.read(raf).getPageSequence();
+        }
+    }
+
+    /**
+     * Digest of several regions is the digest of the regions joined together, tree digest splits the joined regions
+     * into chunks
+     */
+    public void testDigestRegions() throws Exception
+    {
+        File file = createRandomFile("testDigestRegions.dat", 10000);
+        long[] regions = new long[]{10, 500, 700, 700, 900, 5000, 6000, 9999};
+        byte[] data = Files.readAllBytes(file.toPath());
+        MessageDigest expected = MessageDigest.getInstance("MD5");
+        for (int i = 0; i < regions.length; i += 2)
+        {
+            expected.update(data, (int) regions[i], (int) (regions[i + 1] - regions[i]));
+        }
+        assertTrue(Arrays.equals(expected.digest(), AudioDataDigest.digest(file, regions, "MD5")));
+
+        //Joined regions are 490 + 4100 + 3999 bytes, so the chunks of 1000 bytes cross from one region to the next
+        File joined = new File("testdatatmp", "testDigestRegionsJoined.dat");
+        try (RandomAccessFile raf = new RandomAccessFile(joined, "rw"))
+        {
+            raf.setLength(0);
+            for (int i = 0; i < regions.length; i += 2)
+            {
+                raf.write(data, (int) regions[i], (int) (regions[i + 1] - regions[i]));
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            assertTrue(Arrays.equals(AudioDataDigest.treeDigest(joined, 0, joined.length(), "MD5", 1000, executor),
+                    AudioDataDigest.treeDigest(file, regions, "MD5", 1000, executor)));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Tree digest is the digest of the chunk digests, and is the same whatever the number of threads
+     */
+    public void testTreeDigest() throws Exception
+    {
+        File file = createRandomFile("testTreeDigest.dat", 1000000);
+        int chunkSize = 300000;
+        MessageDigest root = MessageDigest.getInstance("MD5");
+        for (long start = 10; start < 999990; start += chunkSize)
+        {
+            root.update(AudioDataDigest.digest(file, start, Math.min(999990, start + chunkSize), "MD5"));
+        }
+        byte[] expected = root.digest();
+
+        for (int threads = 1; threads <= 4; threads++)
+        {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try
+            {
+                assertTrue(Arrays.equals(expected, AudioDataDigest.treeDigest(file, 10, 999990, "MD5", chunkSize, executor)));
+            }
+            finally
+            {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Buffers used for the digest are taken from the pool and given back
+     */
+    public void testDigestReleasesBuffers() throws Exception
+    {
+        File file = createRandomFile("testDigestReleasesBuffers.dat", 100000);
+        DirectByteBufferPool.setLeakDetection(true);
+        try
+        {
+            DirectByteBufferPool.Metrics before = DirectByteBufferPool.getMetrics();
+            AudioDataDigest.digest(file, new long[]{0, 1000, 2000, 100000}, "MD5");
+            DirectByteBufferPool.Metrics after = DirectByteBufferPool.getMetrics();
+            assertEquals(before.getAcquisitions() + 1, after.getAcquisitions());
+            assertEquals(before.getReleases() + 1, after.getReleases());
+            assertEquals(0, DirectByteBufferPool.reportLeaks().size());
+        }
+        finally
+        {
+            DirectByteBufferPool.setLeakDetection(false);
+        }
+    }
+
+    public void testDigestBeyondEndOfFile() throws Exception
+    {
+        File file = createRandomFile("testDigestBeyondEndOfFile.dat", 1000);
+        try
+        {
+            AudioDataDigest.digest(file, 0, 1001, "MD5");
+            fail("Expected EOFException");
+        }
+        catch (EOFException eofe)
+        {
+            //expected
+        }
+    }
+
+    private File createRandomFile(String fileName, int size) throws Exception
+    {
+        File file = new File("testdatatmp", fileName);
+        file.getParentFile().mkdirs();
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            raf.setLength(0);
+            raf.write(data);
+        }
+        return file;
+    }
+}
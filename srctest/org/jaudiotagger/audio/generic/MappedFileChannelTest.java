@@ -0,0 +1,187 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test reading files through a memory mapping
+ */
+public class MappedFileChannelTest extends AbstractTestCase
+{
+    private static final String[] MAPPED_FORMATS = new String[]{".mp3", ".flac", ".wav", ".aif", ".aiff", ".dsf", ".dff"};
+
+    @Override
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testNotMappedByDefault() throws Exception
+    {
+        File testFile = new File("testdata", "test.flac");
+        try (FileChannel fc = MappedFileChannel.openForRead(testFile.toPath()))
+        {
+            assertFalse(fc instanceof MappedFileChannel);
+        }
+    }
+
+    public void testNotMappedAboveMaxFileSize() throws Exception
+    {
+        File testFile = new File("testdata", "test.flac");
+        TagOptionSingleton.getInstance().setMemoryMappedRead(true);
+        TagOptionSingleton.getInstance().setMemoryMappedReadMaxFileSize(testFile.length() - 1);
+        try (FileChannel fc = MappedFileChannel.openForRead(testFile.toPath()))
+        {
+            assertFalse(fc instanceof MappedFileChannel);
+        }
+
+        TagOptionSingleton.getInstance().setMemoryMappedReadMaxFileSize(testFile.length());
+        try (FileChannel fc = MappedFileChannel.openForRead(testFile.toPath()))
+        {
+            assertTrue(fc instanceof MappedFileChannel);
+        }
+    }
+
+    /**
+     * Mapped channel should behave the same as a normal FileChannel
+     */
+    public void testReadSameAsFileChannel() throws Exception
+    {
+        File testFile = new File("testdata", "test.flac");
+        byte[] expected = Files.readAllBytes(testFile.toPath());
+        TagOptionSingleton.getInstance().setMemoryMappedRead(true);
+        try (FileChannel fc = MappedFileChannel.openForRead(testFile.toPath()))
+        {
+            assertEquals(expected.length, fc.size());
+
+            ByteBuffer bb = ByteBuffer.allocate(100);
+            assertEquals(100, fc.read(bb));
+            assertEquals(100, fc.position());
+            for (int i = 0; i < 100; i++)
+            {
+                assertEquals(expected[i], bb.get(i));
+            }
+
+            ByteBuffer slice = Utils.readFileDataIntoBufferBE(fc, 10);
+            assertTrue(slice.isReadOnly());
+            assertEquals(110, fc.position());
+            assertEquals(0, slice.position());
+            assertEquals(10, slice.limit());
+            assertEquals(expected[100], slice.get(0));
+
+            bb.clear();
+            assertEquals(50, fc.read(bb, expected.length - 50));
+            assertEquals(110, fc.position());
+            assertEquals(expected[expected.length - 1], bb.get(49));
+
+            //Not enough data left to slice so copied as before
+            fc.position(expected.length - 5);
+            ByteBuffer partial = Utils.readFileDataIntoBufferLE(fc, 10);
+            assertFalse(partial.isReadOnly());
+            assertEquals(10, partial.limit());
+
+            fc.position(expected.length + 10);
+            assertEquals(-1, fc.read(ByteBuffer.allocate(1)));
+            assertEquals(expected.length + 10, fc.position());
+
+            try
+            {
+                fc.write(ByteBuffer.allocate(1));
+                fail("Expected NonWritableChannelException");
+            }
+            catch (NonWritableChannelException nwce)
+            {
+                //expected
+            }
+        }
+    }
+
+    /**
+     * Every readable test file should give the same results whether mapped or not
+     */
+    public void testReadAllSameAsUnmapped() throws Exception
+    {
+        File[] files = new File("testdata").listFiles();
+        if (files == null)
+        {
+            System.err.println("Unable to test file - not available");
+            return;
+        }
+
+        TagOptionSingleton mappedOptions = TagOptionSingleton.getInstance("testReadAllSameAsUnmapped");
+        mappedOptions.setMemoryMappedRead(true);
+        TagOptions mapped = TagOptions.copyOf(mappedOptions);
+
+        int count = 0;
+        for (File next : files)
+        {
+            if (!isMappedFormat(next.getName()))
+            {
+                continue;
+            }
+
+            AudioFile expected;
+            try
+            {
+                expected = AudioFileIO.read(next);
+            }
+            catch (Exception e)
+            {
+                continue;
+            }
+
+            AudioFile actual = AudioFileIO.read(next, mapped);
+
+            assertEquals(next.getName(), expected.getAudioHeader().toString(), actual.getAudioHeader().toString());
+            assertEquals(next.getName(), listFields(expected.getTag()), listFields(actual.getTag()));
+            count++;
+        }
+        assertTrue(count > 0);
+    }
+
+    private List<String> listFields(Tag tag)
+    {
+        List<String> fields = new ArrayList<String>();
+        if (tag != null)
+        {
+            fields.add(tag.getClass().getName() + ":" + tag.getFieldCount());
+            for (FieldKey key : FieldKey.values())
+            {
+                try
+                {
+                    fields.add(key + "=" + tag.getAll(key));
+                }
+                catch (RuntimeException re)
+                {
+                    //Not supported by this format
+                }
+            }
+        }
+        return fields;
+    }
+
+    private boolean isMappedFormat(String name)
+    {
+        for (String ext : MAPPED_FORMATS)
+        {
+            if (name.toLowerCase().endsWith(ext))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
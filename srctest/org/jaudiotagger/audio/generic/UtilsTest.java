@@ -7,6 +7,8 @@ import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
 
 
 public class UtilsTest  extends TestCase {
@@ -145,4 +147,22 @@ public class UtilsTest  extends TestCase {
         System.out.println(val);
     }
 
+    /**
+     * Should match the SimpleDateFormat based formatting previously used by MP3AudioHeader for anything under a day
+     */
+    public void testFormatTrackLength() throws Exception
+    {
+        SimpleDateFormat timeInFormat = new SimpleDateFormat("ss", Locale.UK);
+        SimpleDateFormat timeOutFormat = new SimpleDateFormat("mm:ss", Locale.UK);
+        SimpleDateFormat timeOutOverAnHourFormat = new SimpleDateFormat("kk:mm:ss", Locale.UK);
+        for (int lengthInSecs = 0; lengthInSecs < 24 * 3600; lengthInSecs++)
+        {
+            SimpleDateFormat timeOut = lengthInSecs < 3600 ? timeOutFormat : timeOutOverAnHourFormat;
+            assertEquals(timeOut.format(timeInFormat.parse(String.valueOf(lengthInSecs))), Utils.formatTrackLength(lengthInSecs));
+        }
+        assertEquals("24:00:00", Utils.formatTrackLength(24 * 3600));
+        assertEquals("100:00:01", Utils.formatTrackLength(100 * 3600 + 1));
+        assertEquals("00:00", Utils.formatTrackLength(-1));
+    }
+
 }
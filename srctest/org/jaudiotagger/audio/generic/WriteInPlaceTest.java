@@ -0,0 +1,217 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Test writing with WriteStrategy.IN_PLACE gives the same file as writing via a temporary file
+ */
+public class WriteInPlaceTest extends AbstractTestCase
+{
+    @Override
+    public void setUp()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    @Override
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testReplaceRegionSameSize() throws Exception
+    {
+        replaceRegion(100, 50, 50);
+    }
+
+    public void testReplaceRegionLarger() throws Exception
+    {
+        replaceRegion(100, 50, 1500);
+    }
+
+    public void testReplaceRegionSmaller() throws Exception
+    {
+        replaceRegion(100, 1500, 10);
+    }
+
+    public void testReplaceRegionAtEnd() throws Exception
+    {
+        replaceRegion(3000, 1000, 200);
+    }
+
+    /**
+     * Replace region using a small chunk size so the shift is done in many overlapping chunks, and compare
+     * with doing the same thing in memory
+     */
+    private void replaceRegion(int start, int length, int newLength) throws Exception
+    {
+        TagOptionSingleton.getInstance().setWriteChunkSize(64);
+        byte[] original = new byte[4000];
+        for (int i = 0; i < original.length; i++)
+        {
+            original[i] = (byte) (i * 31);
+        }
+        byte[] replacement = new byte[newLength];
+        Arrays.fill(replacement, (byte) 7);
+
+        File file = new File("testdatatmp", "replaceRegion" + start + "_" + length + "_" + newLength + ".bin");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), original);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            new RegionReplacement(start, length, ByteBuffer.wrap(replacement)).apply(raf.getChannel());
+        }
+
+        byte[] expected = new byte[original.length - length + newLength];
+        System.arraycopy(original, 0, expected, 0, start);
+        System.arraycopy(replacement, 0, expected, start, newLength);
+        System.arraycopy(original, start + length, expected, start + newLength, original.length - start - length);
+        assertTrue(Arrays.equals(expected, Files.readAllBytes(file.toPath())));
+    }
+
+    public void testWriteOggInPlace() throws Exception
+    {
+        compareWithTempFile("test.ogg", "in place title", true);
+    }
+
+    /**
+     * Comment no longer fits on second page so cannot be done in place
+     */
+    public void testWriteOggLargeComment() throws Exception
+    {
+        char[] title = new char[70000];
+        Arrays.fill(title, 'a');
+        compareWithTempFile("test.ogg", new String(title), false);
+    }
+
+    public void testWriteAsfInPlace() throws Exception
+    {
+        compareWithTempFile("test1.wma", "in place title", true);
+    }
+
+    public void testWriteMp4InPlace() throws Exception
+    {
+        compareWithTempFile("test.m4a", "in place title", true);
+    }
+
+    public void testWriteMp4Larger() throws Exception
+    {
+        char[] title = new char[5000];
+        Arrays.fill(title, 'a');
+        compareWithTempFile("test.m4a", new String(title), false);
+    }
+
+    /**
+     * Replacement that does not leave the file as expected is rejected, rather than the write appearing to succeed
+     */
+    public void testIncorrectInPlaceWriteRejected() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWriteStrategy(WriteStrategy.IN_PLACE);
+
+        //Wrong data written
+        checkInPlaceWriteRejected(new RegionReplacement(0, 4, ByteBuffer.wrap("OggS".getBytes("ISO-8859-1")))
+        {
+            public void apply(FileChannel fc) throws IOException
+            {
+                fc.write(ByteBuffer.wrap("Bad!".getBytes("ISO-8859-1")), 0);
+            }
+        }, "data read back at 0");
+
+        //File size not changed
+        checkInPlaceWriteRejected(new RegionReplacement(0, 4, ByteBuffer.wrap("OggSS".getBytes("ISO-8859-1")))
+        {
+            public void apply(FileChannel fc) throws IOException
+            {
+            }
+        }, "expected file size");
+    }
+
+    private void checkInPlaceWriteRejected(final RegionReplacement replacement, String expectedMessage) throws Exception
+    {
+        AudioFile af = AudioFileIO.read(copyAudioToTmp("test.ogg", new File("rejected_test.ogg")));
+        AudioFileWriter writer = new AudioFileWriter()
+        {
+            protected RegionReplacement createRegionReplacement(AudioFile audioFile, Tag tag, RandomAccessFile raf)
+            {
+                return replacement;
+            }
+
+            protected void writeTag(AudioFile audioFile, Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp)
+            {
+                fail("Should not fall back to temporary file");
+            }
+
+            protected void deleteTag(Tag tag, RandomAccessFile raf, RandomAccessFile tempRaf)
+            {
+            }
+        };
+        try
+        {
+            writer.write(af);
+            fail("Expected CannotWriteException");
+        }
+        catch (CannotWriteException cwe)
+        {
+            assertTrue(cwe.getMessage(), cwe.getMessage().contains(expectedMessage));
+        }
+    }
+
+    /**
+     * Write same title with both strategies, the files should be identical and the title should be readable
+     */
+    private void compareWithTempFile(String fileName, String title, boolean expectInPlace) throws Exception
+    {
+        File inPlaceFile = copyAudioToTmp(fileName, new File("inplace_" + fileName));
+        File tempFile = copyAudioToTmp(fileName, new File("tempfile_" + fileName));
+
+        TagOptionSingleton.getInstance().setWriteStrategy(WriteStrategy.TEMP_FILE);
+        writeTitle(tempFile, title);
+
+        TagOptionSingleton.getInstance().setWriteStrategy(WriteStrategy.IN_PLACE);
+        final File[] modified = new File[1];
+        AudioFileModificationAdapter listener = new AudioFileModificationAdapter()
+        {
+            public void fileModified(AudioFile original, File temporary)
+            {
+                modified[0] = temporary;
+            }
+        };
+        AudioFileIO.getDefaultAudioFileIO().addAudioFileModificationListener(listener);
+        try
+        {
+            writeTitle(inPlaceFile, title);
+        }
+        finally
+        {
+            AudioFileIO.getDefaultAudioFileIO().removeAudioFileModificationListener(listener);
+        }
+        assertEquals(expectInPlace, inPlaceFile.equals(modified[0]));
+
+        assertTrue(Arrays.equals(Files.readAllBytes(tempFile.toPath()), Files.readAllBytes(inPlaceFile.toPath())));
+
+        AudioFile af = AudioFileIO.read(inPlaceFile);
+        assertEquals(title, af.getTag().getFirst(FieldKey.TITLE));
+    }
+
+    private void writeTitle(File file, String title) throws Exception
+    {
+        AudioFile af = AudioFileIO.read(file);
+        Tag tag = af.getTagOrCreateAndSetDefault();
+        tag.setField(FieldKey.TITLE, title);
+        af.commit();
+    }
+}
@@ -2,6 +2,12 @@ package org.jaudiotagger.audio.mp3;
 
 import junit.framework.TestCase;
 import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.logging.AbstractTagDisplayFormatter;
+import org.jaudiotagger.logging.JSONTagDisplayFormatter;
+import org.jaudiotagger.logging.XMLTagDisplayFormatter;
+import org.jaudiotagger.tag.TagField;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 
@@ -10,9 +16,13 @@ import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
 import java.io.File;
+import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.Locale;
 
 
@@ -126,6 +136,110 @@ public class LoggingTest extends TestCase
         assertEquals(0,count);
     }
 
-   
-}
+    /**
+     * Check writing the structure to a writer gives the same output as building it as a string
+     */
+    public void testDisplayStructureToWriter() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("Issue92.id3", "testV1.mp3");
+        MP3File mp3File = new MP3File(testFile);
 
+        StringWriter xml = new StringWriter();
+        mp3File.displayStructure(xml, AbstractTagDisplayFormatter.Format.XML);
+        assertEquals(mp3File.displayStructureAsXML(), xml.toString());
+
+        StringWriter text = new StringWriter();
+        mp3File.displayStructure(text, AbstractTagDisplayFormatter.Format.PLAIN_TEXT);
+        assertEquals(mp3File.displayStructureAsPlainText(), text.toString());
+
+        StringWriter json = new StringWriter();
+        mp3File.displayStructure(json, AbstractTagDisplayFormatter.Format.JSON);
+        assertTrue(json.toString().startsWith("{\"name\":\"file\",\"id\":"));
+        assertTrue(json.toString().contains("{\"name\":\"frame\",\"id\":\"TALB\",\"children\":["));
+        assertTrue(json.toString().endsWith("]}"));
+    }
+
+    /**
+     * Check escaping whilst writing gives the same result as the string escaping methods
+     */
+    public void testXmlEscaping() throws Exception
+    {
+        String value = "Rock & Roll <Live> \"1\" 'é' \uD834\uDD1E;";
+        XMLTagDisplayFormatter formatter = new XMLTagDisplayFormatter();
+        formatter.openHeadingElement("frame", value);
+        formatter.addElement("text", value);
+        formatter.closeHeadingElement("frame");
+        assertEquals(XMLTagDisplayFormatter.xmlOpenHeading("frame", XMLTagDisplayFormatter.replaceXMLCharacters(value))
+                + XMLTagDisplayFormatter.xmlFullTag("text", XMLTagDisplayFormatter.replaceXMLCharacters(value))
+                + XMLTagDisplayFormatter.xmlClose("frame"), formatter.toString());
+    }
+
+    public void testJsonFormat() throws Exception
+    {
+        JSONTagDisplayFormatter formatter = new JSONTagDisplayFormatter();
+        formatter.openHeadingElement("file", "C:\\music\\a.mp3");
+        formatter.openHeadingElement("header", "");
+        formatter.addElement("size", 10);
+        formatter.addElement("valid", true);
+        formatter.closeHeadingElement("header");
+        formatter.addElement("text", "Say \"hi\"\n\u0001");
+        formatter.closeHeadingElement("file");
+        assertEquals("{\"name\":\"file\",\"id\":\"C:\\\\music\\\\a.mp3\",\"children\":["
+                + "{\"name\":\"header\",\"children\":[{\"name\":\"size\",\"value\":10},{\"name\":\"valid\",\"value\":true}]},"
+                + "{\"name\":\"text\",\"value\":\"Say \\\"hi\\\"\\n\\u0001\"}]}", formatter.toString());
+    }
+
+    /**
+     * Formats other than mp3 display their audio header and tag fields
+     */
+    public void testDisplayStructureOfOtherFormats() throws Exception
+    {
+        for (String fileName : new String[]{"test.flac", "test.m4a", "test1.wma"})
+        {
+            AudioFile af = AudioFileIO.read(new File("testdata", fileName));
+            StringWriter xml = new StringWriter();
+            af.displayStructure(xml, AbstractTagDisplayFormatter.Format.XML);
+            int fieldCount = 0;
+            for (Iterator<TagField> fields = af.getTag().getFields(); fields.hasNext(); fields.next())
+            {
+                fieldCount++;
+            }
+            XPathExpression xpath = XPathFactory.newInstance().newXPath().compile("count(/file/tag/field)");
+            assertEquals(fileName, fieldCount, Integer.parseInt(xpath.evaluate(new InputSource(new StringReader(xml.toString())))));
+
+            StringWriter text = new StringWriter();
+            af.displayStructure(text, AbstractTagDisplayFormatter.Format.PLAIN_TEXT);
+            assertTrue(fileName, text.toString().contains("  header:\n    format:" + af.getAudioHeader().getFormat() + "\n"));
+        }
+    }
+
+    public void testDisplayStructureWriteError() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("Issue92.id3", "testV1.mp3");
+        MP3File mp3File = new MP3File(testFile);
+        Writer failing = new Writer()
+        {
+            public void write(char[] cbuf, int off, int len) throws IOException
+            {
+                throw new IOException("Disk full");
+            }
+
+            public void flush()
+            {
+            }
+
+            public void close()
+            {
+            }
+        };
+        try
+        {
+            mp3File.displayStructure(failing, AbstractTagDisplayFormatter.Format.JSON);
+            fail("Expected IOException");
+        }
+        catch (IOException ioe)
+        {
+            assertEquals("Disk full", ioe.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Test counting frames in MP3 files without a Xing or Vbri header
+ */
+public class MP3FrameScannerTest extends AbstractTestCase
+{
+    //MPEG-1 Layer III, 44100Hz, stereo, no crc
+    private static final int HEADER_128KBPS = 0xFFFB9000;
+    private static final int HEADER_320KBPS = 0xFFFBE000;
+    private static final int PADDING = 0x00000200;
+
+    private static final int FRAMES_AT_128KBPS = 1000;
+    private static final int FRAMES_AT_320KBPS = 1000;
+
+    @Override
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testFrameLength()
+    {
+        assertEquals(417, MP3FrameScanner.getFrameLength(HEADER_128KBPS));
+        assertEquals(418, MP3FrameScanner.getFrameLength(HEADER_128KBPS | PADDING));
+        assertEquals(1044, MP3FrameScanner.getFrameLength(HEADER_320KBPS));
+        //MPEG-2 Layer III, 24000Hz, 64kbps
+        assertEquals(192, MP3FrameScanner.getFrameLength(0xFFF38400));
+        assertEquals(-1, MP3FrameScanner.getFrameLength(0x49443303));
+    }
+
+    public void testScanVbrWithoutHeader() throws Exception
+    {
+        File file = createVbrFile("testScanVbrWithoutHeader.mp3");
+
+        MP3AudioHeader header = new MP3AudioHeader(file);
+        //Estimate uses size of first frame, which is padded
+        assertEquals(file.length() / 418, header.getNumberOfFrames());
+
+        header.scanFrames(file, MP3FrameCountMode.SCAN);
+        assertEquals(FRAMES_AT_128KBPS + FRAMES_AT_320KBPS, header.getNumberOfFrames());
+        assertEquals((FRAMES_AT_128KBPS + FRAMES_AT_320KBPS) * 1152 / 44100.0, header.getPreciseTrackLength(), 0.0001);
+        assertTrue(header.isVariableBitRate());
+        assertEquals("~224", header.getBitRate());
+    }
+
+    public void testSampledVbrWithoutHeader() throws Exception
+    {
+        File file = createVbrFile("testSampledVbrWithoutHeader.mp3");
+
+        MP3AudioHeader header = new MP3AudioHeader(file);
+        header.scanFrames(file, MP3FrameCountMode.SAMPLED);
+        int frames = FRAMES_AT_128KBPS + FRAMES_AT_320KBPS;
+        assertTrue(String.valueOf(header.getNumberOfFrames()), Math.abs(header.getNumberOfFrames() - frames) < frames / 10);
+    }
+
+    /**
+     * Mode is applied when reading via AudioFileIO
+     */
+    public void testReadWithScanOption() throws Exception
+    {
+        File file = createVbrFile("testReadWithScanOption.mp3");
+        TagOptionSingleton.getInstance().setMp3FrameCountMode(MP3FrameCountMode.SCAN);
+        MP3AudioHeader header = (MP3AudioHeader) AudioFileIO.read(file).getAudioHeader();
+        assertEquals(FRAMES_AT_128KBPS + FRAMES_AT_320KBPS, header.getNumberOfFrames());
+    }
+
+    /**
+     * Files with a Xing header already have an exact frame count
+     */
+    public void testXingHeaderNotScanned() throws Exception
+    {
+        File file = copyAudioToTmp("testV1vbrOld0.mp3", new File("testXingHeaderNotScanned.mp3"));
+        MP3AudioHeader header = new MP3AudioHeader(file);
+        long frames = header.getNumberOfFrames();
+        header.scanFrames(file, MP3FrameCountMode.SCAN);
+        assertNull(header.mp3FrameScan);
+        assertEquals(frames, header.getNumberOfFrames());
+    }
+
+    /**
+     * Tags after the audio are not counted as frames, even if they contain something that looks like a frame
+     */
+    public void testTagsAfterAudioNotScanned() throws Exception
+    {
+        File file = createVbrFile("testTagsAfterAudioNotScanned.mp3");
+        long audioLength = file.length();
+        try (FileOutputStream out = new FileOutputStream(file, true))
+        {
+            //APEv2 tag without header, whose item data starts with a frame header
+            ByteBuffer ape = ByteBuffer.allocate(MP3FrameScanner.getFrameLength(HEADER_128KBPS) + 32);
+            ape.putInt(HEADER_128KBPS);
+            ape.position(ape.capacity() - 32);
+            ape.order(ByteOrder.LITTLE_ENDIAN);
+            ape.put("APETAGEX".getBytes(StandardCharsets.ISO_8859_1));
+            ape.putInt(2000);
+            ape.putInt(ape.capacity());
+            ape.putInt(1);
+            ape.putInt(0);
+            out.write(ape.array());
+
+            //Lyrics3v2 tag
+            String lyrics = "LYRICSBEGININD0000210";
+            out.write((lyrics + String.format("%06d", lyrics.length()) + "LYRICS200").getBytes(StandardCharsets.ISO_8859_1));
+
+            //ID3v1 tag
+            byte[] id3v1 = new byte[128];
+            System.arraycopy("TAG".getBytes(StandardCharsets.ISO_8859_1), 0, id3v1, 0, 3);
+            out.write(id3v1);
+        }
+
+        try (FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            assertEquals(audioLength, MP3FrameScanner.findAudioEnd(fc, 0, file.length()));
+        }
+        MP3AudioHeader header = new MP3AudioHeader(file);
+        header.scanFrames(file, MP3FrameCountMode.SCAN);
+        assertEquals(FRAMES_AT_128KBPS + FRAMES_AT_320KBPS, header.getNumberOfFrames());
+    }
+
+    /**
+     * Compare scanning, sampling and estimating for the test mp3s without a Xing or Vbri header
+     */
+    public void testCompareModes() throws Exception
+    {
+        File[] files = new File("testdata").listFiles();
+        if (files == null)
+        {
+            System.err.println("Unable to test file - not available");
+            return;
+        }
+
+        for (File next : files)
+        {
+            if (!next.getName().endsWith(".mp3"))
+            {
+                continue;
+            }
+
+            MP3AudioHeader header;
+            try
+            {
+                header = new MP3AudioHeader(next, 0);
+            }
+            catch (Exception e)
+            {
+                continue;
+            }
+            if (header.mp3XingFrame != null || header.mp3VbriFrame != null)
+            {
+                continue;
+            }
+
+            try (FileChannel fc = FileChannel.open(next.toPath(), StandardOpenOption.READ))
+            {
+                long audioEnd = MP3FrameScanner.findAudioEnd(fc, header.getMp3StartByte(), next.length());
+                MP3FrameScanner scan = MP3FrameScanner.scan(fc, header.getMp3StartByte(), audioEnd);
+                MP3FrameScanner sample = MP3FrameScanner.sample(fc, header.getMp3StartByte(), audioEnd, 10);
+                if (scan == null || sample == null)
+                {
+                    continue;
+                }
+                assertTrue(next.getName(), scan.getFrameCount() > 0);
+                assertTrue(next.getName() + ":" + scan.getFrameCount() + ":" + sample.getFrameCount(), Math.abs(sample.getFrameCount() - scan.getFrameCount()) <= scan.getFrameCount() / 10);
+            }
+        }
+    }
+
+    /**
+     * Create file of frames with two different bitrates, and padding on every third frame
+     */
+    private File createVbrFile(String fileName) throws IOException
+    {
+        File file = new File("testdatatmp", fileName);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream out = new FileOutputStream(file))
+        {
+            for (int i = 0; i < FRAMES_AT_128KBPS + FRAMES_AT_320KBPS; i++)
+            {
+                int frameHeader = i < FRAMES_AT_128KBPS ? HEADER_128KBPS : HEADER_320KBPS;
+                if (i % 3 == 0)
+                {
+                    frameHeader |= PADDING;
+                }
+                byte[] frame = new byte[MP3FrameScanner.getFrameLength(frameHeader)];
+                frame[0] = (byte) (frameHeader >>> 24);
+                frame[1] = (byte) (frameHeader >>> 16);
+                frame[2] = (byte) (frameHeader >>> 8);
+                frame[3] = (byte) frameHeader;
+                out.write(frame);
+            }
+        }
+        return file;
+    }
+}
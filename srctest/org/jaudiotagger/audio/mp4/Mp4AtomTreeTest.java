@@ -0,0 +1,170 @@
+package org.jaudiotagger.audio.mp4;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+
+/**
+ * Compare building the atom tree in lazy mode with building the complete tree
+ */
+public class Mp4AtomTreeTest extends AbstractTestCase
+{
+    public void testLazyTreeMatchesCompleteTree() throws Exception
+    {
+        File[] files = new File("testdata").listFiles();
+        if (files == null)
+        {
+            System.err.println("Unable to test file - not available");
+            return;
+        }
+
+        for (File next : files)
+        {
+            if (!next.getName().endsWith(".m4a") && !next.getName().endsWith(".mp4"))
+            {
+                continue;
+            }
+
+            Mp4AtomTree completeTree;
+            try (RandomAccessFile raf = new RandomAccessFile(next, "r"))
+            {
+                completeTree = new Mp4AtomTree(raf, false);
+            }
+            catch (Exception e)
+            {
+                System.out.println(next.getName() + ":" + e.getMessage());
+                continue;
+            }
+
+            try (RandomAccessFile raf = new RandomAccessFile(next, "r"))
+            {
+                Mp4AtomTree lazyTree = new Mp4AtomTree(raf, false, true);
+                int lazyNodes = listAtoms(lazyTree).size();
+
+                assertSameHeader(next.getName(), completeTree.getMoovNode(), lazyTree.getMoovNode());
+                assertSameHeader(next.getName(), completeTree.getMdatNode(), lazyTree.getMdatNode());
+                assertSameHeader(next.getName(), completeTree.getUdtaNode(), lazyTree.getUdtaNode());
+                assertSameHeader(next.getName(), completeTree.getMetaNode(), lazyTree.getMetaNode());
+                assertSameHeader(next.getName(), completeTree.getIlstNode(), lazyTree.getIlstNode());
+                assertSameHeader(next.getName(), completeTree.getHdlrWithinMetaNode(), lazyTree.getHdlrWithinMetaNode());
+                assertSameHeader(next.getName(), completeTree.getHdlrWithinMdiaNode(), lazyTree.getHdlrWithinMdiaNode());
+                assertSameHeader(next.getName(), completeTree.getTagsNode(), lazyTree.getTagsNode());
+                assertEquals(next.getName(), completeTree.getTrakNodes().size(), lazyTree.getTrakNodes().size());
+
+                //Loading sample tables loads the rest of the tree
+                lazyTree.loadSampleTables();
+                assertEquals(next.getName(), completeTree.getStcos().size(), lazyTree.getStcos().size());
+                for (int i = 0; i < completeTree.getStcos().size(); i++)
+                {
+                    assertEquals(next.getName(), completeTree.getStcos().get(i).getFirstOffSet(), lazyTree.getStcos().get(i).getFirstOffSet());
+                }
+                assertEquals(next.getName(), listAtoms(completeTree), listAtoms(lazyTree));
+                assertEquals(next.getName(), completeTree.getMoovBuffer(), lazyTree.getMoovBuffer());
+                assertTrue(next.getName(), lazyNodes <= listAtoms(completeTree).size());
+            }
+        }
+    }
+
+    /**
+     * Lazy mode does not need the sample tables to find the metadata
+     */
+    public void testLazyTreeDoesNotLoadSampleTables() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testLazyTreeDoesNotLoadSampleTables.m4a"));
+        try (RandomAccessFile raf = new RandomAccessFile(testFile, "r"))
+        {
+            Mp4AtomTree lazyTree = new Mp4AtomTree(raf, false, true);
+            assertNotNull(lazyTree.getIlstNode());
+            for (String atom : listAtoms(lazyTree))
+            {
+                assertFalse(atom, atom.startsWith(Mp4AtomIdentifier.STCO.getFieldName()));
+            }
+            try
+            {
+                lazyTree.getStcos();
+                fail("Expected IllegalStateException");
+            }
+            catch (IllegalStateException ise)
+            {
+                //expected
+            }
+
+            lazyTree.loadSampleTables();
+            boolean foundStco = false;
+            for (String atom : listAtoms(lazyTree))
+            {
+                foundStco |= atom.startsWith(Mp4AtomIdentifier.STCO.getFieldName());
+            }
+            assertTrue(foundStco);
+        }
+    }
+
+    /**
+     * An atom within moov that claims to be larger than its parent is a read error
+     */
+    public void testLazyTreeAtomLargerThanParent() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testLazyTreeAtomLargerThanParent.m4a"));
+        Mp4BoxHeader trakHeader;
+        Mp4BoxHeader childHeader;
+        try (RandomAccessFile raf = new RandomAccessFile(testFile, "r"))
+        {
+            DefaultMutableTreeNode trakNode = new Mp4AtomTree(raf, false).getTrakNodes().get(0);
+            trakHeader = (Mp4BoxHeader) trakNode.getUserObject();
+            childHeader = (Mp4BoxHeader) ((DefaultMutableTreeNode) trakNode.getFirstChild()).getUserObject();
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(testFile, "rw"))
+        {
+            raf.seek(childHeader.getFilePos());
+            raf.writeInt(trakHeader.getLength());
+            try
+            {
+                new Mp4AtomTree(raf, false, true);
+                fail("Expected CannotReadException");
+            }
+            catch (CannotReadException cre)
+            {
+                //expected
+            }
+        }
+    }
+
+    private void assertSameHeader(String fileName, DefaultMutableTreeNode expected, DefaultMutableTreeNode actual)
+    {
+        if (expected == null)
+        {
+            assertNull(fileName, actual);
+            return;
+        }
+        assertNotNull(fileName, actual);
+        Mp4BoxHeader expectedHeader = (Mp4BoxHeader) expected.getUserObject();
+        Mp4BoxHeader actualHeader = (Mp4BoxHeader) actual.getUserObject();
+        assertEquals(fileName, expectedHeader.getId(), actualHeader.getId());
+        assertEquals(fileName, expectedHeader.getFilePos(), actualHeader.getFilePos());
+        assertEquals(fileName, expectedHeader.getLength(), actualHeader.getLength());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> listAtoms(Mp4AtomTree tree)
+    {
+        List<String> atoms = new ArrayList<String>();
+        Enumeration<DefaultMutableTreeNode> e = ((DefaultMutableTreeNode) tree.getDataTree().getRoot()).preorderEnumeration();
+        while (e.hasMoreElements())
+        {
+            Mp4BoxHeader header = (Mp4BoxHeader) e.nextElement().getUserObject();
+            if (header != null)
+            {
+                atoms.add(header.getId() + "@" + header.getFilePos() + ":" + header.getLength());
+            }
+        }
+        return atoms;
+    }
+}
@@ -0,0 +1,191 @@
+package org.jaudiotagger.audio.mp4;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.mp4.Mp4Tag;
+import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+
+/**
+ * Test reading the audio header and tag with a single walk of the atoms, including a file with a large moov like an
+ * audiobook
+ */
+public class Mp4FileReaderTest extends AbstractTestCase
+{
+    /**
+     * Create a copy of test15.m4a, which has moov after mdat, with an extra atom of the given size at the end of stbl
+     * so that moov is as large as it would be for a long audiobook
+     *
+     * @param name
+     * @param extraSize
+     * @return the file
+     * @throws Exception
+     */
+    private static File createLargeMoovFile(String name, int extraSize) throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("test15.m4a", new File(name));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            Mp4AtomTree atomTree = new Mp4AtomTree(raf, false, true);
+            DefaultMutableTreeNode stblNode = atomTree.getTrakNodes().get(0);
+            for (Mp4AtomIdentifier id : new Mp4AtomIdentifier[]{Mp4AtomIdentifier.MDIA, Mp4AtomIdentifier.MINF, Mp4AtomIdentifier.STBL})
+            {
+                DefaultMutableTreeNode parentNode = stblNode;
+                for (int i = 0; i < parentNode.getChildCount(); i++)
+                {
+                    DefaultMutableTreeNode child = (DefaultMutableTreeNode) parentNode.getChildAt(i);
+                    if (atomTree.getBoxHeader(child).getId().equals(id.getFieldName()))
+                    {
+                        stblNode = child;
+                    }
+                }
+            }
+            long insertPos = atomTree.getBoxHeader(stblNode).getFileEndPos();
+
+            FileChannel fc = raf.getChannel();
+            ByteBuffer rest = ByteBuffer.allocate((int) (fc.size() - insertPos));
+            fc.read(rest, insertPos);
+            rest.flip();
+
+            ByteBuffer extra = ByteBuffer.allocate(extraSize);
+            extra.putInt(extraSize);
+            extra.put(new byte[]{'s', 'd', 't', 'p'});
+            extra.rewind();
+            fc.write(extra, insertPos);
+            fc.write(rest, insertPos + extraSize);
+
+            //Grow stbl and all the atoms containing it
+            for (DefaultMutableTreeNode node = stblNode; node.getUserObject() != null; node = (DefaultMutableTreeNode) node.getParent())
+            {
+                Mp4BoxHeader header = atomTree.getBoxHeader(node);
+                ByteBuffer length = ByteBuffer.allocate(4);
+                length.putInt(header.getLength() + extraSize);
+                length.flip();
+                fc.write(length, header.getFilePos());
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Read the header and tag separately as done when not reading both
+     */
+    private static Object[] readSeparately(File file) throws Exception
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            GenericAudioHeader header = new Mp4InfoReader().read(raf);
+            raf.seek(0);
+            Mp4Tag tag = new Mp4TagReader().read(raf);
+            return new Object[]{header, tag};
+        }
+    }
+
+    /**
+     * @return the fields of the tag, binary fields by size as their string form is not comparable
+     */
+    private static String describeFields(Tag tag)
+    {
+        StringBuilder sb = new StringBuilder();
+        Iterator<TagField> fields = tag.getFields();
+        while (fields.hasNext())
+        {
+            TagField field = fields.next();
+            sb.append(field.getId()).append('=');
+            try
+            {
+                sb.append(field.isBinary() ? String.valueOf(field.getRawContent().length) : field.toString());
+            }
+            catch (Exception e)
+            {
+                sb.append(e.getMessage());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    public void testSameAsReadingSeparately() throws Exception
+    {
+        File[] files = new File("testdata").listFiles();
+        if (files == null)
+        {
+            System.err.println("Unable to test file - not available");
+            return;
+        }
+
+        int count = 0;
+        for (File next : files)
+        {
+            if (!next.getName().endsWith(".m4a") && !next.getName().endsWith(".m4b") && !next.getName().endsWith(".mp4"))
+            {
+                continue;
+            }
+            Object[] separately;
+            try
+            {
+                separately = readSeparately(next);
+            }
+            catch (Exception e)
+            {
+                System.out.println(next.getName() + ":" + e.getMessage());
+                continue;
+            }
+            AudioFile af = AudioFileIO.read(next);
+            assertEquals(next.getName(), separately[0].toString(), af.getAudioHeader().toString());
+            assertEquals(next.getName(), describeFields((Tag) separately[1]), describeFields(af.getTag()));
+            count++;
+        }
+        assertTrue(count > 0);
+    }
+
+    public void testReadLargeMoov() throws Exception
+    {
+        File file = createLargeMoovFile("testReadLargeMoov.m4b", 1000000);
+        AudioFile original = AudioFileIO.read(new File("testdata", "test15.m4a"));
+        AudioFile af = AudioFileIO.read(file);
+        assertEquals(original.getAudioHeader().getPreciseTrackLength(), af.getAudioHeader().getPreciseTrackLength());
+        assertEquals(original.getAudioHeader().getSampleRateAsNumber(), af.getAudioHeader().getSampleRateAsNumber());
+        assertEquals(original.getAudioHeader().getBitRateAsNumber(), af.getAudioHeader().getBitRateAsNumber());
+        assertEquals(original.getAudioHeader().getChannels(), af.getAudioHeader().getChannels());
+        assertEquals(original.getAudioHeader().getEncodingType(), af.getAudioHeader().getEncodingType());
+        assertEquals(original.getTag().getFirst(FieldKey.TITLE), af.getTag().getFirst(FieldKey.TITLE));
+        assertEquals(describeFields(original.getTag()), describeFields(af.getTag()));
+    }
+
+    /**
+     * Data of a box cut short by the end of the file is rejected rather than read as zeros
+     */
+    public void testReadTruncatedBoxData() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testReadTruncatedBoxData.m4a"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            Mp4InfoReader reader = new Mp4InfoReader();
+            Mp4AtomTree atomTree = reader.readAtomTree(raf);
+            Mp4BoxHeader ftypHeader = atomTree.getBoxHeader(atomTree.getFtypNode());
+            raf.setLength(ftypHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH + 4);
+            try
+            {
+                reader.read(raf, atomTree);
+                fail("Expected CannotReadException");
+            }
+            catch (CannotReadException cre)
+            {
+                assertTrue(cre.getMessage(), cre.getMessage().contains(ftypHeader.getId()));
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.jaudiotagger.audio.ogg;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.ogg.util.OggInfoReader;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Count the file reads needed to find the track length by searching backwards for the last Ogg page, comparing
+ * with searching backwards a byte at a time. For the block search all reads made reading the audio header are
+ * counted, for the byte search only the search itself.
+ */
+public class OggInfoReaderTest extends AbstractTestCase
+{
+    public void testCountReadsForAllOggFiles() throws Exception
+    {
+        File[] files = new File("testdata").listFiles();
+        if (files == null)
+        {
+            System.err.println("Unable to test file - not available");
+            return;
+        }
+
+        for (File next : files)
+        {
+            if (!next.getName().endsWith(".ogg"))
+            {
+                continue;
+            }
+
+            CountingRandomAccessFile raf = new CountingRandomAccessFile(next);
+            GenericAudioHeader header;
+            try
+            {
+                header = new OggInfoReader().read(raf);
+            }
+            catch (CannotReadException cre)
+            {
+                //Not all the test files are valid Ogg files
+                System.out.println(next.getName() + ":" + cre.getMessage());
+                continue;
+            }
+            finally
+            {
+                raf.close();
+            }
+            int blockReads = raf.getReadCount();
+
+            raf = new CountingRandomAccessFile(next);
+            double pcmSamplesNumber;
+            try
+            {
+                pcmSamplesNumber = readLastGranulePositionByteByByte(raf);
+            }
+            finally
+            {
+                raf.close();
+            }
+            int byteReads = raf.getReadCount();
+
+            assertEquals(next.getName(), (float) (pcmSamplesNumber / header.getSampleRateAsNumber()), (float) header.getPreciseTrackLength());
+            assertTrue(next.getName(), blockReads < 10);
+            assertTrue(next.getName(), blockReads <= byteReads);
+        }
+    }
+
+    /**
+     * The original search, reads backwards a byte at a time
+     */
+    private double readLastGranulePositionByteByByte(RandomAccessFile raf) throws IOException
+    {
+        raf.seek(raf.length() - 2);
+        while (raf.getFilePointer() >= 4)
+        {
+            if (raf.read() == OggPageHeader.CAPTURE_PATTERN[3])
+            {
+                raf.seek(raf.getFilePointer() - OggPageHeader.FIELD_CAPTURE_PATTERN_LENGTH);
+                byte[] ogg = new byte[3];
+                raf.readFully(ogg);
+                if (ogg[0] == OggPageHeader.CAPTURE_PATTERN[0] && ogg[1] == OggPageHeader.CAPTURE_PATTERN[1] && ogg[2] == OggPageHeader.CAPTURE_PATTERN[2])
+                {
+                    raf.seek(raf.getFilePointer() - 3);
+
+                    long oldPos = raf.getFilePointer();
+                    raf.seek(raf.getFilePointer() + OggPageHeader.FIELD_PAGE_SEGMENTS_POS);
+                    int pageSegments = raf.readByte() & 0xFF; //Unsigned
+                    raf.seek(oldPos);
+
+                    byte[] b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
+                    raf.readFully(b);
+                    return new OggPageHeader(b).getAbsoluteGranulePosition();
+                }
+            }
+            raf.seek(raf.getFilePointer() - 2);
+        }
+        return -1;
+    }
+
+    /**
+     * Counts every call that reads from the file
+     */
+    private static class CountingRandomAccessFile extends RandomAccessFile
+    {
+        private int readCount;
+
+        public CountingRandomAccessFile(File file) throws FileNotFoundException
+        {
+            super(file, "r");
+        }
+
+        public int getReadCount()
+        {
+            return readCount;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            readCount++;
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            readCount++;
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public int read(byte[] b) throws IOException
+        {
+            readCount++;
+            return super.read(b);
+        }
+    }
+}
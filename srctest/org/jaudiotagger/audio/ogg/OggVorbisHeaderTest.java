@@ -4,6 +4,8 @@ import junit.framework.TestCase;
 import org.jaudiotagger.AbstractTestCase;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
 import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentFieldKey;
@@ -11,6 +13,7 @@ import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
 
 import java.io.File;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 
 /**
  * Basic Vorbis tests
@@ -309,4 +312,114 @@ public class OggVorbisHeaderTest extends TestCase
         assertNull(exceptionCaught);
         assertEquals(26, count);
     }
+
+    /**
+     * Testing writing a comment that needs an extra page, so every audio page of a file larger than the buffer used
+     * to copy the audio has to be renumbered and rechecksummed
+     */
+    public void testWriteRenumbersAllAudioPages()
+    {
+        Exception exceptionCaught = null;
+        try
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp("test76.ogg", new File("testWriteRenumbersAllAudioPages.ogg"));
+            checkAllPages(testFile);
+
+            AudioFile f = AudioFileIO.read(testFile);
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < OggPageHeader.MAXIMUM_PAGE_DATA_SIZE + 1000; i++)
+            {
+                sb.append('a');
+            }
+            f.getTag().setField(FieldKey.COMMENT, sb.toString());
+            f.commit();
+
+            checkAllPages(testFile);
+            f = AudioFileIO.read(testFile);
+            assertEquals(sb.toString(), f.getTag().getFirst(FieldKey.COMMENT));
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            exceptionCaught = e;
+        }
+        assertNull(exceptionCaught);
+    }
+
+    /**
+     * Testing renumbering pages of a stream larger than the buffer used to copy them, including an invalid ID3v1 tag
+     * at the end which should be discarded
+     */
+    public void testWriteRemainingPagesLargerThanBuffer()
+    {
+        Exception exceptionCaught = null;
+        try
+        {
+            File orig = new File("testdata", "test76.ogg");
+            File testFile = new File("testdatatmp", "testWriteRemainingPagesLargerThanBuffer.ogg");
+            File outputFile = new File("testdatatmp", "testWriteRemainingPagesLargerThanBuffer2.ogg");
+            byte[] pages = new byte[(int) orig.length()];
+            RandomAccessFile raf = new RandomAccessFile(orig, "r");
+            raf.readFully(pages);
+            raf.close();
+
+            testFile.delete();
+            raf = new RandomAccessFile(testFile, "rw");
+            for (int i = 0; i < 10; i++)
+            {
+                raf.write(pages);
+            }
+            byte[] id3v1 = new byte[128];
+            id3v1[0] = 'T';
+            id3v1[1] = 'A';
+            id3v1[2] = 'G';
+            raf.write(id3v1);
+            raf.seek(0);
+
+            outputFile.delete();
+            RandomAccessFile rafTemp = new RandomAccessFile(outputFile, "rw");
+            new OggVorbisTagWriter().writeRemainingPages(-1, raf, rafTemp);
+            raf.close();
+            rafTemp.close();
+
+            assertEquals(pages.length * 10, outputFile.length());
+            checkAllPages(outputFile);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            exceptionCaught = e;
+        }
+        assertNull(exceptionCaught);
+    }
+
+    /**
+     * Check page sequence numbers and checksums of every page
+     */
+    private void checkAllPages(File testFile) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(testFile, "r");
+        ByteBuffer bb = ByteBuffer.allocate((int) (raf.length()));
+        raf.getChannel().read(bb);
+        raf.close();
+        bb.rewind();
+
+        int count = 0;
+        while (bb.hasRemaining())
+        {
+            int start = bb.position();
+            OggPageHeader pageHeader = OggPageHeader.read(bb);
+            assertEquals(count, pageHeader.getPageSequence());
+
+            byte[] page = new byte[pageHeader.getRawHeaderData().length + pageHeader.getPageLength()];
+            bb.position(start);
+            bb.get(page);
+            for (int i = 0; i < OggPageHeader.FIELD_PAGE_CHECKSUM_LENGTH; i++)
+            {
+                page[OggPageHeader.FIELD_PAGE_CHECKSUM_POS + i] = 0;
+            }
+            assertEquals(pageHeader.getCheckSum(), Utils.getIntLE(OggCRCFactory.computeCRC(page)));
+            count++;
+        }
+    }
 }
@@ -0,0 +1,228 @@
+package org.jaudiotagger.tag;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24FieldKey;
+import org.jaudiotagger.tag.id3.ID3v24Frames;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test reading and writing with TagOptions rather than the default TagOptionSingleton
+ */
+public class TagOptionsTest extends AbstractTestCase
+{
+    @Override
+    public void setUp()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        TagOptionSingleton.getInstance().setId3v2ITunes12_6WorkGroupingMode(false);
+    }
+
+    @Override
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        TagOptionSingleton.getInstance().setId3v2ITunes12_6WorkGroupingMode(false);
+    }
+
+    /**
+     * Every option should be copied, change them all from their defaults to check
+     */
+    public void testCopyOfHasAllOptions() throws Exception
+    {
+        TagOptionSingleton source = TagOptionSingleton.getInstance("testCopyOfHasAllOptions");
+        List<Field> fields = new ArrayList<Field>();
+        for (Field field : TagOptionSingleton.class.getDeclaredFields())
+        {
+            if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("modifiable"))
+            {
+                continue;
+            }
+            field.setAccessible(true);
+            fields.add(field);
+            Class<?> type = field.getType();
+            if (type == boolean.class)
+            {
+                field.setBoolean(source, !field.getBoolean(source));
+            }
+            else if (type == byte.class)
+            {
+                field.setByte(source, (byte) (field.getByte(source) + 1));
+            }
+            else if (type == int.class)
+            {
+                field.setInt(source, field.getInt(source) + 1);
+            }
+            else if (type == long.class)
+            {
+                field.setLong(source, field.getLong(source) + 1);
+            }
+            else if (type == String.class)
+            {
+                field.set(source, "fra");
+            }
+            else if (type.isEnum())
+            {
+                Object[] values = type.getEnumConstants();
+                field.set(source, values[(((Enum<?>) field.get(source)).ordinal() + 1) % values.length]);
+            }
+        }
+        source.addReplaceWord("testCopyOfHasAllOptions", "copied");
+
+        TagOptionSingleton copy = TagOptions.copyOf(source).getOptions();
+        for (Field field : fields)
+        {
+            assertEquals(field.getName(), field.get(source), field.get(copy));
+        }
+
+        //Later changes not seen by copy
+        source.addReplaceWord("afterCopy", "notCopied");
+        assertNull(copy.getNewReplaceWord("afterCopy"));
+        assertEquals("copied", copy.getNewReplaceWord("testCopyOfHasAllOptions"));
+    }
+
+    public void testCopyCannotBeModified()
+    {
+        TagOptions tagOptions = TagOptions.current();
+        try
+        {
+            tagOptions.getOptions().setPadNumbers(true);
+            fail("Expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe)
+        {
+            //expected
+        }
+        assertFalse(tagOptions.getOptions().isPadNumbers());
+    }
+
+    public void testApply()
+    {
+        TagOptionSingleton.getInstance().setPadNumbers(false);
+        TagOptionSingleton padded = TagOptionSingleton.getInstance("testApply");
+        padded.setPadNumbers(true);
+        TagOptions tagOptions = TagOptions.copyOf(padded);
+        TagOptions unpadded = TagOptions.current();
+
+        try (TagOptions.Scope scope = tagOptions.apply())
+        {
+            assertTrue(TagOptionSingleton.getInstance().isPadNumbers());
+            try (TagOptions.Scope inner = unpadded.apply())
+            {
+                assertFalse(TagOptionSingleton.getInstance().isPadNumbers());
+            }
+            assertTrue(TagOptionSingleton.getInstance().isPadNumbers());
+        }
+        assertFalse(TagOptionSingleton.getInstance().isPadNumbers());
+    }
+
+    /**
+     * The deprecated setter on the frame mappings sets the option in force rather than changing the mappings
+     */
+    @SuppressWarnings("deprecation")
+    public void testSetITunes12_6WorkGroupingModeOnFrames()
+    {
+        ID3v24Frames.getInstanceOf().setITunes12_6WorkGroupingMode(true);
+        assertTrue(TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode());
+        assertEquals(ID3v24FieldKey.GROUPING, ID3v24Frames.getInstanceOf().getId3KeyFromGenericKey(FieldKey.WORK));
+        ID3v24Frames.getInstanceOf().setITunes12_6WorkGroupingMode(false);
+        assertFalse(TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode());
+        assertEquals(ID3v24FieldKey.WORK, ID3v24Frames.getInstanceOf().getId3KeyFromGenericKey(FieldKey.WORK));
+    }
+
+    /**
+     * Read the same file in two threads at once, one using iTunes 12.6 work/grouping mode and one not
+     */
+    public void testReadConcurrentlyWithDifferentOptions() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testReadConcurrentlyWithDifferentOptions.mp3"));
+        MP3File mp3File = new MP3File(testFile);
+        ID3v23Tag v2Tag = new ID3v23Tag();
+        v2Tag.setField(FieldKey.GROUPING, "grouping");
+        v2Tag.setField(FieldKey.WORK, "work");
+        mp3File.setID3v2Tag(v2Tag);
+        mp3File.save();
+
+        TagOptionSingleton iTunesOptions = TagOptionSingleton.getInstance("testReadConcurrentlyWithDifferentOptions");
+        iTunesOptions.setId3v2ITunes12_6WorkGroupingMode(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            Future<Integer> regular = executor.submit(new ReadWork(testFile, TagOptions.current(), "work", "grouping"));
+            Future<Integer> iTunes = executor.submit(new ReadWork(testFile, TagOptions.copyOf(iTunesOptions), "grouping", ""));
+            assertEquals(200, (int) regular.get());
+            assertEquals(200, (int) iTunes.get());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+        assertFalse(TagOptionSingleton.getInstance().isId3v2ITunes12_6WorkGroupingMode());
+    }
+
+    /**
+     * Options read with are used again when written
+     */
+    public void testWriteWithOptionsReadWith() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testWriteWithOptionsReadWith.mp3"));
+        TagOptionSingleton iTunesOptions = TagOptionSingleton.getInstance("testWriteWithOptionsReadWith");
+        iTunesOptions.setId3v2ITunes12_6WorkGroupingMode(true);
+        TagOptions tagOptions = TagOptions.copyOf(iTunesOptions);
+
+        AudioFile af = AudioFileIO.read(testFile, tagOptions);
+        try (TagOptions.Scope scope = tagOptions.apply())
+        {
+            af.getTagOrCreateAndSetDefault().setField(FieldKey.WORK, "work");
+        }
+        af.commit();
+
+        af = AudioFileIO.read(testFile);
+        assertEquals("work", af.getTag().getFirst(FieldKey.GROUPING));
+    }
+
+    private static class ReadWork implements Callable<Integer>
+    {
+        private final File file;
+        private final TagOptions tagOptions;
+        private final String expectedWork;
+        private final String expectedGrouping;
+
+        ReadWork(File file, TagOptions tagOptions, String expectedWork, String expectedGrouping)
+        {
+            this.file = file;
+            this.tagOptions = tagOptions;
+            this.expectedWork = expectedWork;
+            this.expectedGrouping = expectedGrouping;
+        }
+
+        public Integer call() throws Exception
+        {
+            int count = 0;
+            for (int i = 0; i < 200; i++)
+            {
+                AudioFile af = AudioFileIO.read(file, tagOptions);
+                try (TagOptions.Scope scope = tagOptions.apply())
+                {
+                    assertEquals(expectedWork, af.getTag().getFirst(FieldKey.WORK));
+                    assertEquals(expectedGrouping, af.getTag().getFirst(FieldKey.GROUPING));
+                }
+                count++;
+            }
+            return count;
+        }
+    }
+}
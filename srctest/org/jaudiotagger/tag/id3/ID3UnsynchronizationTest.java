@@ -0,0 +1,160 @@
+package org.jaudiotagger.tag.id3;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.audio.mp3.MPEGFrameHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test unsynchronization against a byte at a time implementation, including large image payloads
+ */
+public class ID3UnsynchronizationTest extends TestCase
+{
+    private static final int IMAGE_SIZE = 5 * 1024 * 1024;
+
+    public void testUnsynchronizeSmall()
+    {
+        assertUnsynchronize(new byte[]{1, 2, 3});
+        assertUnsynchronize(new byte[]{(byte) 0xFF});
+        assertUnsynchronize(new byte[]{(byte) 0xFF, (byte) 0xE0, 1});
+        assertUnsynchronize(new byte[]{(byte) 0xFF, 0, 0, (byte) 0xFF});
+        assertUnsynchronize(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0});
+        assertUnsynchronize(new byte[]{(byte) 0xFF, 0x10, (byte) 0xFF, 0x00});
+    }
+
+    public void testUnsynchronizeNotRequiredReturnsSource()
+    {
+        byte[] source = new byte[]{1, (byte) 0xFF, 0x10, 2};
+        assertSame(source, ID3Unsynchronization.unsynchronize(source));
+    }
+
+    public void testSynchronizeSmall()
+    {
+        assertSynchronize(new byte[]{1, 2, 3});
+        assertSynchronize(new byte[]{(byte) 0xFF, 0});
+        assertSynchronize(new byte[]{(byte) 0xFF, 0, 0});
+        assertSynchronize(new byte[]{(byte) 0xFF, (byte) 0xFF, 0, (byte) 0xE0});
+        assertSynchronize(new byte[]{(byte) 0xFF, 0, (byte) 0xFF, 0, 5, (byte) 0xFF});
+    }
+
+    public void testSynchronizeNotRequiredDoesNotCopy()
+    {
+        byte[] source = new byte[]{9, 1, (byte) 0xFF, 0x10, 2};
+        ByteBuffer bb = ByteBuffer.wrap(source);
+        bb.position(1);
+        ByteBuffer result = ID3Unsynchronization.synchronize(bb);
+        assertSame(source, result.array());
+        assertEquals(4, result.remaining());
+        assertEquals(1, result.get(0));
+        assertFalse(bb.hasRemaining());
+    }
+
+    public void testSynchronizeDirectBuffer()
+    {
+        byte[] source = createImage(new Random(1), 10000, true);
+        ByteBuffer bb = ByteBuffer.allocateDirect(source.length);
+        bb.put(source);
+        bb.flip();
+        assertTrue(Arrays.equals(synchronizeByteByByte(source), toArray(ID3Unsynchronization.synchronize(bb))));
+    }
+
+    public void testRoundTripLargeImage()
+    {
+        byte[] image = createImage(new Random(2), IMAGE_SIZE, true);
+        byte[] unsynced = ID3Unsynchronization.unsynchronize(image);
+        assertTrue(Arrays.equals(unsynchronizeByteByByte(image), unsynced));
+        assertTrue(Arrays.equals(synchronizeByteByByte(unsynced), toArray(ID3Unsynchronization.synchronize(ByteBuffer.wrap(unsynced)))));
+        assertTrue(Arrays.equals(image, toArray(ID3Unsynchronization.synchronize(ByteBuffer.wrap(unsynced)))));
+    }
+
+    private void assertUnsynchronize(byte[] source)
+    {
+        assertTrue(Arrays.toString(source), Arrays.equals(unsynchronizeByteByByte(source), ID3Unsynchronization.unsynchronize(source)));
+    }
+
+    private void assertSynchronize(byte[] source)
+    {
+        assertTrue(Arrays.toString(source), Arrays.equals(synchronizeByteByByte(source), toArray(ID3Unsynchronization.synchronize(ByteBuffer.wrap(source)))));
+    }
+
+    private byte[] toArray(ByteBuffer bb)
+    {
+        byte[] result = new byte[bb.remaining()];
+        bb.duplicate().get(result);
+        return result;
+    }
+
+    /**
+     * Random image data, without sync patterns unless requested
+     */
+    private byte[] createImage(Random random, int size, boolean withSync)
+    {
+        byte[] image = new byte[size];
+        random.nextBytes(image);
+        if (!withSync)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                if (image[i] == (byte) 0xFF)
+                {
+                    image[i] = 0x7F;
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Unsynchronize a byte at a time using streams, as originally implemented
+     */
+    private byte[] unsynchronizeByteByByte(byte[] abySource)
+    {
+        ByteArrayInputStream input = new ByteArrayInputStream(abySource);
+        ByteArrayOutputStream output = new ByteArrayOutputStream(abySource.length);
+        while (input.available() > 0)
+        {
+            int firstByte = input.read();
+            output.write(firstByte);
+            if ((firstByte & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            {
+                if (input.available() > 0)
+                {
+                    input.mark(1);
+                    int secondByte = input.read();
+                    if ((secondByte & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2 || secondByte == 0)
+                    {
+                        output.write(0);
+                    }
+                    input.reset();
+                }
+            }
+        }
+        if ((abySource[abySource.length - 1] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+        {
+            output.write(0);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Synchronize a byte at a time using streams
+     */
+    private byte[] synchronizeByteByByte(byte[] source)
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(source.length);
+        boolean copy = true;
+        for (byte byteValue : source)
+        {
+            if (copy || byteValue != 0)
+            {
+                output.write(byteValue);
+            }
+            copy = ((byteValue & MPEGFrameHeader.SYNC_BYTE1) != MPEGFrameHeader.SYNC_BYTE1);
+        }
+        return output.toByteArray();
+    }
+}
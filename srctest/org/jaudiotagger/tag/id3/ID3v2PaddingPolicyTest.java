@@ -0,0 +1,272 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Test choosing the ID3v2 padding and checking whether a save will move the audio
+ */
+public class ID3v2PaddingPolicyTest extends AbstractTestCase
+{
+    public void testFixed()
+    {
+        assertEquals(1100, ID3v2PaddingPolicy.FIXED.calculateTagSize(1000, 500));
+    }
+
+    public void testProportional()
+    {
+        ID3v2PaddingPolicy policy = ID3v2PaddingPolicy.proportional(10);
+        //No existing tag
+        assertEquals(11000, policy.calculateTagSize(10000, 0));
+        //Small tag gets at least the fixed amount
+        assertEquals(300, policy.calculateTagSize(200, 0));
+        //Tag grown by more than the percentage, leave room to grow by the same again
+        assertEquals(18000, policy.calculateTagSize(10000, 2000));
+        assertEquals(11000, policy.calculateTagSize(10000, 9500));
+    }
+
+    public void testBlockAligned()
+    {
+        ID3v2PaddingPolicy policy = ID3v2PaddingPolicy.blockAligned(4096);
+        assertEquals(4096, policy.calculateTagSize(1000, 500));
+        assertEquals(8192, policy.calculateTagSize(4000, 500));
+        assertEquals(8192, policy.calculateTagSize(8092, 500));
+        assertEquals(12288, policy.calculateTagSize(8093, 500));
+    }
+
+    public void testSizeClasses()
+    {
+        ID3v2PaddingPolicy policy = ID3v2PaddingPolicy.sizeClasses(65536, 4096, 16384);
+        assertEquals(4096, policy.calculateTagSize(1000, 500));
+        assertEquals(16384, policy.calculateTagSize(4097, 500));
+        assertEquals(65536, policy.calculateTagSize(65536, 500));
+        assertEquals(131072, policy.calculateTagSize(65537, 500));
+    }
+
+    public void testInvalidPolicies()
+    {
+        try
+        {
+            ID3v2PaddingPolicy.sizeClasses();
+            fail();
+        }
+        catch (IllegalArgumentException iae)
+        {
+            //expected
+        }
+        try
+        {
+            ID3v2PaddingPolicy.blockAligned(0);
+            fail();
+        }
+        catch (IllegalArgumentException iae)
+        {
+            //expected
+        }
+    }
+
+    private static String createText(int length)
+    {
+        char[] text = new char[length];
+        Arrays.fill(text, 'l');
+        return new String(text);
+    }
+
+    /**
+     * Save the file, checking the dry run agrees with whether the audio was moved
+     *
+     * @return true if the audio was moved
+     */
+    private static boolean save(MP3File mp3File) throws Exception
+    {
+        long audioStart = mp3File.getMP3AudioHeader().getMp3StartByte();
+        boolean inPlace = mp3File.isID3v2TagWrittenInPlace();
+        mp3File.save();
+        assertEquals(inPlace, audioStart == new MP3File(mp3File.getFile()).getMP3AudioHeader().getMp3StartByte());
+        return !inPlace;
+    }
+
+    /**
+     * Edit a file as a batch job might, adding a title, lyrics and then artwork in separate saves
+     *
+     * @return the number of saves that moved the audio
+     */
+    private int countSavesMovingAudio(String name) throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File(name));
+        Artwork artwork = ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png"));
+        String[] titles = {"Title", "A longer title", "Another title"};
+
+        int moved = 0;
+        for (int i = 0; i < 5; i++)
+        {
+            MP3File mp3File = new MP3File(testFile);
+            if (mp3File.getID3v2Tag() == null)
+            {
+                mp3File.setID3v2Tag(new ID3v23Tag());
+            }
+            switch (i)
+            {
+                case 0:
+                    mp3File.getID3v2Tag().setField(FieldKey.TITLE, titles[0]);
+                    break;
+                case 1:
+                    mp3File.getID3v2Tag().setField(FieldKey.LYRICS, createText(2000));
+                    break;
+                case 2:
+                    mp3File.getID3v2Tag().setField(artwork);
+                    break;
+                default:
+                    mp3File.getID3v2Tag().setField(FieldKey.TITLE, titles[i - 2]);
+            }
+            if (save(mp3File))
+            {
+                moved++;
+            }
+        }
+        MP3File mp3File = new MP3File(testFile);
+        assertEquals(createText(2000), mp3File.getID3v2Tag().getFirst(FieldKey.LYRICS));
+        assertEquals(titles[2], mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+        assertEquals(artwork.getBinaryData().length, mp3File.getID3v2Tag().getFirstArtwork().getBinaryData().length);
+        return moved;
+    }
+
+    /**
+     * Edit a file making the lyrics longer each time
+     *
+     * @return the number of saves that moved the audio
+     */
+    private int countSavesMovingAudioGrowingLyrics(String name) throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File(name));
+        int moved = 0;
+        for (int length = 2000; length <= 8000; length += 1500)
+        {
+            MP3File mp3File = new MP3File(testFile);
+            if (mp3File.getID3v2Tag() == null)
+            {
+                mp3File.setID3v2Tag(new ID3v23Tag());
+            }
+            mp3File.getID3v2Tag().setField(FieldKey.LYRICS, createText(length));
+            if (save(mp3File))
+            {
+                moved++;
+            }
+        }
+        assertEquals(createText(8000), new MP3File(testFile).getID3v2Tag().getFirst(FieldKey.LYRICS));
+        return moved;
+    }
+
+    public void testRepeatedEdits() throws Exception
+    {
+        int movedFixed = countSavesMovingAudio("testPaddingPolicyFixed.mp3");
+        int movedFixedGrowing = countSavesMovingAudioGrowingLyrics("testPaddingPolicyFixedGrowing.mp3");
+
+        TagOptionSingleton.getInstance().setId3v2PaddingPolicy(ID3v2PaddingPolicy.proportional(50));
+        int movedProportionalGrowing = countSavesMovingAudioGrowingLyrics("testPaddingPolicyProportionalGrowing.mp3");
+
+        TagOptionSingleton.getInstance().setId3v2PaddingPolicy(ID3v2PaddingPolicy.sizeClasses(4096, 65536));
+        int movedSizeClasses = countSavesMovingAudio("testPaddingPolicySizeClasses.mp3");
+
+        //The fixed padding moves the audio for the first save and every edit that adds a large field
+        assertEquals(3, movedFixed);
+        assertEquals(5, movedFixedGrowing);
+        assertEquals(2, movedSizeClasses);
+        assertEquals(3, movedProportionalGrowing);
+    }
+
+    /**
+     * A batch job uses the dry run to combine edits that would each move the audio into a single save
+     */
+    public void testBatchEditsUsingDryRun() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testPaddingPolicyBatch.mp3"));
+        Artwork artwork = ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png"));
+
+        MP3File mp3File = new MP3File(testFile);
+        mp3File.setID3v2Tag(new ID3v23Tag());
+        mp3File.getID3v2Tag().setField(FieldKey.LYRICS, createText(2000));
+        assertFalse(mp3File.isID3v2TagWrittenInPlace());
+        //Audio is going to be moved anyway, so add the artwork before saving
+        mp3File.getID3v2Tag().setField(artwork);
+        assertTrue(save(mp3File));
+
+        mp3File = new MP3File(testFile);
+        mp3File.getID3v2Tag().setField(FieldKey.TITLE, "Title");
+        assertTrue(mp3File.isID3v2TagWrittenInPlace());
+        assertFalse(save(mp3File));
+        mp3File = new MP3File(testFile);
+        assertEquals("Title", mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+        assertEquals(artwork.getBinaryData().length, mp3File.getID3v2Tag().getFirstArtwork().getBinaryData().length);
+    }
+
+    /**
+     * The dry run leaves the unsynchronization and frame encoding flags as they were before
+     */
+    public void testDryRunLeavesTagUnchanged() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testPaddingPolicyDryRun.mp3"));
+        byte[] data = new byte[10000];
+        new Random(1).nextBytes(data);
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(data);
+        artwork.setMimeType("image/png");
+        assertTrue(ID3Unsynchronization.requiresUnsynchronization(data));
+
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        try
+        {
+            MP3File mp3File = new MP3File(testFile);
+            mp3File.setID3v2Tag(new ID3v23Tag());
+            mp3File.getID3v2Tag().setField(artwork);
+            mp3File.isID3v2TagWrittenInPlace();
+            assertFalse(((ID3v23Tag) mp3File.getID3v2Tag()).isUnsynchronization());
+
+            mp3File.setID3v2Tag(new ID3v24Tag());
+            mp3File.getID3v2Tag().setField(artwork);
+            AbstractID3v2Frame frame = (AbstractID3v2Frame) mp3File.getID3v2Tag().getFrame(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+            byte flags = frame.getEncodingFlags().getFlags();
+            mp3File.isID3v2TagWrittenInPlace();
+            assertEquals(flags, frame.getEncodingFlags().getFlags());
+        }
+        finally
+        {
+            TagOptionSingleton.getInstance().setUnsyncTags(false);
+        }
+    }
+
+    /**
+     * Where the audio starts is not known if only the tag was read
+     */
+    public void testDryRunPartiallyRead() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testPaddingPolicyDryRunPartial.mp3"));
+        TagOptionSingleton tagOnly = TagOptionSingleton.getInstance("ID3v2PaddingPolicyTest");
+        tagOnly.setToDefault();
+        tagOnly.setReadOptions(AudioFile.READ_TAG);
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile, TagOptions.copyOf(tagOnly));
+        mp3File.setID3v2Tag(new ID3v23Tag());
+        mp3File.getID3v2Tag().setField(FieldKey.TITLE, "Title");
+        try
+        {
+            mp3File.isID3v2TagWrittenInPlace();
+            fail("Expected IOException");
+        }
+        catch (IOException ioe)
+        {
+            //expected
+        }
+    }
+}
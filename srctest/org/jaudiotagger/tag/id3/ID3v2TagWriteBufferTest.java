@@ -0,0 +1,150 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.utils.ExposedByteArrayOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Test frames written directly into the tag buffer
+ */
+public class ID3v2TagWriteBufferTest extends AbstractTestCase
+{
+    private static Artwork createArtwork(int size)
+    {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(data);
+        artwork.setMimeType("image/png");
+        artwork.setDescription("cover");
+        artwork.setPictureType(3);
+        return artwork;
+    }
+
+    private static AbstractID3v2Tag createTag(AbstractID3v2Tag tag, Artwork artwork) throws Exception
+    {
+        tag.setField(FieldKey.TITLE, "Title");
+        tag.setField(FieldKey.ARTIST, "Artist");
+        tag.setField(FieldKey.COMMENT, "Comment");
+        tag.setField(artwork);
+        return tag;
+    }
+
+    private static byte[] writeTag(AbstractID3v2Tag tag, int currentTagSize) throws Exception
+    {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        tag.write(Channels.newChannel(baos), currentTagSize);
+        return baos.toByteArray();
+    }
+
+    private static AbstractID3v2Tag readTag(AbstractID3v2Tag tag, byte[] data) throws Exception
+    {
+        if (tag instanceof ID3v24Tag)
+        {
+            return new ID3v24Tag(ByteBuffer.wrap(data), "");
+        }
+        else if (tag instanceof ID3v23Tag)
+        {
+            return new ID3v23Tag(ByteBuffer.wrap(data), "");
+        }
+        return new ID3v22Tag(ByteBuffer.wrap(data), "");
+    }
+
+    /**
+     * A frame written into the tag buffer after other frames is the same as when written to a stream of its own
+     */
+    public void testFrameWrittenIntoTagBuffer() throws Exception
+    {
+        Artwork artwork = createArtwork(10000);
+        for (AbstractID3v2Tag tag : new AbstractID3v2Tag[]{new ID3v22Tag(), new ID3v23Tag(), new ID3v24Tag()})
+        {
+            createTag(tag, artwork);
+            ExposedByteArrayOutputStream tagBuffer = new ExposedByteArrayOutputStream();
+            tagBuffer.write(new byte[]{1, 2, 3});
+            Iterator<TagField> frames = tag.getFields();
+            while (frames.hasNext())
+            {
+                AbstractID3v2Frame frame = (AbstractID3v2Frame) frames.next();
+                ByteArrayOutputStream frameStream = new ByteArrayOutputStream();
+                frame.write(frameStream);
+                byte[] expected = frameStream.toByteArray();
+
+                int offset = tagBuffer.size();
+                frame.write(tagBuffer);
+                assertEquals(expected.length, tagBuffer.size() - offset);
+                assertTrue(frame.getIdentifier(), Arrays.equals(expected, Arrays.copyOfRange(tagBuffer.getBuffer(), offset, tagBuffer.size())));
+            }
+        }
+    }
+
+    public void testWriteAndRead() throws Exception
+    {
+        Artwork artwork = createArtwork(100000);
+        for (AbstractID3v2Tag tag : new AbstractID3v2Tag[]{new ID3v22Tag(), new ID3v23Tag(), new ID3v24Tag()})
+        {
+            createTag(tag, artwork);
+            AbstractID3v2Tag readTag = readTag(tag, writeTag(tag, 0));
+            assertEquals("Title", readTag.getFirst(FieldKey.TITLE));
+            assertEquals("Comment", readTag.getFirst(FieldKey.COMMENT));
+            assertTrue(Arrays.equals(artwork.getBinaryData(), readTag.getFirstArtwork().getBinaryData()));
+        }
+    }
+
+    /**
+     * Artwork containing false syncs is unsynchronized when the option is enabled, after the frame has been written
+     */
+    public void testWriteUnsynchronized() throws Exception
+    {
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        Artwork artwork = createArtwork(100000);
+        assertTrue(ID3Unsynchronization.requiresUnsynchronization(artwork.getBinaryData()));
+        for (AbstractID3v2Tag tag : new AbstractID3v2Tag[]{new ID3v22Tag(), new ID3v23Tag(), new ID3v24Tag()})
+        {
+            createTag(tag, artwork);
+            byte[] data = writeTag(tag, 0);
+            if (tag instanceof ID3v24Tag)
+            {
+                assertTrue(((ID3v24Frame.EncodingFlags) ((ID3v24Frame) tag.getFirstField(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE)).getEncodingFlags()).isUnsynchronised());
+            }
+            else if (tag instanceof ID3v23Tag)
+            {
+                assertTrue(((ID3v23Tag) tag).isUnsynchronization());
+            }
+            else
+            {
+                assertTrue(((ID3v22Tag) tag).isUnsynchronization());
+            }
+            AbstractID3v2Tag readTag = readTag(tag, data);
+            assertEquals("Title", readTag.getFirst(FieldKey.TITLE));
+            assertTrue(Arrays.equals(artwork.getBinaryData(), readTag.getFirstArtwork().getBinaryData()));
+        }
+    }
+
+    /**
+     * Padding larger than the shared zero buffer is written in several parts
+     */
+    public void testWriteLargePadding() throws Exception
+    {
+        AbstractID3v2Tag tag = createTag(new ID3v24Tag(), createArtwork(1000));
+        byte[] data = writeTag(tag, 100000);
+        assertEquals(100000, data.length);
+        assertEquals(100000 - AbstractID3v2Tag.TAG_HEADER_LENGTH, ID3SyncSafeInteger.bufferToValue(ByteBuffer.wrap(data, 6, 4)));
+        int bodySize = writeTag(tag, 0).length;
+        for (int i = bodySize; i < data.length; i++)
+        {
+            assertEquals(0, data[i]);
+        }
+        assertEquals("Title", readTag(tag, data).getFirst(FieldKey.TITLE));
+    }
+}
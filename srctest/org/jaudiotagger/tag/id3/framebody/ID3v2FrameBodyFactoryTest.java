@@ -0,0 +1,98 @@
+package org.jaudiotagger.tag.id3.framebody;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.id3.ID3v24Frames;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Test the factory covers every frame body
+ */
+public class ID3v2FrameBodyFactoryTest extends AbstractTestCase
+{
+    private static final String FRAME_BODY_PACKAGE = "org.jaudiotagger.tag.id3.framebody.";
+
+    /**
+     * Every frame body class in the package should be created by the factory
+     */
+    public void testFactoryCoversAllFrameBodies() throws Exception
+    {
+        File dir = new File("src/org/jaudiotagger/tag/id3/framebody");
+        if (!dir.isDirectory())
+        {
+            System.err.println("Unable to test file - not available");
+            return;
+        }
+
+        int count = 0;
+        for (File file : dir.listFiles())
+        {
+            String name = file.getName();
+            if (!name.startsWith("FrameBody") || !name.endsWith(".java"))
+            {
+                continue;
+            }
+            String identifier = name.substring("FrameBody".length(), name.length() - ".java".length());
+            Class<?> c = Class.forName(FRAME_BODY_PACKAGE + "FrameBody" + identifier);
+            if (Modifier.isAbstract(c.getModifiers()) || identifier.equals("Unsupported") || identifier.equals("Deprecated") || identifier.equals("Encrypted"))
+            {
+                continue;
+            }
+
+            AbstractID3v2FrameBody body = ID3v2FrameBodyFactory.createFrameBody(identifier);
+            assertNotNull(identifier, body);
+            assertEquals(c, body.getClass());
+            count++;
+
+            try
+            {
+                c.getConstructor(ByteBuffer.class, Integer.TYPE);
+                AbstractID3v2FrameBody readBody = null;
+                try
+                {
+                    readBody = ID3v2FrameBodyFactory.createFrameBody(identifier, ByteBuffer.allocate(0), 0);
+                }
+                catch (Exception e)
+                {
+                    //Constructor was called but cannot read empty data, so identifier was mapped
+                    continue;
+                }
+                assertNotNull(identifier, readBody);
+                assertEquals(c, readBody.getClass());
+            }
+            catch (NoSuchMethodException nsme)
+            {
+                //Cannot be read from file so should not be mapped
+                assertNull(identifier, ID3v2FrameBodyFactory.createFrameBody(identifier, ByteBuffer.allocate(0), 0));
+            }
+        }
+        assertTrue(count > 100);
+    }
+
+    public void testUnknownIdentifier() throws Exception
+    {
+        assertNull(ID3v2FrameBodyFactory.createFrameBody("XXXX"));
+        assertNull(ID3v2FrameBodyFactory.createFrameBody("XXXX", createTitleBuffer(), 6));
+    }
+
+    public void testReadBody() throws Exception
+    {
+        ByteBuffer buffer = createTitleBuffer();
+        AbstractID3v2FrameBody body = ID3v2FrameBodyFactory.createFrameBody(ID3v24Frames.FRAME_ID_TITLE, buffer, buffer.limit());
+        assertTrue(body instanceof FrameBodyTIT2);
+        assertEquals("title", ((FrameBodyTIT2) body).getText());
+    }
+
+    private ByteBuffer createTitleBuffer()
+    {
+        byte[] text = "title".getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.allocate(text.length + 1);
+        buffer.put((byte) 0);
+        buffer.put(text);
+        buffer.flip();
+        return buffer;
+    }
+}
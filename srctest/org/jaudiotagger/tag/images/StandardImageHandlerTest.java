@@ -0,0 +1,101 @@
+package org.jaudiotagger.tag.images;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.tag.Tag;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Test resizing artwork
+ */
+public class StandardImageHandlerTest extends AbstractTestCase
+{
+    private static final int MAX_SIZE = 20000;
+
+    public void testReduceQuality() throws Exception
+    {
+        Artwork artwork = ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart_large.jpg"));
+        int originalWidth = ((BufferedImage) artwork.getImage()).getWidth();
+        assertTrue(artwork.getBinaryData().length > MAX_SIZE);
+
+        StandardImageHandler.getInstanceOf().reduceQuality(artwork, MAX_SIZE);
+        assertTrue(artwork.getBinaryData().length <= MAX_SIZE);
+        BufferedImage image = (BufferedImage) artwork.getImage();
+        assertNotNull(image);
+        assertTrue(image.getWidth() < originalWidth);
+        assertEquals(image.getWidth(), image.getHeight());
+    }
+
+    public void testReduceQualityAlreadySmallEnough() throws Exception
+    {
+        Artwork artwork = ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart_small.png"));
+        byte[] data = artwork.getBinaryData();
+        StandardImageHandler.getInstanceOf().reduceQuality(artwork, MAX_SIZE);
+        assertSame(data, artwork.getBinaryData());
+    }
+
+    public void testMakeSmaller() throws Exception
+    {
+        for (String fileName : new String[]{"coverart.png", "coverart.jpg", "coverart.gif", "coverart_large.jpg"})
+        {
+            Artwork artwork = ArtworkFactory.createArtworkFromFile(new File("testdata", fileName));
+            StandardImageHandler.getInstanceOf().makeSmaller(artwork, 50);
+            BufferedImage image = (BufferedImage) artwork.getImage();
+            assertNotNull(fileName, image);
+            assertEquals(fileName, 50, image.getWidth());
+            assertEquals(fileName, 50, image.getHeight());
+        }
+    }
+
+    public void testBatchReduceQuality() throws Exception
+    {
+        List<File> files = new ArrayList<File>();
+        for (String fileName : new String[]{"test.flac", "test.m4a", "testV1.mp3"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testBatchReduceQuality" + fileName));
+            AudioFile af = AudioFileIO.read(testFile);
+            Tag tag = af.getTagOrCreateAndSetDefault();
+            tag.deleteArtworkField();
+            tag.addField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart_large.jpg")));
+            tag.addField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart_small.png")));
+            af.commit();
+            files.add(testFile);
+        }
+        File corrupt = new File("testdatatmp", "testBatchReduceQualityCorrupt.flac");
+        try (FileOutputStream fos = new FileOutputStream(corrupt))
+        {
+            fos.write(new byte[1000]);
+        }
+        files.add(corrupt);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            Map<File, Exception> failures = StandardImageHandler.getInstanceOf().reduceQuality(files, MAX_SIZE, executor);
+            assertEquals(1, failures.size());
+            assertTrue(failures.get(corrupt) instanceof CannotReadException);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        for (File file : files.subList(0, 3))
+        {
+            List<Artwork> artworkList = AudioFileIO.read(file).getTag().getArtworkList();
+            assertEquals(file.getName(), 2, artworkList.size());
+            assertTrue(file.getName(), artworkList.get(0).getBinaryData().length <= MAX_SIZE);
+            assertEquals(file.getName(), 1264, artworkList.get(1).getBinaryData().length);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package org.jaudiotagger.tag.mp4;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp4.Mp4AtomIdentifier;
+import org.jaudiotagger.audio.mp4.Mp4AtomTree;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.audio.mp4.atom.Mp4StcoBox;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test writing to files that use co64 atoms for their chunk offsets, as used by files larger than 4GB
+ */
+public class M4aWriteCo64TagTest extends AbstractTestCase
+{
+    /**
+     * Copy the test file replacing each stco atom with the equivalent co64 atom
+     *
+     * @param name
+     * @param newName
+     * @return the file
+     * @throws Exception
+     */
+    private static File copyAudioToTmpWithCo64(String name, String newName) throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp(name, new File(newName));
+        byte[] data = Files.readAllBytes(file.toPath());
+        Mp4AtomTree atomTree;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            atomTree = new Mp4AtomTree(raf, false);
+        }
+        List<DefaultMutableTreeNode> stcoNodes = atomTree.getStcoNodes();
+        List<Mp4StcoBox> stcos = atomTree.getStcos();
+
+        //If mdat comes after moov it is moved by the growth of moov
+        int growth = 0;
+        for (Mp4StcoBox stco : stcos)
+        {
+            growth += stco.getNoOfOffSets() * (Mp4StcoBox.CO64_OFFSET_LENGTH - Mp4StcoBox.OFFSET_LENGTH);
+        }
+        boolean mdatAfterMoov = atomTree.getBoxHeader(atomTree.getMdatNode()).getFilePos() > atomTree.getMoovHeader().getFilePos();
+        int shift = mdatAfterMoov ? growth : 0;
+
+        //Last first so positions of earlier atoms are not changed
+        for (int i = stcoNodes.size() - 1; i >= 0; i--)
+        {
+            Mp4BoxHeader stcoHeader = atomTree.getBoxHeader(stcoNodes.get(i));
+            ByteBuffer stco = ByteBuffer.wrap(data, (int) stcoHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH, stcoHeader.getDataLength());
+            int flags = stco.getInt();
+            int noOfOffsets = stco.getInt();
+            ByteBuffer co64 = ByteBuffer.allocate(Mp4BoxHeader.HEADER_LENGTH + 8 + noOfOffsets * Mp4StcoBox.CO64_OFFSET_LENGTH);
+            co64.putInt(co64.capacity());
+            co64.put(Mp4AtomIdentifier.CO64.getFieldName().getBytes("ISO-8859-1"));
+            co64.putInt(flags);
+            co64.putInt(noOfOffsets);
+            for (int j = 0; j < noOfOffsets; j++)
+            {
+                co64.putLong((stco.getInt() & 0xffffffffL) + shift);
+            }
+
+            int start = (int) stcoHeader.getFilePos();
+            byte[] newData = new byte[data.length + co64.capacity() - stcoHeader.getLength()];
+            System.arraycopy(data, 0, newData, 0, start);
+            System.arraycopy(co64.array(), 0, newData, start, co64.capacity());
+            System.arraycopy(data, start + stcoHeader.getLength(), newData, start + co64.capacity(), data.length - start - stcoHeader.getLength());
+
+            //Grow all the atoms containing it
+            for (DefaultMutableTreeNode node = (DefaultMutableTreeNode) stcoNodes.get(i).getParent(); node.getUserObject() != null; node = (DefaultMutableTreeNode) node.getParent())
+            {
+                ByteBuffer length = ByteBuffer.wrap(newData, (int) atomTree.getBoxHeader(node).getFilePos(), 4);
+                length.putInt(length.getInt(length.position()) + co64.capacity() - stcoHeader.getLength());
+            }
+            data = newData;
+        }
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    private static List<Mp4StcoBox> readStcos(File file) throws Exception
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            return new Mp4AtomTree(raf, false).getStcos();
+        }
+    }
+
+    private static byte[] readAudioAtFirstOffset(File file) throws Exception
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            byte[] audio = new byte[1000];
+            raf.seek(new Mp4AtomTree(raf, false).getStcos().get(0).getFirstOffSetAsLong());
+            raf.readFully(audio);
+            return audio;
+        }
+    }
+
+    public void testReadCo64() throws Exception
+    {
+        File orig = new File("testdata", "test.m4a");
+        File testFile = copyAudioToTmpWithCo64("test.m4a", "testReadCo64.m4a");
+        List<Mp4StcoBox> stcos = readStcos(testFile);
+        assertEquals(1, stcos.size());
+        assertTrue(stcos.get(0).isCo64());
+        assertTrue(Arrays.equals(readAudioAtFirstOffset(orig), readAudioAtFirstOffset(testFile)));
+
+        AudioFile original = AudioFileIO.read(orig);
+        AudioFile af = AudioFileIO.read(testFile);
+        assertEquals(original.getAudioHeader().getTrackLength(), af.getAudioHeader().getTrackLength());
+        assertEquals(stcos.get(0).getFirstOffSetAsLong(), (long) af.getAudioHeader().getAudioDataStartPosition());
+        assertEquals(original.getTag().getFirst(FieldKey.TITLE), af.getTag().getFirst(FieldKey.TITLE));
+    }
+
+    /**
+     * New metadata fits within the free atoms so the audio data is not moved
+     */
+    public void testWriteCo64UsingFreeAtom() throws Exception
+    {
+        File testFile = copyAudioToTmpWithCo64("test.m4a", "testWriteCo64UsingFreeAtom.m4a");
+        long length = testFile.length();
+        long firstOffset = readStcos(testFile).get(0).getFirstOffSetAsLong();
+        byte[] audio = readAudioAtFirstOffset(testFile);
+
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.TITLE, "A title that is longer than the original title");
+        af.commit();
+
+        assertEquals(length, testFile.length());
+        List<Mp4StcoBox> stcos = readStcos(testFile);
+        assertTrue(stcos.get(0).isCo64());
+        assertEquals(firstOffset, stcos.get(0).getFirstOffSetAsLong());
+        assertTrue(Arrays.equals(audio, readAudioAtFirstOffset(testFile)));
+        af = AudioFileIO.read(testFile);
+        assertEquals("A title that is longer than the original title", af.getTag().getFirst(FieldKey.TITLE));
+    }
+
+    /**
+     * New metadata is too large for the free atoms so the audio data is moved and the co64 offsets shifted
+     */
+    public void testWriteCo64MovingAudio() throws Exception
+    {
+        File testFile = copyAudioToTmpWithCo64("test.m4a", "testWriteCo64MovingAudio.m4a");
+        long length = testFile.length();
+        long firstOffset = readStcos(testFile).get(0).getFirstOffSetAsLong();
+        byte[] audio = readAudioAtFirstOffset(testFile);
+
+        char[] title = new char[10000];
+        Arrays.fill(title, 't');
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.TITLE, new String(title));
+        af.commit();
+
+        assertTrue(testFile.length() > length);
+        List<Mp4StcoBox> stcos = readStcos(testFile);
+        assertTrue(stcos.get(0).isCo64());
+        assertEquals(firstOffset + testFile.length() - length, stcos.get(0).getFirstOffSetAsLong());
+        assertTrue(Arrays.equals(audio, readAudioAtFirstOffset(testFile)));
+        af = AudioFileIO.read(testFile);
+        assertEquals(new String(title), af.getTag().getFirst(FieldKey.TITLE));
+
+        //And back to a smaller size
+        af.getTag().setField(FieldKey.TITLE, "Short");
+        af.commit();
+        assertTrue(Arrays.equals(audio, readAudioAtFirstOffset(testFile)));
+        af = AudioFileIO.read(testFile);
+        assertEquals("Short", af.getTag().getFirst(FieldKey.TITLE));
+    }
+
+    public void testOffsetsBeyond4GB() throws Exception
+    {
+        ByteBuffer data = ByteBuffer.allocate(16);
+        data.putInt(0).putInt(1).putInt(0xfffff000);
+        data.rewind();
+        Mp4StcoBox stco = new Mp4StcoBox(new Mp4BoxHeader(Mp4AtomIdentifier.STCO.getFieldName()), data);
+        assertEquals(0xfffff000L, stco.getFirstOffSetAsLong());
+        assertTrue(stco.canAdjustOffsets(0x800));
+        assertFalse(stco.canAdjustOffsets(0x1000));
+
+        data = ByteBuffer.allocate(16);
+        data.putInt(0).putInt(1).putLong(0x100000000L);
+        data.rewind();
+        Mp4StcoBox co64 = new Mp4StcoBox(new Mp4BoxHeader(Mp4AtomIdentifier.CO64.getFieldName()), data);
+        assertTrue(co64.isCo64());
+        assertEquals(0x100000000L, co64.getFirstOffSetAsLong());
+        assertTrue(co64.canAdjustOffsets(0x1000));
+        co64.adjustOffsets(0x1000);
+        assertEquals(0x100001000L, data.getLong(8));
+    }
+}
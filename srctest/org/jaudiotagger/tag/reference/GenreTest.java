@@ -1,6 +1,17 @@
 package org.jaudiotagger.tag.reference;
 
 import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyTCON;
+import org.jaudiotagger.tag.id3.valuepair.V2GenreTypes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Testing of Genres
@@ -31,4 +42,124 @@ public class GenreTest extends AbstractTestCase
             assertNotNull(GenreTypes.getInstanceOf().getIdForName(value.toLowerCase()));
         }
     }
+
+    public void testMixedCaseGenreMatch()
+    {
+        assertEquals(17, (int) GenreTypes.getInstanceOf().getIdForName("ROCK"));
+        assertEquals(17, (int) GenreTypes.getInstanceOf().getIdForName("rOcK"));
+        assertEquals(189, (int) GenreTypes.getInstanceOf().getIdForName("DUBSTEP"));
+        assertNull(GenreTypes.getInstanceOf().getIdForName("roc"));
+        assertNull(GenreTypes.getInstanceOf().getIdForName(""));
+        for (Map.Entry<Integer, String> entry : GenreTypes.getInstanceOf().getIdToValueMap().entrySet())
+        {
+            assertEquals(entry.getKey(), GenreTypes.getInstanceOf().getIdForName(entry.getValue().toUpperCase(Locale.ENGLISH)));
+        }
+    }
+
+    /**
+     * Reference data is shared so cannot be modified by callers
+     */
+    public void testGenreListsReadOnly()
+    {
+        int size = GenreTypes.getInstanceOf().getAlphabeticalValueList().size();
+        try
+        {
+            GenreTypes.getInstanceOf().getAlphabeticalValueList().add("Not a genre");
+            fail("Expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe)
+        {
+            //expected
+        }
+        try
+        {
+            GenreTypes.getInstanceOf().getIdToValueMap().put(500, "Not a genre");
+            fail("Expected UnsupportedOperationException");
+        }
+        catch (UnsupportedOperationException uoe)
+        {
+            //expected
+        }
+
+        //V2 list adds the extended genres to its own copy
+        assertEquals(size + 2, V2GenreTypes.getInstanceOf().getAlphabeticalValueList().size());
+        assertEquals(size + 2, V2GenreTypes.getInstanceOf().getAlphabeticalValueList().size());
+        assertEquals(size, GenreTypes.getInstanceOf().getAlphabeticalValueList().size());
+    }
+
+    /**
+     * Genre conversions and lookups done by many threads at once give the same results as done by a single thread
+     */
+    public void testConcurrentGenreConversion() throws Exception
+    {
+        final List<String> names = new ArrayList<String>();
+        for (String name : GenreTypes.getInstanceOf().getIdToValueMap().values())
+        {
+            names.add(name);
+            names.add(name.toLowerCase());
+            names.add(name.toUpperCase());
+        }
+        names.add("Not a genre");
+
+        final List<String> expected = new ArrayList<String>();
+        for (String name : names)
+        {
+            expected.add(FrameBodyTCON.convertID3v23GenreToGeneric(FrameBodyTCON.convertGenericToID3v23Genre(name)));
+        }
+
+        final int threads = 8;
+        final int iterations = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try
+        {
+            Callable<Boolean> conversion = new Callable<Boolean>()
+            {
+                public Boolean call()
+                {
+                    boolean same = true;
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        for (int j = 0; j < names.size(); j++)
+                        {
+                            String converted = FrameBodyTCON.convertID3v23GenreToGeneric(FrameBodyTCON.convertGenericToID3v23Genre(names.get(j)));
+                            same &= converted.equals(expected.get(j));
+                        }
+                    }
+                    return same;
+                }
+            };
+            Callable<Boolean> lookup = new Callable<Boolean>()
+            {
+                public Boolean call()
+                {
+                    int found = 0;
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        for (String name : names)
+                        {
+                            if (GenreTypes.getInstanceOf().getIdForName(name) != null)
+                            {
+                                found++;
+                            }
+                        }
+                    }
+                    return found == iterations * (names.size() - 1);
+                }
+            };
+
+            List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+            for (int i = 0; i < threads; i++)
+            {
+                tasks.add(i % 2 == 0 ? conversion : lookup);
+            }
+            for (Future<Boolean> result : executor.invokeAll(tasks))
+            {
+                assertTrue(result.get());
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
 }
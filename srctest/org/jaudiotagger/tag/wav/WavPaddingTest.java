@@ -0,0 +1,160 @@
+package org.jaudiotagger.tag.wav;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.wav.WavSaveOptions;
+import org.jaudiotagger.audio.wav.WavSaveOrder;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test reserving JUNK padding after Wav metadata and rewriting metadata in place
+ */
+public class WavPaddingTest extends AbstractTestCase
+{
+    /**
+     * @param file
+     * @return ids of the chunks in the RIFF file in order
+     * @throws Exception
+     */
+    private static List<String> readChunkIds(File file) throws Exception
+    {
+        List<String> ids = new ArrayList<String>();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            long position = 12;
+            byte[] header = new byte[8];
+            while (position + 8 <= raf.length())
+            {
+                raf.seek(position);
+                raf.readFully(header);
+                ids.add(new String(header, 0, 4, StandardCharsets.US_ASCII));
+                long size = ByteBuffer.wrap(header, 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xffffffffL;
+                position += 8 + size + (size & 1);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Add a chunk at the end of the file that is not metadata or padding
+     *
+     * @param file
+     * @throws Exception
+     */
+    private static void appendOtherChunk(File file) throws Exception
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            FileChannel fc = raf.getChannel();
+            ByteBuffer chunk = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            chunk.put("abcd".getBytes(StandardCharsets.US_ASCII)).putInt(8).putLong(0x0102030405060708L);
+            chunk.flip();
+            fc.write(chunk, fc.size());
+
+            ByteBuffer riffSize = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            riffSize.putInt((int) fc.size() - 8);
+            riffSize.flip();
+            fc.write(riffSize, 4);
+        }
+    }
+
+    public void testRepeatedEditsKeepFileSize() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWavSaveOptions(WavSaveOptions.SAVE_BOTH);
+        TagOptionSingleton.getInstance().setWavSaveOrder(WavSaveOrder.INFO_THEN_ID3);
+        TagOptionSingleton.getInstance().setWavPaddingSize(2000);
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testWavPaddingRepeatedEdits.wav"));
+
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "Title");
+        f.commit();
+        List<String> chunkIds = readChunkIds(testFile);
+        assertEquals(Arrays.asList("LIST", "id3 ", "JUNK"), chunkIds.subList(chunkIds.size() - 3, chunkIds.size()));
+        long paddedLength = testFile.length();
+
+        //Larger and smaller edits are absorbed by the padding
+        for (String title : new String[]{"A much longer title than before, taking up more space", "Short"})
+        {
+            f = AudioFileIO.read(testFile);
+            f.getTag().setField(FieldKey.TITLE, title);
+            f.getTag().setField(FieldKey.ARTIST, title);
+            f.commit();
+            assertEquals(paddedLength, testFile.length());
+            assertEquals(chunkIds, readChunkIds(testFile));
+
+            f = AudioFileIO.read(testFile);
+            assertEquals(title, f.getTag().getFirst(FieldKey.TITLE));
+            assertEquals(title, f.getTag().getFirst(FieldKey.ARTIST));
+        }
+    }
+
+    public void testExistingPaddingReusedWithoutOption() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWavSaveOptions(WavSaveOptions.SAVE_BOTH);
+        TagOptionSingleton.getInstance().setWavSaveOrder(WavSaveOrder.INFO_THEN_ID3);
+        TagOptionSingleton.getInstance().setWavPaddingSize(1000);
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testWavPaddingReused.wav"));
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "Title");
+        f.commit();
+        long paddedLength = testFile.length();
+
+        TagOptionSingleton.getInstance().setWavPaddingSize(0);
+        f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.ALBUM, "Album");
+        f.commit();
+        assertEquals(paddedLength, testFile.length());
+        assertEquals("JUNK", readChunkIds(testFile).get(readChunkIds(testFile).size() - 1));
+
+        //Deleting removes padding with the metadata
+        f = AudioFileIO.read(testFile);
+        AudioFileIO.delete(f);
+        assertFalse(readChunkIds(testFile).contains("JUNK"));
+    }
+
+    public void testMetadataNotAtEndWrittenInPlace() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWavSaveOptions(WavSaveOptions.SAVE_BOTH);
+        TagOptionSingleton.getInstance().setWavSaveOrder(WavSaveOrder.INFO_THEN_ID3);
+        TagOptionSingleton.getInstance().setWavPaddingSize(1000);
+        File testFile = AbstractTestCase.copyAudioToTmp("test.wav", new File("testWavPaddingNotAtEnd.wav"));
+        AudioFile f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "Title");
+        f.commit();
+        appendOtherChunk(testFile);
+        List<String> chunkIds = readChunkIds(testFile);
+        assertEquals(Arrays.asList("LIST", "id3 ", "JUNK", "abcd"), chunkIds.subList(chunkIds.size() - 4, chunkIds.size()));
+        long length = testFile.length();
+
+        f = AudioFileIO.read(testFile);
+        f.getTag().setField(FieldKey.TITLE, "A longer title that still fits in the padding");
+        f.commit();
+        assertEquals(length, testFile.length());
+        assertEquals(chunkIds, readChunkIds(testFile));
+        f = AudioFileIO.read(testFile);
+        assertEquals("A longer title that still fits in the padding", f.getTag().getFirst(FieldKey.TITLE));
+
+        //Does not fit so metadata is moved to the end
+        char[] longValue = new char[3000];
+        Arrays.fill(longValue, 'x');
+        f.getTag().setField(FieldKey.COMMENT, new String(longValue));
+        f.commit();
+        chunkIds = readChunkIds(testFile);
+        assertEquals(Arrays.asList("abcd", "LIST", "id3 ", "JUNK"), chunkIds.subList(chunkIds.size() - 4, chunkIds.size()));
+        f = AudioFileIO.read(testFile);
+        assertEquals(new String(longValue), f.getTag().getFirst(FieldKey.COMMENT));
+        assertEquals("A longer title that still fits in the padding", f.getTag().getFirst(FieldKey.TITLE));
+    }
+}
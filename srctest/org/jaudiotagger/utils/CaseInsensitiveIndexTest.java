@@ -0,0 +1,57 @@
+package org.jaudiotagger.utils;
+
+import junit.framework.TestCase;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Test perfectly hashed case insensitive lookup
+ */
+public class CaseInsensitiveIndexTest extends TestCase
+{
+    public void testGetIgnoresCase() throws Exception
+    {
+        Map<String, Integer> map = new LinkedHashMap<String, Integer>();
+        for (int i = 0; i < 1000; i++)
+        {
+            map.put("Name " + i, i);
+        }
+        map.put("Élève", 1000);
+        CaseInsensitiveIndex<Integer> index = new CaseInsensitiveIndex<Integer>(map);
+        assertEquals(1001, index.size());
+        assertTrue(index.getSlotCount() <= 4096);
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(i, (int) index.get("Name " + i));
+            assertEquals(i, (int) index.get("NAME " + i));
+            assertEquals(i, (int) index.get("name " + i));
+        }
+        assertEquals(1000, (int) index.get("éLÈVE"));
+        assertNull(index.get("Name 1000"));
+        assertNull(index.get("Name"));
+        assertNull(index.get(""));
+        assertNull(index.get(null));
+    }
+
+    public void testNamesDifferingByCaseMerged() throws Exception
+    {
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        map.put("Rock", "first");
+        map.put("ROCK", "last");
+        map.put("Pop", "pop");
+        CaseInsensitiveIndex<String> index = new CaseInsensitiveIndex<String>(map);
+        assertEquals(2, index.size());
+        assertEquals("last", index.get("rock"));
+        assertEquals("pop", index.get("pOP"));
+    }
+
+    public void testEmpty() throws Exception
+    {
+        CaseInsensitiveIndex<String> index = new CaseInsensitiveIndex<String>(Collections.<String, String>emptyMap());
+        assertEquals(0, index.size());
+        assertNull(index.get("anything"));
+        assertNull(index.get(""));
+    }
+}
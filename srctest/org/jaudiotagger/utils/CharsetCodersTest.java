@@ -0,0 +1,79 @@
+package org.jaudiotagger.utils;
+
+import junit.framework.TestCase;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Test per thread charset decoder and encoder cache
+ */
+public class CharsetCodersTest extends TestCase
+{
+    public void testCodersReusedAndReset() throws Exception
+    {
+        CharsetEncoder encoder = CharsetCoders.getEncoder(StandardCharsets.ISO_8859_1);
+        encoder.onUnmappableCharacter(CodingErrorAction.IGNORE);
+        assertSame(encoder, CharsetCoders.getEncoder(StandardCharsets.ISO_8859_1));
+        assertEquals(CodingErrorAction.REPORT, encoder.unmappableCharacterAction());
+        assertNotSame(encoder, CharsetCoders.getEncoder(StandardCharsets.UTF_8));
+
+        CharsetDecoder decoder = CharsetCoders.getDecoder(StandardCharsets.UTF_16);
+        decoder.decode(ByteBuffer.wrap(new byte[]{(byte) 0xff, (byte) 0xfe, 'a', 0}));
+        decoder = CharsetCoders.getDecoder(StandardCharsets.UTF_16);
+        //Byte order from previous BOM is not remembered
+        assertEquals("a", decoder.decode(ByteBuffer.wrap(new byte[]{(byte) 0xfe, (byte) 0xff, 0, 'a'})).toString());
+    }
+
+    public void testDecodersNotSharedBetweenThreads() throws Exception
+    {
+        final CharsetDecoder[] other = new CharsetDecoder[1];
+        Thread thread = new Thread()
+        {
+            public void run()
+            {
+                other[0] = CharsetCoders.getDecoder(StandardCharsets.UTF_8);
+            }
+        };
+        thread.start();
+        thread.join();
+        assertNotNull(other[0]);
+        assertNotSame(other[0], CharsetCoders.getDecoder(StandardCharsets.UTF_8));
+    }
+
+    public void testDecodeSingleByte() throws Exception
+    {
+        byte[] data = new byte[1000];
+        new Random(1).nextBytes(data);
+        assertEquals(StandardCharsets.ISO_8859_1.newDecoder().decode(ByteBuffer.wrap(data, 10, 900)).toString(),
+                CharsetCoders.decodeSingleByte(StandardCharsets.ISO_8859_1, data, 10, 900));
+
+        //Not ascii so has to be decoded
+        assertNull(CharsetCoders.decodeSingleByte(StandardCharsets.UTF_8, data, 10, 900));
+        assertNull(CharsetCoders.decodeSingleByte(StandardCharsets.UTF_16, "abc".getBytes(StandardCharsets.UTF_16), 0, 8));
+
+        byte[] ascii = "xxAscii Title".getBytes(StandardCharsets.US_ASCII);
+        assertEquals("Ascii Title", CharsetCoders.decodeSingleByte(StandardCharsets.UTF_8, ascii, 2, ascii.length - 2));
+    }
+
+    public void testGetCharBuffer() throws Exception
+    {
+        CharBuffer buffer = CharsetCoders.getCharBuffer(10);
+        assertEquals(0, buffer.position());
+        assertEquals(10, buffer.limit());
+        buffer.put("abc");
+        assertSame(buffer, CharsetCoders.getCharBuffer(20));
+        assertEquals(0, buffer.position());
+        assertEquals(20, buffer.remaining());
+
+        CharBuffer larger = CharsetCoders.getCharBuffer(1000);
+        assertTrue(larger.capacity() >= 1000);
+        assertSame(larger, CharsetCoders.getCharBuffer(5));
+        assertNotSame(larger, CharsetCoders.getCharBuffer(100000));
+    }
+}
@@ -0,0 +1,230 @@
+package org.jaudiotagger.utils;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test reusing direct buffers from the pool
+ */
+public class DirectByteBufferPoolTest extends AbstractTestCase
+{
+    /**
+     * Run in a new thread so the thread starts with no free buffers
+     */
+    private static void runInNewThread(final Runnable runnable) throws Throwable
+    {
+        final Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread()
+        {
+            public void run()
+            {
+                try
+                {
+                    runnable.run();
+                }
+                catch (Throwable t)
+                {
+                    failure[0] = t;
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        if (failure[0] != null)
+        {
+            throw failure[0];
+        }
+    }
+
+    public void testAcquire()
+    {
+        ByteBuffer buffer = DirectByteBufferPool.acquire(100);
+        assertTrue(buffer.isDirect());
+        assertEquals(100, buffer.capacity());
+        assertEquals(0, buffer.position());
+        assertEquals(100, buffer.limit());
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        DirectByteBufferPool.release(buffer);
+        DirectByteBufferPool.release(null);
+
+        try
+        {
+            DirectByteBufferPool.acquire(-1);
+            fail();
+        }
+        catch (IllegalArgumentException iae)
+        {
+            //expected
+        }
+    }
+
+    public void testReuse() throws Throwable
+    {
+        runInNewThread(new Runnable()
+        {
+            public void run()
+            {
+                ByteBuffer buffer = DirectByteBufferPool.acquire(5000);
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                buffer.putInt(1);
+                DirectByteBufferPool.release(buffer);
+
+                //Same size class
+                DirectByteBufferPool.Metrics before = DirectByteBufferPool.getMetrics();
+                buffer = DirectByteBufferPool.acquire(8192);
+                DirectByteBufferPool.Metrics after = DirectByteBufferPool.getMetrics();
+                assertEquals(before.getHits() + 1, after.getHits());
+                assertEquals(before.getAllocations(), after.getAllocations());
+                assertEquals(8192, buffer.capacity());
+                assertEquals(0, buffer.position());
+                assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                DirectByteBufferPool.release(buffer);
+
+                //Buffer given out is the pooled buffer itself
+                buffer = DirectByteBufferPool.acquire(8192);
+                assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+                DirectByteBufferPool.release(buffer);
+
+                //Different size class
+                before = DirectByteBufferPool.getMetrics();
+                buffer = DirectByteBufferPool.acquire(8193);
+                after = DirectByteBufferPool.getMetrics();
+                assertEquals(before.getAllocations() + 1, after.getAllocations());
+                assertEquals(before.getAllocatedBytes() + 16384, after.getAllocatedBytes());
+                DirectByteBufferPool.release(buffer);
+            }
+        });
+    }
+
+    public void testFreeBuffersPerSizeClassLimited() throws Throwable
+    {
+        runInNewThread(new Runnable()
+        {
+            public void run()
+            {
+                List<ByteBuffer> buffers = new ArrayList<ByteBuffer>();
+                for (int i = 0; i <= DirectByteBufferPool.BUFFERS_PER_SIZE_CLASS; i++)
+                {
+                    buffers.add(DirectByteBufferPool.acquire(1000));
+                }
+                DirectByteBufferPool.Metrics before = DirectByteBufferPool.getMetrics();
+                for (ByteBuffer buffer : buffers)
+                {
+                    DirectByteBufferPool.release(buffer);
+                }
+                DirectByteBufferPool.Metrics after = DirectByteBufferPool.getMetrics();
+                assertEquals(before.getFrees() + 1, after.getFrees());
+                assertEquals(before.getReleases() + buffers.size(), after.getReleases());
+            }
+        });
+    }
+
+    public void testLargeBuffersNotPooled()
+    {
+        ByteBuffer buffer = DirectByteBufferPool.acquire(DirectByteBufferPool.MAX_POOLED_SIZE + 1);
+        assertEquals(DirectByteBufferPool.MAX_POOLED_SIZE + 1, buffer.capacity());
+        DirectByteBufferPool.Metrics before = DirectByteBufferPool.getMetrics();
+        DirectByteBufferPool.release(buffer);
+        buffer = DirectByteBufferPool.acquire(DirectByteBufferPool.MAX_POOLED_SIZE + 1);
+        DirectByteBufferPool.Metrics after = DirectByteBufferPool.getMetrics();
+        assertEquals(before.getFrees() + 1, after.getFrees());
+        assertEquals(before.getHits(), after.getHits());
+        assertEquals(before.getAllocations() + 1, after.getAllocations());
+        DirectByteBufferPool.release(buffer);
+    }
+
+    /**
+     * Buffer released by another thread is not reused by either thread
+     */
+    public void testReleasedByOtherThread() throws Throwable
+    {
+        runInNewThread(new Runnable()
+        {
+            public void run()
+            {
+                final ByteBuffer buffer = DirectByteBufferPool.acquire(300000);
+                try
+                {
+                    runInNewThread(new Runnable()
+                    {
+                        public void run()
+                        {
+                            DirectByteBufferPool.release(buffer);
+                        }
+                    });
+                }
+                catch (Throwable t)
+                {
+                    throw new RuntimeException(t);
+                }
+
+                DirectByteBufferPool.Metrics before = DirectByteBufferPool.getMetrics();
+                DirectByteBufferPool.release(DirectByteBufferPool.acquire(300000));
+                DirectByteBufferPool.Metrics after = DirectByteBufferPool.getMetrics();
+                assertEquals(before.getAllocations() + 1, after.getAllocations());
+            }
+        });
+    }
+
+    public void testLeakDetection()
+    {
+        DirectByteBufferPool.setLeakDetection(true);
+        try
+        {
+            ByteBuffer buffer = DirectByteBufferPool.acquire(100);
+            List<Throwable> leaks = DirectByteBufferPool.reportLeaks();
+            assertEquals(1, leaks.size());
+            assertEquals(getClass().getName(), leaks.get(0).getStackTrace()[1].getClassName());
+            DirectByteBufferPool.release(buffer);
+            assertEquals(0, DirectByteBufferPool.reportLeaks().size());
+
+            //Released twice is only logged, not reused
+            DirectByteBufferPool.release(buffer);
+            assertEquals(0, DirectByteBufferPool.reportLeaks().size());
+        }
+        finally
+        {
+            DirectByteBufferPool.setLeakDetection(false);
+        }
+        assertFalse(DirectByteBufferPool.isLeakDetection());
+    }
+
+    /**
+     * Reading files uses the pool, and releases all the buffers it acquires
+     */
+    public void testReadFilesReusesBuffers() throws Exception
+    {
+        DirectByteBufferPool.setLeakDetection(true);
+        try
+        {
+            String[] names = {"testV1.mp3", "test.ogg", "test119.aif", "test.flac"};
+            for (String name : names)
+            {
+                AudioFileIO.read(new File("testdata", name));
+            }
+            DirectByteBufferPool.Metrics before = DirectByteBufferPool.getMetrics();
+            for (String name : names)
+            {
+                AudioFileIO.read(new File("testdata", name));
+            }
+            DirectByteBufferPool.Metrics after = DirectByteBufferPool.getMetrics();
+            assertTrue(after.getAcquisitions() > before.getAcquisitions());
+            assertEquals(after.getAcquisitions() - before.getAcquisitions(), after.getHits() - before.getHits());
+            //Every buffer acquired reading the files again was a hit, so the overall hit rate can only go up
+            assertTrue(after.getHitRate() > 0);
+            assertTrue(after.getHitRate() >= before.getHitRate());
+            assertEquals(0, DirectByteBufferPool.reportLeaks().size());
+        }
+        finally
+        {
+            DirectByteBufferPool.setLeakDetection(false);
+        }
+    }
+}